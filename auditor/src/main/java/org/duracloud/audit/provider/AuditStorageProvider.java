@@ -194,6 +194,19 @@ public class AuditStorageProvider implements StorageProvider {
         return content;
     }
 
+    @Override
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  long endByte) {
+        InputStream content =
+            target.getContent(spaceId, contentId, startByte, endByte);
+
+        String action = AuditTask.ActionType.GET_CONTENT.name();
+        submitReadTask(action, spaceId, contentId);
+        return content;
+    }
+
     @Override
     public Map<String, String> getContentProperties(String spaceId,
                                                     String contentId) {
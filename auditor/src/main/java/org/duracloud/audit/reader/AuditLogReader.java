@@ -8,6 +8,7 @@
 package org.duracloud.audit.reader;
 
 import java.io.InputStream;
+import java.util.Date;
 
 import org.duracloud.storage.domain.AuditConfig;
 
@@ -29,6 +30,26 @@ public interface AuditLogReader {
     InputStream getAuditLog(String account, String storeId, String spaceId)
         throws AuditLogReaderException;
 
+    /**
+     * Returns the audit events which occurred between the start and end dates
+     * (inclusive) as a tsv stream, from first to last. Audit logs which fall
+     * entirely outside of the date range are not read.
+     *
+     * @param account The account identifier - ie usually the subdomain of the original request.
+     * @param storeId
+     * @param spaceId
+     * @param startDate the earliest event to include, null for no limit
+     * @param endDate the latest event to include, null for no limit
+     * @return
+     * @throws AuditLogReaderException
+     */
+    InputStream getAuditLog(String account,
+                            String storeId,
+                            String spaceId,
+                            Date startDate,
+                            Date endDate)
+        throws AuditLogReaderException;
+
     void initialize(AuditConfig auditConfig);
 
 }
@@ -0,0 +1,138 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.audit.reader.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Exposes a sequence of audit log reads as a single stream. Up to a fixed
+ * number of logs are read ahead on the executor while earlier logs are
+ * being consumed, and the logs are returned in the order they were given.
+ * A failure to read a log is reported by this stream as an IOException at
+ * the point where that log would begin.
+ */
+class AuditLogInputStream extends InputStream {
+
+    private final ExecutorService executor;
+    private final Iterator<Callable<byte[]>> logReads;
+    private final int prefetch;
+    private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+
+    private InputStream current;
+    private boolean closed = false;
+
+    /**
+     * @param executor on which logs are read
+     * @param logReads reads the content of each log, in order
+     * @param prefetch number of logs to read ahead
+     */
+    AuditLogInputStream(ExecutorService executor,
+                        List<Callable<byte[]>> logReads,
+                        int prefetch) {
+        this.executor = executor;
+        this.logReads = logReads.iterator();
+        this.prefetch = Math.max(prefetch, 1);
+        fetchAhead();
+    }
+
+    @Override
+    public int read() throws IOException {
+        while (nextLog()) {
+            int bite = current.read();
+            if (-1 != bite) {
+                return bite;
+            }
+            current = null;
+        }
+        return -1;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (0 == length) {
+            return 0;
+        }
+        while (nextLog()) {
+            int read = current.read(bytes, offset, length);
+            if (-1 != read) {
+                return read;
+            }
+            current = null;
+        }
+        return -1;
+    }
+
+    /*
+     * Only bytes of a log which has been read are available without blocking
+     */
+    @Override
+    public int available() throws IOException {
+        return null == current ? 0 : current.available();
+    }
+
+    /*
+     * Moves to the next log when the current one has been consumed, waiting
+     * for it to be read if necessary. Returns false when no logs remain.
+     */
+    private boolean nextLog() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (null != current) {
+            return true;
+        }
+
+        Future<byte[]> next = pending.poll();
+        if (null == next) {
+            return false;
+        }
+        try {
+            current = new ByteArrayInputStream(next.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted reading audit log");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw new IOException("Unable to read audit log: " +
+                                  cause.getMessage(), cause);
+        }
+        fetchAhead();
+        return true;
+    }
+
+    private void fetchAhead() {
+        while (pending.size() < prefetch && logReads.hasNext()) {
+            pending.add(executor.submit(logReads.next()));
+        }
+    }
+
+    /**
+     * Stops any log reads which are waiting or in progress.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        current = null;
+        for (Future<byte[]> log : pending) {
+            log.cancel(true);
+        }
+        pending.clear();
+    }
+
+}
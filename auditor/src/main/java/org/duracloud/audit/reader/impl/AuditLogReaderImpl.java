@@ -8,20 +8,34 @@
 package org.duracloud.audit.reader.impl;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.PipedInputStream;
-import java.io.PipedOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
-import org.apache.commons.io.IOUtils;
 import org.duracloud.audit.AuditLogUtil;
 import org.duracloud.audit.reader.AuditLogReader;
 import org.duracloud.audit.reader.AuditLogReaderException;
 import org.duracloud.audit.reader.AuditLogReaderNotEnabledException;
-import org.duracloud.error.ContentStoreException;
+import org.duracloud.common.util.DateUtil;
+import org.duracloud.s3storage.S3ProviderUtil;
 import org.duracloud.s3storage.S3StorageProvider;
 import org.duracloud.storage.domain.AuditConfig;
 import org.duracloud.storage.error.StorageException;
@@ -32,89 +46,107 @@ import org.slf4j.LoggerFactory;
 import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.DefaultAWSCredentialsProviderChain;
 import com.amazonaws.services.s3.AmazonS3Client;
-import com.amazonaws.services.s3.internal.AWSS3V4Signer;
 
 /**
- * 
- * @author Daniel Bernstein 
- *         Date: Sept. 17, 2014
- * 
+ * Reads the audit logs of a space in order, combining them into a single
+ * stream. Logs are read ahead on a thread pool shared by all requests, and
+ * when a date range is given, logs which fall outside of the range (based on
+ * the time at which each log begins, as found in its name) are not read.
  */
 public class AuditLogReaderImpl implements AuditLogReader {
     private static Logger log =
         LoggerFactory.getLogger(AuditLogReaderImpl.class);
 
+    public static final int DEFAULT_PREFETCH_THREADS = 4;
+
+    // Audit logs are named with the time of the first event they hold
+    private static final Pattern LOG_DATE_PATTERN =
+        Pattern.compile("\\d{4}-\\d{2}-\\d{2}-\\d{2}-\\d{2}-\\d{2}");
+
+    private static final int TIMESTAMP_COLUMN =
+        Arrays.asList(AuditLogUtil.AUDIT_LOG_COLUMNS).indexOf("timestamp");
+
     private AuditConfig auditConfig;
-    
+
     private StorageProvider storageProvider;
 
+    private int prefetchThreads;
+
+    private ExecutorService executor;
+
     public AuditLogReaderImpl() {
+        this(DEFAULT_PREFETCH_THREADS);
+    }
+
+    public AuditLogReaderImpl(int prefetchThreads) {
+        this.prefetchThreads = prefetchThreads;
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(prefetchThreads, r -> {
+            Thread thread =
+                new Thread(r, "audit-log-reader-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @Override
     public void initialize(AuditConfig auditConfig){
         this.auditConfig = auditConfig;
     }
-    
+
     @Override
     public InputStream getAuditLog(final String account, final String storeId, final String spaceId)
         throws AuditLogReaderException {
-        
+        return getAuditLog(account, storeId, spaceId, null, null);
+    }
+
+    @Override
+    public InputStream getAuditLog(final String account,
+                                   final String storeId,
+                                   final String spaceId,
+                                   final Date startDate,
+                                   final Date endDate)
+        throws AuditLogReaderException {
+
         checkEnabled();
-        
-        this.storageProvider = getStorageProvider();
+
+        final StorageProvider storageProvider = getCachedStorageProvider();
         final String auditBucket = auditConfig.getAuditLogSpaceId();
 
         String prefix = MessageFormat.format("{0}/{1}/{2}/",account, storeId, spaceId);
-        final PipedInputStream is = new PipedInputStream(10 * 1024);
-        final PipedOutputStream os;
+
+        List<String> logIds = new ArrayList<>();
         try {
-            os = new PipedOutputStream(is);
-        } catch (IOException e) {
+            Iterator<String> it =
+                storageProvider.getSpaceContents(auditBucket, prefix);
+            while (it.hasNext()) {
+                logIds.add(it.next());
+            }
+        } catch (StorageException e) {
             throw new AuditLogReaderException(e);
         }
-        
-        try {
-             final Iterator<String> it =
-                this.storageProvider.getSpaceContents(auditBucket, prefix);
-            if (!it.hasNext()) {
-                os.write((AuditLogUtil.getHeader() + "\n").getBytes());
-                os.close();
-            }
 
-            new Thread(new Runnable() {
-                @Override
-                public void run() {
-                    try {
-                        int count = 0;
-
-                        
-                        while (it.hasNext()) {
-                            String contentId = it.next();
-                            writeToOutputStream(auditBucket,
-                                                storageProvider,
-                                                os,
-                                                count,
-                                                contentId);
-
-                            count++;
-                        }
-
-                        os.close();
-
-                    } catch (ContentStoreException | IOException ex) {
-                        log.error(MessageFormat.format("failed to complete audit log read routine for space: storeId={0}, spaceId={1}",
-                                                       storeId,
-                                                       spaceId),
-                                  ex);
-                    }
-                }
-            }).start();
-        } catch (StorageException | IOException e) {
-            throw new AuditLogReaderException(e);
-        } 
+        logIds = selectLogs(logIds, startDate, endDate);
+        log.debug("reading {} audit logs for account={}, storeId={}, spaceId={}",
+                  logIds.size(), account, storeId, spaceId);
 
-        return is;
+        if (logIds.isEmpty()) {
+            return new ByteArrayInputStream(
+                (AuditLogUtil.getHeader() + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        List<Callable<byte[]>> logReads = new ArrayList<>();
+        for (int i = 0; i < logIds.size(); i++) {
+            final String contentId = logIds.get(i);
+            final boolean first = (i == 0);
+            logReads.add(() -> readLog(auditBucket,
+                                       storageProvider,
+                                       contentId,
+                                       first,
+                                       startDate,
+                                       endDate));
+        }
+        return new AuditLogInputStream(executor, logReads, prefetchThreads);
     }
 
     private void checkEnabled() throws AuditLogReaderNotEnabledException{
@@ -124,37 +156,126 @@ public class AuditLogReaderImpl implements AuditLogReader {
         }
     }
 
+    /*
+     * The storage provider, and the client it holds, is created on first use
+     * and reused for all subsequent requests.
+     */
+    private synchronized StorageProvider getCachedStorageProvider() {
+        if (null == storageProvider) {
+            storageProvider = getStorageProvider();
+        }
+        return storageProvider;
+    }
+
     protected StorageProvider getStorageProvider() {
         AWSCredentials creds = new DefaultAWSCredentialsProviderChain().getCredentials();
-        AmazonS3Client s3client = new AmazonS3Client();
+        AmazonS3Client s3client = S3ProviderUtil.getAmazonS3Client();
         return new S3StorageProvider(s3client, creds.getAWSAccessKeyId(), null);
     }
 
-    protected void writeToOutputStream(String auditSpaceId,
-                                       StorageProvider storageProvider,
-                                       final PipedOutputStream os,
-                                       int count,
-                                       String contentId)
-        throws ContentStoreException,
-            IOException {
-        
+    /**
+     * Selects the logs, listed in order, which may hold events in the date
+     * range. Each log holds the events from the time in its name up to the
+     * time in the name of the log which follows it. Logs without a time in
+     * their name are always selected.
+     */
+    protected List<String> selectLogs(List<String> logIds,
+                                      Date startDate,
+                                      Date endDate) {
+        if (null == startDate && null == endDate) {
+            return logIds;
+        }
+
+        List<String> selected = new ArrayList<>();
+        for (int i = 0; i < logIds.size(); i++) {
+            String logId = logIds.get(i);
+            Date logStart = getLogDate(logId);
+            if (null == logStart) {
+                selected.add(logId);
+                continue;
+            }
+
+            if (null != endDate && logStart.after(endDate)) {
+                continue;
+            }
+            Date logEnd = (i + 1 < logIds.size()) ?
+                          getLogDate(logIds.get(i + 1)) : null;
+            if (null != startDate && null != logEnd &&
+                !logEnd.after(startDate)) {
+                continue;
+            }
+            selected.add(logId);
+        }
+        return selected;
+    }
+
+    private Date getLogDate(String logId) {
+        String name = logId.substring(logId.lastIndexOf('/') + 1);
+        Matcher matcher = LOG_DATE_PATTERN.matcher(name);
+        if (matcher.find()) {
+            try {
+                return DateUtil.convertToDate(matcher.group(),
+                                              DateUtil.DateFormat.PLAIN_FORMAT);
+            } catch (ParseException e) {
+                log.warn("unable to read date from audit log name {}", logId);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads an audit log, dropping the header line unless this is the first
+     * log, along with any events outside of the date range.
+     */
+    protected byte[] readLog(String auditSpaceId,
+                             StorageProvider storageProvider,
+                             String contentId,
+                             boolean first,
+                             Date startDate,
+                             Date endDate)
+        throws IOException {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
         try (BufferedReader reader =
             new BufferedReader(new InputStreamReader(storageProvider.getContent(auditSpaceId,
-                                                                                contentId)))) {
-            if (count > 0) {
-                // skip header if not hte first file
-                reader.readLine();
+                                                                                contentId),
+                                                     StandardCharsets.UTF_8))) {
+            Writer writer = new OutputStreamWriter(bytes, StandardCharsets.UTF_8);
+            String line = reader.readLine();
+            if (null != line && first) {
+                writer.write(line + "\n");
             }
 
-            while (true) {
-                String line = reader.readLine();
-                if (line != null) {
-                    IOUtils.write(line + "\n", os);
-                } else {
-                    break;
+            while ((line = reader.readLine()) != null) {
+                if (inRange(line, startDate, endDate)) {
+                    writer.write(line + "\n");
                 }
             }
+            writer.flush();
+        }
+        return bytes.toByteArray();
+    }
+
+    /*
+     * Events without a readable timestamp are kept
+     */
+    private boolean inRange(String line, Date startDate, Date endDate) {
+        if (null == startDate && null == endDate) {
+            return true;
+        }
+
+        String[] values = line.split("\t", -1);
+        if (values.length <= TIMESTAMP_COLUMN) {
+            return true;
+        }
+        long timestamp;
+        try {
+            timestamp = Long.parseLong(values[TIMESTAMP_COLUMN]);
+        } catch (NumberFormatException e) {
+            return true;
         }
+        return (null == startDate || timestamp >= startDate.getTime()) &&
+               (null == endDate || timestamp <= endDate.getTime());
     }
 
 }
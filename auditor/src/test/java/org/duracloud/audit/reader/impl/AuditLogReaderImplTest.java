@@ -18,11 +18,15 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
 
 import org.duracloud.audit.AuditLogUtil;
 import org.duracloud.audit.reader.AuditLogReaderException;
+import org.duracloud.common.util.DateUtil;
 import org.duracloud.error.ContentStoreException;
 import org.duracloud.mill.test.AbstractTestBase;
 import org.duracloud.storage.domain.AuditConfig;
@@ -203,6 +207,60 @@ public class AuditLogReaderImplTest extends AbstractTestBase {
         
     }
 
+    @Test
+    public void testGetAuditLogDateRange() throws Exception {
+        String prefix = getPrefix();
+        String[] logDates = {"2026-01-01-00-00-00", "2026-02-01-00-00-00",
+                             "2026-03-01-00-00-00", "2026-04-01-00-00-00"};
+        List<String> logIds = new ArrayList<>();
+        for (String logDate : logDates) {
+            logIds.add(prefix + "/" + logDate + ".tsv");
+        }
+        expect(storageProvider.getSpaceContents(eq(globalAuditSpaceId), eq(prefix)))
+            .andReturn(logIds.iterator());
+        expect(config.getAuditLogSpaceId()).andReturn(globalAuditSpaceId);
+        mockCheckEnabled(config);
+
+        // Only the logs which overlap the range are read
+        long feb10 = getTime("2026-02-10-00-00-00");
+        long mar10 = getTime("2026-03-10-00-00-00");
+        long mar20 = getTime("2026-03-20-00-00-00");
+        setupGetContentCall(prefix, storageProvider, logDates[1] + ".tsv",
+                            new String[] {AuditLogUtil.getHeader(),
+                                          getEvent("feb-1", getTime(logDates[1])),
+                                          getEvent("feb-10", feb10)});
+        setupGetContentCall(prefix, storageProvider, logDates[2] + ".tsv",
+                            new String[] {AuditLogUtil.getHeader(),
+                                          getEvent("mar-10", mar10),
+                                          getEvent("mar-20", mar20)});
+        replayAll();
+
+        AuditLogReaderImpl auditReader =
+            createAuditLogReader(storageProvider, config);
+        InputStream is = auditReader.getAuditLog(account, storeId, spaceId,
+                                                 new Date(feb10),
+                                                 new Date(mar10));
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(is));
+        assertEquals(AuditLogUtil.getHeader(), reader.readLine());
+        assertEquals(getEvent("feb-10", feb10), reader.readLine());
+        assertEquals(getEvent("mar-10", mar10), reader.readLine());
+        assertNull(reader.readLine());
+    }
+
+    private long getTime(String logDate) throws Exception {
+        return DateUtil.convertToDate(logDate, DateUtil.DateFormat.PLAIN_FORMAT)
+                       .getTime();
+    }
+
+    private String getEvent(String contentId, long timestamp) {
+        String[] values = new String[AuditLogUtil.AUDIT_LOG_COLUMNS.length];
+        Arrays.fill(values, "-");
+        values[3] = contentId;
+        values[11] = String.valueOf(timestamp);
+        return String.join("\t", values);
+    }
+
     protected String getPrefix() {
         String prefix = account + "/" + storeId+"/"+spaceId +"/";
         return prefix;
@@ -0,0 +1,92 @@
+#!/bin/bash
+#
+# Runs the benchmarks and compares the results to a stored baseline.
+#
+# Usage:
+#   compare-baseline.sh [results.csv]   compare results to the baseline,
+#                                       running the benchmarks first if no
+#                                       results file is given
+#   compare-baseline.sh --record [results.csv]
+#                                       store results as the new baseline
+#
+# The benchmarks jar is built with: mvn install -Dbenchmarks
+# A benchmark regresses when its score is worse than the baseline by more
+# than THRESHOLD percent (default 10). Exits with 1 if any benchmark regressed.
+
+BENCH_DIR=$(cd "$(dirname "$0")" && pwd)
+BASELINE=${BASELINE:-$BENCH_DIR/baseline.csv}
+THRESHOLD=${THRESHOLD:-10}
+JAR=$(ls "$BENCH_DIR"/target/benchmarks-*-driver.jar 2>/dev/null | head -1)
+
+RECORD=false
+if [ "$1" = '--record' ]; then
+    RECORD=true
+    shift
+fi
+
+RESULTS=$1
+if [ -z "$RESULTS" ]; then
+    if [ -z "$JAR" ]; then
+        echo 'Benchmarks jar not found, build it with: mvn install -Dbenchmarks'
+        exit 2
+    fi
+    RESULTS=$BENCH_DIR/target/results.csv
+    java -jar "$JAR" -rf csv -rff "$RESULTS" || exit 2
+fi
+
+if [ "$RECORD" = 'true' ]; then
+    cp "$RESULTS" "$BASELINE"
+    echo "Baseline recorded in $BASELINE"
+    exit 0
+fi
+
+if [ ! -f "$BASELINE" ]; then
+    echo "No baseline found at $BASELINE, record one with: $0 --record"
+    exit 2
+fi
+
+# Results are keyed by benchmark name and parameter values. For throughput
+# a higher score is better, for all other modes a lower score is better.
+awk -F',' -v threshold="$THRESHOLD" '
+    function key(    k, i) {
+        k = $1
+        for (i = 8; i <= NF; i++) {
+            k = k "," $i
+        }
+        return k
+    }
+    {
+        gsub(/"/, "")
+    }
+    FNR == 1 {
+        next
+    }
+    NR == FNR {
+        baseline[key()] = $5
+        next
+    }
+    {
+        k = key()
+        if (!(k in baseline)) {
+            printf "%-70s %14s %14.3f %-10s NEW\n", k, "-", $5, $7
+            next
+        }
+        base = baseline[k]
+        change = (base == 0) ? 0 : ($5 - base) * 100 / base
+        worse = ($2 == "thrpt") ? -change : change
+        status = "OK"
+        if (worse > threshold) {
+            status = "REGRESSED"
+            regressed++
+        } else if (worse < -threshold) {
+            status = "IMPROVED"
+        }
+        printf "%-70s %14.3f %14.3f %-10s %+7.1f%% %s\n", k, base, $5, $7, change, status
+    }
+    END {
+        if (regressed > 0) {
+            printf "%d benchmark(s) regressed by more than %s%%\n", regressed, threshold
+            exit 1
+        }
+    }
+' "$BASELINE" "$RESULTS"
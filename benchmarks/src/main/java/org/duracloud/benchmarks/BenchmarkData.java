@@ -0,0 +1,49 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.benchmarks;
+
+import java.util.Random;
+
+/**
+ * Generates the in-memory data used by the benchmarks. A fixed seed is used
+ * so that each run works with the same data.
+ */
+public class BenchmarkData {
+
+    private static final long SEED = 42;
+
+    private static final String CHARS =
+        "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789-_";
+
+    public static byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        new Random(SEED).nextBytes(bytes);
+        return bytes;
+    }
+
+    public static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(CHARS.charAt(random.nextInt(CHARS.length())));
+        }
+        return text.toString();
+    }
+
+    /**
+     * @return a content ID shaped like those found in a typical space
+     */
+    public static String contentId(Random random, int index) {
+        return randomText(random, 8) + "/" + randomText(random, 12) + "/item-" +
+               index + ".dat";
+    }
+
+    public static Random random() {
+        return new Random(SEED);
+    }
+
+}
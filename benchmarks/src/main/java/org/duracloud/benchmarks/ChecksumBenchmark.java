@@ -0,0 +1,118 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.duracloud.common.util.ChecksumUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time taken by ChecksumUtil to compute the checksum of content
+ * held in memory, both directly and through a wrapped stream, and of content
+ * in a local file. The multiple checksum benchmarks compute MD5 and SHA-256
+ * in a single pass, to compare with computing each in a pass of its own.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChecksumBenchmark {
+
+    @Param({"MD5", "SHA-256"})
+    private String algorithm;
+
+    @Param({"1024", "1048576"})
+    private int size;
+
+    private byte[] content;
+    private String text;
+    private File file;
+    private ChecksumUtil checksumUtil;
+
+    @Setup
+    public void setUp() throws IOException {
+        content = BenchmarkData.randomBytes(size);
+        text = BenchmarkData.randomText(new Random(size), size);
+        file = File.createTempFile("checksum-benchmark", ".dat");
+        FileUtils.writeByteArrayToFile(file, content);
+        checksumUtil =
+            new ChecksumUtil(ChecksumUtil.Algorithm.fromString(algorithm));
+    }
+
+    @TearDown
+    public void tearDown() {
+        FileUtils.deleteQuietly(file);
+    }
+
+    @Benchmark
+    public String generateChecksumStream() {
+        return checksumUtil.generateChecksum(new ByteArrayInputStream(content));
+    }
+
+    @Benchmark
+    public String generateChecksumString() {
+        return checksumUtil.generateChecksum(text);
+    }
+
+    @Benchmark
+    public String wrapStream() throws IOException {
+        DigestInputStream digestStream =
+            ChecksumUtil.wrapStream(new ByteArrayInputStream(content),
+                                    ChecksumUtil.Algorithm.fromString(algorithm));
+        try (InputStream stream = digestStream) {
+            IOUtils.copy(stream, new NullOutputStream());
+        }
+        return ChecksumUtil.getChecksum(digestStream);
+    }
+
+    @Benchmark
+    public String generateChecksumFile() throws IOException {
+        return checksumUtil.generateChecksum(file);
+    }
+
+    @Benchmark
+    public Map<ChecksumUtil.Algorithm, String> generateChecksumsSinglePass()
+        throws IOException {
+        return ChecksumUtil.generateChecksums(file,
+                                              ChecksumUtil.Algorithm.MD5,
+                                              ChecksumUtil.Algorithm.SHA_256);
+    }
+
+    @Benchmark
+    public String[] generateChecksumsSeparatePasses() throws IOException {
+        return new String[] {
+            new ChecksumUtil(ChecksumUtil.Algorithm.MD5).generateChecksum(file),
+            new ChecksumUtil(ChecksumUtil.Algorithm.SHA_256)
+                .generateChecksum(file)};
+    }
+
+}
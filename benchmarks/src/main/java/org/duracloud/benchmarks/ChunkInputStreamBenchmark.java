@@ -0,0 +1,79 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.duracloud.chunk.stream.ChunkInputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time taken to read content held in memory into chunks with
+ * ChunkInputStream, as is done when a large file is chunked for upload.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkInputStreamBenchmark {
+
+    private static final int CONTENT_SIZE = 4 * 1024 * 1024;
+
+    @Param({"65536", "1048576"})
+    private int chunkSize;
+
+    @Param({"true", "false"})
+    private boolean preserveMD5;
+
+    private byte[] content;
+    private byte[] buffer;
+
+    @Setup
+    public void setUp() {
+        content = BenchmarkData.randomBytes(CONTENT_SIZE);
+        buffer = new byte[8192];
+    }
+
+    /**
+     * Reads all chunks of the content, returning the checksum of the last
+     */
+    @Benchmark
+    public String readChunks() throws IOException {
+        InputStream source = new ByteArrayInputStream(content);
+        String md5 = null;
+        int chunkNum = 0;
+        while (source.available() > 0) {
+            ChunkInputStream chunk =
+                new ChunkInputStream("content.dat.dura-chunk-" + chunkNum++,
+                                     source,
+                                     chunkSize,
+                                     preserveMD5);
+            while (chunk.read(buffer) != -1) {
+                // reading through the chunk
+            }
+            md5 = chunk.getMD5();
+        }
+        return md5;
+    }
+
+}
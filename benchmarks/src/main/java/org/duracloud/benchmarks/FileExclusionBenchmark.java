@@ -0,0 +1,116 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOCase;
+import org.apache.commons.io.filefilter.WildcardFileFilter;
+import org.duracloud.sync.mgmt.FileExclusionManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the time taken to check files against a set of exclusion rules
+ * using the FileExclusionManager and by matching each parent against a
+ * WildcardFileFilter (as the FileExclusionManager once did).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FileExclusionBenchmark {
+
+    private static final int DIRS = 200;
+    private static final int FILES_PER_DIR = 50;
+
+    @Param({"10", "100"})
+    private int rulesOfEachType;
+
+    private List<File> files;
+    private WildcardFileFilter filter;
+    private FileExclusionManager exclusionManager;
+
+    @Setup
+    public void setUp() {
+        List<String> rules = new ArrayList<>();
+        for (int i = 0; i < rulesOfEachType; i++) {
+            rules.add("excluded-file-" + i + ".txt");
+            rules.add("*.ext" + i);
+            rules.add("tmp-" + i + "-*");
+            rules.add("backup-" + i + "-??-*.bak");
+        }
+
+        files = new ArrayList<>();
+        for (int d = 0; d < DIRS; d++) {
+            File dir = new File("/data/collection-" + (d % 10) +
+                                "/series-" + (d % 100) + "/box-" + d);
+            for (int f = 0; f < FILES_PER_DIR; f++) {
+                files.add(new File(dir, "image-" + f + ".tiff"));
+            }
+        }
+
+        filter = new WildcardFileFilter(rules, IOCase.INSENSITIVE);
+        exclusionManager = new FileExclusionManager(rules);
+    }
+
+    /**
+     * Checks each file with the FileExclusionManager, returning the number
+     * of files excluded
+     */
+    @Benchmark
+    public int exclusionManager() {
+        int excluded = 0;
+        for (File file : files) {
+            if (exclusionManager.isExcluded(file)) {
+                excluded++;
+            }
+        }
+        return excluded;
+    }
+
+    /**
+     * Checks each file and its parents with a WildcardFileFilter, returning
+     * the number of files excluded
+     */
+    @Benchmark
+    public int wildcardFileFilter() {
+        int excluded = 0;
+        for (File file : files) {
+            if (isExcludedByFilter(file)) {
+                excluded++;
+            }
+        }
+        return excluded;
+    }
+
+    private boolean isExcludedByFilter(File file) {
+        do {
+            if (filter.accept(file)) {
+                return true;
+            }
+            file = file.getParentFile();
+        } while (file != null);
+        return false;
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.duracloud.manifest.ManifestFormatter;
+import org.duracloud.manifest.impl.BagitManifestFormatter;
+import org.duracloud.manifest.impl.TsvManifestFormatter;
+import org.duracloud.mill.db.model.ManifestItem;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time taken to write and to parse a manifest of a space in
+ * each of the manifest formats.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ManifestFormatterBenchmark {
+
+    private static final String SPACE_ID = "space-id";
+    private static final int NUM_ITEMS = 10000;
+
+    @Param({"TSV", "BAGIT"})
+    private String format;
+
+    private List<ManifestItem> items;
+    private List<String> lines;
+
+    @Setup
+    public void setUp() {
+        Random random = BenchmarkData.random();
+        ManifestFormatter formatter = createFormatter();
+        items = new ArrayList<>();
+        lines = new ArrayList<>();
+        for (int i = 0; i < NUM_ITEMS; i++) {
+            ManifestItem item = new ManifestItem();
+            item.setSpaceId(SPACE_ID);
+            item.setContentId(BenchmarkData.contentId(random, i));
+            item.setContentChecksum(BenchmarkData.randomText(random, 32));
+            items.add(item);
+            lines.add(formatter.formatLine(item));
+        }
+    }
+
+    private ManifestFormatter createFormatter() {
+        if ("BAGIT".equals(format)) {
+            return new BagitManifestFormatter();
+        }
+        return new TsvManifestFormatter();
+    }
+
+    @Benchmark
+    public int writeManifest() {
+        ManifestFormatter formatter = createFormatter();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        for (ManifestItem item : items) {
+            formatter.writeManifestItemToOutput(item, output);
+        }
+        return output.size();
+    }
+
+    @Benchmark
+    public int parseManifest() throws ParseException {
+        ManifestFormatter formatter = createFormatter();
+        int parsed = 0;
+        for (String line : lines) {
+            if (null != formatter.parseLine(line)) {
+                parsed++;
+            }
+        }
+        return parsed;
+    }
+
+}
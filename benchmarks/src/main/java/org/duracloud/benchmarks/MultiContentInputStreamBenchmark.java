@@ -0,0 +1,92 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.duracloud.common.model.ContentItem;
+import org.duracloud.domain.Content;
+import org.duracloud.stitch.datasource.DataSource;
+import org.duracloud.stitch.stream.MultiContentInputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time taken to stitch chunks held in memory back together
+ * with MultiContentInputStream.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiContentInputStreamBenchmark {
+
+    private static final String SPACE_ID = "space-id";
+    private static final int CONTENT_SIZE = 4 * 1024 * 1024;
+
+    @Param({"4", "64"})
+    private int numChunks;
+
+    private List<ContentItem> chunkItems;
+    private DataSource dataSource;
+
+    @Setup
+    public void setUp() {
+        byte[] content = BenchmarkData.randomBytes(CONTENT_SIZE);
+        int chunkSize = CONTENT_SIZE / numChunks;
+
+        final Map<String, byte[]> chunks = new HashMap<>();
+        chunkItems = new ArrayList<>();
+        for (int i = 0; i < numChunks; i++) {
+            String chunkId = "content.dat.dura-chunk-" + i;
+            byte[] chunk = new byte[chunkSize];
+            System.arraycopy(content, i * chunkSize, chunk, 0, chunkSize);
+            chunks.put(chunkId, chunk);
+            chunkItems.add(new ContentItem(SPACE_ID, chunkId));
+        }
+
+        dataSource = new DataSource() {
+            @Override
+            public Content getContent(String spaceId, String contentId) {
+                Content content = new Content();
+                content.setId(contentId);
+                content.setStream(new ByteArrayInputStream(chunks.get(contentId)));
+                return content;
+            }
+        };
+    }
+
+    @Benchmark
+    public long readStitched() throws IOException {
+        try (InputStream stream =
+                 new MultiContentInputStream(dataSource, chunkItems)) {
+            return IOUtils.copyLarge(stream, new NullOutputStream());
+        }
+    }
+
+}
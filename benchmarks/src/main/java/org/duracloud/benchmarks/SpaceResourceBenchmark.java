@@ -0,0 +1,102 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.duracloud.durastore.rest.SpaceResource;
+import org.duracloud.storage.provider.StorageProvider;
+import org.duracloud.storage.util.StorageProviderFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time taken by SpaceResource to build the XML listings of
+ * spaces and of space contents. The listings are served from memory by a
+ * storage provider which supports only the listing calls.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpaceResourceBenchmark {
+
+    private static final String SPACE_ID = "space-id";
+    private static final int NUM_SPACES = 100;
+
+    @Param({"1000"})
+    private int maxResults;
+
+    private SpaceResource spaceResource;
+
+    @Setup
+    public void setUp() {
+        Random random = BenchmarkData.random();
+        final List<String> spaces = new ArrayList<>();
+        for (int i = 0; i < NUM_SPACES; i++) {
+            spaces.add("space-" + i);
+        }
+        final List<String> contents = new ArrayList<>();
+        for (int i = 0; i < maxResults; i++) {
+            contents.add(BenchmarkData.contentId(random, i));
+        }
+
+        final StorageProvider storageProvider = (StorageProvider)
+            Proxy.newProxyInstance(getClass().getClassLoader(),
+                                   new Class<?>[]{StorageProvider.class},
+                                   (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getSpaces":
+                        return spaces.iterator();
+                    case "getSpaceContentsChunked":
+                        return contents;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+
+        StorageProviderFactory factory = (StorageProviderFactory)
+            Proxy.newProxyInstance(getClass().getClassLoader(),
+                                   new Class<?>[]{StorageProviderFactory.class},
+                                   (proxy, method, args) -> {
+                if (method.getName().equals("getStorageProvider")) {
+                    return storageProvider;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+
+        spaceResource = new SpaceResource(factory);
+    }
+
+    @Benchmark
+    public String getSpaces() throws Exception {
+        return spaceResource.getSpaces(null);
+    }
+
+    @Benchmark
+    public String getSpaceContents() throws Exception {
+        return spaceResource.getSpaceContents(SPACE_ID, null, null,
+                                              maxResults, null);
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.benchmarks;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.duracloud.common.queue.aws.SQSTaskQueue;
+import org.duracloud.common.queue.task.Task;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.amazonaws.services.sqs.AmazonSQSClient;
+import com.amazonaws.services.sqs.model.GetQueueAttributesRequest;
+import com.amazonaws.services.sqs.model.GetQueueAttributesResult;
+import com.amazonaws.services.sqs.model.GetQueueUrlRequest;
+import com.amazonaws.services.sqs.model.GetQueueUrlResult;
+import com.amazonaws.services.sqs.model.Message;
+import com.amazonaws.services.sqs.model.QueueAttributeName;
+
+/**
+ * Measures the time taken by SQSTaskQueue to convert tasks to and from the
+ * body of an SQS message. The queue is given a client which answers the
+ * queue lookups made on creation, no calls are made to SQS.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskMarshallingBenchmark {
+
+    @Param({"4", "32"})
+    private int numProperties;
+
+    private BenchmarkTaskQueue queue;
+    private Task task;
+    private Message message;
+
+    @Setup
+    public void setUp() {
+        queue = new BenchmarkTaskQueue();
+
+        Random random = BenchmarkData.random();
+        task = new Task();
+        task.setType(Task.Type.BIT);
+        for (int i = 0; i < numProperties; i++) {
+            task.addProperty("property-" + i,
+                             BenchmarkData.contentId(random, i));
+        }
+
+        message = new Message();
+        message.setMessageId("message-id");
+        message.setReceiptHandle("receipt-handle");
+        message.setBody(queue.unmarshall(task));
+    }
+
+    @Benchmark
+    public String unmarshallTask() {
+        return queue.unmarshall(task);
+    }
+
+    @Benchmark
+    public Task marshallTask() {
+        return queue.marshall(message);
+    }
+
+    /*
+     * Exposes the conversions of the task queue
+     */
+    private static class BenchmarkTaskQueue extends SQSTaskQueue {
+        BenchmarkTaskQueue() {
+            super(new LocalSQSClient(), "benchmark-queue");
+        }
+
+        String unmarshall(Task task) {
+            return unmarshallTask(task);
+        }
+
+        Task marshall(Message message) {
+            return marshallTask(message);
+        }
+    }
+
+    private static class LocalSQSClient extends AmazonSQSClient {
+        @Override
+        public GetQueueUrlResult getQueueUrl(GetQueueUrlRequest request) {
+            return new GetQueueUrlResult()
+                .withQueueUrl("http://localhost/" + request.getQueueName());
+        }
+
+        @Override
+        public GetQueueAttributesResult getQueueAttributes(
+            GetQueueAttributesRequest request) {
+            return new GetQueueAttributesResult().withAttributes(
+                Collections.singletonMap(
+                    QueueAttributeName.VisibilityTimeout.name(), "300"));
+        }
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.benchmarks.load;
+
+/**
+ * Configuration of a load test run against DuraStore.
+ */
+public class LoadTestConfig {
+
+    private String host;
+    private int port;
+    private String context;
+    private String username;
+    private String password;
+    private String storeId;
+    private String spaceId;
+    private int threads;
+    private int duration;
+    private int numItems;
+    private int sizeItems;
+
+    public String getPrintableConfig() {
+        StringBuilder config = new StringBuilder();
+
+        config.append("\n---------------------------------------------\n");
+        config.append(" DuraStore Load Test - Configuration");
+        config.append("\n---------------------------------------------\n");
+
+        config.append("DuraStore Host: ");
+        config.append(getHost()).append("\n");
+        config.append("DuraStore Port: ");
+        config.append(getPort()).append("\n");
+        config.append("DuraStore Username: ");
+        config.append(getUsername()).append("\n");
+        config.append("DuraStore Store ID: ");
+        config.append(null == getStoreId() ? "primary" : getStoreId());
+        config.append("\n");
+        config.append("DuraStore Space ID: ");
+        config.append(getSpaceId()).append("\n");
+        config.append("Threads: ");
+        config.append(getThreads()).append("\n");
+        config.append("Duration: ");
+        config.append(getDuration()).append(" seconds\n");
+        config.append("Number of items: ");
+        config.append(getNumItems()).append("\n");
+        config.append("Size of items: ");
+        config.append(getSizeItems()).append(" KB\n");
+
+        config.append("--------------------------------------\n");
+
+        return config.toString();
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public String getContext() {
+        return context;
+    }
+
+    public void setContext(String context) {
+        this.context = context;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getStoreId() {
+        return storeId;
+    }
+
+    public void setStoreId(String storeId) {
+        this.storeId = storeId;
+    }
+
+    public String getSpaceId() {
+        return spaceId;
+    }
+
+    public void setSpaceId(String spaceId) {
+        this.spaceId = spaceId;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getDuration() {
+        return duration;
+    }
+
+    public void setDuration(int duration) {
+        this.duration = duration;
+    }
+
+    public int getNumItems() {
+        return numItems;
+    }
+
+    public void setNumItems(int numItems) {
+        this.numItems = numItems;
+    }
+
+    public int getSizeItems() {
+        return sizeItems;
+    }
+
+    public void setSizeItems(int sizeItems) {
+        this.sizeItems = sizeItems;
+    }
+
+}
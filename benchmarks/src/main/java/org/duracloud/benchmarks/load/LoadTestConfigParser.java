@@ -0,0 +1,206 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.benchmarks.load;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.commons.cli.PosixParser;
+import org.duracloud.common.util.CommandLineToolUtil;
+import org.duracloud.common.util.ConsolePrompt;
+
+/**
+ * Parses the command line configuration parameters into a config object that
+ * is used to run a load test.
+ */
+public class LoadTestConfigParser {
+
+    protected static final int DEFAULT_PORT = 443;
+    public static final String DEFAULT_CONTEXT = "durastore";
+    protected static final int DEFAULT_THREADS = 10;
+    protected static final int DEFAULT_DURATION = 60;
+    protected static final int DEFAULT_NUM_ITEMS = 100;
+    protected static final int DEFAULT_SIZE_ITEMS = 64;
+
+    private Options cmdOptions;
+
+    private CommandLineToolUtil cmdLineUtil;
+
+    /**
+     * Creates a parser for command line configuration options.
+     */
+    public LoadTestConfigParser() {
+        cmdLineUtil = new CommandLineToolUtil();
+
+        // Command Line Options
+        cmdOptions = new Options();
+
+        Option hostOption =
+            new Option("h", "host", true,
+                       "the host address of the DuraCloud " +
+                       "DuraStore application");
+        hostOption.setRequired(true);
+        cmdOptions.addOption(hostOption);
+
+        Option portOption =
+            new Option("r", "port", true,
+                       "the port of the DuraCloud DuraStore application " +
+                       "(optional, default value is " + DEFAULT_PORT + ")");
+        portOption.setRequired(false);
+        cmdOptions.addOption(portOption);
+
+        Option usernameOption =
+            new Option("u", "username", true,
+                       "the username necessary to perform writes to DuraStore");
+        usernameOption.setRequired(true);
+        cmdOptions.addOption(usernameOption);
+
+        Option passwordOption =
+            new Option("p", "password", true,
+                       "the password necessary to perform writes to " +
+                       "DuraStore; if not specified, the " +
+                       CommandLineToolUtil.PASSWORD_ENV_VARIABLE_NAME +
+                       " environment variable is used, or the password " +
+                       "is prompted for");
+        passwordOption.setRequired(false);
+        cmdOptions.addOption(passwordOption);
+
+        Option storeIdOption =
+            new Option("i", "store-id", true,
+                       "the store to test, such as a store backed by " +
+                       "simulated storage (optional, default is the " +
+                       "primary store)");
+        storeIdOption.setRequired(false);
+        cmdOptions.addOption(storeIdOption);
+
+        Option spaceIdOption =
+            new Option("s", "space", true,
+                       "the space in which test content will be placed, " +
+                       "created if it does not exist");
+        spaceIdOption.setRequired(true);
+        cmdOptions.addOption(spaceIdOption);
+
+        Option threadsOption =
+            new Option("t", "threads", true,
+                       "the number of threads making calls (optional, " +
+                       "default value is " + DEFAULT_THREADS + ")");
+        threadsOption.setRequired(false);
+        cmdOptions.addOption(threadsOption);
+
+        Option durationOption =
+            new Option("d", "duration", true,
+                       "the length of the test, in seconds (optional, " +
+                       "default value is " + DEFAULT_DURATION + ")");
+        durationOption.setRequired(false);
+        cmdOptions.addOption(durationOption);
+
+        Option numItemsOption =
+            new Option("n", "num-items", true,
+                       "the number of content items used by the test " +
+                       "(optional, default value is " + DEFAULT_NUM_ITEMS + ")");
+        numItemsOption.setRequired(false);
+        cmdOptions.addOption(numItemsOption);
+
+        Option sizeItemsOption =
+            new Option("m", "size-items", true,
+                       "the size of each content item, in KB (optional, " +
+                       "default value is " + DEFAULT_SIZE_ITEMS + ")");
+        sizeItemsOption.setRequired(false);
+        cmdOptions.addOption(sizeItemsOption);
+    }
+
+    /**
+     * Parses command line configuration into an object structure, validates
+     * correct values along the way.
+     *
+     * Prints a help message and exits the JVM on parse failure.
+     *
+     * @param args command line configuration values
+     * @return populated LoadTestConfig
+     */
+    public LoadTestConfig processCommandLine(String[] args) {
+        LoadTestConfig config = null;
+        try {
+            config = processOptions(args);
+        } catch (ParseException e) {
+            printHelp(e.getMessage());
+        }
+        return config;
+    }
+
+    protected LoadTestConfig processOptions(String[] args)
+        throws ParseException {
+        CommandLineParser parser = new PosixParser();
+        CommandLine cmd = parser.parse(cmdOptions, args);
+        LoadTestConfig config = new LoadTestConfig();
+
+        config.setContext(DEFAULT_CONTEXT);
+        config.setHost(cmd.getOptionValue("h"));
+        config.setUsername(cmd.getOptionValue("u"));
+        config.setStoreId(cmd.getOptionValue("i"));
+        config.setSpaceId(cmd.getOptionValue("s"));
+
+        if (null != cmd.getOptionValue("p")) {
+            config.setPassword(cmd.getOptionValue("p"));
+        } else if (null != cmdLineUtil.getPasswordEnvVariable()) {
+            config.setPassword(cmdLineUtil.getPasswordEnvVariable());
+        } else {
+            ConsolePrompt console = cmdLineUtil.getConsole();
+            if (null == console) {
+                printHelp("You must either specify a password in the command " +
+                          "line or specify the " +
+                          CommandLineToolUtil.PASSWORD_ENV_VARIABLE_NAME +
+                          " environmental variable.");
+            } else {
+                char[] password = console.readPassword("DuraCloud password: ");
+                config.setPassword(new String(password));
+            }
+        }
+
+        config.setPort(getNumber(cmd, "r", "port", DEFAULT_PORT));
+        config.setThreads(getNumber(cmd, "t", "threads", DEFAULT_THREADS));
+        config.setDuration(getNumber(cmd, "d", "duration", DEFAULT_DURATION));
+        config.setNumItems(getNumber(cmd, "n", "num-items", DEFAULT_NUM_ITEMS));
+        config.setSizeItems(getNumber(cmd, "m", "size-items",
+                                      DEFAULT_SIZE_ITEMS));
+        return config;
+    }
+
+    private int getNumber(CommandLine cmd,
+                          String option,
+                          String name,
+                          int defaultValue) throws ParseException {
+        if (!cmd.hasOption(option)) {
+            return defaultValue;
+        }
+        try {
+            int value = Integer.valueOf(cmd.getOptionValue(option));
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // handled below
+        }
+        throw new ParseException("The value for " + name + " (-" + option +
+                                 ") must be a positive number.");
+    }
+
+    private void printHelp(String message) {
+        System.out.println("\n-----------------------\n" +
+                           message +
+                           "\n-----------------------\n");
+
+        HelpFormatter formatter = new HelpFormatter();
+        formatter.printHelp("Running DuraStore Load Test", cmdOptions);
+        System.exit(1);
+    }
+
+}
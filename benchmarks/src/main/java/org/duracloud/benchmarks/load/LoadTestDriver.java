@@ -0,0 +1,55 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.benchmarks.load;
+
+import org.duracloud.client.ContentStore;
+import org.duracloud.client.ContentStoreManager;
+import org.duracloud.client.ContentStoreManagerImpl;
+import org.duracloud.common.model.Credential;
+
+/**
+ * Starting point of the DuraStore load test. The test is meant to be run
+ * against a DuraStore instance in which the store being tested is served
+ * by simulated storage (see SimulatedStorageConfig), so that the full REST
+ * stack can be put under load, with the latency and faults of the storage
+ * under the control of the tester, without the cost of cloud storage.
+ *
+ * Run with:
+ * java -cp benchmarks-{version}-driver.jar
+ *      org.duracloud.benchmarks.load.LoadTestDriver -h host -u user -s space
+ */
+public class LoadTestDriver {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config =
+            new LoadTestConfigParser().processCommandLine(args);
+        System.out.println(config.getPrintableConfig());
+
+        ContentStoreManager storeManager =
+            new ContentStoreManagerImpl(config.getHost(),
+                                        String.valueOf(config.getPort()),
+                                        config.getContext());
+        storeManager.login(new Credential(config.getUsername(),
+                                          config.getPassword()));
+
+        // Calls are not retried, so that every failure is counted
+        ContentStore contentStore;
+        if (null == config.getStoreId()) {
+            contentStore = storeManager.getPrimaryContentStore(0);
+        } else {
+            contentStore = storeManager.getContentStore(config.getStoreId(), 0);
+        }
+
+        LoadTestResults results =
+            new LoadTester(config, contentStore).runTest();
+
+        System.out.println("### Load test complete");
+        System.out.println(results.getReport());
+    }
+
+}
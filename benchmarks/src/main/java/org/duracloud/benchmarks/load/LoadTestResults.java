@@ -0,0 +1,107 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.benchmarks.load;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Collects the outcome of each call made during a load test, and reports
+ * the rate of calls, errors and latency percentiles of each operation.
+ */
+public class LoadTestResults {
+
+    private final Map<String, OperationResults> operations = new TreeMap<>();
+    private long elapsedMillis;
+
+    /**
+     * @param operation name of the operation called
+     * @param nanos     time taken by the call
+     * @param error     the failure of the call, null if it succeeded
+     */
+    public synchronized void record(String operation,
+                                    long nanos,
+                                    Exception error) {
+        OperationResults results = operations.get(operation);
+        if (null == results) {
+            results = new OperationResults();
+            operations.put(operation, results);
+        }
+        results.latencies.add(nanos);
+        if (null != error) {
+            results.errors++;
+            String message = String.valueOf(error.getMessage());
+            if (message.contains("SlowDown")) {
+                results.throttled++;
+            }
+        }
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public synchronized long getCalls(String operation) {
+        OperationResults results = operations.get(operation);
+        return null == results ? 0 : results.latencies.size();
+    }
+
+    public synchronized long getErrors(String operation) {
+        OperationResults results = operations.get(operation);
+        return null == results ? 0 : results.errors;
+    }
+
+    public synchronized String getReport() {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-22s %9s %8s %9s %9s %9s %9s %9s %9s%n",
+                                    "Operation", "Calls", "Errors",
+                                    "Throttled", "Calls/s", "p50 ms",
+                                    "p90 ms", "p99 ms", "Max ms"));
+        double seconds = Math.max(elapsedMillis, 1) / 1000.0;
+        for (Map.Entry<String, OperationResults> entry : operations.entrySet()) {
+            OperationResults results = entry.getValue();
+            List<Long> sorted = new ArrayList<>(results.latencies);
+            Collections.sort(sorted);
+            report.append(String.format(
+                "%-22s %9d %8d %9d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                entry.getKey(),
+                sorted.size(),
+                results.errors,
+                results.throttled,
+                sorted.size() / seconds,
+                percentile(sorted, 0.5),
+                percentile(sorted, 0.9),
+                percentile(sorted, 0.99),
+                percentile(sorted, 1)));
+        }
+        return report.toString();
+    }
+
+    /*
+     * Returns the latency, in milliseconds, at or below which the given
+     * fraction of calls completed
+     */
+    private double percentile(List<Long> sorted, double fraction) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(fraction * sorted.size()) - 1;
+        index = Math.max(0, Math.min(index, sorted.size() - 1));
+        return sorted.get(index) / 1000000.0;
+    }
+
+    private static class OperationResults {
+        private final List<Long> latencies = new ArrayList<>();
+        private long errors = 0;
+        private long throttled = 0;
+    }
+
+}
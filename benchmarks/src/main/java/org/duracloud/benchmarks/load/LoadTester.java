@@ -0,0 +1,173 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.benchmarks.load;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
+import org.duracloud.client.ContentStore;
+import org.duracloud.common.util.ChecksumUtil;
+import org.duracloud.domain.Content;
+import org.duracloud.error.ContentStoreException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Drives a mix of calls through the DuraStore REST API from a set of
+ * threads for a fixed length of time, recording the outcome of each call.
+ * The test content is added before the timed run and removed after it.
+ */
+public class LoadTester {
+
+    private final Logger log = LoggerFactory.getLogger(LoadTester.class);
+
+    private static final String PREFIX = "load-test/item-";
+    private static final String MIMETYPE = "application/octet-stream";
+
+    /*
+     * Operations called during the timed run, with the share of calls
+     * (out of 100) made to each
+     */
+    protected enum Operation {
+        GET_CONTENT(40),
+        GET_PROPERTIES(30),
+        ADD_CONTENT(20),
+        LIST_CONTENTS(10);
+
+        private final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+
+        static Operation pick(int value) {
+            for (Operation operation : values()) {
+                if (value < operation.weight) {
+                    return operation;
+                }
+                value -= operation.weight;
+            }
+            return GET_CONTENT;
+        }
+    }
+
+    private LoadTestConfig config;
+    private ContentStore contentStore;
+    private LoadTestResults results;
+    private byte[] content;
+    private String checksum;
+
+    public LoadTester(LoadTestConfig config, ContentStore contentStore) {
+        this.config = config;
+        this.contentStore = contentStore;
+        this.results = new LoadTestResults();
+
+        this.content = new byte[config.getSizeItems() * 1024];
+        ThreadLocalRandom.current().nextBytes(content);
+        this.checksum = new ChecksumUtil(ChecksumUtil.Algorithm.MD5)
+            .generateChecksum(new ByteArrayInputStream(content));
+    }
+
+    public LoadTestResults runTest() throws Exception {
+        String spaceId = config.getSpaceId();
+        if (!contentStore.spaceExists(spaceId)) {
+            contentStore.createSpace(spaceId);
+        }
+
+        log.info("Adding {} content items to space {}",
+                 config.getNumItems(), spaceId);
+        for (int i = 0; i < config.getNumItems(); i++) {
+            call(Operation.ADD_CONTENT, i);
+        }
+
+        log.info("Running load test with {} threads for {} seconds",
+                 config.getThreads(), config.getDuration());
+        final long end = System.currentTimeMillis() +
+                         TimeUnit.SECONDS.toMillis(config.getDuration());
+        long start = System.currentTimeMillis();
+        ExecutorService workers =
+            Executors.newFixedThreadPool(config.getThreads());
+        for (int i = 0; i < config.getThreads(); i++) {
+            workers.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.currentTimeMillis() < end) {
+                    call(Operation.pick(random.nextInt(100)),
+                         random.nextInt(config.getNumItems()));
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(config.getDuration() + 600, TimeUnit.SECONDS);
+        results.setElapsedMillis(System.currentTimeMillis() - start);
+
+        log.info("Removing content items from space {}", spaceId);
+        for (int i = 0; i < config.getNumItems(); i++) {
+            long callStart = System.nanoTime();
+            Exception error = null;
+            try {
+                contentStore.deleteContent(spaceId, PREFIX + i);
+            } catch (ContentStoreException e) {
+                error = e;
+            }
+            results.record("deleteContent", System.nanoTime() - callStart,
+                           error);
+        }
+        return results;
+    }
+
+    /*
+     * Makes a single call on the content item with the given index
+     */
+    protected void call(Operation operation, int item) {
+        String spaceId = config.getSpaceId();
+        String contentId = PREFIX + item;
+        String name = null;
+        long start = System.nanoTime();
+        Exception error = null;
+        try {
+            switch (operation) {
+                case ADD_CONTENT:
+                    name = "addContent";
+                    contentStore.addContent(spaceId,
+                                            contentId,
+                                            new ByteArrayInputStream(content),
+                                            content.length,
+                                            MIMETYPE,
+                                            checksum,
+                                            null);
+                    break;
+                case GET_PROPERTIES:
+                    name = "getContentProperties";
+                    contentStore.getContentProperties(spaceId, contentId);
+                    break;
+                case LIST_CONTENTS:
+                    name = "getSpace";
+                    contentStore.getSpace(spaceId, PREFIX, 0, null);
+                    break;
+                default:
+                    name = "getContent";
+                    Content result = contentStore.getContent(spaceId, contentId);
+                    try (InputStream stream = result.getStream()) {
+                        IOUtils.copy(stream, new NullOutputStream());
+                    }
+                    break;
+            }
+        } catch (Exception e) {
+            log.debug("{} of {} failed: {}", name, contentId, e.getMessage());
+            error = e;
+        }
+        results.record(name, System.nanoTime() - start, error);
+    }
+
+}
@@ -17,6 +17,7 @@ import org.duracloud.chunk.stream.KnownLengthInputStream;
 import org.duracloud.client.ContentStore;
 import org.duracloud.common.retry.Retriable;
 import org.duracloud.common.retry.Retrier;
+import org.duracloud.common.retry.RetryPolicy;
 import org.duracloud.common.util.ChecksumUtil;
 import org.duracloud.common.util.IOUtil;
 import org.duracloud.error.ContentStoreException;
@@ -365,8 +366,16 @@ public class DuracloudContentWriter implements ContentWriter {
         }
     }
 
+    /*
+     * Waits between retries are jittered so that many writers do not retry
+     * in lockstep. Permanent failures are already filtered out by the
+     * ContentStore, so every attempt is still made here.
+     */
     private Retrier createRetrier() {
-        return new Retrier(maxRetries, waitInMsBetweenRetries, 1);
+        return new Retrier(new RetryPolicy(maxRetries,
+                                           waitInMsBetweenRetries,
+                                           1,
+                                           RetryPolicy.Jitter.FULL));
     }
 
     private void addContentThenReport(String spaceId,
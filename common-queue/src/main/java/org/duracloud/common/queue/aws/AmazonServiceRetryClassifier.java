@@ -0,0 +1,38 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.queue.aws;
+
+import org.duracloud.common.retry.RetryClassifier;
+
+import com.amazonaws.AmazonServiceException;
+
+/**
+ * Treats AWS client errors (4xx responses) as permanent, with the exception
+ * of throttling responses, and everything else (5xx responses, network
+ * errors) as retryable.
+ */
+public class AmazonServiceRetryClassifier implements RetryClassifier {
+
+    private static final int THROTTLED = 429;
+
+    @Override
+    public boolean isRetryable(Exception e) {
+        if (e instanceof AmazonServiceException) {
+            AmazonServiceException ase = (AmazonServiceException) e;
+            int status = ase.getStatusCode();
+            boolean throttled = status == THROTTLED ||
+                                "Throttling".equals(ase.getErrorCode()) ||
+                                "RequestThrottled".equals(ase.getErrorCode());
+            if (status >= 400 && status < 500 && !throttled) {
+                return false;
+            }
+        }
+        return RetryClassifier.DEFAULT.isRetryable(e);
+    }
+
+}
@@ -25,8 +25,11 @@ import org.duracloud.common.queue.TaskNotFoundException;
 import org.duracloud.common.queue.TaskQueue;
 import org.duracloud.common.queue.TimeoutException;
 import org.duracloud.common.queue.task.Task;
+import org.duracloud.common.retry.CircuitBreaker;
 import org.duracloud.common.retry.Retriable;
 import org.duracloud.common.retry.Retrier;
+import org.duracloud.common.retry.RetryBudget;
+import org.duracloud.common.retry.RetryPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -67,6 +70,9 @@ public class SQSTaskQueue implements TaskQueue {
     private String queueUrl;
     private Integer visibilityTimeout;  // in seconds
 
+    private RetryBudget retryBudget = new RetryBudget();
+    private CircuitBreaker circuitBreaker;
+
     public enum MsgProp {
         MSG_ID, RECEIPT_HANDLE;
     }
@@ -85,6 +91,7 @@ public class SQSTaskQueue implements TaskQueue {
     public SQSTaskQueue(AmazonSQSClient sqsClient, String queueName) {
         this.sqsClient = sqsClient;
         this.queueName = queueName;
+        this.circuitBreaker = new CircuitBreaker("SQS queue " + queueName);
         this.queueUrl = getQueueUrl();
         this.visibilityTimeout = getVisibilityTimeout();
     }
@@ -94,6 +101,22 @@ public class SQSTaskQueue implements TaskQueue {
         return this.queueName;
     }
 
+    /**
+     * Creates a retrier for sending messages. Waits are jittered so that
+     * many producers do not retry in lockstep, and retries are bounded by
+     * a budget shared by all sends made through this queue.
+     */
+    private Retrier createRetrier(int waitBetweenRetries) {
+        RetryPolicy policy = new RetryPolicy(4,
+                                             waitBetweenRetries,
+                                             2,
+                                             RetryPolicy.Jitter.FULL);
+        policy.setClassifier(new AmazonServiceRetryClassifier());
+        policy.setBudget(retryBudget);
+        policy.setCircuitBreaker(circuitBreaker);
+        return new Retrier(policy);
+    }
+
     protected Task marshallTask(Message msg) {
         Properties props = new Properties();
         Task task = null;
@@ -147,7 +170,7 @@ public class SQSTaskQueue implements TaskQueue {
         try {
             final String msgBody = unmarshallTask(task);
             
-             new Retrier(4, 10000, 2).execute(new Retriable(){
+             createRetrier(10000).execute(new Retriable(){
                  @Override
                  public Object retry() throws Exception {
                      sqsClient.sendMessage(new SendMessageRequest(queueUrl, msgBody));
@@ -214,7 +237,7 @@ public class SQSTaskQueue implements TaskQueue {
                 .withQueueUrl(queueUrl)
                 .withEntries(msgEntries);
            
-            new Retrier(4, 5000, 2).execute(new Retriable(){
+            createRetrier(5000).execute(new Retriable(){
                 @Override
                 public Object retry() throws Exception {
                     sqsClient.sendMessageBatch(sendMessageBatchRequest);
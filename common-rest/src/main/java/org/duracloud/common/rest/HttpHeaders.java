@@ -13,12 +13,14 @@ package org.duracloud.common.rest;
  */
 public interface HttpHeaders extends javax.ws.rs.core.HttpHeaders {
 
+    public static final String ACCEPT_RANGES = "Accept-Ranges";
     public static final String AGE = "Age";
     public static final String CONNECTION = "Connection";
     public static final String CONTENT_DISPOSITION = "Content-Disposition";
     public static final String CONTENT_MD5 = "Content-MD5";
     public static final String CONTENT_RANGE = "Content-Range";
     public static final String PRAGMA = "Pragma";
+    public static final String RANGE = "Range";
     public static final String RETRY_AFTER = "Retry-After";
     public static final String SERVER = "Server";
     public static final String TRANSFER_ENCODING = "Transfer-Encoding";
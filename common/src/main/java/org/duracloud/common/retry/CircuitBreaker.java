@@ -0,0 +1,123 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.retry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fails calls fast while a backend is known to be unavailable.
+ *
+ * The breaker starts CLOSED. After a number of consecutive retryable
+ * failures it moves to OPEN, and all calls are rejected with a
+ * CircuitOpenException until the open interval has elapsed. A single trial
+ * call is then allowed through (HALF_OPEN); success closes the breaker,
+ * failure opens it again.
+ *
+ * A breaker is intended to be shared by all Retriers which talk to the same
+ * backend.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    public static final int DEFAULT_FAILURE_THRESHOLD = 10;
+    public static final long DEFAULT_OPEN_INTERVAL_MS = 30000;
+
+    private static final Logger log =
+        LoggerFactory.getLogger(CircuitBreaker.class);
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openIntervalMs;
+
+    private final AtomicReference<State> state =
+        new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger(0);
+    private final AtomicLong openedAt = new AtomicLong(0);
+
+    public CircuitBreaker(String name) {
+        this(name, DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_INTERVAL_MS);
+    }
+
+    /**
+     * @param name identifies the protected backend in log messages
+     * @param failureThreshold consecutive failures which open the breaker
+     * @param openIntervalMs time to reject calls before allowing a trial call
+     */
+    public CircuitBreaker(String name, int failureThreshold, long openIntervalMs) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException(
+                "failureThreshold must be greater than zero");
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openIntervalMs = openIntervalMs;
+    }
+
+    /**
+     * Determines whether a call may proceed.
+     *
+     * @throws CircuitOpenException if the breaker is open
+     */
+    public void acquirePermission() throws CircuitOpenException {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return;
+        }
+        if (current == State.OPEN) {
+            long elapsed = currentTimeMillis() - openedAt.get();
+            if (elapsed >= openIntervalMs &&
+                state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+                log.info("Circuit breaker for {} is half-open, " +
+                         "allowing a trial call", name);
+                return;
+            }
+        }
+        throw new CircuitOpenException(name);
+    }
+
+    public void recordSuccess() {
+        consecutiveFailures.set(0);
+        if (state.getAndSet(State.CLOSED) != State.CLOSED) {
+            log.info("Circuit breaker for {} is closed", name);
+        }
+    }
+
+    public void recordFailure() {
+        int failures = consecutiveFailures.incrementAndGet();
+        State current = state.get();
+        if (current == State.HALF_OPEN ||
+            (current == State.CLOSED && failures >= failureThreshold)) {
+            if (state.compareAndSet(current, State.OPEN)) {
+                openedAt.set(currentTimeMillis());
+                log.warn("Circuit breaker for {} is open after {} " +
+                         "consecutive failures", name, failures);
+            }
+        }
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+}
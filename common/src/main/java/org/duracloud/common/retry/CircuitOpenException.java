@@ -0,0 +1,25 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.retry;
+
+import org.duracloud.common.error.DuraCloudCheckedException;
+
+/**
+ * Thrown when a call is rejected because the circuit breaker protecting
+ * a backend is open.
+ */
+public class CircuitOpenException extends DuraCloudCheckedException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CircuitOpenException(String name) {
+        super("Calls to " + name + " are temporarily suspended because " +
+              "it has been failing consistently");
+    }
+
+}
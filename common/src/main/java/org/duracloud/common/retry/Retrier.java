@@ -33,6 +33,16 @@ import org.slf4j.LoggerFactory;
  *     }
  * });
  *
+ * Retries are governed by a RetryPolicy, which can add jitter to the waits,
+ * skip retries of permanent failures, and share a RetryBudget and
+ * CircuitBreaker across all the Retriers used by a single client:
+ *
+ * RetryPolicy policy = new RetryPolicy(3, 1000, 1, RetryPolicy.Jitter.FULL);
+ * policy.setClassifier(e -> !(e instanceof IllegalArgumentException));
+ * policy.setBudget(budget);
+ * policy.setCircuitBreaker(breaker);
+ * return new Retrier(policy).execute(() -> doWork());
+ *
  * @author Bill Branan
  *         Date: 10/23/13
  */
@@ -44,18 +54,12 @@ public class Retrier {
     public static final int DEFAULT_MAX_RETRIES = 3;
     public static final int DEFAULT_WAIT_BETWEEN_RETRIES = 1000;
     public static final int DEFAULT_WAIT_MULTIPLIER = 1;
-    private int maxRetries;
-    
-    /**
-     * The number of milliseconds to wait between retries
-     */
-    private long waitBetweenRetries;
 
     /**
-     * A multiplier to make waits between retries increase exponentially. The wait time will 
-     * for each retry equals  (attempt ^ multiplier) * wait
+     * Determines the number of retries, the waits between them, and which
+     * failures are retried
      */
-    private int waitBetweenRetriesMultiplier;
+    private RetryPolicy policy;
 
     private static final Logger log = LoggerFactory.getLogger(Retrier.class);
     
@@ -74,15 +78,32 @@ public class Retrier {
     }
 
     /**
-     * 
+     * A multiplier makes waits between retries increase exponentially. The
+     * wait time for each retry equals (attempt ^ multiplier) * wait
+     *
      * @param maxRetries
      * @param waitBetweenRetries
      * @param waitBetweenRetriesMultiplier
      */
     public Retrier(int maxRetries, int waitBetweenRetries, int waitBetweenRetriesMultiplier) {
-        this.maxRetries = maxRetries;
-        this.waitBetweenRetries = waitBetweenRetries;
-        this.waitBetweenRetriesMultiplier = waitBetweenRetriesMultiplier;
+        this(new RetryPolicy(maxRetries,
+                             waitBetweenRetries,
+                             waitBetweenRetriesMultiplier));
+    }
+
+    /**
+     *
+     * @param policy
+     */
+    public Retrier(RetryPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("policy must be non-null");
+        }
+        this.policy = policy;
+    }
+
+    public RetryPolicy getPolicy() {
+        return policy;
     }
     
     private static final ExceptionHandler DEFAULT_EXCEPTION_HANDLER =
@@ -132,15 +153,58 @@ public class Retrier {
                     "exceptionHandler must be non-null");
         }
         
+        RetryClassifier classifier = policy.getClassifier();
+        RetryBudget budget = policy.getBudget();
+        CircuitBreaker breaker = policy.getCircuitBreaker();
+        int maxRetries = policy.getMaxRetries();
+
+        if (budget != null) {
+            budget.recordCall();
+        }
+
         Exception lastException = null;
+        long wait = policy.getWaitBetweenRetries();
         for(int i=0; i<=maxRetries; i++) {
+            if (breaker != null) {
+                try {
+                    breaker.acquirePermission();
+                } catch (CircuitOpenException e) {
+                    throw (null == lastException) ? e : lastException;
+                }
+            }
+
             try {
-                return (T)retriable.retry();
+                T result = (T)retriable.retry();
+                if (breaker != null) {
+                    breaker.recordSuccess();
+                }
+                return result;
             } catch (Exception e) {
                 lastException = e;
                 exceptionHandler.handle(e);
-                if(i <= maxRetries){
-                    WaitUtil.waitMs((long)Math.pow(i,waitBetweenRetriesMultiplier)*waitBetweenRetries);
+
+                // A permanent failure is an answer from a working backend,
+                // so it counts as a success for the breaker. This also
+                // closes a breaker whose trial call failed in this way.
+                boolean retryable = classifier.isRetryable(e);
+                if (breaker != null) {
+                    if (retryable) {
+                        breaker.recordFailure();
+                    } else {
+                        breaker.recordSuccess();
+                    }
+                }
+                if (!retryable) {
+                    break;
+                }
+                if (i < maxRetries) {
+                    if (budget != null && !budget.tryAcquireRetry()) {
+                        log.warn("Retry budget exhausted, not retrying " +
+                                 "after failure: {}", e.getMessage());
+                        break;
+                    }
+                    wait = policy.computeWait(i, wait);
+                    WaitUtil.waitMs(wait);
                 }
             }
         }
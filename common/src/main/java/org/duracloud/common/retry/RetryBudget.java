@@ -0,0 +1,89 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the number of retries a single client can make relative to the
+ * number of calls it makes. Every call deposits a fraction of a token
+ * (the retry ratio) and every retry withdraws a full token. When a backend
+ * degrades, this keeps the extra load generated by retries to a bounded
+ * percentage of normal traffic rather than multiplying it by the number of
+ * retries.
+ *
+ * A budget is intended to be shared by all Retriers created by one client.
+ */
+public class RetryBudget {
+
+    public static final double DEFAULT_RETRY_RATIO = 0.2;
+    public static final int DEFAULT_MAX_TOKENS = 100;
+
+    // Tokens are tracked in thousandths to allow fractional deposits
+    private static final long SCALE = 1000;
+
+    private final long depositPerCall;
+    private final long maxBalance;
+    private final AtomicLong balance;
+
+    public RetryBudget() {
+        this(DEFAULT_RETRY_RATIO, DEFAULT_MAX_TOKENS);
+    }
+
+    /**
+     * @param retryRatio fraction of calls which may be retried once the
+     *                   initial reserve has been used, e.g. 0.2 for 20%
+     * @param maxTokens maximum number of retries which may be banked; the
+     *                  budget starts full
+     */
+    public RetryBudget(double retryRatio, int maxTokens) {
+        if (retryRatio < 0 || maxTokens < 0) {
+            throw new IllegalArgumentException(
+                "retryRatio and maxTokens must be non-negative");
+        }
+        this.depositPerCall = (long) (retryRatio * SCALE);
+        this.maxBalance = maxTokens * SCALE;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    /**
+     * Records a new (non-retry) call, which earns a fraction of a retry.
+     */
+    public void recordCall() {
+        long current;
+        long updated;
+        do {
+            current = balance.get();
+            updated = Math.min(maxBalance, current + depositPerCall);
+        } while (current != updated && !balance.compareAndSet(current, updated));
+    }
+
+    /**
+     * Attempts to withdraw a retry from the budget.
+     *
+     * @return true if a retry may be made, false if the budget is exhausted
+     */
+    public boolean tryAcquireRetry() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    /**
+     * @return number of whole retries currently available
+     */
+    public long getAvailableRetries() {
+        return balance.get() / SCALE;
+    }
+
+}
@@ -0,0 +1,34 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.retry;
+
+/**
+ * Determines whether a failure encountered by a Retriable action is
+ * transient (and worth retrying) or permanent (in which case the failure
+ * is reported to the caller immediately).
+ */
+public interface RetryClassifier {
+
+    /**
+     * Treats every failure as retryable. This matches the historical
+     * behavior of the Retrier.
+     */
+    RetryClassifier DEFAULT = new RetryClassifier() {
+        @Override
+        public boolean isRetryable(Exception e) {
+            return true;
+        }
+    };
+
+    /**
+     * @param e the failure of the most recent attempt
+     * @return true if the action should be attempted again
+     */
+    boolean isRetryable(Exception e);
+
+}
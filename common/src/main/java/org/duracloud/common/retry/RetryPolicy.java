@@ -0,0 +1,164 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.retry;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Describes how a Retrier handles failures: how many times to retry, how
+ * long to wait between attempts, which failures are worth retrying, and
+ * (optionally) the retry budget and circuit breaker shared by a client.
+ *
+ * Jitter modes:
+ * NONE - waits (attempt ^ multiplier) * wait, the original Retrier behavior
+ * FULL - waits a random time between zero and the NONE value
+ * DECORRELATED - waits a random time between wait and three times the
+ *                previous wait
+ * All waits are capped at maxWait.
+ */
+public class RetryPolicy {
+
+    public enum Jitter {
+        NONE, FULL, DECORRELATED
+    }
+
+    public static final long DEFAULT_MAX_WAIT = 60000;
+
+    private int maxRetries;
+    private long waitBetweenRetries;
+    private int waitBetweenRetriesMultiplier;
+    private long maxWait = DEFAULT_MAX_WAIT;
+    private Jitter jitter = Jitter.NONE;
+    private RetryClassifier classifier = RetryClassifier.DEFAULT;
+    private RetryBudget budget;
+    private CircuitBreaker circuitBreaker;
+
+    public RetryPolicy() {
+        this(Retrier.DEFAULT_MAX_RETRIES,
+             Retrier.DEFAULT_WAIT_BETWEEN_RETRIES,
+             Retrier.DEFAULT_WAIT_MULTIPLIER);
+    }
+
+    public RetryPolicy(int maxRetries,
+                       long waitBetweenRetries,
+                       int waitBetweenRetriesMultiplier) {
+        this.maxRetries = maxRetries;
+        this.waitBetweenRetries = waitBetweenRetries;
+        this.waitBetweenRetriesMultiplier = waitBetweenRetriesMultiplier;
+    }
+
+    public RetryPolicy(int maxRetries,
+                       long waitBetweenRetries,
+                       int waitBetweenRetriesMultiplier,
+                       Jitter jitter) {
+        this(maxRetries, waitBetweenRetries, waitBetweenRetriesMultiplier);
+        setJitter(jitter);
+    }
+
+    /**
+     * Determines the time to wait before the next attempt.
+     *
+     * @param attempt zero-based index of the attempt which just failed
+     * @param previousWait the wait used before the attempt which just failed
+     * @return milliseconds to wait
+     */
+    public long computeWait(int attempt, long previousWait) {
+        long wait;
+        switch (jitter) {
+            case FULL:
+                wait = randomBetween(0, exponentialWait(attempt));
+                break;
+            case DECORRELATED:
+                long upper = Math.max(waitBetweenRetries, previousWait * 3);
+                wait = randomBetween(waitBetweenRetries, upper);
+                break;
+            default:
+                wait = exponentialWait(attempt);
+        }
+        return Math.min(wait, maxWait);
+    }
+
+    private long exponentialWait(int attempt) {
+        double wait =
+            Math.pow(attempt, waitBetweenRetriesMultiplier) * waitBetweenRetries;
+        return (long) Math.min(wait, Long.MAX_VALUE);
+    }
+
+    private long randomBetween(long lower, long upper) {
+        if (upper <= lower) {
+            return lower;
+        }
+        return ThreadLocalRandom.current().nextLong(lower, upper + 1);
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public long getWaitBetweenRetries() {
+        return waitBetweenRetries;
+    }
+
+    public void setWaitBetweenRetries(long waitBetweenRetries) {
+        this.waitBetweenRetries = waitBetweenRetries;
+    }
+
+    public int getWaitBetweenRetriesMultiplier() {
+        return waitBetweenRetriesMultiplier;
+    }
+
+    public void setWaitBetweenRetriesMultiplier(int waitBetweenRetriesMultiplier) {
+        this.waitBetweenRetriesMultiplier = waitBetweenRetriesMultiplier;
+    }
+
+    public long getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(long maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public Jitter getJitter() {
+        return jitter;
+    }
+
+    public void setJitter(Jitter jitter) {
+        this.jitter = (null == jitter) ? Jitter.NONE : jitter;
+    }
+
+    public RetryClassifier getClassifier() {
+        return classifier;
+    }
+
+    public void setClassifier(RetryClassifier classifier) {
+        this.classifier =
+            (null == classifier) ? RetryClassifier.DEFAULT : classifier;
+    }
+
+    public RetryBudget getBudget() {
+        return budget;
+    }
+
+    public void setBudget(RetryBudget budget) {
+        this.budget = budget;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+}
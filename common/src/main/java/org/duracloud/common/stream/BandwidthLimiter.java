@@ -0,0 +1,204 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.stream;
+
+import java.io.InterruptedIOException;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the rate at which bytes are transferred, shared by all of the
+ * threads which transfer content. Uses a token bucket which fills at the
+ * limit rate and holds at most one second's worth of bytes: each transfer
+ * takes tokens from the bucket, and waits when the bucket has run dry until
+ * enough tokens have been added to cover it.
+ *
+ * The limit is either a fixed number of bytes per second, or is taken from
+ * a time-of-day schedule, falling back to the fixed limit for times the
+ * schedule does not cover. Both may be changed while transfers are running.
+ *
+ * The current transfer rate is measured over the last few seconds.
+ */
+public class BandwidthLimiter {
+
+    public static final long UNLIMITED = 0;
+
+    private static final int RATE_WINDOW_SECONDS = 5;
+    private static final long LIMIT_CHECK_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private static final BandwidthLimiter instance = new BandwidthLimiter();
+
+    private volatile long bytesPerSecond = UNLIMITED;
+    private volatile BandwidthSchedule schedule;
+
+    // Token bucket, guarded by this
+    private double tokens = 0;
+    private long lastRefill = System.nanoTime();
+    private long currentLimit = UNLIMITED;
+    private long limitCheckedAt = 0;
+    private boolean limitChecked = false;
+
+    // Bytes transferred in each of the last few seconds, guarded by this
+    private final long[] secondBytes = new long[RATE_WINDOW_SECONDS];
+    private final long[] seconds = new long[RATE_WINDOW_SECONDS];
+    private final long startTime = System.currentTimeMillis();
+    private final LongAdder totalBytes = new LongAdder();
+
+    /**
+     * @return the limiter shared by all transfers in this process
+     */
+    public static BandwidthLimiter getInstance() {
+        return instance;
+    }
+
+    /**
+     * Records the transfer of the given number of bytes, waiting as long as
+     * needed to keep the transfer rate within the limit.
+     *
+     * @throws InterruptedIOException if interrupted while waiting
+     */
+    public void acquire(int bytes) throws InterruptedIOException {
+        if (bytes <= 0) {
+            return;
+        }
+
+        long wait = 0;
+        synchronized (this) {
+            long now = System.nanoTime();
+            recordTransfer(bytes);
+            long limit = getCurrentLimit(now);
+            if (limit > UNLIMITED) {
+                double elapsed = (now - lastRefill) / 1e9;
+                tokens = Math.min(limit, tokens + elapsed * limit) - bytes;
+                if (tokens < 0) {
+                    wait = (long) (-tokens * 1e9 / limit);
+                }
+            }
+            lastRefill = now;
+        }
+
+        if (wait > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException(
+                    "Interrupted while waiting on bandwidth limit");
+            }
+        }
+    }
+
+    /*
+     * Determines the limit in effect, checking the schedule at most once
+     * per second. Must be called holding the lock.
+     */
+    private long getCurrentLimit(long now) {
+        if (!limitChecked || now - limitCheckedAt > LIMIT_CHECK_INTERVAL) {
+            long limit = getConfiguredLimit();
+            if (limit != currentLimit) {
+                // Start the new limit with an empty bucket
+                tokens = 0;
+                currentLimit = limit;
+            }
+            limitCheckedAt = now;
+            limitChecked = true;
+        }
+        return currentLimit;
+    }
+
+    /**
+     * Determines the limit which applies at this moment from the configured
+     * rate and schedule. Subclasses may base the limit on other conditions;
+     * it is checked at most once per second.
+     *
+     * @return bytes per second, or 0 if there is no limit
+     */
+    protected long getConfiguredLimit() {
+        long limit = bytesPerSecond;
+        BandwidthSchedule currentSchedule = schedule;
+        if (null != currentSchedule) {
+            Long scheduled = currentSchedule.getLimit(LocalTime.now());
+            if (null != scheduled) {
+                limit = scheduled;
+            }
+        }
+        return limit;
+    }
+
+    private void recordTransfer(long bytes) {
+        long second = System.currentTimeMillis() / 1000;
+        int index = (int) (second % RATE_WINDOW_SECONDS);
+        if (seconds[index] != second) {
+            seconds[index] = second;
+            secondBytes[index] = 0;
+        }
+        secondBytes[index] += bytes;
+        totalBytes.add(bytes);
+    }
+
+    /**
+     * @return the average bytes per second transferred over the last
+     *         few seconds
+     */
+    public synchronized long getCurrentRate() {
+        long now = System.currentTimeMillis();
+        long second = now / 1000;
+        long bytes = 0;
+        for (int i = 0; i < RATE_WINDOW_SECONDS; i++) {
+            if (seconds[i] > second - RATE_WINDOW_SECONDS) {
+                bytes += secondBytes[i];
+            }
+        }
+        // The earlier whole seconds in the window, plus the current partial one
+        long window = (RATE_WINDOW_SECONDS - 1) * 1000 + now % 1000;
+        window = Math.max(Math.min(window, now - startTime), 1);
+        return bytes * 1000 / window;
+    }
+
+    /**
+     * @return the total bytes transferred
+     */
+    public long getTotalBytes() {
+        return totalBytes.sum();
+    }
+
+    /**
+     * @return the limit in bytes per second currently in effect, taking the
+     *         schedule into account, or 0 if there is no limit
+     */
+    public synchronized long getCurrentLimit() {
+        return getCurrentLimit(System.nanoTime());
+    }
+
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    /**
+     * @param bytesPerSecond the limit which applies when the schedule does
+     *                       not cover the current time, 0 for no limit
+     */
+    public synchronized void setBytesPerSecond(long bytesPerSecond) {
+        this.bytesPerSecond = Math.max(bytesPerSecond, UNLIMITED);
+        limitChecked = false;
+    }
+
+    public BandwidthSchedule getSchedule() {
+        return schedule;
+    }
+
+    /**
+     * @param schedule time-of-day limits, or null for none
+     */
+    public synchronized void setSchedule(BandwidthSchedule schedule) {
+        this.schedule = schedule;
+        limitChecked = false;
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.stream;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A set of time-of-day windows, each with a bandwidth limit. The schedule
+ * is written as a comma separated list of windows, each in the form
+ * HH:mm-HH:mm=RATE, for example "08:00-18:00=512K,18:00-08:00=0". A window
+ * which ends before it starts runs past midnight. RATE is in bytes per
+ * second and may end with K, M or G (multiples of 1024); 0 means there is
+ * no limit. Where windows overlap, the first one listed applies.
+ */
+public class BandwidthSchedule {
+
+    private final List<Window> windows;
+    private final String value;
+
+    private BandwidthSchedule(List<Window> windows, String value) {
+        this.windows = windows;
+        this.value = value;
+    }
+
+    /**
+     * Reads a schedule in the form described above.
+     *
+     * @throws IllegalArgumentException if the schedule is not valid
+     */
+    public static BandwidthSchedule parse(String schedule) {
+        if (null == schedule || schedule.trim().isEmpty()) {
+            throw new IllegalArgumentException("Bandwidth schedule is empty");
+        }
+
+        List<Window> windows = new ArrayList<>();
+        for (String entry : schedule.split(",")) {
+            String trimmed = entry.trim();
+            int equals = trimmed.indexOf('=');
+            int dash = trimmed.indexOf('-');
+            if (equals < 0 || dash < 0 || dash > equals) {
+                throw new IllegalArgumentException(
+                    "Bandwidth schedule entry '" + trimmed + "' is not in " +
+                    "the form HH:mm-HH:mm=RATE");
+            }
+            try {
+                LocalTime start = LocalTime.parse(trimmed.substring(0, dash));
+                LocalTime end =
+                    LocalTime.parse(trimmed.substring(dash + 1, equals));
+                long limit = parseRate(trimmed.substring(equals + 1));
+                windows.add(new Window(start, end, limit));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException(
+                    "Bandwidth schedule entry '" + trimmed + "' includes an " +
+                    "invalid time: " + e.getMessage());
+            }
+        }
+        return new BandwidthSchedule(Collections.unmodifiableList(windows),
+                                     schedule.trim());
+    }
+
+    /**
+     * Reads a rate in bytes per second, which may end with K, M or G
+     *
+     * @throws IllegalArgumentException if the rate is not valid
+     */
+    public static long parseRate(String rate) {
+        String value = rate.trim().toUpperCase();
+        long multiplier = 1;
+        if (value.endsWith("K")) {
+            multiplier = 1024;
+        } else if (value.endsWith("M")) {
+            multiplier = 1024 * 1024;
+        } else if (value.endsWith("G")) {
+            multiplier = 1024 * 1024 * 1024;
+        }
+        if (multiplier > 1) {
+            value = value.substring(0, value.length() - 1);
+        }
+
+        try {
+            long bytes = Long.parseLong(value.trim()) * multiplier;
+            if (bytes < 0) {
+                throw new NumberFormatException();
+            }
+            return bytes;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(
+                "Bandwidth rate '" + rate + "' must be a number of bytes per " +
+                "second, optionally followed by K, M or G");
+        }
+    }
+
+    /**
+     * @return the limit in bytes per second for the given time (0 for no
+     *         limit), or null if no window includes the time
+     */
+    public Long getLimit(LocalTime time) {
+        for (Window window : windows) {
+            if (window.contains(time)) {
+                return window.limit;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+
+    private static class Window {
+        private final LocalTime start;
+        private final LocalTime end;
+        private final long limit;
+
+        Window(LocalTime start, LocalTime end, long limit) {
+            this.start = start;
+            this.end = end;
+            this.limit = limit;
+        }
+
+        boolean contains(LocalTime time) {
+            if (start.equals(end)) {
+                return true;
+            } else if (start.isBefore(end)) {
+                return !time.isBefore(start) && time.isBefore(end);
+            } else {
+                return !time.isBefore(start) || time.isBefore(end);
+            }
+        }
+    }
+
+}
@@ -16,19 +16,33 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.Map;
 
 public class ChecksumUtil {
 
-    private final Logger log = LoggerFactory.getLogger(ChecksumUtil.class);
+    private static final Logger log =
+        LoggerFactory.getLogger(ChecksumUtil.class);
+
+    // Size of the buffer content is read through while computing checksums
+    protected static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
 
     private final MessageDigest digest;
 
     public ChecksumUtil(Algorithm alg) {
+        digest = getDigest(alg);
+    }
+
+    private static MessageDigest getDigest(Algorithm alg) {
         try {
-            digest = MessageDigest.getInstance(alg.toString());
+            return MessageDigest.getInstance(alg.toString());
         } catch (NoSuchAlgorithmException e) {
             log.error("Error getting msg digest instance", e);
             throw new RuntimeException(e);
@@ -36,9 +50,8 @@ public class ChecksumUtil {
     }
 
     public String generateChecksum(File file) throws IOException {
-        try (FileInputStream stream = new FileInputStream(file)) {
-            return generateChecksum(stream);
-        }
+        update(file, digest);
+        return checksumBytesToString(digest.digest());
     }
 
     /**
@@ -47,20 +60,102 @@ public class ChecksumUtil {
      * @return string representation of the generated checksum.
      */
     public String generateChecksum(InputStream inStream) {
-        byte[] buf = new byte[4096];
-        int numRead = 0;
+        update(inStream, digest);
+        return checksumBytesToString(digest.digest());
+    }
+
+    /**
+     * Generates checksums of a file using each of the given algorithms,
+     * reading the file only once.
+     *
+     * @param file Content used as target of the checksums.
+     * @param algorithms Algorithms used to compute the checksums
+     * @return hex-encoded checksums, keyed by algorithm
+     */
+    public static Map<Algorithm, String> generateChecksums(File file,
+                                                           Algorithm... algorithms)
+        throws IOException {
+        MessageDigest[] digests = getDigests(algorithms);
+        update(file, digests);
+        return toChecksums(algorithms, digests);
+    }
+
+    /**
+     * Generates checksums of the content of a stream using each of the given
+     * algorithms, reading the stream only once.
+     *
+     * @param inStream Content used as target of the checksums.
+     * @param algorithms Algorithms used to compute the checksums
+     * @return hex-encoded checksums, keyed by algorithm
+     */
+    public static Map<Algorithm, String> generateChecksums(InputStream inStream,
+                                                           Algorithm... algorithms) {
+        MessageDigest[] digests = getDigests(algorithms);
+        update(inStream, digests);
+        return toChecksums(algorithms, digests);
+    }
+
+    private static MessageDigest[] getDigests(Algorithm... algorithms) {
+        MessageDigest[] digests = new MessageDigest[algorithms.length];
+        for (int i = 0; i < algorithms.length; i++) {
+            digests[i] = getDigest(algorithms[i]);
+        }
+        return digests;
+    }
+
+    private static Map<Algorithm, String> toChecksums(Algorithm[] algorithms,
+                                                      MessageDigest[] digests) {
+        Map<Algorithm, String> checksums = new EnumMap<>(Algorithm.class);
+        for (int i = 0; i < algorithms.length; i++) {
+            checksums.put(algorithms[i],
+                          checksumBytesToString(digests[i].digest()));
+        }
+        return checksums;
+    }
+
+    /*
+     * Files are read through their channel into a heap buffer, which the
+     * digests consume in place. Digests copy the content of direct and mapped
+     * buffers out to a small array before use, so gain nothing from them.
+     */
+    private static void update(File file, MessageDigest... digests)
+        throws IOException {
+        try (FileInputStream stream = new FileInputStream(file);
+             FileChannel channel = stream.getChannel()) {
+            ByteBuffer buf = ByteBuffer.allocate(BUFFER_SIZE);
+            long totalBytesRead = 0;
+            int numRead;
+            while ((numRead = channel.read(buf)) != -1) {
+                for (MessageDigest digest : digests) {
+                    digest.update(buf.array(), 0, numRead);
+                }
+                buf.clear();
+                totalBytesRead = logProgress(totalBytesRead, numRead);
+            }
+        }
+    }
+
+    private static void update(InputStream inStream, MessageDigest... digests) {
+        byte[] buf = new byte[BUFFER_SIZE];
         long totalBytesRead = 0;
+        int numRead;
         while ((numRead = readFromStream(inStream, buf)) != -1) {
-            digest.update(buf, 0, numRead);
-            totalBytesRead += numRead;
-            
-            if(log.isDebugEnabled()){
-                if(totalBytesRead % (1000*1000*1000) == 0 ) {
-                    log.debug("Total bytes read: {}", totalBytesRead);
-                }
+            for (MessageDigest digest : digests) {
+                digest.update(buf, 0, numRead);
             }
+            totalBytesRead = logProgress(totalBytesRead, numRead);
         }
-        return checksumBytesToString(digest.digest());
+    }
+
+    private static long logProgress(long totalBytesRead, int numRead) {
+        long total = totalBytesRead + numRead;
+        if (log.isDebugEnabled()) {
+            long gigabyte = 1000 * 1000 * 1000;
+            if (total / gigabyte != totalBytesRead / gigabyte) {
+                log.debug("Total bytes read: {}", total);
+            }
+        }
+        return total;
     }
 
     /**
@@ -94,7 +189,7 @@ public class ChecksumUtil {
         return new String(Base64.encodeBase64(generateChecksumBytes(string)));
     }
 
-    private int readFromStream(InputStream inStream, byte[] buf) {
+    private static int readFromStream(InputStream inStream, byte[] buf) {
         int numRead = -1;
         try {
             numRead = inStream.read(buf);
@@ -159,15 +254,13 @@ public class ChecksumUtil {
      * on the hex values appearing in the array.
      */
     public static String checksumBytesToString(byte[] digestBytes) {
-        StringBuffer hexString = new StringBuffer();
-        for (int i=0; i<digestBytes.length; i++) {
-            String hex=Integer.toHexString(0xff & digestBytes[i]);
-            if(hex.length() == 1) {
-                hexString.append('0');
-            }
-            hexString.append(hex);
+        char[] hex = new char[digestBytes.length * 2];
+        for (int i = 0; i < digestBytes.length; i++) {
+            int value = digestBytes[i] & 0xff;
+            hex[i * 2] = HEX_DIGITS[value >>> 4];
+            hex[i * 2 + 1] = HEX_DIGITS[value & 0x0f];
         }
-        return hexString.toString();
+        return new String(hex);
     }
 
     public static byte[] hexStringToByteArray(String s) {
@@ -0,0 +1,283 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts a set of strings which may be too large to hold in memory. Values
+ * are collected in memory until the limit is reached, at which point they
+ * are sorted and spilled to a run file. The sorted result is produced by
+ * merging the runs, so only one value per run is held in memory at a time.
+ *
+ * Values are sorted in their natural order unless a comparator is given.
+ * Of values which compare as equal, only the one added last is kept.
+ */
+public class ExternalSorter implements Closeable {
+
+    public static final int DEFAULT_MAX_IN_MEMORY = 100000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final File tempDir;
+    private final int maxInMemory;
+    private final Comparator<String> comparator;
+    private List<String> values = new ArrayList<>();
+    private final List<Run> runs = new ArrayList<>();
+    private final List<Closeable> readers = new ArrayList<>();
+    private long size = 0;
+
+    /**
+     * @param tempDir directory in which to write run files, the system
+     *                temp directory is used if null
+     * @param maxInMemory the number of values to hold in memory before
+     *                    spilling to disk
+     */
+    public ExternalSorter(File tempDir, int maxInMemory) {
+        this(tempDir, maxInMemory, Comparator.<String>naturalOrder());
+    }
+
+    /**
+     * @param tempDir directory in which to write run files, the system
+     *                temp directory is used if null
+     * @param maxInMemory the number of values to hold in memory before
+     *                    spilling to disk
+     * @param comparator the order of the values, values which compare as
+     *                   equal are duplicates
+     */
+    public ExternalSorter(File tempDir,
+                          int maxInMemory,
+                          Comparator<String> comparator) {
+        this.tempDir = tempDir;
+        this.maxInMemory = Math.max(maxInMemory, 1);
+        this.comparator = comparator;
+    }
+
+    public void add(String value) throws IOException {
+        values.add(value);
+        size++;
+        if (values.size() >= maxInMemory) {
+            spill();
+        }
+    }
+
+    /**
+     * @return the number of values added, including duplicates
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return the number of run files written to disk
+     */
+    public int getRunCount() {
+        return runs.size();
+    }
+
+    /**
+     * Provides the values added to this sorter in ascending order, without
+     * duplicates. No further values may be added once this is called.
+     */
+    public Iterator<String> sortedIterator() throws IOException {
+        if (runs.isEmpty()) {
+            Collections.sort(values, comparator);
+            return new DistinctIterator(values.iterator());
+        }
+
+        spill();
+        values = null;
+        return new DistinctIterator(new MergeIterator());
+    }
+
+    /*
+     * The sort is stable, so that duplicates remain in the order in which
+     * they were added.
+     */
+    private void spill() throws IOException {
+        if (values.isEmpty()) {
+            return;
+        }
+
+        Collections.sort(values, comparator);
+        if (null != tempDir) {
+            tempDir.mkdirs();
+        }
+        File runFile = File.createTempFile("sort-run-", ".tmp", tempDir);
+        runFile.deleteOnExit();
+        try (DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream(new FileOutputStream(runFile),
+                                     BUFFER_SIZE))) {
+            for (String value : values) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+        runs.add(new Run(runFile, values.size()));
+        values.clear();
+    }
+
+    /**
+     * Removes all run files
+     */
+    @Override
+    public void close() {
+        for (Closeable reader : readers) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                // Nothing further to do
+            }
+        }
+        for (Run run : runs) {
+            run.file.delete();
+        }
+    }
+
+    private static class Run {
+        private final File file;
+        private final int count;
+
+        Run(File file, int count) {
+            this.file = file;
+            this.count = count;
+        }
+    }
+
+    /**
+     * Reads the values of a single run, in order. Runs are numbered in the
+     * order in which they were written.
+     */
+    private static class RunReader {
+        private final int index;
+        private final DataInputStream in;
+        private int remaining;
+        private String current;
+
+        RunReader(int index, Run run) throws IOException {
+            this.index = index;
+            this.in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(run.file),
+                                        BUFFER_SIZE));
+            this.remaining = run.count;
+        }
+
+        boolean advance() throws IOException {
+            if (remaining == 0) {
+                current = null;
+                in.close();
+                return false;
+            }
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            current = new String(bytes, StandardCharsets.UTF_8);
+            remaining--;
+            return true;
+        }
+    }
+
+    /**
+     * Merges all runs by repeatedly taking the smallest current value, of
+     * equal values taking the one from the earliest run first
+     */
+    private class MergeIterator implements Iterator<String> {
+        private final PriorityQueue<RunReader> queue =
+            new PriorityQueue<>(Math.max(runs.size(), 1), (a, b) -> {
+                int result = comparator.compare(a.current, b.current);
+                return result != 0 ? result : Integer.compare(a.index, b.index);
+            });
+
+        MergeIterator() throws IOException {
+            for (int i = 0; i < runs.size(); i++) {
+                RunReader reader = new RunReader(i, runs.get(i));
+                readers.add(reader.in);
+                if (reader.advance()) {
+                    queue.add(reader);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public String next() {
+            if (queue.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            RunReader reader = queue.poll();
+            String value = reader.current;
+            try {
+                if (reader.advance()) {
+                    queue.add(reader);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Unable to read sort run: " +
+                                           e.getMessage(), e);
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Of consecutive equal values, keeps only the last, given sorted input
+     */
+    private class DistinctIterator implements Iterator<String> {
+        private final Iterator<String> sorted;
+        private String next;
+
+        DistinctIterator(Iterator<String> sorted) {
+            this.sorted = sorted;
+            this.next = sorted.hasNext() ? sorted.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return null != next;
+        }
+
+        @Override
+        public String next() {
+            if (null == next) {
+                throw new NoSuchElementException();
+            }
+            String value = next;
+            next = null;
+            while (sorted.hasNext()) {
+                String candidate = sorted.next();
+                if (comparator.compare(candidate, value) == 0) {
+                    value = candidate;
+                } else {
+                    next = candidate;
+                    break;
+                }
+            }
+            return value;
+        }
+    }
+
+}
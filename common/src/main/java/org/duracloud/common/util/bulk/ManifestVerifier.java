@@ -7,26 +7,28 @@
  */
 package org.duracloud.common.util.bulk;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
-import org.apache.commons.io.input.AutoCloseInputStream;
+import org.apache.commons.io.IOUtils;
 import org.duracloud.common.error.ManifestVerifyException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.NoSuchElementException;
 
 /**
  * This class compares two manifest files for
@@ -34,6 +36,12 @@ import java.util.Map;
  * checksum/entryname mappings
  * The expected format of the input files is
  * <checksum><whitespace><entryname>
+ * or the TSV format of the manifest module (see SortedManifest)
+ *
+ * Both manifests are sorted by entry name on disk, using a bounded amount of
+ * memory, and compared in a single pass over the sorted entries. Results are
+ * written to a file as they are found, in order of entry name, and those
+ * which are errors are passed to the result listener, if one is set.
  *
  * @author Andrew Woods
  *         Date: Oct 24, 2009
@@ -44,23 +52,49 @@ public class ManifestVerifier {
 
     public final static char DELIM = '\t';
 
+    public final static int DEFAULT_MAX_ENTRIES_IN_MEMORY = 250000;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     private File file0;
     private File file1;
 
-    private Map<String, String> entries0; // filename -> checksum
-    private Map<String, String> entries1;
-
     private List<String> filters;
 
-    private Map<String, ResultEntry> results; // filename -> resultEntry
+    private int maxEntriesInMemory = DEFAULT_MAX_ENTRIES_IN_MEMORY;
+    private File workDir = new File(System.getProperty("java.io.tmpdir"));
+    private ResultListener listener;
+
+    private File resultsFile; // resultEntries, in order of filename
 
     public ManifestVerifier(File file0, File file1) {
         this.file0 = file0;
         this.file1 = file1;
-        entries0 = new HashMap<String, String>();
-        entries1 = new HashMap<String, String>();
         filters = new ArrayList<String>();
-        results = new HashMap<String, ResultEntry>();
+    }
+
+    /**
+     * @param maxEntriesInMemory number of manifest entries held in memory
+     *                           while sorting each manifest
+     */
+    public void setMaxEntriesInMemory(int maxEntriesInMemory) {
+        this.maxEntriesInMemory = maxEntriesInMemory;
+    }
+
+    /**
+     * @param workDir directory in which manifests are sorted and results
+     *                are stored
+     */
+    public void setWorkDir(File workDir) {
+        this.workDir = workDir;
+    }
+
+    /**
+     * @param listener notified of each entry which is missing from either
+     *                 manifest or has mismatched checksums, as it is found
+     */
+    public void setResultListener(ResultListener listener) {
+        this.listener = listener;
     }
 
     public void report(OutputStream out) {
@@ -76,7 +110,7 @@ public class ManifestVerifier {
 
         Iterator<ResultEntry> entries = resultEntries();
         while (entries.hasNext()) {
-            write(out, entries.next().toString());
+            write(out, entries.next().toString() + newline);
         }
     }
 
@@ -88,8 +122,18 @@ public class ManifestVerifier {
         }
     }
 
+    /**
+     * @return results of the last verification, in order of entry name
+     */
     public Iterator<ResultEntry> resultEntries() {
-        return results.values().iterator();
+        if (null == resultsFile) {
+            return new ArrayList<ResultEntry>().iterator();
+        }
+        try {
+            return new ResultIterator(resultsFile);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
     }
 
     /**
@@ -116,99 +160,77 @@ public class ManifestVerifier {
      * @throws ManifestVerifyException if files differ in size or checksums
      */
     public void verify() throws ManifestVerifyException {
-        loadEntries();
-        verifyFiles();
-    }
-
-    private void loadEntries() {
-        loadEntries(file0, entries0);
-        loadEntries(file1, entries1);
-    }
-
-    private void loadEntries(File file, Map<String, String> entries) {
-        InputStream input = getInputStream(file);
-        BufferedReader br = new BufferedReader(new InputStreamReader(input));
-
-        String line = readLine(br);
-        while (line != null) {
-            if (!isFiltered(line)) {
-                addEntry(line, entries);
-            }
-            line = readLine(br);
-        }
-    }
-
-    private boolean isFiltered(String line) {
-        for (String filter : filters) {
-            if (line.indexOf(filter) != -1) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    protected void addEntry(String line, Map<String, String> entries) {
-        String[] cksumFilenamePair = line.split("\\s");
-        if (cksumFilenamePair == null || cksumFilenamePair.length != 2) {
-            throw new RuntimeException("Invalid manifest file.");
-        }
-
-        entries.put(cksumFilenamePair[1], cksumFilenamePair[0]);
-    }
-
-    private InputStream getInputStream(File file) {
+        SortedManifest entries0 = newSortedManifest(file0);
+        SortedManifest entries1 = newSortedManifest(file1);
         try {
-            return new AutoCloseInputStream(new FileInputStream(file));
-        } catch (FileNotFoundException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    private String readLine(BufferedReader br) {
-        try {
-            return br.readLine();
+            entries0.sort();
+            entries1.sort();
+            verifyFiles(entries0, entries1);
         } catch (IOException e) {
             throw new RuntimeException(e);
+        } finally {
+            entries0.close();
+            entries1.close();
         }
     }
 
-    private void verifyFiles() throws ManifestVerifyException {
-        boolean hasErrors = entries0.size() != entries1.size();
+    private SortedManifest newSortedManifest(File file) {
+        return new SortedManifest(file, filters, maxEntriesInMemory, workDir);
+    }
 
-        // Load the first set
-        for (String name : entries0.keySet()) {
-            ResultEntry entry = new ResultEntry();
-            entry.setTitle(titleOf(name));
-            entry.setFile(fileOf(name));
-            entry.setChecksum0(entries0.get(name));
-            entry.setState(State.MISSING_FROM_1);
-            results.put(name, entry);
-        }
+    private void verifyFiles(SortedManifest entries0, SortedManifest entries1)
+        throws ManifestVerifyException, IOException {
+        FileUtils.deleteQuietly(resultsFile);
+        resultsFile = File.createTempFile("manifest-results-", ".tmp", workDir);
+        resultsFile.deleteOnExit();
+
+        boolean hasErrors = false;
+        try (DataOutputStream results = new DataOutputStream(
+            new BufferedOutputStream(new FileOutputStream(resultsFile),
+                                     BUFFER_SIZE))) {
+            Iterator<SortedManifest.Entry> iterator0 = entries0.iterator();
+            Iterator<SortedManifest.Entry> iterator1 = entries1.iterator();
+            SortedManifest.Entry entry0 = nextOf(iterator0);
+            SortedManifest.Entry entry1 = nextOf(iterator1);
+
+            // Merge the two sets, which are both in order of name
+            while (null != entry0 || null != entry1) {
+                int order;
+                if (null == entry0) {
+                    order = 1;
+                } else if (null == entry1) {
+                    order = -1;
+                } else {
+                    order = entry0.compareTo(entry1);
+                }
 
-        // Fill in from the second set
-        for (String name : entries1.keySet()) {
-            ResultEntry entry = results.get(name);
-
-            // Entry not loaded from first set
-            if (null == entry) {
-                hasErrors = true;
-
-                entry = new ResultEntry();
-                entry.setTitle(titleOf(name));
-                entry.setFile(fileOf(name));
-                entry.setChecksum1(entries1.get(name));
-                entry.setState(State.MISSING_FROM_0);
-                results.put(name, entry);
-
-                // Entry found in both sets
-            } else {
-                entry.setChecksum1(entries1.get(name));
-                if (entry.getChecksum0().equals(entry.getChecksum1())) {
-                    entry.setState(State.VALID);
+                ResultEntry entry = new ResultEntry();
+                if (order < 0) {
+                    // Entry not found in second set
+                    entry.setChecksum0(entry0.getChecksum());
+                    entry.setState(State.MISSING_FROM_1);
+                    addResult(results, entry0.getName(), entry);
+                    entry0 = nextOf(iterator0);
+                } else if (order > 0) {
+                    // Entry not found in first set
+                    entry.setChecksum1(entry1.getChecksum());
+                    entry.setState(State.MISSING_FROM_0);
+                    addResult(results, entry1.getName(), entry);
+                    entry1 = nextOf(iterator1);
                 } else {
-                    hasErrors = true;
-                    entry.setState(State.MISMATCH);
+                    // Entry found in both sets
+                    entry.setChecksum0(entry0.getChecksum());
+                    entry.setChecksum1(entry1.getChecksum());
+                    if (entry.getChecksum0().equals(entry.getChecksum1())) {
+                        entry.setState(State.VALID);
+                    } else {
+                        entry.setState(State.MISMATCH);
+                    }
+                    addResult(results, entry0.getName(), entry);
+                    entry0 = nextOf(iterator0);
+                    entry1 = nextOf(iterator1);
                 }
+                hasErrors |= entry.isError();
             }
         }
 
@@ -218,10 +240,33 @@ public class ManifestVerifier {
 
     }
 
+    private SortedManifest.Entry nextOf(Iterator<SortedManifest.Entry> iterator) {
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    private void addResult(DataOutputStream results,
+                           String name,
+                           ResultEntry entry) throws IOException {
+        entry.setTitle(titleOf(name));
+        entry.setFile(fileOf(name));
+
+        results.writeUTF(name);
+        results.writeUTF(entry.getChecksum0());
+        results.writeUTF(entry.getChecksum1());
+        results.writeUTF(entry.getState().name());
+
+        if (entry.isError() && null != listener) {
+            listener.resultFound(entry);
+        }
+    }
+
     protected String titleOf(String name) {
         String pre = "data/";
         int prefixIndex = name.startsWith(pre) ? pre.length() : 0;
         int suffixIndex = name.lastIndexOf('/');
+        if (suffixIndex < prefixIndex) {
+            return "";
+        }
         return name.substring(prefixIndex, suffixIndex);
     }
 
@@ -316,4 +361,68 @@ public class ManifestVerifier {
         VALID, MISMATCH, MISSING_FROM_0, MISSING_FROM_1
     }
 
+    /**
+     * Receives the entries of a verification which are errors.
+     */
+    public interface ResultListener {
+        void resultFound(ResultEntry entry);
+    }
+
+    /*
+     * Reads back the results written by verifyFiles()
+     */
+    private class ResultIterator implements Iterator<ResultEntry> {
+
+        private final DataInputStream in;
+        private ResultEntry next;
+
+        ResultIterator(File file) throws IOException {
+            in = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(file), BUFFER_SIZE));
+            next = readNext();
+        }
+
+        private ResultEntry readNext() throws IOException {
+            String name;
+            try {
+                name = in.readUTF();
+            } catch (EOFException e) {
+                IOUtils.closeQuietly(in);
+                return null;
+            }
+            ResultEntry entry = new ResultEntry();
+            entry.setTitle(titleOf(name));
+            entry.setFile(fileOf(name));
+            entry.setChecksum0(in.readUTF());
+            entry.setChecksum1(in.readUTF());
+            entry.setState(State.valueOf(in.readUTF()));
+            return entry;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return null != next;
+        }
+
+        @Override
+        public ResultEntry next() {
+            if (null == next) {
+                throw new NoSuchElementException();
+            }
+            ResultEntry entry = next;
+            try {
+                next = readNext();
+            } catch (IOException e) {
+                IOUtils.closeQuietly(in);
+                throw new RuntimeException(e);
+            }
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
 }
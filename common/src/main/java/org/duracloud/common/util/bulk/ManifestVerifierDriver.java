@@ -43,7 +43,9 @@ public class ManifestVerifierDriver {
         sb.append("<manifest0> <manifest1> [filters]");
         sb.append("\n");
         sb.append("\n\twhere <manifest[0|1]> are files containing only pairs ");
-        sb.append("of checksums and entry-names separated by whitespace");
+        sb.append("of checksums and entry-names separated by whitespace,");
+        sb.append("\n\tor TSV manifests of space-ids, content-ids and ");
+        sb.append("checksums");
         sb.append("\n\t");
         sb.append("[filters] - optional, are ':' delimited names of manifest ");
         sb.append("entries that will be ignored during verification.");
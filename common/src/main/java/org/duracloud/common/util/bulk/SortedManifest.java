@@ -0,0 +1,228 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.util.bulk;
+
+import org.duracloud.common.util.ExternalSorter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Reads the entries of a manifest file in order of entry name, using a
+ * bounded amount of memory, by way of an {@link ExternalSorter}.
+ *
+ * Manifests may be in the TSV format, which starts with a
+ * space-id/content-id/MD5 header and names entries as spaceId/contentId,
+ * or in the BagIt format of a checksum, whitespace and the entry name.
+ * Where an entry name appears more than once, the last entry is used.
+ */
+class SortedManifest implements Closeable, Iterable<SortedManifest.Entry> {
+
+    private final Logger log = LoggerFactory.getLogger(SortedManifest.class);
+
+    private static final String TSV_HEADER_PREFIX =
+        "space-id" + ManifestVerifier.DELIM + "content-id" +
+        ManifestVerifier.DELIM;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Separates the name and checksum of an entry held by the sorter, which
+    // cannot appear in either as they are read a line at a time
+    private static final char SEPARATOR = '\n';
+
+    /*
+     * Orders sorted entries by name alone, so that the sorter keeps only
+     * the last entry for each name
+     */
+    private static final Comparator<String> BY_NAME = (value0, value1) -> {
+        int end0 = value0.indexOf(SEPARATOR);
+        int end1 = value1.indexOf(SEPARATOR);
+        for (int i = 0; i < Math.min(end0, end1); i++) {
+            char char0 = value0.charAt(i);
+            char char1 = value1.charAt(i);
+            if (char0 != char1) {
+                return char0 - char1;
+            }
+        }
+        return end0 - end1;
+    };
+
+    private final File file;
+    private final List<String> filters;
+    private final ExternalSorter sorter;
+
+    /**
+     * @param file               manifest to read
+     * @param filters            entries with lines containing any of these
+     *                           values are skipped
+     * @param maxEntriesInMemory number of entries sorted in memory at once
+     * @param workDir            directory in which spill files are written
+     */
+    SortedManifest(File file,
+                   List<String> filters,
+                   int maxEntriesInMemory,
+                   File workDir) {
+        this.file = file;
+        this.filters = filters;
+        this.sorter = new ExternalSorter(workDir, maxEntriesInMemory, BY_NAME);
+    }
+
+    /**
+     * Reads the manifest, sorting its entries.
+     */
+    void sort() throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(new FileInputStream(file),
+                                  StandardCharsets.UTF_8), BUFFER_SIZE)) {
+            boolean tsv = false;
+            boolean firstLine = true;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (firstLine) {
+                    firstLine = false;
+                    if (line.startsWith(TSV_HEADER_PREFIX)) {
+                        tsv = true;
+                        continue;
+                    }
+                }
+                if (line.isEmpty() || isFiltered(line)) {
+                    continue;
+                }
+
+                Entry entry = tsv ? parseTsvLine(line) : parseBagitLine(line);
+                sorter.add(entry.getName() + SEPARATOR + entry.getChecksum());
+            }
+        }
+        log.debug("Sorted {} entries of {} into {} runs",
+                  sorter.size(), file, sorter.getRunCount());
+    }
+
+    private boolean isFiltered(String line) {
+        for (String filter : filters) {
+            if (line.indexOf(filter) != -1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Entry parseTsvLine(String line) {
+        int first = line.indexOf(ManifestVerifier.DELIM);
+        int last = line.lastIndexOf(ManifestVerifier.DELIM);
+        if (first <= 0 || last <= first + 1 || last == line.length() - 1) {
+            throw invalidLine(line);
+        }
+        String name = line.substring(0, first) + "/" +
+                      line.substring(first + 1, last);
+        return new Entry(name, line.substring(last + 1));
+    }
+
+    private Entry parseBagitLine(String line) {
+        int end = 0;
+        while (end < line.length() && !Character.isWhitespace(line.charAt(end))) {
+            end++;
+        }
+        int start = end;
+        while (start < line.length() &&
+               Character.isWhitespace(line.charAt(start))) {
+            start++;
+        }
+        if (end == 0 || start == line.length()) {
+            throw invalidLine(line);
+        }
+        return new Entry(line.substring(start), line.substring(0, end));
+    }
+
+    private RuntimeException invalidLine(String line) {
+        return new RuntimeException("Invalid manifest file: " + file +
+                                    ", line: " + line);
+    }
+
+    /**
+     * @return number of entries read from the manifest, including any
+     *         entries which repeat an earlier name
+     */
+    int getCount() {
+        return (int) sorter.size();
+    }
+
+    /**
+     * Iterates through the entries in order of name, with one entry for
+     * each name. May be called once, after sort().
+     */
+    @Override
+    public Iterator<Entry> iterator() {
+        final Iterator<String> sorted;
+        try {
+            sorted = sorter.sortedIterator();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return new Iterator<Entry>() {
+            @Override
+            public boolean hasNext() {
+                return sorted.hasNext();
+            }
+
+            @Override
+            public Entry next() {
+                String value = sorted.next();
+                int separator = value.indexOf(SEPARATOR);
+                return new Entry(value.substring(0, separator),
+                                 value.substring(separator + 1));
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        sorter.close();
+    }
+
+    /**
+     * Manifest entry, ordered by name.
+     */
+    static class Entry implements Comparable<Entry> {
+        private final String name;
+        private final String checksum;
+
+        Entry(String name, String checksum) {
+            this.name = name;
+            this.checksum = checksum;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        String getChecksum() {
+            return checksum;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            return name.compareTo(other.name);
+        }
+    }
+
+}
@@ -0,0 +1,63 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.retry;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class CircuitBreakerTest {
+
+    private long now = 0;
+
+    @Test
+    public void testStateTransitions() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("test", 3, 1000) {
+            @Override
+            protected long currentTimeMillis() {
+                return now;
+            }
+        };
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.acquirePermission();
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        try {
+            breaker.acquirePermission();
+            fail("Exception expected");
+        } catch (CircuitOpenException e) {
+            assertNotNull(e.getMessage());
+        }
+
+        now = 1000;
+        breaker.acquirePermission();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        // Only one trial call is permitted while half-open
+        try {
+            breaker.acquirePermission();
+            fail("Exception expected");
+        } catch (CircuitOpenException e) {
+            assertNotNull(e.getMessage());
+        }
+
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        now = 2000;
+        breaker.acquirePermission();
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.acquirePermission();
+    }
+
+}
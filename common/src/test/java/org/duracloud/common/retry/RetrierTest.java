@@ -9,6 +9,7 @@ package org.duracloud.common.retry;
 
 import static org.junit.Assert.*;
 
+import org.duracloud.common.error.RetryFlaggableException;
 import org.junit.Test;
 
 /**
@@ -87,15 +88,131 @@ public class RetrierTest {
         } catch (Exception e) {
             assertEquals(expectedAttempts, Integer.valueOf(e.getMessage()));
             long elapsed = System.currentTimeMillis() - start;
-            //(0+1+4+8)*10=130
-            assertTrue(elapsed >= 130);
-            //(0+1+4+8+16)*10=290
-            assertTrue(elapsed < 290);
+            // No wait follows the final attempt: (0+1+4)*10=50
+            assertTrue(elapsed >= 50);
+            //(0+1+4+9)*10=140
+            assertTrue(elapsed < 140);
 
         }
     }
 
-    
+    @Test
+    public void testRetrierNonRetryableFailure() throws Exception {
+        final RetryTester retryTester = new RetryTester(4);
+
+        RetryPolicy policy = new RetryPolicy(3, 1, 1);
+        policy.setClassifier(e -> false);
+        Retrier retrier = new Retrier(policy);
+        try {
+            retrier.execute(() -> retryTester.doWork());
+            fail("Exception expected");
+        } catch (Exception e) {
+            assertEquals(1, retryTester.getAttempts());
+        }
+    }
+
+    @Test
+    public void testRetrierBudget() throws Exception {
+        RetryBudget budget = new RetryBudget(0, 2);
+        RetryPolicy policy = new RetryPolicy(3, 1, 1);
+        policy.setBudget(budget);
+
+        final RetryTester retryTester = new RetryTester(10);
+        try {
+            new Retrier(policy).execute(() -> retryTester.doWork());
+            fail("Exception expected");
+        } catch (Exception e) {
+            // Initial attempt plus the two retries held by the budget
+            assertEquals(3, retryTester.getAttempts());
+        }
+        assertEquals(0, budget.getAvailableRetries());
+
+        final RetryTester secondTester = new RetryTester(10);
+        try {
+            new Retrier(policy).execute(() -> secondTester.doWork());
+            fail("Exception expected");
+        } catch (Exception e) {
+            assertEquals(1, secondTester.getAttempts());
+        }
+    }
+
+    @Test
+    public void testRetrierCircuitBreaker() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("test", 2, 60000);
+        RetryPolicy policy = new RetryPolicy(3, 1, 1);
+        policy.setCircuitBreaker(breaker);
+
+        final RetryTester retryTester = new RetryTester(10);
+        try {
+            new Retrier(policy).execute(() -> retryTester.doWork());
+            fail("Exception expected");
+        } catch (Exception e) {
+            assertEquals(2, retryTester.getAttempts());
+            assertEquals("2", e.getMessage());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        final RetryTester secondTester = new RetryTester(0);
+        try {
+            new Retrier(policy).execute(() -> secondTester.doWork());
+            fail("Exception expected");
+        } catch (CircuitOpenException e) {
+            assertEquals(0, secondTester.getAttempts());
+        }
+    }
+
+    @Test
+    public void testRetrierCircuitBreakerTrialNonRetryableFailure()
+        throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("test", 1, 0);
+        RetryPolicy policy = new RetryPolicy(0, 1, 1);
+        policy.setCircuitBreaker(breaker);
+
+        try {
+            new Retrier(policy).execute(() -> new RetryTester(1).doWork());
+            fail("Exception expected");
+        } catch (Exception e) {
+            assertEquals("1", e.getMessage());
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        // The trial call fails permanently, which must not leave the
+        // breaker half-open
+        policy.setClassifier(e -> false);
+        try {
+            new Retrier(policy).execute(() -> new RetryTester(1).doWork());
+            fail("Exception expected");
+        } catch (Exception e) {
+            assertEquals("1", e.getMessage());
+        }
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void testDefaultRetryClassifier() {
+        RetryFlaggableException noRetry =
+            new RetryFlaggableException("test", null,
+                                        RetryFlaggableException.NO_RETRY);
+        assertTrue(RetryClassifier.DEFAULT.isRetryable(noRetry));
+    }
+
+    @Test
+    public void testJitterWaits() {
+        RetryPolicy policy =
+            new RetryPolicy(3, 100, 2, RetryPolicy.Jitter.FULL);
+        for (int i = 0; i < 100; i++) {
+            long wait = policy.computeWait(2, 0);
+            assertTrue(wait >= 0 && wait <= 400);
+        }
+
+        policy.setJitter(RetryPolicy.Jitter.DECORRELATED);
+        policy.setMaxWait(250);
+        for (int i = 0; i < 100; i++) {
+            long wait = policy.computeWait(1, 200);
+            assertTrue(wait >= 100 && wait <= 250);
+        }
+    }
+
     private class RetryTester {
         private int failuresBeforeSuccess;
         private int attempts;
@@ -0,0 +1,85 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.stream;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+
+import java.time.LocalTime;
+
+import org.junit.Test;
+
+public class BandwidthLimiterTest {
+
+    @Test
+    public void testUnlimited() throws Exception {
+        BandwidthLimiter limiter = new BandwidthLimiter();
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 1000; i++) {
+            limiter.acquire(1024 * 1024);
+        }
+        assertTrue(System.currentTimeMillis() - start < 1000);
+        assertEquals(1000L * 1024 * 1024, limiter.getTotalBytes());
+        assertEquals(0, limiter.getCurrentLimit());
+        assertTrue(limiter.getCurrentRate() > 0);
+    }
+
+    @Test
+    public void testLimit() throws Exception {
+        final BandwidthLimiter limiter = new BandwidthLimiter();
+        limiter.setBytesPerSecond(100 * 1024);
+        assertEquals(100 * 1024, limiter.getCurrentLimit());
+
+        // Two threads sharing the limit move 150K in about 1.5 seconds
+        Runnable transfer = new Runnable() {
+            public void run() {
+                try {
+                    for (int i = 0; i < 75; i++) {
+                        limiter.acquire(1024);
+                    }
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        long start = System.currentTimeMillis();
+        Thread thread = new Thread(transfer);
+        thread.start();
+        transfer.run();
+        thread.join();
+        long elapsed = System.currentTimeMillis() - start;
+        assertTrue("Elapsed " + elapsed, elapsed >= 1300 && elapsed < 3000);
+
+        long rate = limiter.getCurrentRate();
+        assertTrue("Rate " + rate, rate > 50 * 1024 && rate < 150 * 1024);
+    }
+
+    @Test
+    public void testSchedule() throws Exception {
+        BandwidthLimiter limiter = new BandwidthLimiter();
+        limiter.setBytesPerSecond(5000);
+        assertEquals(5000, limiter.getCurrentLimit());
+
+        limiter.setSchedule(BandwidthSchedule.parse("00:00-00:00=2K"));
+        assertEquals(2048, limiter.getCurrentLimit());
+
+        limiter.setSchedule(BandwidthSchedule.parse("00:00-00:00=0"));
+        assertEquals(0, limiter.getCurrentLimit());
+
+        // The schedule does not cover the current time, fixed limit applies
+        LocalTime start = LocalTime.now().plusHours(1).withSecond(0);
+        LocalTime end = start.plusHours(1);
+        limiter.setSchedule(BandwidthSchedule.parse(
+            String.format("%tR-%tR=2K", start, end)));
+        assertEquals(5000, limiter.getCurrentLimit());
+
+        limiter.setSchedule(null);
+        assertEquals(5000, limiter.getCurrentLimit());
+    }
+
+}
@@ -0,0 +1,77 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.stream;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.fail;
+
+import java.time.LocalTime;
+
+import org.junit.Test;
+
+public class BandwidthScheduleTest {
+
+    @Test
+    public void testParseRate() {
+        assertEquals(500, BandwidthSchedule.parseRate("500"));
+        assertEquals(2048, BandwidthSchedule.parseRate("2K"));
+        assertEquals(3 * 1024 * 1024, BandwidthSchedule.parseRate(" 3m "));
+        assertEquals(1024L * 1024 * 1024, BandwidthSchedule.parseRate("1G"));
+        assertEquals(0, BandwidthSchedule.parseRate("0"));
+
+        for (String invalid : new String[]{"", "K", "-5", "fast", "1.5M"}) {
+            try {
+                BandwidthSchedule.parseRate(invalid);
+                fail("Exception expected for rate: " + invalid);
+            } catch (IllegalArgumentException e) {
+                // Expected
+            }
+        }
+    }
+
+    @Test
+    public void testGetLimit() {
+        BandwidthSchedule schedule =
+            BandwidthSchedule.parse("08:00-18:00=1M, 22:00-06:00=0");
+
+        assertEquals(Long.valueOf(1024 * 1024),
+                     schedule.getLimit(LocalTime.of(8, 0)));
+        assertEquals(Long.valueOf(1024 * 1024),
+                     schedule.getLimit(LocalTime.of(17, 59)));
+        assertNull(schedule.getLimit(LocalTime.of(18, 0)));
+        assertNull(schedule.getLimit(LocalTime.of(7, 30)));
+
+        // Window running past midnight
+        assertEquals(Long.valueOf(0), schedule.getLimit(LocalTime.of(23, 0)));
+        assertEquals(Long.valueOf(0), schedule.getLimit(LocalTime.of(0, 0)));
+        assertEquals(Long.valueOf(0), schedule.getLimit(LocalTime.of(5, 59)));
+        assertNull(schedule.getLimit(LocalTime.of(6, 0)));
+
+        // Equal start and end cover the whole day, earlier windows win
+        schedule = BandwidthSchedule.parse("12:00-13:00=10,00:00-00:00=20");
+        assertEquals(Long.valueOf(10), schedule.getLimit(LocalTime.of(12, 30)));
+        assertEquals(Long.valueOf(20), schedule.getLimit(LocalTime.of(3, 0)));
+        assertEquals("12:00-13:00=10,00:00-00:00=20", schedule.toString());
+    }
+
+    @Test
+    public void testParseInvalid() {
+        for (String invalid : new String[]{"", "08:00=5", "08:00-18:00",
+                                           "8am-6pm=5", "08:00-25:00=5",
+                                           "08:00-18:00=5,bad"}) {
+            try {
+                BandwidthSchedule.parse(invalid);
+                fail("Exception expected for schedule: " + invalid);
+            } catch (IllegalArgumentException e) {
+                // Expected
+            }
+        }
+    }
+
+}
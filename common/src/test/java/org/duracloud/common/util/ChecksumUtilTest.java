@@ -20,6 +20,7 @@ import java.io.InputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.security.DigestInputStream;
+import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -139,6 +140,43 @@ public class ChecksumUtilTest {
         assertEquals(md5, checksum);
     }
 
+    @Test
+    public void testGenerateChecksums() throws Exception {
+        String md5 = new ChecksumUtil(Algorithm.MD5)
+            .generateChecksum(getStream(content));
+        String sha256 = new ChecksumUtil(Algorithm.SHA_256)
+            .generateChecksum(getStream(content));
+
+        Map<Algorithm, String> checksums =
+            ChecksumUtil.generateChecksums(getStream(content),
+                                           Algorithm.MD5, Algorithm.SHA_256);
+        assertEquals(2, checksums.size());
+        assertEquals(md5, checksums.get(Algorithm.MD5));
+        assertEquals(sha256, checksums.get(Algorithm.SHA_256));
+
+        File tempFile = File.createTempFile("checksum-util-test", "file");
+        Writer writer = new FileWriter(tempFile);
+        writer.write(content);
+        writer.close();
+
+        try {
+            checksums = ChecksumUtil.generateChecksums(tempFile,
+                                                       Algorithm.MD5,
+                                                       Algorithm.SHA_256);
+            assertEquals(md5, checksums.get(Algorithm.MD5));
+            assertEquals(sha256, checksums.get(Algorithm.SHA_256));
+        } finally {
+            tempFile.delete();
+        }
+    }
+
+    @Test
+    public void testChecksumBytesToString() throws Exception {
+        byte[] bytes = {0x00, 0x0f, 0x10, (byte) 0xa5, (byte) 0xff};
+        assertEquals("000f10a5ff", ChecksumUtil.checksumBytesToString(bytes));
+        assertEquals("", ChecksumUtil.checksumBytesToString(new byte[0]));
+    }
+
     @Test
     public void testHexStringToByteArray() throws Exception {
         ChecksumUtil util = new ChecksumUtil(Algorithm.MD5);
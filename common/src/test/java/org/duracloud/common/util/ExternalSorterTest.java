@@ -0,0 +1,122 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.common.util;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+public class ExternalSorterTest {
+
+    private File tempDir;
+
+    @Before
+    public void setUp() throws Exception {
+        tempDir = new File("target", "external-sort");
+        FileUtils.deleteDirectory(tempDir);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(tempDir);
+    }
+
+    @Test
+    public void testInMemory() throws Exception {
+        try (ExternalSorter sorter = new ExternalSorter(tempDir, 10)) {
+            sorter.add("c");
+            sorter.add("a");
+            sorter.add("b");
+            sorter.add("a");
+            assertEquals(0, sorter.getRunCount());
+            assertEquals(4, sorter.size());
+
+            List<String> sorted = toList(sorter.sortedIterator());
+            assertEquals(3, sorted.size());
+            assertEquals("a", sorted.get(0));
+            assertEquals("b", sorted.get(1));
+            assertEquals("c", sorted.get(2));
+        }
+    }
+
+    @Test
+    public void testSpilled() throws Exception {
+        Random random = new Random(42);
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add("dir-" + random.nextInt(50) + "/file-" +
+                       random.nextInt(500) + "-\u00e9");
+        }
+
+        ExternalSorter sorter = new ExternalSorter(tempDir, 64);
+        for (String value : values) {
+            sorter.add(value);
+        }
+        assertEquals(15, sorter.getRunCount());
+
+        List<String> expected = new ArrayList<>(new TreeSet<>(values));
+        assertEquals(expected, toList(sorter.sortedIterator()));
+
+        sorter.close();
+        assertEquals(0, tempDir.list().length);
+    }
+
+    /*
+     * Verifies that of values which compare as equal, the last added is
+     * kept, whether or not the values were spilled to disk
+     */
+    @Test
+    public void testComparatorKeepsLast() throws Exception {
+        Comparator<String> byKey =
+            Comparator.comparing((String value) -> value.split("=")[0]);
+        for (int maxInMemory : Arrays.asList(100, 2)) {
+            try (ExternalSorter sorter =
+                     new ExternalSorter(tempDir, maxInMemory, byKey)) {
+                sorter.add("b=1");
+                sorter.add("a=1");
+                sorter.add("b=2");
+                sorter.add("c=1");
+                sorter.add("a=2");
+                sorter.add("b=3");
+                assertEquals(6, sorter.size());
+
+                assertEquals(Arrays.asList("a=2", "b=3", "c=1"),
+                             toList(sorter.sortedIterator()));
+            }
+        }
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        try (ExternalSorter sorter = new ExternalSorter(tempDir, 10)) {
+            assertFalse(sorter.sortedIterator().hasNext());
+        }
+    }
+
+    private List<String> toList(Iterator<String> iterator) {
+        List<String> list = new ArrayList<>();
+        while (iterator.hasNext()) {
+            list.add(iterator.next());
+        }
+        return list;
+    }
+
+}
@@ -10,11 +10,21 @@ package org.duracloud.common.util.bulk;
 import org.duracloud.common.util.ExceptionUtil;
 import org.duracloud.common.error.ManifestVerifyException;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import org.apache.commons.io.FileUtils;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
 
 /**
  * @author Andrew Woods
@@ -33,6 +43,9 @@ public class ManifestVerifierTest {
     private File file5 = new File(dir, "manifest-md5-lessContentMismatch.txt");
     private File file6 = new File(dir, "log4j.properties");
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     @Test
     public void testVerifyGood() {
         verifier = new ManifestVerifier(file0, file1);
@@ -123,4 +136,96 @@ public class ManifestVerifierTest {
         assertTrue(runtimeThrown);
 
     }
+
+    @Test
+    public void testVerifyTsvAgainstBagit() throws Exception {
+        File tsv = writeManifest("manifest.tsv",
+                                 "space-id\tcontent-id\tMD5",
+                                 "space1\tdir/b.txt\tbbb",
+                                 "space1\ta.txt\taaa");
+        File bagit = writeManifest("manifest-md5.txt",
+                                   "aaa  space1/a.txt",
+                                   "bbb  space1/dir/b.txt");
+        verifier = new ManifestVerifier(tsv, bagit);
+        verifier.verify();
+
+        Iterator<ManifestVerifier.ResultEntry> results =
+            verifier.resultEntries();
+        ManifestVerifier.ResultEntry result = results.next();
+        assertEquals("space1", result.getTitle());
+        assertEquals("a.txt", result.getFile());
+        result = results.next();
+        assertEquals("space1/dir", result.getTitle());
+        assertEquals("b.txt", result.getFile());
+        assertEquals(ManifestVerifier.State.VALID, result.getState());
+        assertFalse(results.hasNext());
+    }
+
+    @Test
+    public void testVerifySpilled() throws Exception {
+        List<String> lines0 = new ArrayList<>();
+        List<String> lines1 = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            lines0.add("cksum" + i + " data/title/file" + i);
+            if (i != 7) {
+                lines1.add("cksum" + (i == 42 ? "x" : i) +
+                           " data/title/file" + i);
+            }
+        }
+        lines1.add("cksum100 data/title/file100");
+        Collections.shuffle(lines1, new Random(1));
+        // Repeated entries replace earlier ones
+        lines0.add("cksum3 data/title/file99");
+        lines1.add("cksum3 data/title/file99");
+
+        File manifest0 = writeManifest("manifest0.txt",
+                                       lines0.toArray(new String[0]));
+        File manifest1 = writeManifest("manifest1.txt",
+                                       lines1.toArray(new String[0]));
+
+        final List<String> errors = new ArrayList<>();
+        verifier = new ManifestVerifier(manifest0, manifest1);
+        verifier.setMaxEntriesInMemory(9);
+        verifier.setWorkDir(tempFolder.newFolder("work"));
+        verifier.setResultListener(new ManifestVerifier.ResultListener() {
+            @Override
+            public void resultFound(ManifestVerifier.ResultEntry entry) {
+                errors.add(entry.getFile() + ":" + entry.getState());
+            }
+        });
+        try {
+            verifier.verify();
+            fail("Exception expected.");
+        } catch (ManifestVerifyException e) {
+            assertEquals(ManifestVerifyException.ErrorType.INVALID,
+                         e.getErrorType());
+        }
+
+        assertEquals(Arrays.asList("file100:MISSING_FROM_0",
+                                   "file42:MISMATCH",
+                                   "file7:MISSING_FROM_1"), errors);
+
+        int count = 0;
+        String previous = "";
+        Iterator<ManifestVerifier.ResultEntry> results =
+            verifier.resultEntries();
+        while (results.hasNext()) {
+            ManifestVerifier.ResultEntry result = results.next();
+            String name = result.getTitle() + "/" + result.getFile();
+            assertTrue(name.compareTo(previous) > 0);
+            previous = name;
+            count++;
+        }
+        assertEquals(101, count);
+        assertEquals(0, new File(tempFolder.getRoot(), "work")
+            .listFiles((d, name) -> name.startsWith("manifest-run-")).length);
+    }
+
+    private File writeManifest(String name, String... lines)
+        throws Exception {
+        File manifest = tempFolder.newFile(name);
+        FileUtils.writeLines(manifest, "UTF-8", Arrays.asList(lines));
+        return manifest;
+    }
+
 }
@@ -66,6 +66,7 @@ public class ContentItemUploadController  {
             String spaceId = null;
             String storeId = null;
             String contentId = null;
+            long contentSize = -1;
             List<ContentItem> results = new ArrayList<ContentItem>();
 
             while (iter.hasNext()) {
@@ -79,6 +80,8 @@ public class ContentItemUploadController  {
                         storeId = value;
                     } else if (item.getFieldName().equals("contentId")) {
                         contentId = value;
+                    } else if (item.getFieldName().equals("contentSize")) {
+                        contentSize = parseContentSize(value);
                     }
                 } else {
                     log.debug("setting fileStream: {}", item);
@@ -102,6 +105,7 @@ public class ContentItemUploadController  {
                         new ContentItemUploadTask(ci,
                                                   contentStore,
                                                   item.openStream(),
+                                                  contentSize,
                                                   request.getUserPrincipal()
                                                          .getName());
 
@@ -118,6 +122,7 @@ public class ContentItemUploadController  {
                                                   auth);
                     results.add(result);
                     contentId = null;
+                    contentSize = -1;
                 }
             }
 
@@ -130,4 +135,16 @@ public class ContentItemUploadController  {
 
     }
 
+    /*
+     * A size which cannot be read is treated as not given
+     */
+    private long parseContentSize(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn("ignoring invalid content size: {}", value);
+            return -1;
+        }
+    }
+
 }
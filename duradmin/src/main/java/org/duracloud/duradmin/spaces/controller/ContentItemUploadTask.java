@@ -8,8 +8,11 @@
 
 package org.duracloud.duradmin.spaces.controller;
 
+import java.io.EOFException;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.security.DigestInputStream;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -17,22 +20,40 @@ import java.util.Map;
 import org.apache.commons.fileupload.ProgressListener;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.commons.io.input.ProxyInputStream;
+import org.duracloud.chunk.ChunkableContent;
+import org.duracloud.chunk.manifest.ChunksManifest;
+import org.duracloud.chunk.manifest.ChunksManifestBean.ManifestEntry;
+import org.duracloud.chunk.writer.DuracloudContentWriter;
 import org.duracloud.client.ContentStore;
+import org.duracloud.common.util.ChecksumUtil;
+import org.duracloud.common.util.ChecksumUtil.Algorithm;
 import org.duracloud.common.util.IOUtil;
 import org.duracloud.duradmin.domain.ContentItem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Streams an uploaded file straight through to the content store, without
+ * writing it to local disk first. The MD5 of the content is computed as it
+ * is streamed and compared with the checksum reported by the store. Files
+ * known to be larger than the maximum chunk size are stored in chunks.
+ * When the size of the file is not known, it is written to a temporary file
+ * first, as the store would otherwise hold the whole file in memory.
+ *
  * @author Daniel Bernstein
  */
 public class ContentItemUploadTask implements Comparable, ProgressListener {
     Logger log = LoggerFactory.getLogger(ContentItemUploadTask.class);
 
+    public static final long DEFAULT_MAX_CHUNK_SIZE = 1000 * 1000 * 1000;
+
     private ContentItem contentItem;
     private ContentStore contentStore;
     private long totalBytes = 0;
     private long bytesRead = 0;
+    private long maxChunkSize = DEFAULT_MAX_CHUNK_SIZE;
 
     private String username;
     private Date startDate = null;
@@ -42,31 +63,55 @@ public class ContentItemUploadTask implements Comparable, ProgressListener {
                                  ContentStore contentStore,
                                  InputStream stream,
                                  String username) throws Exception {
+        this(contentItem, contentStore, stream, -1, username);
+    }
+
+    /**
+     * @param contentSize size of the file in bytes, -1 if not known
+     */
+    public ContentItemUploadTask(ContentItem contentItem,
+                                 ContentStore contentStore,
+                                 InputStream stream,
+                                 long contentSize,
+                                 String username) throws Exception {
         this.stream = stream;
         this.contentItem = contentItem;
         this.contentStore = contentStore;
         this.username = username;
-        this.totalBytes = -1;
+        this.totalBytes = contentSize;
         log.info("new task created for {} by {}", contentItem, username);
     }
 
+    /**
+     * @param maxChunkSize size in bytes above which files are stored in
+     *                     chunks, must be a multiple of 1000
+     */
+    public void setMaxChunkSize(long maxChunkSize) {
+        this.maxChunkSize = maxChunkSize;
+    }
+
     public void execute() throws Exception {
         File tmpFile = null;
-        InputStream tmpStream = null;
+        InputStream content = this.stream;
         try {
             log.info("executing file upload: {}", contentItem);
             startDate = new Date();
 
-            tmpFile = IOUtil.writeStreamToFile(this.stream);
-            tmpStream = IOUtil.getFileStream(tmpFile);
+            if (totalBytes < 0) {
+                log.info("size of {} not given, writing it to a temporary " +
+                         "file before upload", contentItem);
+                tmpFile = IOUtil.writeStreamToFile(this.stream);
+                totalBytes = tmpFile.length();
+                content = IOUtil.getFileStream(tmpFile);
+            }
 
-            contentStore.addContent(contentItem.getSpaceId(),
-                                    contentItem.getContentId(),
-                                    tmpStream,
-                                    tmpFile.length(),
-                                    contentItem.getContentMimetype(),
-                                    null,
-                                    null);
+            ProgressInputStream progressStream =
+                new ProgressInputStream(content);
+            if (totalBytes > maxChunkSize) {
+                addChunkedContent(progressStream);
+            } else {
+                addContent(progressStream);
+            }
             log.info("file upload completed successfully: {}", contentItem);
 
         } catch (Exception ex) {
@@ -81,8 +126,100 @@ public class ContentItemUploadTask implements Comparable, ProgressListener {
                 throw ex;
 
         } finally {
+            this.stream.close();
+            IOUtils.closeQuietly(content);
             FileUtils.deleteQuietly(tmpFile);
-            IOUtils.closeQuietly(tmpStream);
+        }
+    }
+
+    private void addContent(InputStream content) throws Exception {
+        DigestInputStream digestStream =
+            ChecksumUtil.wrapStream(limit(content), Algorithm.MD5);
+        String storedChecksum =
+            contentStore.addContent(contentItem.getSpaceId(),
+                                    contentItem.getContentId(),
+                                    digestStream,
+                                    totalBytes,
+                                    contentItem.getContentMimetype(),
+                                    null,
+                                    null);
+
+        String checksum = ChecksumUtil.getChecksum(digestStream);
+        if (null != storedChecksum && !storedChecksum.equals(checksum)) {
+            deleteContent(contentItem.getContentId());
+            throw new IOException("Checksum of stored content (" +
+                                  storedChecksum + ") does not match " +
+                                  "checksum of uploaded file (" + checksum +
+                                  ")");
+        }
+
+        try {
+            verifyFullyRead(content);
+        } catch (IOException e) {
+            deleteContent(contentItem.getContentId());
+            throw e;
+        }
+    }
+
+    /*
+     * Removes stored content which does not match the uploaded file
+     */
+    private void deleteContent(String contentId) {
+        try {
+            contentStore.deleteContent(contentItem.getSpaceId(), contentId);
+        } catch (Exception e) {
+            log.error("failed to delete mismatched content item: {}, " +
+                      "message: {}", contentId, e.getMessage());
+        }
+    }
+
+    private void addChunkedContent(InputStream content) throws Exception {
+        log.info("uploading {} in chunks of {} bytes",
+                 contentItem, maxChunkSize);
+        ChunkableContent chunkable =
+            new ChunkableContent(contentItem.getContentId(),
+                                 contentItem.getContentMimetype(),
+                                 limit(content),
+                                 totalBytes,
+                                 maxChunkSize);
+        DuracloudContentWriter writer =
+            new DuracloudContentWriter(contentStore, username, true, false);
+        ChunksManifest manifest =
+            writer.write(contentItem.getSpaceId(), chunkable);
+        log.debug("chunked upload of {} has source MD5 {}",
+                  contentItem, manifest.getHeader().getSourceMD5());
+
+        try {
+            verifyFullyRead(content);
+        } catch (IOException e) {
+            for (ManifestEntry entry : manifest.getEntries()) {
+                deleteContent(entry.getChunkId());
+            }
+            deleteContent(manifest.getManifestId());
+            throw e;
+        }
+    }
+
+    /*
+     * Keeps the store from reading (or buffering) beyond the size given for
+     * the content, so that any further bytes are left to be found by
+     * verifyFullyRead()
+     */
+    private InputStream limit(InputStream content) {
+        BoundedInputStream bounded = new BoundedInputStream(content, totalBytes);
+        bounded.setPropagateClose(false);
+        return bounded;
+    }
+
+    /*
+     * Ensures that no more content was uploaded than the size given for it,
+     * which would otherwise be left out of the stored content. Called once
+     * the content is stored, which is removed if this fails.
+     */
+    private void verifyFullyRead(InputStream content) throws IOException {
+        if (totalBytes >= 0 && content.read() != -1) {
+            throw new IOException("Uploaded file is larger than its given " +
+                                  "size of " + totalBytes + " bytes");
         }
     }
 
@@ -135,4 +272,25 @@ public class ContentItemUploadTask implements Comparable, ProgressListener {
             "}";
     }
 
+    /*
+     * Updates the progress of the task as the upload is streamed, and fails
+     * the upload if it ends before reaching its given size
+     */
+    private class ProgressInputStream extends ProxyInputStream {
+
+        public ProgressInputStream(InputStream stream) {
+            super(stream);
+        }
+
+        @Override
+        protected void afterRead(int n) throws IOException {
+            if (n > 0) {
+                update(bytesRead + n, totalBytes, 1);
+            } else if (n == -1 && totalBytes >= 0 && bytesRead < totalBytes) {
+                throw new EOFException("Upload ended after " + bytesRead +
+                                       " of " + totalBytes + " bytes");
+            }
+        }
+    }
+
 }
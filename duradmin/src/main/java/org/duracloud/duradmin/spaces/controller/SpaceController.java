@@ -31,6 +31,7 @@ import org.duracloud.mill.db.model.BitIntegrityReport;
 import org.duracloud.mill.db.repo.JpaBitIntegrityReportRepo;
 import org.duracloud.mill.db.repo.MillJpaRepoConfig;
 import org.duracloud.reportdata.bitintegrity.BitIntegrityReportProperties;
+import org.duracloud.spacesummary.dto.SpaceSummary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -141,13 +142,47 @@ public class SpaceController {
 	    
 		String countStr = space.getProperties().getCount();
 		if(countStr.endsWith("+")){
-			setItemCount(space, request);
+		    Long statsCount = null;
+		    if(!request.getParameterMap().containsKey("recount")){
+		        statsCount = getStatsItemCount(space, countStr);
+		    }
+		    if(statsCount != null){
+		        space.setItemCount(statsCount);
+		    }else{
+		        setItemCount(space, request);
+		    }
 		}else{
 			space.setItemCount(Long.valueOf(space.getProperties().getCount()));
 		}
 	}
 
 
+    /*
+     * Spaces too large to be counted in a single listing are counted from the
+     * most recently collected storage statistics, avoiding a listing of the
+     * entire space. Returns null if there are no statistics for the space, or
+     * if they are older than the listing (show fewer items than it does).
+     */
+    private Long getStatsItemCount(Space space, String countStr) {
+        try {
+            long listedCount =
+                Long.valueOf(countStr.substring(0, countStr.length() - 1));
+            ContentStore contentStore =
+                contentStoreManager.getContentStore(space.getStoreId());
+            for (SpaceSummary summary :
+                contentStore.getSpaceSummaries().getSpaces()) {
+                if (summary.getSpaceId().equals(space.getSpaceId())) {
+                    long itemCount = summary.getItemCount();
+                    return itemCount >= listedCount ? itemCount : null;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Unable to get item count of space {} from storage " +
+                     "statistics: {}", space.getSpaceId(), e.getMessage());
+        }
+        return null;
+    }
+
 	private void setItemCount(final Space space, HttpServletRequest request) throws ContentStoreException{
 		String key = formatItemCountCacheKey(space);
 		final ServletContext appContext = request.getSession().getServletContext();
@@ -7,8 +7,10 @@
  */
 package org.duracloud.duradmin.spaces.controller;
 
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -19,6 +21,7 @@ import org.duracloud.common.model.AclType;
 import org.duracloud.duradmin.domain.Space;
 import org.duracloud.duradmin.util.SpaceUtil;
 import org.duracloud.security.impl.DuracloudUserDetails;
+import org.duracloud.spacesummary.dto.SpaceSummary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -64,7 +67,9 @@ public class SpacesController {
                 boolean writeableOnly = Boolean.valueOf(writeableOnlyStr);
                 String storeId = request.getParameter("storeId");
                 ContentStore c = contentStoreManager.getContentStore(storeId);
-                List<String> spaceIds = c.getSpaces();
+                // The ACLs of all spaces are retrieved in a single call
+                List<SpaceSummary> summaries =
+                    c.getSpaceSummaries().getSpaces();
                 List<Space> spaces = new LinkedList<Space>();
 
                 Authentication a =
@@ -72,13 +77,19 @@ public class SpacesController {
    
                 ContentStore contentStoreWithoutRetries  = contentStoreManager.getContentStore(storeId, 0);
 
-                for (String spaceId : spaceIds) {
+                for (SpaceSummary summary : summaries) {
+                    String spaceId = summary.getSpaceId();
+                    Map<String, AclType> acls = toAclMap(summary.getAcls());
                     AclType acl =
-                        SpaceUtil.resolveCallerAcl(spaceId, contentStoreWithoutRetries, c.getSpaceACLs(spaceId), a);
+                        SpaceUtil.resolveCallerAcl(spaceId, contentStoreWithoutRetries, acls, a);
                     Space space = new Space();
                     space.setCallerAcl(acl != null ? acl.name() : null);
                     space.setSpaceId(spaceId);
                     space.setStoreId(storeId);
+                    space.setAcls(SpaceUtil.toAclList(acls));
+                    if (summary.getItemCount() >= 0) {
+                        space.setItemCount(summary.getItemCount());
+                    }
                     spaces.add(space);
                 }
                 
@@ -109,6 +120,14 @@ public class SpacesController {
 	}
 
 
+    private Map<String, AclType> toAclMap(Map<String, String> summaryAcls) {
+        Map<String, AclType> acls = new HashMap<String, AclType>();
+        for (Map.Entry<String, String> acl : summaryAcls.entrySet()) {
+            acls.put(acl.getKey(), AclType.valueOf(acl.getValue()));
+        }
+        return acls;
+    }
+
     @RequestMapping(value={"/spaces",  "/spaces/sm/**"})
     public ModelAndView handle(HttpServletRequest request,
             HttpServletResponse response) throws Exception {
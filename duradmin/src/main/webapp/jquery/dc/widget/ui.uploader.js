@@ -82,11 +82,6 @@ $.widget("ui.uploader", {
                         "\n\nTo skip this item, click 'Cancel'.")){
                     return;
                 }
-            }else if (file.size > (2*1000*1000*1000)){
-              alert("It looks like \"" + file.name + "\" is larger than two gigabytes. \n" +
-                    "Please use the DuraCloud SyncTool to upload larger files.\n\n" +
-                    "This file will be skipped");
-              return;
             }
             
             var item = $("<div class='upload-item form-fields'></div>").addClass("clearfix");
@@ -188,6 +183,8 @@ $.widget("ui.uploader", {
 
                    $.each(files, function(j, file){
                        if(file.name == initialVal){
+                           //the size lets the server store large files in chunks
+                           formData.append('contentSize', file.size);
                            formData.append('file', file);
                        }
                    });
@@ -7,15 +7,21 @@
  */
 package org.duracloud.duradmin.spaces.controller;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringUtils;
 import org.duracloud.client.ContentStore;
+import org.duracloud.common.model.AclType;
+import org.duracloud.common.util.ChecksumUtil;
 import org.duracloud.duradmin.domain.ContentItem;
 import org.duracloud.error.ContentStoreException;
 import org.easymock.EasyMock;
 import org.junit.After;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -41,24 +47,41 @@ public class ContentItemUploadTaskTest {
         contentItem.setContentId("content-id");
         contentItem.setContentMimetype("text/plain");
 
-        contentStore = createMockContentStore();
+        contentStore = EasyMock.createMock("Store", ContentStore.class);
         stream = IOUtils.toInputStream(text);
         username = "user-name";
     }
 
-    private ContentStore createMockContentStore() throws ContentStoreException {
-        ContentStore store = EasyMock.createMock("Store", ContentStore.class);
-        EasyMock.expect(store.addContent(EasyMock.eq(contentItem.getSpaceId()),
-                                         EasyMock.eq(contentItem.getContentId()),
-                                         EasyMock.<InputStream>anyObject(),
-                                         EasyMock.leq((long) text.length()),
-                                         EasyMock.eq(contentItem.getContentMimetype()),
-                                         EasyMock.<String>isNull(),
-                                         EasyMock.<Map<String, String>>isNull()))
-            .andReturn(null);
-
-        EasyMock.replay(store);
-        return store;
+    /*
+     * Expects the content to be added, reading as much of it as the store
+     * would. The size of the content is always given to the store.
+     */
+    private void expectAddContent(final String checksum)
+        throws ContentStoreException {
+        EasyMock.expect(contentStore.addContent(EasyMock.eq(contentItem.getSpaceId()),
+                                                EasyMock.eq(contentItem.getContentId()),
+                                                EasyMock.<InputStream>anyObject(),
+                                                EasyMock.and(EasyMock.geq(0L),
+                                                             EasyMock.leq((long) text.length())),
+                                                EasyMock.eq(contentItem.getContentMimetype()),
+                                                EasyMock.<String>isNull(),
+                                                EasyMock.<Map<String, String>>isNull()))
+            .andAnswer(() -> {
+                Object[] args = EasyMock.getCurrentArguments();
+                InputStream content = (InputStream) args[2];
+                long size = (Long) args[3];
+                if (size < 0) {
+                    IOUtils.toByteArray(content);
+                } else {
+                    IOUtils.toByteArray(content, size);
+                }
+                return checksum;
+            });
+    }
+
+    private String getChecksum(String content) {
+        return new ChecksumUtil(ChecksumUtil.Algorithm.MD5)
+            .generateChecksum(content);
     }
 
     @After
@@ -68,13 +91,159 @@ public class ContentItemUploadTaskTest {
 
     @Test
     public void testExecute() throws Exception {
+        expectAddContent(null);
+        EasyMock.replay(contentStore);
+
+        task = new ContentItemUploadTask(contentItem,
+                                         contentStore,
+                                         stream,
+                                         username);
+
+
+        task.execute();
+
+        // The size is found before the content is added
+        Assert.assertEquals(String.valueOf(text.length()),
+                            task.getProperties().get("totalBytes"));
+    }
+
+    @Test
+    public void testExecuteKnownSize() throws Exception {
+        expectAddContent(getChecksum(text));
+        EasyMock.replay(contentStore);
+
+        task = new ContentItemUploadTask(contentItem,
+                                         contentStore,
+                                         stream,
+                                         text.length(),
+                                         username);
+        task.execute();
+
+        Map<String, String> props = task.getProperties();
+        Assert.assertEquals(String.valueOf(text.length()),
+                            props.get("bytesRead"));
+        Assert.assertEquals(String.valueOf(text.length()),
+                            props.get("totalBytes"));
+    }
+
+    @Test
+    public void testExecuteChecksumMismatch() throws Exception {
+        expectAddContent(getChecksum("other"));
+        contentStore.deleteContent(contentItem.getSpaceId(),
+                                   contentItem.getContentId());
+        EasyMock.expectLastCall();
+        EasyMock.replay(contentStore);
+
+        task = new ContentItemUploadTask(contentItem,
+                                         contentStore,
+                                         stream,
+                                         username);
+        try {
+            task.execute();
+            Assert.fail("Exception expected");
+        } catch (IOException e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testExecuteLargerThanGivenSize() throws Exception {
+        // The stored content matches the bytes which were sent to the store,
+        // but is missing the last byte of the upload, so it is removed
+        expectAddContent(getChecksum(text.substring(0, text.length() - 1)));
+        contentStore.deleteContent(contentItem.getSpaceId(),
+                                   contentItem.getContentId());
+        EasyMock.expectLastCall();
+        EasyMock.replay(contentStore);
+
         task = new ContentItemUploadTask(contentItem,
                                          contentStore,
                                          stream,
+                                         text.length() - 1,
                                          username);
+        try {
+            task.execute();
+            Assert.fail("Exception expected");
+        } catch (IOException e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+    }
 
+    @Test
+    public void testExecuteChunked() throws Exception {
+        String content = StringUtils.repeat("a", 2500);
+        expectChunkedContent();
+        EasyMock.replay(contentStore);
 
+        task = new ContentItemUploadTask(contentItem,
+                                         contentStore,
+                                         IOUtils.toInputStream(content),
+                                         content.length(),
+                                         username);
+        task.setMaxChunkSize(1000);
         task.execute();
 
+        Assert.assertEquals(String.valueOf(content.length()),
+                            task.getProperties().get("bytesRead"));
+    }
+
+    @Test
+    public void testExecuteChunkedLargerThanGivenSize() throws Exception {
+        String content = StringUtils.repeat("a", 2501);
+        String contentId = contentItem.getContentId();
+        String spaceId = contentItem.getSpaceId();
+        expectChunkedContent();
+        // The chunks and manifest which were written are removed
+        contentStore.deleteContent(EasyMock.eq(spaceId),
+                                   EasyMock.startsWith(contentId + ".dura-chunk-"));
+        EasyMock.expectLastCall().times(3);
+        contentStore.deleteContent(spaceId, contentId + ".dura-manifest");
+        EasyMock.expectLastCall();
+        EasyMock.replay(contentStore);
+
+        task = new ContentItemUploadTask(contentItem,
+                                         contentStore,
+                                         IOUtils.toInputStream(content),
+                                         content.length() - 1,
+                                         username);
+        task.setMaxChunkSize(1000);
+        try {
+            task.execute();
+            Assert.fail("Exception expected");
+        } catch (IOException e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+    }
+
+    /*
+     * Expects 2500 bytes of content to be added in three chunks of up to
+     * 1000 bytes, followed by the manifest
+     */
+    private void expectChunkedContent() throws ContentStoreException {
+        String contentId = contentItem.getContentId();
+        String spaceId = contentItem.getSpaceId();
+
+        Map<String, AclType> acls = new HashMap<>();
+        EasyMock.expect(contentStore.getSpaceACLs(spaceId))
+                .andReturn(acls).anyTimes();
+        EasyMock.expect(contentStore.contentExists(EasyMock.eq(spaceId),
+                                                   EasyMock.<String>anyObject()))
+                .andReturn(false).anyTimes();
+        EasyMock.expect(contentStore.addContent(EasyMock.eq(spaceId),
+                                                EasyMock.startsWith(contentId + ".dura-chunk-"),
+                                                EasyMock.<InputStream>anyObject(),
+                                                EasyMock.leq(1000L),
+                                                EasyMock.<String>anyObject(),
+                                                EasyMock.<String>anyObject(),
+                                                EasyMock.<Map<String, String>>anyObject()))
+                .andReturn(null).times(3);
+        EasyMock.expect(contentStore.addContent(EasyMock.eq(spaceId),
+                                                EasyMock.eq(contentId + ".dura-manifest"),
+                                                EasyMock.<InputStream>anyObject(),
+                                                EasyMock.anyLong(),
+                                                EasyMock.<String>anyObject(),
+                                                EasyMock.<String>anyObject(),
+                                                EasyMock.<Map<String, String>>anyObject()))
+                .andReturn(null);
     }
 }
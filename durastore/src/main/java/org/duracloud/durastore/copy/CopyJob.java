@@ -0,0 +1,254 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.copy;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.duracloud.copyjob.dto.CopyJobStatus;
+import org.duracloud.copyjob.dto.CopyJobStatus.State;
+import org.duracloud.durastore.util.ManagedJob;
+import org.duracloud.storage.provider.StorageProvider;
+
+/**
+ * Holds the definition and progress of a single asynchronous copy of a
+ * content item from one storage provider to another.
+ *
+ * The storage providers are resolved when the job is created (on the
+ * request thread) so that the copy itself does not depend on request-scoped
+ * state.
+ */
+public class CopyJob implements ManagedJob {
+
+    private final String jobId;
+    private final String accountId;
+    private final StorageProvider srcProvider;
+    private final String srcStoreId;
+    private final String srcSpaceId;
+    private final String srcContentId;
+    private final StorageProvider destProvider;
+    private final String destStoreId;
+    private final String destSpaceId;
+    private final String destContentId;
+    private final long created;
+
+    private volatile State state = State.QUEUED;
+    private volatile long totalBytes = -1;
+    private final AtomicLong bytesCopied = new AtomicLong(0);
+    private volatile int totalChunks = 0;
+    private final AtomicInteger attempts = new AtomicInteger(0);
+    private volatile String checksum;
+    private volatile String error;
+    private volatile long modified;
+    private volatile boolean cancelRequested = false;
+    // Incremented each time the job is queued again, so that a runner left
+    // in the queue from an earlier attempt does not also run the job
+    private int generation = 0;
+
+    // Chunks which have been verified in the destination, allowing a retried
+    // job to resume where the previous attempt stopped
+    private final Set<String> copiedChunks = ConcurrentHashMap.newKeySet();
+
+    public CopyJob(String jobId,
+                   String accountId,
+                   StorageProvider srcProvider,
+                   String srcStoreId,
+                   String srcSpaceId,
+                   String srcContentId,
+                   StorageProvider destProvider,
+                   String destStoreId,
+                   String destSpaceId,
+                   String destContentId) {
+        this.jobId = jobId;
+        this.accountId = accountId;
+        this.srcProvider = srcProvider;
+        this.srcStoreId = srcStoreId;
+        this.srcSpaceId = srcSpaceId;
+        this.srcContentId = srcContentId;
+        this.destProvider = destProvider;
+        this.destStoreId = destStoreId;
+        this.destSpaceId = destSpaceId;
+        this.destContentId = destContentId;
+        this.created = System.currentTimeMillis();
+        this.modified = created;
+    }
+
+    /**
+     * Moves a queued job to the running state, if it was queued for the
+     * given attempt.
+     *
+     * @param generation the generation of the job when it was queued
+     * @return false if the job was cancelled, or queued again since
+     */
+    public synchronized boolean start(int generation) {
+        if (generation != this.generation || state != State.QUEUED) {
+            return false;
+        }
+        attempts.incrementAndGet();
+        error = null;
+        setState(State.RUNNING);
+        return true;
+    }
+
+    public synchronized int getGeneration() {
+        return generation;
+    }
+
+    public synchronized void completed(String checksum) {
+        this.checksum = checksum;
+        setState(State.COMPLETE);
+    }
+
+    public synchronized void failed(String error) {
+        this.error = error;
+        setState(cancelRequested ? State.CANCELLED : State.FAILED);
+    }
+
+    public synchronized void cancelled() {
+        setState(State.CANCELLED);
+    }
+
+    /**
+     * Moves a failed or cancelled job back to the queued state so that it
+     * can be run again. Progress on chunked content is retained.
+     *
+     * @return false if the job is not in a state which allows a retry
+     */
+    public synchronized boolean requeue() {
+        if (state != State.FAILED && state != State.CANCELLED) {
+            return false;
+        }
+        cancelRequested = false;
+        generation++;
+        setState(State.QUEUED);
+        return true;
+    }
+
+    /**
+     * Requests that the job stop. A queued job is cancelled immediately,
+     * a running job stops at its next read.
+     *
+     * @return false if the job has already finished
+     */
+    public synchronized boolean requestCancel() {
+        if (state.isFinished()) {
+            return false;
+        }
+        cancelRequested = true;
+        if (state == State.QUEUED) {
+            setState(State.CANCELLED);
+        }
+        return true;
+    }
+
+    private void setState(State state) {
+        this.state = state;
+        this.modified = System.currentTimeMillis();
+    }
+
+    public void addBytesCopied(long bytes) {
+        bytesCopied.addAndGet(bytes);
+    }
+
+    public long getBytesCopied() {
+        return bytesCopied.get();
+    }
+
+    public void resetBytesCopied(long bytes) {
+        bytesCopied.set(bytes);
+    }
+
+    public void chunkCopied(String chunkId) {
+        copiedChunks.add(chunkId);
+    }
+
+    public boolean isChunkCopied(String chunkId) {
+        return copiedChunks.contains(chunkId);
+    }
+
+    public CopyJobStatus getStatus() {
+        CopyJobStatus status = new CopyJobStatus();
+        status.setJobId(jobId);
+        status.setState(state.name());
+        status.setSrcStoreId(srcStoreId);
+        status.setSrcSpaceId(srcSpaceId);
+        status.setSrcContentId(srcContentId);
+        status.setDestStoreId(destStoreId);
+        status.setDestSpaceId(destSpaceId);
+        status.setDestContentId(destContentId);
+        status.setTotalBytes(totalBytes);
+        status.setBytesCopied(bytesCopied.get());
+        status.setTotalChunks(totalChunks);
+        status.setChunksCopied(copiedChunks.size());
+        status.setAttempts(attempts.get());
+        status.setChecksum(checksum);
+        status.setError(error);
+        status.setCreated(created);
+        status.setModified(modified);
+        return status;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public StorageProvider getSrcProvider() {
+        return srcProvider;
+    }
+
+    public String getSrcSpaceId() {
+        return srcSpaceId;
+    }
+
+    public String getSrcContentId() {
+        return srcContentId;
+    }
+
+    public StorageProvider getDestProvider() {
+        return destProvider;
+    }
+
+    public String getDestSpaceId() {
+        return destSpaceId;
+    }
+
+    public String getDestContentId() {
+        return destContentId;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isFinished() {
+        return state.isFinished();
+    }
+
+    public long getModified() {
+        return modified;
+    }
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    public void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    public void setTotalChunks(int totalChunks) {
+        this.totalChunks = totalChunks;
+    }
+
+}
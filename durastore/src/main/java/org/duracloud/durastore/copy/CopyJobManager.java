@@ -0,0 +1,98 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.copy;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.duracloud.durastore.util.JobManagerBase;
+import org.duracloud.storage.provider.StorageProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Accepts copy jobs and runs them on a bounded pool of worker threads, so
+ * that long running copies between storage providers do not hold a request
+ * thread (and an HTTP connection) open for the duration of the transfer.
+ */
+public class CopyJobManager extends JobManagerBase<CopyJob> {
+
+    private static final Logger log =
+        LoggerFactory.getLogger(CopyJobManager.class);
+
+    public CopyJobManager() {
+        this(DEFAULT_THREADS, DEFAULT_QUEUE_SIZE, DEFAULT_RETENTION_MS);
+    }
+
+    public CopyJobManager(int threads, int queueSize, long retentionMs) {
+        super(threads, queueSize, retentionMs);
+    }
+
+    /**
+     * Creates and queues a copy job. The security context of the calling
+     * thread is carried over to the thread which performs the copy.
+     *
+     * @return the queued job
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public CopyJob submit(String accountId,
+                          StorageProvider srcProvider,
+                          String srcStoreId,
+                          String srcSpaceId,
+                          String srcContentId,
+                          StorageProvider destProvider,
+                          String destStoreId,
+                          String destSpaceId,
+                          String destContentId) {
+        String jobId = createJobId();
+        CopyJob job = new CopyJob(jobId,
+                                  accountId,
+                                  srcProvider,
+                                  srcStoreId,
+                                  srcSpaceId,
+                                  srcContentId,
+                                  destProvider,
+                                  destStoreId,
+                                  destSpaceId,
+                                  destContentId);
+        queue(job, new CopyJobRunner(job));
+        log.info("Queued copy job {} for account {}", jobId, accountId);
+        return job;
+    }
+
+    /**
+     * Requests cancellation of a job
+     *
+     * @return false if the job does not exist or has already finished
+     */
+    public boolean cancel(String accountId, String jobId) {
+        CopyJob job = getJob(accountId, jobId);
+        return null != job && job.requestCancel();
+    }
+
+    /**
+     * Queues a failed or cancelled job to be run again. Chunks which were
+     * copied by earlier attempts are not copied again.
+     *
+     * @return false if the job does not exist or is not failed or cancelled
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public boolean retry(String accountId, String jobId) {
+        CopyJob job = getJob(accountId, jobId);
+        if (null == job || !job.requeue()) {
+            return false;
+        }
+        try {
+            execute(new CopyJobRunner(job));
+        } catch (RejectedExecutionException e) {
+            job.failed("Copy job queue is full");
+            throw e;
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,298 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.copy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.util.Map;
+
+import org.apache.commons.io.input.ProxyInputStream;
+import org.duracloud.chunk.manifest.ChunksManifest;
+import org.duracloud.chunk.manifest.ChunksManifestBean.ManifestEntry;
+import org.duracloud.chunk.manifest.xml.ManifestDocumentBinding;
+import org.duracloud.chunk.util.ChunkUtil;
+import org.duracloud.common.retry.Retrier;
+import org.duracloud.common.retry.RetryPolicy;
+import org.duracloud.common.util.ChecksumUtil;
+import org.duracloud.storage.error.ChecksumMismatchException;
+import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.provider.StorageProvider;
+import org.duracloud.storage.util.StorageProviderUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.duracloud.common.error.RetryFlaggableException.NO_RETRY;
+
+/**
+ * Performs the transfer for a CopyJob.
+ *
+ * Each content item is streamed from the source provider to the destination
+ * provider while its MD5 is computed, and the result is compared to both the
+ * source checksum and the checksum reported by the destination.
+ *
+ * Chunked content (a .dura-manifest and its .dura-chunk-NNNN items) is
+ * copied chunk by chunk, with the manifest written last. A chunk which is
+ * already present in the destination with the expected checksum is not
+ * copied again, so a retried or restarted job resumes from the last
+ * verified chunk rather than from the beginning.
+ */
+public class CopyJobRunner implements Runnable {
+
+    private static final Logger log =
+        LoggerFactory.getLogger(CopyJobRunner.class);
+
+    private static final int MAX_RETRIES = 2;
+    private static final int WAIT_BETWEEN_RETRIES = 5000;
+
+    private CopyJob job;
+    private int generation;
+    private ChunkUtil chunkUtil = new ChunkUtil();
+
+    public CopyJobRunner(CopyJob job) {
+        this.job = job;
+        this.generation = job.getGeneration();
+    }
+
+    @Override
+    public void run() {
+        // Cancelled while queued, or queued again by a retry with a new runner
+        if (!job.start(generation)) {
+            return;
+        }
+
+        log.info("Starting copy job {}: {}/{} to {}/{}", job.getJobId(),
+                 job.getSrcSpaceId(), job.getSrcContentId(),
+                 job.getDestSpaceId(), job.getDestContentId());
+        try {
+            String checksum;
+            if (chunkUtil.isChunkManifest(job.getSrcContentId())) {
+                checksum = copyChunkedContent();
+            } else {
+                checksum = copyWithRetries(job.getSrcSpaceId(),
+                                           job.getSrcContentId(),
+                                           job.getDestSpaceId(),
+                                           job.getDestContentId(),
+                                           null,
+                                           true);
+            }
+            job.completed(checksum);
+            log.info("Copy job {} complete", job.getJobId());
+        } catch (Exception e) {
+            if (job.isCancelRequested()) {
+                job.cancelled();
+                log.info("Copy job {} cancelled", job.getJobId());
+            } else {
+                job.failed(e.getMessage());
+                log.error("Copy job " + job.getJobId() + " failed due to: " +
+                          e.getMessage(), e);
+            }
+        }
+    }
+
+    private String copyChunkedContent() throws Exception {
+        StorageProvider src = job.getSrcProvider();
+        StorageProvider dest = job.getDestProvider();
+
+        ChunksManifest manifest;
+        try (InputStream manifestStream =
+                 src.getContent(job.getSrcSpaceId(), job.getSrcContentId())) {
+            manifest = ManifestDocumentBinding.createManifestFrom(manifestStream);
+        }
+
+        String srcBaseId = manifest.getHeader().getSourceContentId();
+        String destBaseId = chunkUtil.preChunkedContentId(job.getDestContentId());
+
+        job.setTotalBytes(manifest.getHeader().getSourceByteSize());
+        job.setTotalChunks(manifest.getEntries().size());
+
+        ChunksManifest destManifest =
+            new ChunksManifest(destBaseId,
+                               manifest.getHeader().getSourceMimetype(),
+                               manifest.getHeader().getSourceByteSize());
+        destManifest.setMD5OfSourceContent(manifest.getHeader().getSourceMD5());
+
+        long verifiedBytes = 0;
+        for (ManifestEntry entry : manifest.getEntries()) {
+            String srcChunkId = entry.getChunkId();
+            String destChunkId =
+                destBaseId + srcChunkId.substring(srcBaseId.length());
+            destManifest.addEntry(destChunkId,
+                                  entry.getChunkMD5(),
+                                  entry.getByteSize());
+
+            if (!job.isChunkCopied(srcChunkId) &&
+                !chunkInDestination(destChunkId, entry.getChunkMD5())) {
+                job.resetBytesCopied(verifiedBytes);
+                copyWithRetries(job.getSrcSpaceId(),
+                                srcChunkId,
+                                job.getDestSpaceId(),
+                                destChunkId,
+                                entry.getChunkMD5(),
+                                false);
+            }
+            job.chunkCopied(srcChunkId);
+            verifiedBytes += entry.getByteSize();
+            job.resetBytesCopied(verifiedBytes);
+        }
+
+        // Write the manifest last, so that the content is only visible as
+        // a complete item in the destination once every chunk is present
+        String manifestXml = ManifestDocumentBinding.createDocumentFrom(destManifest);
+        byte[] manifestBytes = manifestXml.getBytes("UTF-8");
+        Map<String, String> properties =
+            StorageProviderUtil.removeCalculatedProperties(
+                src.getContentProperties(job.getSrcSpaceId(),
+                                         job.getSrcContentId()));
+        ChecksumUtil checksumUtil = new ChecksumUtil(ChecksumUtil.Algorithm.MD5);
+        String manifestChecksum = checksumUtil.generateChecksum(manifestXml);
+        return new Retrier(createRetryPolicy()).execute(() -> {
+            return dest.addContent(job.getDestSpaceId(),
+                                   job.getDestContentId(),
+                                   destManifest.getMimetype(),
+                                   properties,
+                                   manifestBytes.length,
+                                   manifestChecksum,
+                                   new ByteArrayInputStream(manifestBytes));
+        });
+    }
+
+    private boolean chunkInDestination(String destChunkId, String md5) {
+        try {
+            Map<String, String> props =
+                job.getDestProvider().getContentProperties(job.getDestSpaceId(),
+                                                           destChunkId);
+            String checksum =
+                props.get(StorageProvider.PROPERTIES_CONTENT_CHECKSUM);
+            return null != md5 && md5.equals(checksum);
+        } catch (NotFoundException e) {
+            return false;
+        }
+    }
+
+    private String copyWithRetries(String srcSpaceId,
+                                   String srcContentId,
+                                   String destSpaceId,
+                                   String destContentId,
+                                   String expectedChecksum,
+                                   boolean trackTotal) throws Exception {
+        long startingBytes = job.getBytesCopied();
+        return new Retrier(createRetryPolicy()).execute(() -> {
+            job.resetBytesCopied(startingBytes);
+            return copyItem(srcSpaceId,
+                            srcContentId,
+                            destSpaceId,
+                            destContentId,
+                            expectedChecksum,
+                            trackTotal);
+        });
+    }
+
+    private RetryPolicy createRetryPolicy() {
+        RetryPolicy policy = new RetryPolicy(MAX_RETRIES,
+                                             WAIT_BETWEEN_RETRIES,
+                                             1,
+                                             RetryPolicy.Jitter.FULL);
+        policy.setClassifier(e -> !(e instanceof NotFoundException) &&
+                                  !job.isCancelRequested());
+        return policy;
+    }
+
+    /*
+     * Streams a single item from source to destination, verifying checksums
+     */
+    private String copyItem(String srcSpaceId,
+                            String srcContentId,
+                            String destSpaceId,
+                            String destContentId,
+                            String expectedChecksum,
+                            boolean trackTotal) throws Exception {
+        StorageProvider src = job.getSrcProvider();
+        StorageProvider dest = job.getDestProvider();
+
+        Map<String, String> properties =
+            src.getContentProperties(srcSpaceId, srcContentId);
+        String srcChecksum =
+            properties.get(StorageProvider.PROPERTIES_CONTENT_CHECKSUM);
+        if (null == expectedChecksum) {
+            expectedChecksum = srcChecksum;
+        }
+        String mimetype =
+            properties.get(StorageProvider.PROPERTIES_CONTENT_MIMETYPE);
+        long contentSize = parseSize(
+            properties.get(StorageProvider.PROPERTIES_CONTENT_SIZE));
+        if (trackTotal) {
+            job.setTotalBytes(contentSize);
+        }
+
+        try (InputStream srcStream = src.getContent(srcSpaceId, srcContentId);
+             DigestInputStream digestStream =
+                 ChecksumUtil.wrapStream(new ProgressInputStream(srcStream),
+                                         ChecksumUtil.Algorithm.MD5)) {
+            String destChecksum =
+                dest.addContent(destSpaceId,
+                                destContentId,
+                                mimetype,
+                                StorageProviderUtil.removeCalculatedProperties(properties),
+                                contentSize,
+                                expectedChecksum,
+                                digestStream);
+
+            String streamChecksum = ChecksumUtil.getChecksum(digestStream);
+            if (null != expectedChecksum && !expectedChecksum.equals(streamChecksum)) {
+                throw new ChecksumMismatchException(
+                    "Checksum of content read from " + srcSpaceId + "/" +
+                    srcContentId + " (" + streamChecksum + ") does not match " +
+                    "the expected checksum (" + expectedChecksum + ")", NO_RETRY);
+            }
+            return StorageProviderUtil.compareChecksum(destChecksum,
+                                                       destSpaceId,
+                                                       destContentId,
+                                                       streamChecksum);
+        }
+    }
+
+    private long parseSize(String size) {
+        if (null != size) {
+            try {
+                return Long.parseLong(size);
+            } catch (NumberFormatException e) {
+                log.warn("content size could not be parsed: " + e.getMessage());
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * Records bytes read against the job, and stops the transfer once a
+     * cancel has been requested.
+     */
+    private class ProgressInputStream extends ProxyInputStream {
+
+        public ProgressInputStream(InputStream proxy) {
+            super(proxy);
+        }
+
+        @Override
+        protected void beforeRead(int n) throws IOException {
+            if (job.isCancelRequested()) {
+                throw new IOException("Copy job " + job.getJobId() +
+                                      " was cancelled");
+            }
+        }
+
+        @Override
+        protected void afterRead(int n) {
+            if (n > 0) {
+                job.addBytesCopied(n);
+            }
+        }
+    }
+
+}
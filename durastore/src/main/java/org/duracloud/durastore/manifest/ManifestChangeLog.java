@@ -0,0 +1,273 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.manifest;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the changes made to the content of each space through this
+ * application, so that manifest snapshots can be brought up to date without
+ * being generated again. Each change is given the next number of a sequence
+ * shared by all spaces; the changes made to a space after a given sequence
+ * number can be retrieved, as long as no more than the maximum number of
+ * changes have been recorded for the space since.
+ *
+ * Changes are held in memory and made on this node only. Each log has an
+ * ID which differs from that of any earlier log, so that sequence numbers
+ * from before a restart are not mistaken for current ones. The changes of
+ * a space are dropped once no change has been made to it for the idle
+ * time; its sequence number is then the highest sequence number of any
+ * dropped space, and snapshots which cannot be shown to include all of its
+ * changes are generated again.
+ *
+ * A single instance is shared by all storage providers in the application.
+ */
+public class ManifestChangeLog {
+
+    public static final int DEFAULT_MAX_CHANGES = 10000;
+    public static final long DEFAULT_IDLE_MILLIS = 6 * 60 * 60 * 1000;
+
+    private static final long IDLE_CHECK_MILLIS = 60 * 1000;
+
+    private static ManifestChangeLog instance;
+
+    private final String logId = UUID.randomUUID().toString().substring(0, 8);
+    private final Map<String, SpaceChanges> spaces = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    // Highest sequence number of any space which has been dropped
+    private final AtomicLong droppedSequence = new AtomicLong();
+    private volatile long lastIdleCheck = System.currentTimeMillis();
+    private int maxChanges = DEFAULT_MAX_CHANGES;
+    private long idleMillis = DEFAULT_IDLE_MILLIS;
+
+    public static synchronized ManifestChangeLog getInstance() {
+        if (null == instance) {
+            instance = new ManifestChangeLog();
+        }
+        return instance;
+    }
+
+    protected ManifestChangeLog() {
+    }
+
+    public String getLogId() {
+        return logId;
+    }
+
+    /**
+     * @param maxChanges number of changes held for each space, beyond which
+     *                   changes are no longer available
+     */
+    public void setMaxChanges(int maxChanges) {
+        this.maxChanges = maxChanges;
+    }
+
+    /**
+     * @param idleMillis time after the last change to a space at which its
+     *                   changes are dropped
+     */
+    public void setIdleMillis(long idleMillis) {
+        this.idleMillis = idleMillis;
+    }
+
+    /**
+     * Records that content has been added, updated or deleted
+     *
+     * @param checksum checksum of the content, null if it has been deleted
+     */
+    public void contentChanged(String account,
+                               String storeId,
+                               String spaceId,
+                               String contentId,
+                               String checksum) {
+        String key = getKey(account, storeId, spaceId);
+        while (!spaces.computeIfAbsent(key, k -> new SpaceChanges(
+            droppedSequence.get())).add(contentId, checksum, maxChanges)) {
+            // Dropped while the change was being recorded, try again
+        }
+        checkIdle();
+    }
+
+    /**
+     * Records that the content of a space has changed in a way which is not
+     * known, as when the space is deleted
+     */
+    public void spaceChanged(String account, String storeId, String spaceId) {
+        String key = getKey(account, storeId, spaceId);
+        while (!spaces.computeIfAbsent(key, k -> new SpaceChanges(
+            droppedSequence.get())).reset()) {
+            // Dropped while the change was being recorded, try again
+        }
+        checkIdle();
+    }
+
+    /**
+     * @return the number of the latest change to the space
+     */
+    public long getSequence(String account, String storeId, String spaceId) {
+        SpaceChanges changes = spaces.get(getKey(account, storeId, spaceId));
+        return null == changes ? droppedSequence.get() : changes.getSequence();
+    }
+
+    /**
+     * Returns a sequence number after which all of the changes made to a
+     * space since the given time are held, or as near to that as the changes
+     * which are held allow.
+     *
+     * @param time in milliseconds
+     */
+    public long getSequenceBefore(String account,
+                                  String storeId,
+                                  String spaceId,
+                                  long time) {
+        SpaceChanges changes = spaces.get(getKey(account, storeId, spaceId));
+        return null == changes ? droppedSequence.get()
+                               : changes.getSequenceBefore(time);
+    }
+
+    /**
+     * Returns the changes made to a space after the given sequence number,
+     * as a map of content ID to checksum, with a null checksum for content
+     * which has been deleted.
+     *
+     * @return the changes, or null if they are no longer held
+     */
+    public Map<String, String> getChangesSince(String account,
+                                               String storeId,
+                                               String spaceId,
+                                               long sequence) {
+        SpaceChanges changes = spaces.get(getKey(account, storeId, spaceId));
+        if (null == changes) {
+            return sequence == droppedSequence.get() ? new HashMap<>() : null;
+        }
+        return changes.getChangesSince(sequence);
+    }
+
+    private String getKey(String account, String storeId, String spaceId) {
+        return account + "/" + storeId + "/" + spaceId;
+    }
+
+    private void checkIdle() {
+        long now = System.currentTimeMillis();
+        if (now - lastIdleCheck >= IDLE_CHECK_MILLIS) {
+            lastIdleCheck = now;
+            dropIdleSpaces(now - idleMillis);
+        }
+    }
+
+    /**
+     * Drops the changes of spaces which have not changed since the given time
+     */
+    protected void dropIdleSpaces(long time) {
+        for (String key : spaces.keySet()) {
+            spaces.computeIfPresent(key, (k, changes) -> {
+                long dropped = changes.dropIfIdle(time);
+                if (dropped < 0) {
+                    return changes;
+                }
+                droppedSequence.accumulateAndGet(dropped, Math::max);
+                return null;
+            });
+        }
+    }
+
+    private class SpaceChanges {
+        private long sequence;
+        // Changes after this sequence are held
+        private long baseSequence;
+        private long lastChanged = System.currentTimeMillis();
+        private boolean dropped = false;
+        private final Map<String, Change> changes = new HashMap<>();
+
+        SpaceChanges(long sequence) {
+            this.sequence = sequence;
+            this.baseSequence = sequence;
+        }
+
+        synchronized boolean add(String contentId, String checksum, int max) {
+            if (dropped) {
+                return false;
+            }
+            sequence = ManifestChangeLog.this.sequence.incrementAndGet();
+            lastChanged = System.currentTimeMillis();
+            changes.put(contentId, new Change(sequence, lastChanged, checksum));
+            if (changes.size() > max) {
+                baseSequence = sequence;
+                changes.clear();
+            }
+            return true;
+        }
+
+        synchronized boolean reset() {
+            if (dropped) {
+                return false;
+            }
+            sequence = ManifestChangeLog.this.sequence.incrementAndGet();
+            lastChanged = System.currentTimeMillis();
+            baseSequence = sequence;
+            changes.clear();
+            return true;
+        }
+
+        /*
+         * Returns the sequence number of the space if it is dropped, or -1
+         * if it has changed since the given time
+         */
+        synchronized long dropIfIdle(long time) {
+            if (lastChanged > time) {
+                return -1;
+            }
+            dropped = true;
+            return sequence;
+        }
+
+        synchronized long getSequence() {
+            return sequence;
+        }
+
+        synchronized long getSequenceBefore(long time) {
+            long before = sequence;
+            for (Change change : changes.values()) {
+                if (change.time >= time) {
+                    before = Math.min(before, change.sequence - 1);
+                }
+            }
+            return Math.max(before, baseSequence);
+        }
+
+        synchronized Map<String, String> getChangesSince(long since) {
+            if (since < baseSequence || since > sequence) {
+                return null;
+            }
+            Map<String, String> result = new HashMap<>();
+            for (Map.Entry<String, Change> entry : changes.entrySet()) {
+                if (entry.getValue().sequence > since) {
+                    result.put(entry.getKey(), entry.getValue().checksum);
+                }
+            }
+            return result;
+        }
+    }
+
+    private static class Change {
+        private final long sequence;
+        private final long time;
+        private final String checksum;
+
+        Change(long sequence, long time, String checksum) {
+            this.sequence = sequence;
+            this.time = time;
+            this.checksum = checksum;
+        }
+    }
+
+}
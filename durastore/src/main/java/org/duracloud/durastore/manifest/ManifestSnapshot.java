@@ -0,0 +1,61 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.manifest;
+
+/**
+ * A stored, gzip compressed manifest of a space, as of a sequence number
+ * of the manifest change log.
+ */
+public class ManifestSnapshot {
+
+    private final String contentId;
+    private final String logId;
+    private final long sequence;
+    private final long created;
+
+    public ManifestSnapshot(String contentId,
+                            String logId,
+                            long sequence,
+                            long created) {
+        this.contentId = contentId;
+        this.logId = logId;
+        this.sequence = sequence;
+        this.created = created;
+    }
+
+    /**
+     * @return ID of the content item in which the snapshot is stored
+     */
+    public String getContentId() {
+        return contentId;
+    }
+
+    public String getLogId() {
+        return logId;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return time at which the snapshot was first generated, snapshots
+     *         which are brought up to date keep this time
+     */
+    public long getCreated() {
+        return created;
+    }
+
+    /**
+     * @return entity tag, which changes whenever the snapshot does
+     */
+    public String getETag() {
+        return logId + "-" + Long.toString(created, 36) + "-" + sequence;
+    }
+
+}
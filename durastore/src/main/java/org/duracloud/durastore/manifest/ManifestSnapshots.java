@@ -0,0 +1,359 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.manifest;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.duracloud.common.constant.ManifestFormat;
+import org.duracloud.common.error.DuraCloudRuntimeException;
+import org.duracloud.common.retry.Retrier;
+import org.duracloud.common.util.ChecksumUtil;
+import org.duracloud.common.util.ChecksumUtil.Algorithm;
+import org.duracloud.durastore.util.ManifestSnapshotConfig;
+import org.duracloud.manifest.ManifestFormatter;
+import org.duracloud.manifest.ManifestGenerator;
+import org.duracloud.manifest.error.ManifestArgumentException;
+import org.duracloud.manifest.error.ManifestNotFoundException;
+import org.duracloud.manifest.impl.ManifestFormatterFactory;
+import org.duracloud.mill.db.model.ManifestItem;
+import org.duracloud.storage.domain.StorageAccount;
+import org.duracloud.storage.provider.StorageProvider;
+import org.duracloud.storage.util.StorageProviderFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Serves space manifests from snapshots stored as compressed content in the
+ * snapshot space of the primary store, rather than reading every item from
+ * the manifest database on each request.
+ *
+ * A snapshot is generated in full when none is held for the space, when it
+ * is older than the maximum age, or when the changes made since it was
+ * taken are no longer held in the manifest change log. Otherwise, when the
+ * space has changed, the snapshot is brought up to date by applying the
+ * changes to it. When the space has not changed, the snapshot is served as
+ * it is.
+ *
+ * The manifest database is updated from audit events after a delay, so a
+ * newly generated snapshot may not include the latest changes. The changes
+ * recorded within the audit lag before generation are applied to it again.
+ * Changes are recorded only as they are made through this node, so changes
+ * made through other nodes may be missing from a snapshot for up to the
+ * maximum age. For this reason snapshots are disabled by default, and are
+ * only suited to durastore running on a single node.
+ */
+public class ManifestSnapshots {
+
+    private final Logger log = LoggerFactory.getLogger(ManifestSnapshots.class);
+
+    public static final String SNAPSHOT_MIMETYPE = "application/gzip";
+
+    protected static final String PROPERTY_LOG_ID = "manifest-log-id";
+    protected static final String PROPERTY_SEQUENCE = "manifest-sequence";
+    protected static final String PROPERTY_CREATED = "manifest-created";
+
+    private final ManifestGenerator manifestGenerator;
+    private final StorageProviderFactory storageProviderFactory;
+    private final ManifestChangeLog changeLog;
+    private final ManifestSnapshotConfig config;
+
+    private final Map<String, ManifestSnapshot> snapshots =
+        new ConcurrentHashMap<>();
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+
+    public ManifestSnapshots(ManifestGenerator manifestGenerator,
+                             StorageProviderFactory storageProviderFactory,
+                             ManifestChangeLog changeLog,
+                             ManifestSnapshotConfig config) {
+        this.manifestGenerator = manifestGenerator;
+        this.storageProviderFactory = storageProviderFactory;
+        this.changeLog = changeLog;
+        this.config = config;
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Returns the snapshot of the manifest of a space, bringing it up to
+     * date or generating it as needed.
+     *
+     * @param storeId of the space, null for the primary store
+     */
+    public ManifestSnapshot getSnapshot(String account,
+                                        String storeId,
+                                        String spaceId,
+                                        ManifestFormat format)
+        throws ManifestArgumentException, ManifestNotFoundException {
+        storeId = resolveStoreId(storeId);
+        String key = account + "/" + storeId + "/" + spaceId + "/" +
+                     format.name();
+
+        Object lock = locks.computeIfAbsent(key, k -> new Object());
+        synchronized (lock) {
+            ManifestSnapshot snapshot = snapshots.get(key);
+            if (null != snapshot && isCurrent(snapshot)) {
+                ManifestSnapshot updated =
+                    bringUpToDate(snapshot, account, storeId, spaceId, format);
+                if (null != updated) {
+                    snapshots.put(key, updated);
+                    return updated;
+                }
+            }
+
+            snapshot = generate(account, storeId, spaceId, format);
+            ManifestSnapshot updated =
+                bringUpToDate(snapshot, account, storeId, spaceId, format);
+            if (null != updated) {
+                snapshot = updated;
+            }
+            snapshots.put(key, snapshot);
+            return snapshot;
+        }
+    }
+
+    /*
+     * Applies the changes made since the snapshot was taken, returns null if
+     * they are no longer held or cannot be applied
+     */
+    private ManifestSnapshot bringUpToDate(ManifestSnapshot snapshot,
+                                           String account,
+                                           String storeId,
+                                           String spaceId,
+                                           ManifestFormat format) {
+        long sequence = changeLog.getSequence(account, storeId, spaceId);
+        if (snapshot.getSequence() == sequence) {
+            return snapshot;
+        }
+
+        Map<String, String> changes =
+            changeLog.getChangesSince(account, storeId, spaceId,
+                                      snapshot.getSequence());
+        if (null == changes) {
+            return null;
+        }
+        try {
+            return update(snapshot, spaceId, format, changes, sequence);
+        } catch (ParseException e) {
+            log.warn("Unable to update manifest snapshot {}, " +
+                     "generating it again: {}",
+                     snapshot.getContentId(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return the gzip compressed content of the snapshot
+     */
+    public InputStream getContent(ManifestSnapshot snapshot) {
+        return getSnapshotStore().getContent(config.getSnapshotSpaceId(),
+                                             snapshot.getContentId());
+    }
+
+    private boolean isCurrent(ManifestSnapshot snapshot) {
+        return changeLog.getLogId().equals(snapshot.getLogId()) &&
+               System.currentTimeMillis() - snapshot.getCreated() <
+               config.getMaxAgeMillis();
+    }
+
+    private String resolveStoreId(String storeId) {
+        if (null == storeId) {
+            for (StorageAccount account :
+                storageProviderFactory.getStorageAccounts()) {
+                if (account.isPrimary()) {
+                    return account.getId();
+                }
+            }
+        }
+        return storeId;
+    }
+
+    private StorageProvider getSnapshotStore() {
+        return storageProviderFactory.getStorageProvider();
+    }
+
+    protected String getSnapshotContentId(String storeId,
+                                          String spaceId,
+                                          ManifestFormat format) {
+        return "manifest-snapshots/" + storeId + "/" + spaceId + "-" +
+               format.name().toLowerCase() + ".txt.gz";
+    }
+
+    private ManifestSnapshot generate(String account,
+                                      String storeId,
+                                      String spaceId,
+                                      ManifestFormat format)
+        throws ManifestArgumentException, ManifestNotFoundException {
+        long start = System.currentTimeMillis();
+        // Changes made within the audit lag may not be in the database yet
+        long sequence =
+            changeLog.getSequenceBefore(account, storeId, spaceId,
+                                        start - config.getAuditLagMillis());
+        InputStream manifest = manifestGenerator.getManifest(account,
+                                                             storeId,
+                                                             spaceId,
+                                                             format);
+        ManifestSnapshot snapshot =
+            new ManifestSnapshot(getSnapshotContentId(storeId, spaceId, format),
+                                 changeLog.getLogId(), sequence, start);
+
+        File file = createTempFile();
+        try {
+            try (InputStream in = manifest;
+                 OutputStream out = openCompressed(file)) {
+                IOUtils.copy(in, out);
+            }
+            store(snapshot, file);
+        } catch (IOException e) {
+            throw new DuraCloudRuntimeException(
+                "Unable to generate manifest snapshot " +
+                snapshot.getContentId() + ": " + e.getMessage(), e);
+        } finally {
+            file.delete();
+        }
+
+        log.info("Generated manifest snapshot {} in {} ms",
+                 snapshot.getContentId(), System.currentTimeMillis() - start);
+        return snapshot;
+    }
+
+    /*
+     * Copies the snapshot, leaving out the lines for changed content, and
+     * adds lines for content which has been added or updated
+     */
+    private ManifestSnapshot update(ManifestSnapshot snapshot,
+                                    String spaceId,
+                                    ManifestFormat format,
+                                    Map<String, String> changes,
+                                    long sequence) throws ParseException {
+        long start = System.currentTimeMillis();
+        ManifestFormatter formatter =
+            new ManifestFormatterFactory().create(format);
+        ManifestSnapshot updated =
+            new ManifestSnapshot(snapshot.getContentId(),
+                                 snapshot.getLogId(),
+                                 sequence,
+                                 snapshot.getCreated());
+
+        File file = createTempFile();
+        try {
+            try (BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(
+                         new GZIPInputStream(getContent(snapshot)),
+                         StandardCharsets.UTF_8));
+                 Writer writer = new OutputStreamWriter(openCompressed(file),
+                                                        StandardCharsets.UTF_8)) {
+                String header = formatter.getHeader();
+                if (null != header) {
+                    writer.write(header + "\n");
+                }
+
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty() || line.equals(header)) {
+                        continue;
+                    }
+                    ManifestItem item = formatter.parseLine(line);
+                    if (!changes.containsKey(item.getContentId())) {
+                        writer.write(line + "\n");
+                    }
+                }
+
+                for (Map.Entry<String, String> change : changes.entrySet()) {
+                    if (null != change.getValue()) {
+                        ManifestItem item = new ManifestItem();
+                        item.setSpaceId(spaceId);
+                        item.setContentId(change.getKey());
+                        item.setContentChecksum(change.getValue());
+                        writer.write(formatter.formatLine(item) + "\n");
+                    }
+                }
+            }
+            store(updated, file);
+        } catch (IOException e) {
+            throw new DuraCloudRuntimeException(
+                "Unable to update manifest snapshot " +
+                snapshot.getContentId() + ": " + e.getMessage(), e);
+        } finally {
+            file.delete();
+        }
+
+        log.info("Applied {} changes to manifest snapshot {} in {} ms",
+                 changes.size(), snapshot.getContentId(),
+                 System.currentTimeMillis() - start);
+        return updated;
+    }
+
+    private File createTempFile() {
+        try {
+            return File.createTempFile("manifest-snapshot-", ".txt.gz");
+        } catch (IOException e) {
+            throw new DuraCloudRuntimeException(e);
+        }
+    }
+
+    private OutputStream openCompressed(File file) throws IOException {
+        return new GZIPOutputStream(
+            new BufferedOutputStream(new FileOutputStream(file)));
+    }
+
+    private void store(ManifestSnapshot snapshot, File file) {
+        String checksum;
+        try {
+            checksum = new ChecksumUtil(Algorithm.MD5).generateChecksum(file);
+        } catch (IOException e) {
+            throw new DuraCloudRuntimeException(e);
+        }
+
+        Map<String, String> properties = new HashMap<>();
+        properties.put(PROPERTY_LOG_ID, snapshot.getLogId());
+        properties.put(PROPERTY_SEQUENCE,
+                       String.valueOf(snapshot.getSequence()));
+        properties.put(PROPERTY_CREATED,
+                       String.valueOf(snapshot.getCreated()));
+
+        StorageProvider provider = getSnapshotStore();
+        try {
+            new Retrier().execute(() -> {
+                try (InputStream content = new FileInputStream(file)) {
+                    return provider.addContent(config.getSnapshotSpaceId(),
+                                               snapshot.getContentId(),
+                                               SNAPSHOT_MIMETYPE,
+                                               properties,
+                                               file.length(),
+                                               checksum,
+                                               content);
+                }
+            });
+        } catch (Exception e) {
+            throw new DuraCloudRuntimeException(
+                "Unable to store manifest snapshot " +
+                snapshot.getContentId() + ": " + e.getMessage(), e);
+        }
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the calls made to a single storage provider operation, along with
+ * the number which failed, the bytes moved in each direction, and the time
+ * taken by each call. Call times are counted in a fixed set of buckets, from
+ * which latency percentiles are estimated.
+ *
+ * All counters may be updated by any number of threads without locking.
+ */
+public class OperationMetrics {
+
+    /**
+     * Upper bounds, in seconds, of the latency buckets
+     */
+    public static final double[] LATENCY_BUCKETS =
+        {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60};
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+
+    // One more bucket than there are bounds, for calls over the last bound
+    private final LongAdder[] latencyCounts =
+        new LongAdder[LATENCY_BUCKETS.length + 1];
+
+    public OperationMetrics() {
+        for (int i = 0; i < latencyCounts.length; i++) {
+            latencyCounts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a completed call
+     *
+     * @param nanos time taken by the call
+     * @param failed true if the call threw an exception
+     */
+    public void record(long nanos, boolean failed) {
+        calls.increment();
+        if (failed) {
+            errors.increment();
+        }
+        latencyNanos.add(nanos);
+
+        double seconds = nanos / (double) TimeUnit.SECONDS.toNanos(1);
+        int bucket = 0;
+        while (bucket < LATENCY_BUCKETS.length &&
+               seconds > LATENCY_BUCKETS[bucket]) {
+            bucket++;
+        }
+        latencyCounts[bucket].increment();
+    }
+
+    public void addBytesIn(long bytes) {
+        bytesIn.add(bytes);
+    }
+
+    public void addBytesOut(long bytes) {
+        bytesOut.add(bytes);
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getBytesIn() {
+        return bytesIn.sum();
+    }
+
+    public long getBytesOut() {
+        return bytesOut.sum();
+    }
+
+    public double getLatencySeconds() {
+        return latencyNanos.sum() / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * @return the number of calls in each latency bucket, where the last
+     *         bucket holds calls which took longer than the last bound
+     */
+    public long[] getLatencyCounts() {
+        long[] counts = new long[latencyCounts.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = latencyCounts[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * Estimates a latency percentile as the upper bound of the bucket which
+     * holds it.
+     *
+     * @param percentile between 0 and 1
+     * @return latency in seconds, 0 if there have been no calls, or
+     *         positive infinity if the percentile is over the last bound
+     */
+    public double getLatencyPercentile(double percentile) {
+        long[] counts = getLatencyCounts();
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (0 == total) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < LATENCY_BUCKETS.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return LATENCY_BUCKETS[i];
+            }
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+}
@@ -0,0 +1,224 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.metrics;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the metrics collected for each storage provider operation, tagged by
+ * account, store and storage provider type, and writes them out in the
+ * Prometheus text exposition format.
+ *
+ * A single instance is shared by all storage providers in the application.
+ */
+public class StorageProviderMetrics {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4";
+
+    private static final String PREFIX = "duracloud_storage_";
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99};
+
+    private static StorageProviderMetrics instance;
+
+    private final Map<Tags, OperationMetrics> metrics =
+        new ConcurrentHashMap<>();
+
+    public static synchronized StorageProviderMetrics getInstance() {
+        if (null == instance) {
+            instance = new StorageProviderMetrics();
+        }
+        return instance;
+    }
+
+    protected StorageProviderMetrics() {
+    }
+
+    /**
+     * Returns the metrics for an operation, which are created on first use.
+     */
+    public OperationMetrics getOperationMetrics(String account,
+                                                String storeId,
+                                                String providerType,
+                                                String operation) {
+        Tags tags = new Tags(account, storeId, providerType, operation);
+        OperationMetrics operationMetrics = metrics.get(tags);
+        if (null == operationMetrics) {
+            operationMetrics =
+                metrics.computeIfAbsent(tags, t -> new OperationMetrics());
+        }
+        return operationMetrics;
+    }
+
+    /**
+     * Removes all collected metrics
+     */
+    public void clear() {
+        metrics.clear();
+    }
+
+    /**
+     * @return all metrics in the Prometheus text exposition format
+     */
+    public String getText() {
+        StringWriter writer = new StringWriter();
+        try {
+            writeText(writer);
+        } catch (IOException e) {
+            // Not thrown by StringWriter
+        }
+        return writer.toString();
+    }
+
+    /**
+     * Writes all metrics in the Prometheus text exposition format
+     */
+    public void writeText(Writer writer) throws IOException {
+        List<Map.Entry<Tags, OperationMetrics>> entries =
+            new ArrayList<>(metrics.entrySet());
+        Collections.sort(entries, Comparator.comparing(e -> e.getKey().text));
+
+        writeHeader(writer, "operations_total", "counter",
+                    "Calls made to storage provider operations");
+        for (Map.Entry<Tags, OperationMetrics> entry : entries) {
+            writeSample(writer, "operations_total", entry.getKey().text,
+                        entry.getValue().getCalls());
+        }
+
+        writeHeader(writer, "operation_errors_total", "counter",
+                    "Calls to storage provider operations which failed");
+        for (Map.Entry<Tags, OperationMetrics> entry : entries) {
+            writeSample(writer, "operation_errors_total", entry.getKey().text,
+                        entry.getValue().getErrors());
+        }
+
+        writeHeader(writer, "bytes_in_total", "counter",
+                    "Bytes sent to storage providers");
+        for (Map.Entry<Tags, OperationMetrics> entry : entries) {
+            if (entry.getValue().getBytesIn() > 0) {
+                writeSample(writer, "bytes_in_total", entry.getKey().text,
+                            entry.getValue().getBytesIn());
+            }
+        }
+
+        writeHeader(writer, "bytes_out_total", "counter",
+                    "Bytes read from storage providers");
+        for (Map.Entry<Tags, OperationMetrics> entry : entries) {
+            if (entry.getValue().getBytesOut() > 0) {
+                writeSample(writer, "bytes_out_total", entry.getKey().text,
+                            entry.getValue().getBytesOut());
+            }
+        }
+
+        writeHeader(writer, "operation_duration_seconds", "histogram",
+                    "Time taken by calls to storage provider operations");
+        for (Map.Entry<Tags, OperationMetrics> entry : entries) {
+            String tags = entry.getKey().text;
+            OperationMetrics operation = entry.getValue();
+            long[] counts = operation.getLatencyCounts();
+            long cumulative = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i];
+                String bound = (i < OperationMetrics.LATENCY_BUCKETS.length) ?
+                               format(OperationMetrics.LATENCY_BUCKETS[i]) :
+                               "+Inf";
+                writeSample(writer, "operation_duration_seconds_bucket",
+                            tags + ",le=\"" + bound + "\"", cumulative);
+            }
+            writeSample(writer, "operation_duration_seconds_sum", tags,
+                        format(operation.getLatencySeconds()));
+            writeSample(writer, "operation_duration_seconds_count", tags,
+                        cumulative);
+        }
+
+        writeHeader(writer, "operation_duration_percentile_seconds", "gauge",
+                    "Estimated percentiles of the time taken by calls to " +
+                    "storage provider operations");
+        for (Map.Entry<Tags, OperationMetrics> entry : entries) {
+            for (double percentile : PERCENTILES) {
+                double value =
+                    entry.getValue().getLatencyPercentile(percentile);
+                writeSample(writer, "operation_duration_percentile_seconds",
+                            entry.getKey().text + ",quantile=\"" +
+                            format(percentile) + "\"",
+                            Double.isInfinite(value) ? "+Inf" : format(value));
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeHeader(Writer writer,
+                             String name,
+                             String type,
+                             String help) throws IOException {
+        writer.write("# HELP " + PREFIX + name + " " + help + "\n");
+        writer.write("# TYPE " + PREFIX + name + " " + type + "\n");
+    }
+
+    private void writeSample(Writer writer,
+                             String name,
+                             String tags,
+                             Object value) throws IOException {
+        writer.write(PREFIX + name + "{" + tags + "} " + value + "\n");
+    }
+
+    private String format(double value) {
+        return (value == Math.rint(value)) ?
+               String.valueOf((long) value) : String.valueOf(value);
+    }
+
+    /*
+     * The labels which identify an operation, with their text form
+     */
+    private static class Tags {
+        private final String[] values;
+        private final String text;
+
+        Tags(String account,
+             String storeId,
+             String providerType,
+             String operation) {
+            this.values =
+                new String[] {account, storeId, providerType, operation};
+            this.text = "account=\"" + escape(account) + "\"," +
+                        "store_id=\"" + escape(storeId) + "\"," +
+                        "provider_type=\"" + escape(providerType) + "\"," +
+                        "operation=\"" + escape(operation) + "\"";
+        }
+
+        private static String escape(String value) {
+            if (null == value) {
+                return "";
+            }
+            return value.replace("\\", "\\\\")
+                        .replace("\"", "\\\"")
+                        .replace("\n", "\\n");
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Tags &&
+                   Arrays.equals(values, ((Tags) other).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(values);
+        }
+    }
+
+}
@@ -27,12 +27,15 @@ public class Application extends ResourceConfig{
                 RequestContextFilter.class,
                 StoreRest.class,
                 SpaceRest.class,
+                SpaceSummaryRest.class,
                 ManifestRest.class,
                 BitIntegrityReportRest.class,
                 AuditLogRest.class,
                 TaskRest.class,
                 ContentRest.class, 
-                StorageStatsRest.class);
+                CopyJobRest.class,
+                StorageStatsRest.class,
+                MetricsRest.class);
             
         }
     }
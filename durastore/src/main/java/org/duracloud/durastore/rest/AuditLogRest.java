@@ -9,13 +9,18 @@ package org.duracloud.durastore.rest;
 
 import java.io.InputStream;
 import java.text.MessageFormat;
+import java.util.Date;
+import java.util.zip.GZIPOutputStream;
 
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.duracloud.audit.reader.AuditLogReader;
 import org.duracloud.audit.reader.AuditLogReaderNotEnabledException;
@@ -52,7 +57,9 @@ public class AuditLogRest extends BaseRest {
     @Path("/{spaceId}")
     @GET
     public Response getAuditLog (@PathParam("spaceId") String spaceId,
-                                 @QueryParam("storeID") String storeId) {
+                                 @QueryParam("storeID") String storeId,
+                                 @QueryParam("start") String startMs,
+                                 @QueryParam("end") String endMs) {
         
         String account = getSubdomain();
         
@@ -76,13 +83,27 @@ public class AuditLogRest extends BaseRest {
         }
 
         
+        Date startDate;
+        Date endDate;
+        try {
+            startDate = toDateFromMs(startMs);
+            endDate = toDateFromMs(endMs);
+        } catch (NumberFormatException e) {
+            return responseBadRequest(e);
+        }
+
         try {
             //check that spaces exists
             StorageProvider store = storageProviderFactory.getStorageProvider(storeId);
             store.getSpaceProperties(spaceId);
 
             InputStream auditLog = auditLogReader.getAuditLog(account, storeId,
-                                                                spaceId);
+                                                                spaceId,
+                                                                startDate,
+                                                                endDate);
+            if (acceptsGzip()) {
+                return responseOkGzipStream(auditLog);
+            }
             return responseOkStream(auditLog);
         } catch (NotFoundException e) {
             
@@ -105,4 +126,33 @@ public class AuditLogRest extends BaseRest {
         }
     }
 
+    private Date toDateFromMs(String ms) throws NumberFormatException {
+        if (StringUtils.isBlank(ms)) {
+            return null;
+        }
+        try {
+            return new Date(Long.parseLong(ms));
+        } catch (NumberFormatException ex) {
+            throw new NumberFormatException("Unable to parse date: " + ms
+                                            + ". Input value must be in epoch milliseconds.");
+        }
+    }
+
+    /*
+     * Compresses the log as it is written to the response
+     */
+    private Response responseOkGzipStream(final InputStream auditLog) {
+        StreamingOutput output = out -> {
+            try (InputStream in = auditLog) {
+                GZIPOutputStream gzip = new GZIPOutputStream(out);
+                IOUtils.copy(in, gzip);
+                gzip.finish();
+            }
+        };
+        return Response.ok(output, TEXT_PLAIN)
+                       .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                       .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                       .build();
+    }
+
 }
@@ -22,6 +22,7 @@ import javax.ws.rs.core.UriInfo;
 
 import java.io.InputStream;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -157,6 +158,58 @@ public abstract class BaseRest {
         return Response.status(status).entity(entity).build();
     }
 
+    protected boolean acceptsGzip() {
+        return acceptsGzip(
+            headers.getRequestHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+
+    /*
+     * Determines from the values of the Accept-Encoding header whether the
+     * client accepts gzip content. A coding with a quality value of 0 is not
+     * acceptable. When gzip is not named, the "*" coding applies to it.
+     */
+    static boolean acceptsGzip(List<String> encodings) {
+        if (null == encodings) {
+            return false;
+        }
+
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String encoding : encodings) {
+            for (String coding : encoding.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim().toLowerCase();
+                double quality = getQuality(parts);
+                if (name.equals("gzip") || name.equals("x-gzip")) {
+                    gzipQuality = null == gzipQuality ? quality
+                                  : Math.max(gzipQuality, quality);
+                } else if (name.equals("*")) {
+                    anyQuality = quality;
+                }
+            }
+        }
+
+        if (null != gzipQuality) {
+            return gzipQuality > 0;
+        }
+        return null != anyQuality && anyQuality > 0;
+    }
+
+    private static double getQuality(String[] codingParts) {
+        for (int i = 1; i < codingParts.length; i++) {
+            String[] param = codingParts[i].split("=", 2);
+            if (param.length == 2 &&
+                param[0].trim().equalsIgnoreCase("q")) {
+                try {
+                    return Double.parseDouble(param[1].trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
     protected String getSubdomain() {
         return (String)request.getAttribute(Constants.ACCOUNT_ID_ATTRIBUTE);
     }
@@ -22,6 +22,12 @@ public interface ContentResource {
     InputStream getContent(String spaceID, String contentID, String storeID)
         throws ResourceException;
 
+    InputStream getContent(String spaceID,
+                           String contentID,
+                           String storeID,
+                           long startByte,
+                           long endByte) throws ResourceException;
+
     Map<String, String> getContentProperties(String spaceID,
                                              String contentID,
                                              String storeID)
@@ -73,6 +73,38 @@ public class ContentResourceImpl implements ContentResource {
         }
     }
 
+    /**
+     * Retrieves a range of the bytes of a piece of content.
+     *
+     * @return InputStream which can be used to read the requested bytes
+     */
+    @Override
+    public InputStream getContent(String spaceID,
+                                  String contentID,
+                                  String storeID,
+                                  long startByte,
+                                  long endByte)
+    throws ResourceException {
+        try {
+            StorageProvider storage =
+                storageProviderFactory.getStorageProvider(storeID);
+            return storage.getContent(spaceID, contentID, startByte, endByte);
+        } catch (NotFoundException e) {
+            throw new ResourceNotFoundException("get content",
+                                                spaceID,
+                                                contentID,
+                                                e);
+        } catch (StorageStateException e) {
+            throw new ResourceStateException("get content",
+                                             spaceID,
+                                             contentID,
+                                             e);
+        } catch (Exception e) {
+            storageProviderFactory.expireStorageProvider(storeID);
+            throw new ResourceException("get content", spaceID, contentID, e);
+        }
+    }
+
     /**
      * Retrieves the properties of a piece of content.
      *
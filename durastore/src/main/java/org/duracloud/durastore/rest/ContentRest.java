@@ -70,7 +70,11 @@ public class ContentRest extends BaseRest {
     /**
      * see ContentResource.getContent()
      * see ContentResource.getContentProperties()
-     * @return 200 response with content stream as body and content properties as headers
+     * A single byte range (bytes=start- or bytes=start-end) may be requested
+     * using the Range header.
+     * @return 200 response with content stream as body and content properties
+     *         as headers, 206 response with the requested range as body, or
+     *         416 response if the range starts beyond the end of the content
      */
     @GET
     public Response getContent(@PathParam("spaceID")
@@ -80,7 +84,9 @@ public class ContentRest extends BaseRest {
                                @QueryParam("storeID")
                                String storeID, 
                                @QueryParam("attachment")
-                               boolean attachment) {
+                               boolean attachment,
+                               @HeaderParam(HttpHeaders.RANGE)
+                               String range) {
         StringBuilder msg = new StringBuilder("getting content(");
         msg.append(spaceID);
         msg.append(", ");
@@ -89,11 +95,15 @@ public class ContentRest extends BaseRest {
         msg.append(storeID);
         msg.append(", ");
         msg.append(attachment);
+        if(null != range) {
+            msg.append(", ");
+            msg.append(range);
+        }
         msg.append(")");
 
         try {
             log.debug(msg.toString());
-            return doGetContent(spaceID, contentID, storeID, attachment);
+            return doGetContent(spaceID, contentID, storeID, attachment, range);
 
         } catch (ResourceNotFoundException e) {
             return responseNotFound(msg.toString(), e, NOT_FOUND);
@@ -112,13 +122,42 @@ public class ContentRest extends BaseRest {
     private Response doGetContent(String spaceID,
                                   String contentID,
                                   String storeID,
-                                  boolean attachment) throws ResourceException {
+                                  boolean attachment,
+                                  String range)
+        throws ResourceException {
         Map<String, String> properties =
             contentResource.getContentProperties(spaceID, contentID, storeID);
-        InputStream content =
-            new AutoCloseInputStream(contentResource.getContent(spaceID, contentID, storeID));
-        
-        ResponseBuilder responseBuilder = Response.ok(content);
+
+        long contentSize = getContentSize(properties);
+        long[] byteRange = parseRange(range, contentSize);
+        if(null != byteRange && byteRange[0] >= contentSize) {
+            return Response.status(HttpStatus.SC_REQUESTED_RANGE_NOT_SATISFIABLE)
+                           .header(HttpHeaders.CONTENT_RANGE,
+                                   "bytes */" + contentSize)
+                           .build();
+        }
+
+        ResponseBuilder responseBuilder;
+        if(null == byteRange) {
+            InputStream content =
+                contentResource.getContent(spaceID, contentID, storeID);
+            responseBuilder = Response.ok(new AutoCloseInputStream(content));
+        } else {
+            long start = byteRange[0];
+            long end = byteRange[1];
+            InputStream content =
+                contentResource.getContent(spaceID, contentID, storeID,
+                                           start, end);
+            responseBuilder =
+                Response.status(HttpStatus.SC_PARTIAL_CONTENT)
+                        .entity(new AutoCloseInputStream(content))
+                        .header(HttpHeaders.CONTENT_RANGE,
+                                "bytes " + start + "-" + end + "/" + contentSize);
+            properties.put(StorageProvider.PROPERTIES_CONTENT_SIZE,
+                           String.valueOf(end - start + 1));
+            properties.remove(HttpHeaders.CONTENT_LENGTH);
+        }
+        responseBuilder.header(HttpHeaders.ACCEPT_RANGES, "bytes");
 
         if(attachment){
             addContentDispositionHeader(responseBuilder, contentID);
@@ -127,6 +166,57 @@ public class ContentRest extends BaseRest {
                                               properties);
     }
 
+    private long getContentSize(Map<String, String> properties) {
+        String size = null;
+        if(null != properties) {
+            size = properties.get(StorageProvider.PROPERTIES_CONTENT_SIZE);
+            if(null == size) {
+                size = properties.get(HttpHeaders.CONTENT_LENGTH);
+            }
+        }
+        try {
+            return null == size ? -1 : Long.parseLong(size);
+        } catch(NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Reads a Range header value which requests a single range of bytes, in
+     * the form bytes=start- or bytes=start-end. Any other value is ignored,
+     * as is any range when the size of the content is not known.
+     *
+     * @return the first and last byte of the range (the last byte limited to
+     *         the end of the content), or null if the full content should be
+     *         returned
+     */
+    protected long[] parseRange(String range, long contentSize) {
+        if(null == range || contentSize < 0) {
+            return null;
+        }
+        String value = range.trim();
+        if(!value.startsWith("bytes=") || value.contains(",")) {
+            return null;
+        }
+        value = value.substring("bytes=".length()).trim();
+        int dash = value.indexOf('-');
+        if(dash <= 0) {
+            return null;
+        }
+        try {
+            long start = Long.parseLong(value.substring(0, dash).trim());
+            String endValue = value.substring(dash + 1).trim();
+            long end = endValue.isEmpty()
+                ? contentSize - 1 : Long.parseLong(endValue);
+            if(start < 0 || end < start) {
+                return null;
+            }
+            return new long[] {start, Math.min(end, contentSize - 1)};
+        } catch(NumberFormatException e) {
+            return null;
+        }
+    }
+
     private void addContentDispositionHeader(ResponseBuilder responseBuilder,
                                              String filename) {
         StringBuffer contentDisposition = new StringBuffer();
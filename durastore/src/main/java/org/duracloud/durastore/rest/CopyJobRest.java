@@ -0,0 +1,201 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.rest;
+
+import static javax.ws.rs.core.Response.Status.ACCEPTED;
+import static javax.ws.rs.core.Response.Status.BAD_REQUEST;
+import static javax.ws.rs.core.Response.Status.CONFLICT;
+import static javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
+import static javax.ws.rs.core.Response.Status.NOT_FOUND;
+import static javax.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
+
+import java.net.URI;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.ws.rs.DELETE;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.duracloud.common.rest.DuraCloudRequestContextUtil;
+import org.duracloud.durastore.copy.CopyJob;
+import org.duracloud.durastore.copy.CopyJobManager;
+import org.duracloud.storage.error.InvalidIdException;
+import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.provider.StorageProvider;
+import org.duracloud.storage.util.IdUtil;
+import org.duracloud.storage.util.StorageProviderFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Provides asynchronous copying of content between stores via REST.
+ */
+@Path("/copy-job")
+@Component
+public class CopyJobRest extends BaseRest {
+
+    private final Logger log = LoggerFactory.getLogger(CopyJobRest.class);
+
+    private StorageProviderFactory storageProviderFactory;
+    private CopyJobManager copyJobManager;
+    private DuraCloudRequestContextUtil contextUtil;
+
+    @Autowired
+    public CopyJobRest(StorageProviderFactory storageProviderFactory,
+                       CopyJobManager copyJobManager,
+                       DuraCloudRequestContextUtil contextUtil) {
+        this.storageProviderFactory = storageProviderFactory;
+        this.copyJobManager = copyJobManager;
+        this.contextUtil = contextUtil;
+    }
+
+    /**
+     * Queues a copy of a content item, which may be between stores.
+     *
+     * @return 202 response with the job status as the body and the job
+     *         location in the Location header
+     */
+    @POST
+    public Response startCopyJob(@QueryParam("srcStoreID") String srcStoreID,
+                                 @QueryParam("srcSpaceID") String srcSpaceID,
+                                 @QueryParam("srcContentID") String srcContentID,
+                                 @QueryParam("destStoreID") String destStoreID,
+                                 @QueryParam("destSpaceID") String destSpaceID,
+                                 @QueryParam("destContentID") String destContentID) {
+        String msg = "starting copy job (" + srcStoreID + ", " + srcSpaceID +
+                     ", " + srcContentID + ", " + destStoreID + ", " +
+                     destSpaceID + ", " + destContentID + ")";
+        try {
+            if (null == srcSpaceID || null == srcContentID ||
+                null == destSpaceID || null == destContentID) {
+                return responseBad(msg, "Source and destination space and " +
+                                   "content IDs must be provided", BAD_REQUEST);
+            }
+            IdUtil.validateContentId(destContentID);
+
+            StorageProvider srcProvider =
+                storageProviderFactory.getStorageProvider(srcStoreID);
+            StorageProvider destProvider =
+                storageProviderFactory.getStorageProvider(destStoreID);
+
+            // Fail fast if the source does not exist
+            srcProvider.getContentProperties(srcSpaceID, srcContentID);
+
+            CopyJob job = copyJobManager.submit(contextUtil.getAccountId(),
+                                                srcProvider,
+                                                srcStoreID,
+                                                srcSpaceID,
+                                                srcContentID,
+                                                destProvider,
+                                                destStoreID,
+                                                destSpaceID,
+                                                destContentID);
+            log.info(msg + " as job " + job.getJobId());
+
+            URI location = uriInfo.getRequestUriBuilder()
+                                  .replaceQuery(null)
+                                  .path(job.getJobId())
+                                  .build();
+            return Response.status(ACCEPTED)
+                           .location(location)
+                           .entity(job.getStatus().serialize())
+                           .type(MediaType.APPLICATION_JSON)
+                           .build();
+        } catch (NotFoundException e) {
+            return responseBad(msg, e.getMessage(), NOT_FOUND);
+        } catch (InvalidIdException e) {
+            return responseBad(msg, e.getMessage(), BAD_REQUEST);
+        } catch (RejectedExecutionException e) {
+            return responseBad(msg, "Too many copy jobs are queued, " +
+                               "please try again later", SERVICE_UNAVAILABLE);
+        } catch (Exception e) {
+            log.error("Error: " + msg, e);
+            return responseBad(msg, e.getMessage(), INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * @return 200 response with the job status as the body
+     */
+    @Path("/{jobID}")
+    @GET
+    public Response getCopyJob(@PathParam("jobID") String jobID) {
+        CopyJob job = copyJobManager.getJob(contextUtil.getAccountId(), jobID);
+        if (null == job) {
+            return responseNotFound("No copy job exists with ID " + jobID);
+        }
+        return Response.ok(job.getStatus().serialize(),
+                           MediaType.APPLICATION_JSON).build();
+    }
+
+    /**
+     * Cancels a queued or running job
+     *
+     * @return 200 on success
+     */
+    @Path("/{jobID}")
+    @DELETE
+    public Response cancelCopyJob(@PathParam("jobID") String jobID) {
+        String msg = "cancelling copy job (" + jobID + ")";
+        String accountId = contextUtil.getAccountId();
+        if (null == copyJobManager.getJob(accountId, jobID)) {
+            return responseNotFound("No copy job exists with ID " + jobID);
+        }
+        if (!copyJobManager.cancel(accountId, jobID)) {
+            return responseBad(msg, "Copy job " + jobID +
+                               " has already finished", CONFLICT);
+        }
+        log.info(msg);
+        return responseOk("Copy job " + jobID + " cancelled");
+    }
+
+    /**
+     * Re-queues a failed or cancelled job
+     *
+     * @return 202 on success
+     */
+    @Path("/{jobID}/retry")
+    @POST
+    public Response retryCopyJob(@PathParam("jobID") String jobID) {
+        String msg = "retrying copy job (" + jobID + ")";
+        String accountId = contextUtil.getAccountId();
+        CopyJob job = copyJobManager.getJob(accountId, jobID);
+        if (null == job) {
+            return responseNotFound("No copy job exists with ID " + jobID);
+        }
+        try {
+            if (!copyJobManager.retry(accountId, jobID)) {
+                return responseBad(msg, "Only failed or cancelled copy jobs " +
+                                   "can be retried", CONFLICT);
+            }
+        } catch (RejectedExecutionException e) {
+            return responseBad(msg, "Too many copy jobs are queued, " +
+                               "please try again later", SERVICE_UNAVAILABLE);
+        }
+        log.info(msg);
+        return Response.status(ACCEPTED)
+                       .entity(job.getStatus().serialize())
+                       .type(MediaType.APPLICATION_JSON)
+                       .build();
+    }
+
+    private Response responseBad(String msg,
+                                 String error,
+                                 Response.Status status) {
+        log.warn("Error: " + msg + ": " + error);
+        return Response.status(status).entity(error).build();
+    }
+
+}
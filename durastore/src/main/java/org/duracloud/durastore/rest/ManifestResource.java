@@ -42,7 +42,7 @@ public class ManifestResource {
                                              validateFormat(fmt));
     }
 
-    private ManifestFormat validateFormat(String format)
+    public ManifestFormat validateFormat(String format)
         throws ManifestArgumentException {
         // null is default.
         if (null == format) {
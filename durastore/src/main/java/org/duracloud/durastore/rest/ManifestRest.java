@@ -13,15 +13,20 @@ import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.text.MessageFormat;
+import java.util.List;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
 
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
 
 import org.apache.http.client.utils.URIBuilder;
 import org.duracloud.common.constant.Constants;
@@ -34,6 +39,8 @@ import org.duracloud.common.util.ChecksumUtil.Algorithm;
 import org.duracloud.common.util.DateUtil;
 import org.duracloud.common.util.DateUtil.DateFormat;
 import org.duracloud.common.util.IOUtil;
+import org.duracloud.durastore.manifest.ManifestSnapshot;
+import org.duracloud.durastore.manifest.ManifestSnapshots;
 import org.duracloud.manifest.error.ManifestArgumentException;
 import org.duracloud.manifest.error.ManifestNotFoundException;
 import org.duracloud.storage.domain.StorageAccount;
@@ -64,6 +71,8 @@ public class ManifestRest extends BaseRest {
 
     private StorageProviderFactory storageProviderFactory;
 
+    private ManifestSnapshots manifestSnapshots;
+
     private static Executor executor = Executors.newFixedThreadPool(10);
 
     private static final String DEFAULT_FORMAT = ManifestFormat.TSV.name();
@@ -102,6 +111,9 @@ public class ManifestRest extends BaseRest {
                  format);
 
         try {
+            if (null != manifestSnapshots && manifestSnapshots.isEnabled()) {
+                return getManifestSnapshot(account, storeId, spaceId, format);
+            }
 
             InputStream manifest =
                 manifestResource.getManifest(account, storeId, spaceId, format);
@@ -127,6 +139,58 @@ public class ManifestRest extends BaseRest {
         }
     }
     
+    /*
+     * Serves the manifest from its snapshot, responding with 304 (Not
+     * Modified) when the caller already holds the current snapshot
+     */
+    private Response getManifestSnapshot(String account,
+                                         String storeId,
+                                         String spaceId,
+                                         String format) throws Exception {
+        ManifestFormat manifestFormat = manifestResource.validateFormat(format);
+        ManifestSnapshot snapshot =
+            manifestSnapshots.getSnapshot(account, storeId, spaceId,
+                                          manifestFormat);
+
+        EntityTag eTag = new EntityTag(snapshot.getETag());
+        if (matchesETag(eTag)) {
+            return Response.notModified(eTag).build();
+        }
+
+        InputStream content = manifestSnapshots.getContent(snapshot);
+        ResponseBuilder response;
+        if (acceptsGzip()) {
+            response = Response.ok(content)
+                               .header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        } else {
+            response = Response.ok(new GZIPInputStream(content));
+        }
+        return response.type(manifestFormat.getMimeType())
+                       .tag(eTag)
+                       .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                       .build();
+    }
+
+    private boolean matchesETag(EntityTag eTag) {
+        String quoted = "\"" + eTag.getValue() + "\"";
+        List<String> values =
+            headers.getRequestHeader(HttpHeaders.IF_NONE_MATCH);
+        if (null != values) {
+            for (String value : values) {
+                for (String tag : value.split(",")) {
+                    tag = tag.trim();
+                    if (tag.startsWith("W/")) {
+                        tag = tag.substring(2);
+                    }
+                    if (tag.equals("*") || tag.equals(quoted)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
     @Path("/{spaceId}")
     @POST
     public Response generateManifest(@PathParam("spaceId") String spaceId,
@@ -306,6 +370,11 @@ public class ManifestRest extends BaseRest {
         }
     }
 
+    @Autowired(required = false)
+    public void setManifestSnapshots(ManifestSnapshots manifestSnapshots) {
+        this.manifestSnapshots = manifestSnapshots;
+    }
+
     public void setEnabled(boolean enabled) {
         this.enabled = enabled;
     }
@@ -0,0 +1,48 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.rest;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.core.Response;
+
+import org.duracloud.durastore.metrics.StorageProviderMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * REST interface for the metrics collected on calls to storage providers,
+ * provided in the Prometheus text exposition format.
+ */
+@Path("/metrics")
+@Component
+public class MetricsRest extends BaseRest {
+
+    private final Logger log = LoggerFactory.getLogger(MetricsRest.class);
+
+    private StorageProviderMetrics storageProviderMetrics;
+
+    @Autowired
+    public MetricsRest(StorageProviderMetrics storageProviderMetrics) {
+        this.storageProviderMetrics = storageProviderMetrics;
+    }
+
+    @GET
+    public Response getMetrics() {
+        try {
+            return Response.ok(storageProviderMetrics.getText(),
+                               StorageProviderMetrics.CONTENT_TYPE).build();
+        } catch (Exception e) {
+            log.error("Error getting metrics: " + e.getMessage(), e);
+            return responseBad(e);
+        }
+    }
+
+}
@@ -10,6 +10,7 @@ package org.duracloud.durastore.rest;
 import org.duracloud.common.model.AclType;
 import org.duracloud.durastore.error.ResourceException;
 import org.duracloud.durastore.error.ResourceNotFoundException;
+import org.duracloud.spacesummary.dto.SpaceSummary;
 import org.duracloud.storage.util.StorageProviderFactory;
 import org.duracloud.storage.error.InvalidIdException;
 import org.duracloud.storage.error.NotFoundException;
@@ -22,10 +23,13 @@ import org.jdom.output.XMLOutputter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import static org.duracloud.storage.provider.StorageProvider.PROPERTIES_SPACE_ACL;
+
 /**
  * Provides interaction with spaces
  *
@@ -76,6 +80,43 @@ public class SpaceResource {
         return xmlConverter.outputString(doc);
     }
 
+    /**
+     * Provides a summary of each space in a store which the user may access,
+     * including the space ACLs. Space listings and ACLs are cached by the
+     * storage provider, so no call is made to storage for each space.
+     *
+     * @param storeID
+     * @return summaries of spaces
+     */
+    public List<SpaceSummary> getSpaceSummaries(String storeID)
+        throws ResourceException {
+        List<SpaceSummary> summaries = new ArrayList<>();
+        try {
+            StorageProvider storage =
+                storageProviderFactory.getStorageProvider(storeID);
+
+            Iterator<String> spaces = storage.getSpaces();
+            while (spaces.hasNext()) {
+                String spaceID = spaces.next();
+                SpaceSummary summary = new SpaceSummary(spaceID);
+                Map<String, AclType> acls = storage.getSpaceACLs(spaceID);
+                for (Map.Entry<String, AclType> acl : acls.entrySet()) {
+                    String name = acl.getKey();
+                    if (name.startsWith(PROPERTIES_SPACE_ACL)) {
+                        name = name.substring(PROPERTIES_SPACE_ACL.length());
+                    }
+                    summary.getAcls().put(name, acl.getValue().name());
+                }
+                summaries.add(summary);
+            }
+        } catch (Exception e) {
+            storageProviderFactory.expireStorageProvider(storeID);
+            throw new ResourceException("Error attempting to build space " +
+                                        "summaries", e);
+        }
+        return summaries;
+    }
+
     /**
      * Gets the properties of a space.
      *
@@ -0,0 +1,126 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.rest;
+
+import static javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.duracloud.reportdata.storage.SpaceStatsDTO;
+import org.duracloud.spacesummary.dto.SpaceSummary;
+import org.duracloud.spacesummary.dto.SpaceSummaryList;
+import org.duracloud.storage.domain.StorageAccount;
+import org.duracloud.storage.util.StorageProviderFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Provides a summary of all spaces in a store in a single call, so that
+ * clients listing spaces need not request the ACLs and properties of each
+ * space in turn.
+ */
+@Path("/space-summary")
+@Component
+public class SpaceSummaryRest extends BaseRest {
+
+    private final Logger log = LoggerFactory.getLogger(SpaceSummaryRest.class);
+
+    private SpaceResource spaceResource;
+    private StorageStatsResource storageStatsResource;
+    private StorageProviderFactory storageProviderFactory;
+
+    @Autowired
+    public SpaceSummaryRest(SpaceResource spaceResource,
+                            StorageStatsResource storageStatsResource,
+                            StorageProviderFactory storageProviderFactory) {
+        this.spaceResource = spaceResource;
+        this.storageStatsResource = storageStatsResource;
+        this.storageProviderFactory = storageProviderFactory;
+    }
+
+    /**
+     * Lists the spaces in a store, with the ACLs of each space, and the
+     * item count and size of each space as of the most recent collection
+     * of storage statistics.
+     *
+     * @return 200 response with JSON listing of space summaries
+     */
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getSpaceSummaries(@QueryParam("storeID") String storeID) {
+        String msg = "getting space summaries(" + storeID + ")";
+
+        try {
+            log.debug(msg);
+            List<SpaceSummary> summaries =
+                spaceResource.getSpaceSummaries(storeID);
+            addStats(summaries, storeID);
+
+            String json = new SpaceSummaryList(summaries).serialize();
+            return Response.ok(json, MediaType.APPLICATION_JSON).build();
+
+        } catch (Exception e) {
+            log.error("Error " + msg + ": " + e.getMessage(), e);
+            return responseBad(e, INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /*
+     * Statistics are not available for every space (as for spaces created
+     * since they were last collected), or for every deployment, so spaces
+     * without statistics are left with unknown counts.
+     */
+    private void addStats(List<SpaceSummary> summaries, String storeID) {
+        Map<String, SpaceStatsDTO> statsBySpace = new HashMap<>();
+        try {
+            List<SpaceStatsDTO> stats =
+                storageStatsResource.getLatestSpaceStats(getSubdomain(),
+                                                         resolveStoreId(storeID));
+            for (SpaceStatsDTO spaceStats : stats) {
+                statsBySpace.put(spaceStats.getSpaceId(), spaceStats);
+            }
+        } catch (Exception e) {
+            log.warn("Unable to get storage stats for space summaries of " +
+                     "store {}: {}", storeID, e.getMessage());
+        }
+
+        for (SpaceSummary summary : summaries) {
+            SpaceStatsDTO spaceStats = statsBySpace.get(summary.getSpaceId());
+            if (null != spaceStats) {
+                summary.setItemCount(spaceStats.getObjectCount());
+                summary.setByteCount(spaceStats.getByteCount());
+                summary.setStatsTimestamp(
+                    spaceStats.getTimestamp().getTime());
+            }
+        }
+    }
+
+    private String resolveStoreId(String storeID) {
+        if (null == storeID) {
+            for (StorageAccount account :
+                storageProviderFactory.getStorageAccounts()) {
+                if (account.isPrimary()) {
+                    return account.getId();
+                }
+            }
+        }
+        return storeID;
+    }
+
+}
@@ -7,8 +7,6 @@
  */
 package org.duracloud.durastore.rest;
 
-import java.math.BigDecimal;
-import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
@@ -16,6 +14,8 @@ import java.util.List;
 import java.util.TimeZone;
 
 import org.duracloud.common.error.DuraCloudRuntimeException;
+import org.duracloud.durastore.util.StorageStatsCache;
+import org.duracloud.durastore.util.StorageStatsCacheConfig;
 import org.duracloud.mill.db.repo.JpaSpaceStatsRepo;
 import org.duracloud.reportdata.storage.SpaceStatsDTO;
 import org.duracloud.reportdata.storage.StoreStatsDTO;
@@ -25,7 +25,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
- * 
+ * Provides storage statistics, as collected in the stats database.
+ *
+ * The statistics for a date range are held in a cache, so that repeated
+ * requests for the same range are served without running the aggregate
+ * queries again. Weekly and monthly totals at the edges of a range cover
+ * only the part of the week or month within the range, so each range is
+ * read and cached separately. Ranges which end at the present are cached
+ * under the same key however the end time varies, until the entry expires.
+ *
  * @author Daniel Bernstein
  *
  */
@@ -35,6 +43,11 @@ public class StorageStatsResource {
     protected static final Logger log = LoggerFactory.getLogger(SpaceResource.class);
 
     private JpaSpaceStatsRepo spaceStatsRepo;
+
+    private StorageStatsCache statsCache;
+
+    // Range ends this close to the present, or later, are taken as the present
+    private static final long OPEN_END_MILLIS = 60 * 1000;
     
     public static enum GroupBy {
                                 day, 
@@ -43,8 +56,15 @@ public class StorageStatsResource {
     }
 
     @Autowired
-    public StorageStatsResource(JpaSpaceStatsRepo spaceStatsRepo){
+    public StorageStatsResource(JpaSpaceStatsRepo spaceStatsRepo,
+                                StorageStatsCacheConfig statsCacheConfig){
+        this(spaceStatsRepo, new StorageStatsCache(statsCacheConfig));
+    }
+
+    public StorageStatsResource(JpaSpaceStatsRepo spaceStatsRepo,
+                                StorageStatsCache statsCache){
         this.spaceStatsRepo = spaceStatsRepo;
+        this.statsCache = statsCache;
     }
     
     public List<SpaceStatsDTO> getSpaceStats(
@@ -57,18 +77,58 @@ public class StorageStatsResource {
         
         
         String interval = getInterval(groupBy);
-        List<Object[]> list = this.spaceStatsRepo.getByAccountIdAndStoreIdAndSpaceId(accountId, storeId, spaceId, start, end, interval);
-        List<SpaceStatsDTO> dtos = new ArrayList<>(list.size());
-        for(Object[] s : list){
-            dtos.add(new SpaceStatsDTO(new Date(((BigInteger)s[0]).longValue()*1000),
-                                       s[1].toString(),
-                                       s[2].toString(),
-                                       s[3].toString(),
-                                       ((BigDecimal) s[4]).longValue(),
-                                       ((BigDecimal) s[5]).longValue()));
-        }
-        
-        return dtos;
+        String key = StorageStatsCache.getKey("space", accountId, storeId,
+                                              spaceId, interval,
+                                              getRangeKey(start, end));
+        return statsCache.get(key, () -> {
+            List<Object[]> list =
+                this.spaceStatsRepo.getByAccountIdAndStoreIdAndSpaceId(accountId,
+                                                                       storeId,
+                                                                       spaceId,
+                                                                       start,
+                                                                       resolveEnd(end),
+                                                                       interval);
+            List<SpaceStatsDTO> dtos = new ArrayList<>(list.size());
+            for(Object[] s : list){
+                dtos.add(new SpaceStatsDTO(toDate(s[0]),
+                                           s[1].toString(),
+                                           s[2].toString(),
+                                           s[3].toString(),
+                                           toLong(s[4]),
+                                           toLong(s[5])));
+            }
+            return dtos;
+        });
+    }
+
+    /*
+     * Identifies a date range, with an end at or near the present
+     * identified as the present
+     */
+    private String getRangeKey(Date start, Date end) {
+        String startKey = null == start ? "" : String.valueOf(start.getTime());
+        String endKey = isOpenEnd(end) ? "now" : String.valueOf(end.getTime());
+        return startKey + "-" + endKey;
+    }
+
+    private Date resolveEnd(Date end) {
+        return isOpenEnd(end) ? new Date() : end;
+    }
+
+    private boolean isOpenEnd(Date end) {
+        return null == end ||
+               end.getTime() > System.currentTimeMillis() - OPEN_END_MILLIS;
+    }
+
+    /*
+     * Timestamps are returned in seconds, byte and object counts as sums
+     */
+    private Date toDate(Object seconds) {
+        return new Date(((Number)seconds).longValue()*1000);
+    }
+
+    private long toLong(Object value) {
+        return ((Number)value).longValue();
     }
 
     protected String getInterval(GroupBy groupBy) {
@@ -93,17 +153,26 @@ public class StorageStatsResource {
                                                        Date end,
                                                        GroupBy groupBy) {
         String interval = getInterval(groupBy);
-        List<Object[]> list = this.spaceStatsRepo.getByAccountIdAndStoreId(account, storeId, start, end, interval);
-        List<StoreStatsDTO> dtos = new ArrayList<>(list.size());
-        for(Object[] s : list){
-            dtos.add(new StoreStatsDTO(new Date(((BigInteger)s[0]).longValue()*1000),
-                                       s[1].toString(),
-                                       s[2].toString(),
-                                       ((BigDecimal) s[3]).longValue(),
-                                       ((BigDecimal) s[4]).longValue()));
-        }
-        
-        return dtos;
+        String key = StorageStatsCache.getKey("store", account, storeId,
+                                              interval,
+                                              getRangeKey(start, end));
+        return statsCache.get(key, () -> {
+            List<Object[]> list =
+                this.spaceStatsRepo.getByAccountIdAndStoreId(account,
+                                                             storeId,
+                                                             start,
+                                                             resolveEnd(end),
+                                                             interval);
+            List<StoreStatsDTO> dtos = new ArrayList<>(list.size());
+            for(Object[] s : list){
+                dtos.add(new StoreStatsDTO(toDate(s[0]),
+                                           s[1].toString(),
+                                           s[2].toString(),
+                                           toLong(s[3]),
+                                           toLong(s[4])));
+            }
+            return dtos;
+        });
     }
     
     public List<SpaceStatsDTO> getStorageProviderByDay(String account,
@@ -128,18 +197,38 @@ public class StorageStatsResource {
         
         Date end = c.getTime();
 
-        List<Object[]> list = this.spaceStatsRepo.getByAccountIdAndStoreIdAndDay(account, storeId, start, end);
-        List<SpaceStatsDTO> dtos = new ArrayList<>(list.size());
-        for(Object[] s : list){
-            dtos.add(new SpaceStatsDTO(start,
-                                       s[1].toString(),
-                                       s[2].toString(),
-                                       s[3].toString(),
-                                       ((BigDecimal) s[4]).longValue(),
-                                       ((BigDecimal) s[5]).longValue()));
+        String key = StorageStatsCache.getKey("store-day", account, storeId,
+                                              String.valueOf(start.getTime()));
+        return statsCache.get(key, () -> {
+            List<Object[]> list = this.spaceStatsRepo.getByAccountIdAndStoreIdAndDay(account, storeId, start, end);
+            List<SpaceStatsDTO> dtos = new ArrayList<>(list.size());
+            for(Object[] s : list){
+                dtos.add(new SpaceStatsDTO(start,
+                                           s[1].toString(),
+                                           s[2].toString(),
+                                           s[3].toString(),
+                                           toLong(s[4]),
+                                           toLong(s[5])));
+            }
+            return dtos;
+        });
+    }
+
+    /**
+     * Returns the most recent statistics for each space in a store. As
+     * statistics are collected once a day, those of the previous day are
+     * returned until the statistics for today have been collected.
+     */
+    public List<SpaceStatsDTO> getLatestSpaceStats(String account,
+                                                   String storeId) {
+        Date now = new Date();
+        List<SpaceStatsDTO> stats =
+            getStorageProviderByDay(account, storeId, now);
+        if (stats.isEmpty()) {
+            Date yesterday = new Date(now.getTime() - 24 * 60 * 60 * 1000);
+            stats = getStorageProviderByDay(account, storeId, yesterday);
         }
-        
-        return dtos;
+        return stats;
     }
 
 }
@@ -8,19 +8,25 @@
 package org.duracloud.durastore.rest;
 
 import java.io.InputStream;
+import java.net.URI;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
 import org.duracloud.StorageTaskConstants;
+import org.duracloud.common.rest.DuraCloudRequestContextUtil;
 import org.duracloud.common.rest.RestUtil;
 import org.duracloud.common.util.IOUtil;
 import org.duracloud.common.util.SerializationUtil;
+import org.duracloud.durastore.taskjob.TaskJob;
+import org.duracloud.durastore.taskjob.TaskJobManager;
 import org.duracloud.error.UnauthorizedException;
 import org.duracloud.storage.error.StorageStateException;
 import org.duracloud.storage.error.UnsupportedTaskException;
@@ -30,12 +36,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+import static javax.ws.rs.core.Response.Status.ACCEPTED;
 import static javax.ws.rs.core.Response.Status.BAD_REQUEST;
 import static javax.ws.rs.core.Response.Status.CONFLICT;
 import static javax.ws.rs.core.Response.Status.FORBIDDEN;
 import static javax.ws.rs.core.Response.Status.INTERNAL_SERVER_ERROR;
+import static javax.ws.rs.core.Response.Status.NOT_FOUND;
+import static javax.ws.rs.core.Response.Status.SERVICE_UNAVAILABLE;
 /**
  * Allows for calling storage provider specific tasks
  *
@@ -50,13 +62,19 @@ public class TaskRest extends BaseRest {
 
     private TaskProviderFactory taskProviderFactory;
     private RestUtil restUtil;
+    private TaskJobManager taskJobManager;
+    private DuraCloudRequestContextUtil contextUtil;
 
     @Autowired
     
     public TaskRest(@Qualifier("taskProviderFactory") TaskProviderFactory taskProviderFactory,
-                    RestUtil restUtil) {
+                    RestUtil restUtil,
+                    TaskJobManager taskJobManager,
+                    DuraCloudRequestContextUtil contextUtil) {
         this.taskProviderFactory = taskProviderFactory;
         this.restUtil = restUtil;
+        this.taskJobManager = taskJobManager;
+        this.contextUtil = contextUtil;
     }
 
     /**
@@ -83,16 +101,20 @@ public class TaskRest extends BaseRest {
     }
 
     /**
-     * Performs a task
+     * Performs a task. When async is true the task is queued and a job
+     * status is returned, which can be used to retrieve the result of the
+     * task once it completes.
      *
-     * @return 200 on success
+     * @return 200 on success, or 202 with the job status when async is true
      */
     @Path("/{taskName}")
     @POST
     public Response performTask(@PathParam("taskName")
                                 String taskName,
                                 @QueryParam("storeID")
-                                String storeID){
+                                String storeID,
+                                @QueryParam("async")
+                                boolean async){
         String msg = "performing task(" + taskName + ", " + storeID + ")";
 
         String taskParameters = null;
@@ -106,6 +128,12 @@ public class TaskRest extends BaseRest {
         try {
             TaskProvider taskProvider = taskProviderFactory.getTaskProvider(
                 storeID);
+            if (async) {
+                return performTaskAsync(msg,
+                                        taskProvider,
+                                        taskName,
+                                        taskParameters);
+            }
             String responseText = taskProvider.performTask(taskName,
                                                            taskParameters);
 
@@ -122,6 +150,81 @@ public class TaskRest extends BaseRest {
         }
     }
 
+    private Response performTaskAsync(String msg,
+                                      TaskProvider taskProvider,
+                                      String taskName,
+                                      String taskParameters) {
+        // The access checks applied to user level tasks rely on the request,
+        // so tasks are only run outside of the request for admin users
+        if (!isAdmin()) {
+            return responseBad(msg,
+                               new UnauthorizedException(
+                                   "Asynchronous tasks may only be " +
+                                   "performed by administrators"),
+                               FORBIDDEN);
+        }
+        try {
+            TaskJob job = taskJobManager.submit(contextUtil.getAccountId(),
+                                                taskProvider,
+                                                taskName,
+                                                taskParameters);
+            log.debug("{} queued as job {}", msg, job.getJobId());
+            URI location = uriInfo.getBaseUriBuilder()
+                                  .path(StorageTaskConstants.TASK_BASE_PATH)
+                                  .path("job")
+                                  .path(job.getJobId())
+                                  .build();
+            return Response.status(ACCEPTED)
+                           .location(location)
+                           .entity(job.getStatus().serialize())
+                           .type(MediaType.APPLICATION_JSON)
+                           .build();
+        } catch (RejectedExecutionException e) {
+            return responseBad(msg, new Exception("The task queue is full, " +
+                                                  "please try again later"),
+                               SERVICE_UNAVAILABLE);
+        }
+    }
+
+    /**
+     * Retrieves the status of a task which was performed asynchronously,
+     * including the task result once the task is complete
+     *
+     * @return 200 with the job status on success
+     */
+    @Path("/job/{jobID}")
+    @GET
+    public Response getTaskJob(@PathParam("jobID") String jobID) {
+        String msg = "getting task job(" + jobID + ")";
+        try {
+            TaskJob job = taskJobManager.getJob(contextUtil.getAccountId(),
+                                                jobID);
+            if (null == job) {
+                return responseBad(msg, new Exception("No task job " + jobID +
+                                                      " found"), NOT_FOUND);
+            }
+            log.debug(msg);
+            return Response.ok(job.getStatus().serialize(),
+                               MediaType.APPLICATION_JSON).build();
+        } catch (Exception e) {
+            return responseBad(msg, e, INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private boolean isAdmin() {
+        Authentication auth =
+            SecurityContextHolder.getContext().getAuthentication();
+        if (null != auth && null != auth.getAuthorities()) {
+            for (GrantedAuthority authority : auth.getAuthorities()) {
+                String role = authority.getAuthority();
+                if ("ROLE_ADMIN".equals(role) || "ROLE_ROOT".equals(role)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
     private String getTaskParameters() throws Exception {
         String taskParams = null;
 
@@ -0,0 +1,103 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.taskjob;
+
+import org.duracloud.durastore.util.ManagedJob;
+import org.duracloud.taskjob.dto.TaskJobStatus;
+import org.duracloud.taskjob.dto.TaskJobStatus.State;
+
+/**
+ * A storage provider task which is performed outside of the request which
+ * asked for it.
+ */
+public class TaskJob implements ManagedJob {
+
+    private final String jobId;
+    private final String accountId;
+    private final String taskName;
+    private final String storeId;
+    private final long created;
+
+    private State state = State.QUEUED;
+    private String result;
+    private String error;
+    private long modified;
+
+    public TaskJob(String jobId,
+                   String accountId,
+                   String taskName,
+                   String storeId) {
+        this.jobId = jobId;
+        this.accountId = accountId;
+        this.taskName = taskName;
+        this.storeId = storeId;
+        this.created = System.currentTimeMillis();
+        this.modified = created;
+    }
+
+    public synchronized void started() {
+        setState(State.RUNNING);
+    }
+
+    public synchronized void completed(String result) {
+        this.result = result;
+        setState(State.COMPLETE);
+    }
+
+    public synchronized void failed(String error) {
+        this.error = error;
+        setState(State.FAILED);
+    }
+
+    private void setState(State state) {
+        this.state = state;
+        this.modified = System.currentTimeMillis();
+    }
+
+    public synchronized TaskJobStatus getStatus() {
+        TaskJobStatus status = new TaskJobStatus();
+        status.setJobId(jobId);
+        status.setState(state.name());
+        status.setTaskName(taskName);
+        status.setStoreId(storeId);
+        status.setResult(result);
+        status.setError(error);
+        status.setCreated(created);
+        status.setModified(modified);
+        return status;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public String getTaskName() {
+        return taskName;
+    }
+
+    public String getStoreId() {
+        return storeId;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized boolean isFinished() {
+        return state.isFinished();
+    }
+
+    public synchronized long getModified() {
+        return modified;
+    }
+
+}
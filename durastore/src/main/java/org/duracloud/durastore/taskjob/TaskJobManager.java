@@ -0,0 +1,69 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.taskjob;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.duracloud.durastore.util.JobManagerBase;
+import org.duracloud.storage.provider.TaskProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Performs storage provider tasks on a bounded pool of worker threads, so
+ * that slow tasks (such as enabling streaming) do not hold a request thread
+ * for their duration.
+ */
+public class TaskJobManager extends JobManagerBase<TaskJob> {
+
+    private static final Logger log =
+        LoggerFactory.getLogger(TaskJobManager.class);
+
+    public TaskJobManager() {
+        this(DEFAULT_THREADS, DEFAULT_QUEUE_SIZE, DEFAULT_RETENTION_MS);
+    }
+
+    public TaskJobManager(int threads, int queueSize, long retentionMs) {
+        super(threads, queueSize, retentionMs);
+    }
+
+    /**
+     * Queues a task to be performed. The security context of the calling
+     * thread is carried over to the thread which performs the task.
+     *
+     * @return the queued job
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public TaskJob submit(String accountId,
+                          final TaskProvider taskProvider,
+                          final String taskName,
+                          final String taskParameters) {
+        String jobId = createJobId();
+        final TaskJob job = new TaskJob(jobId,
+                                        accountId,
+                                        taskName,
+                                        taskProvider.getStoreId());
+        Runnable runner = () -> {
+            job.started();
+            try {
+                job.completed(taskProvider.performTask(taskName,
+                                                       taskParameters));
+                log.info("Task job {} ({}) complete", job.getJobId(), taskName);
+            } catch (Exception e) {
+                job.failed(e.getMessage());
+                log.error("Task job " + job.getJobId() + " (" + taskName +
+                          ") failed due to: " + e.getMessage(), e);
+            }
+        };
+        queue(job, runner);
+        log.info("Queued task job {} ({}) for account {}",
+                 jobId, taskName, accountId);
+        return job;
+    }
+
+}
@@ -125,6 +125,12 @@ public class MockVerifyCreateStorageProvider implements StorageProvider {
         return null;
     }
 
+    public InputStream getContent(String spaceId, String contentId,
+                                  long startByte, long endByte) {
+        // Default method body
+        return null;
+    }
+
     public void deleteContent(String spaceId, String contentId) {
         // Default method body
     }
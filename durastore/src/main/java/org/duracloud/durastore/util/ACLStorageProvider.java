@@ -353,6 +353,14 @@ public class ACLStorageProvider implements StorageProvider {
         return targetProvider.getContent(spaceId, contentId);
     }
 
+    @Override
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  long endByte) {
+        return targetProvider.getContent(spaceId, contentId, startByte, endByte);
+    }
+
     @Override
     public void deleteContent(String spaceId, String contentId) {
         targetProvider.deleteContent(spaceId, contentId);
@@ -0,0 +1,336 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.duracloud.common.model.AclType;
+import org.duracloud.storage.domain.StorageProviderType;
+import org.duracloud.storage.provider.StorageProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class caches the results of calls to getContentProperties() for a
+ * short period, so that the repeated lookups which make up a single logical
+ * operation (such as a HEAD followed by a GET, or the property merge which
+ * precedes an add) do not each require a call to the underlying storage.
+ *
+ * The cache is bounded in size, with the least recently used entries being
+ * removed first. Entries are removed when content is added, copied over,
+ * deleted or has its properties updated through this provider. Changes made
+ * through other nodes are only picked up once an entry expires, so the
+ * time-to-live should be kept short.
+ */
+public class ContentPropertiesCacheStorageProvider implements StorageProvider {
+
+    private final Logger log =
+        LoggerFactory.getLogger(ContentPropertiesCacheStorageProvider.class);
+
+    private static final int STATS_LOG_INTERVAL = 10000;
+
+    private final StorageProvider targetProvider;
+    private final long timeToLiveMillis;
+    private final Map<String, CacheEntry> cache;
+
+    // Incremented on every invalidation, used to avoid caching properties
+    // which were read before a concurrent update completed
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ContentPropertiesCacheStorageProvider(StorageProvider targetProvider,
+                                                 ContentPropertiesCacheConfig config) {
+        this(targetProvider,
+             config.getMaxEntries(),
+             config.getTimeToLiveMillis());
+    }
+
+    public ContentPropertiesCacheStorageProvider(StorageProvider targetProvider,
+                                                 final int maxEntries,
+                                                 long timeToLiveMillis) {
+        assert targetProvider != null;
+
+        this.targetProvider = targetProvider;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.cache = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                if (size() > maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public Map<String, String> getContentProperties(String spaceId,
+                                                    String contentId) {
+        String key = getKey(spaceId, contentId);
+        long now = currentTimeMillis();
+
+        CacheEntry entry;
+        synchronized (cache) {
+            entry = cache.get(key);
+            if (null != entry && entry.expires <= now) {
+                cache.remove(key);
+                entry = null;
+            }
+        }
+
+        if (null != entry) {
+            recordLookup(hits);
+            return new HashMap<>(entry.properties);
+        }
+
+        recordLookup(misses);
+        long startGeneration = generation.get();
+        Map<String, String> properties =
+            targetProvider.getContentProperties(spaceId, contentId);
+        if (null != properties) {
+            synchronized (cache) {
+                if (startGeneration == generation.get()) {
+                    cache.put(key, new CacheEntry(
+                        Collections.unmodifiableMap(new HashMap<>(properties)),
+                        now + timeToLiveMillis));
+                }
+            }
+        }
+        return properties;
+    }
+
+    @Override
+    public String addContent(String spaceId,
+                             String contentId,
+                             String contentMimeType,
+                             Map<String, String> userProperties,
+                             long contentSize,
+                             String contentChecksum,
+                             InputStream content) {
+        try {
+            return targetProvider.addContent(spaceId,
+                                             contentId,
+                                             contentMimeType,
+                                             userProperties,
+                                             contentSize,
+                                             contentChecksum,
+                                             content);
+        } finally {
+            invalidate(spaceId, contentId);
+        }
+    }
+
+    @Override
+    public String copyContent(String sourceSpaceId,
+                              String sourceContentId,
+                              String destSpaceId,
+                              String destContentId) {
+        try {
+            return targetProvider.copyContent(sourceSpaceId,
+                                              sourceContentId,
+                                              destSpaceId,
+                                              destContentId);
+        } finally {
+            invalidate(destSpaceId, destContentId);
+        }
+    }
+
+    @Override
+    public void deleteContent(String spaceId, String contentId) {
+        try {
+            targetProvider.deleteContent(spaceId, contentId);
+        } finally {
+            invalidate(spaceId, contentId);
+        }
+    }
+
+    @Override
+    public void setContentProperties(String spaceId,
+                                     String contentId,
+                                     Map<String, String> contentProperties) {
+        try {
+            targetProvider.setContentProperties(spaceId,
+                                                contentId,
+                                                contentProperties);
+        } finally {
+            invalidate(spaceId, contentId);
+        }
+    }
+
+    @Override
+    public void deleteSpace(String spaceId) {
+        try {
+            targetProvider.deleteSpace(spaceId);
+        } finally {
+            invalidateSpace(spaceId);
+        }
+    }
+
+    private void invalidate(String spaceId, String contentId) {
+        generation.incrementAndGet();
+        synchronized (cache) {
+            if (null != cache.remove(getKey(spaceId, contentId))) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    private void invalidateSpace(String spaceId) {
+        generation.incrementAndGet();
+        String prefix = getKey(spaceId, "");
+        synchronized (cache) {
+            Iterator<String> keys = cache.keySet().iterator();
+            while (keys.hasNext()) {
+                if (keys.next().startsWith(prefix)) {
+                    keys.remove();
+                    invalidations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /*
+     * Space IDs may not include a '/', so the key is unambiguous
+     */
+    private String getKey(String spaceId, String contentId) {
+        return spaceId + "/" + contentId;
+    }
+
+    private void recordLookup(AtomicLong counter) {
+        counter.incrementAndGet();
+        if (log.isDebugEnabled() &&
+            (getHits() + getMisses()) % STATS_LOG_INTERVAL == 0) {
+            log.debug("Content properties cache: {} hits, {} misses " +
+                      "(hit rate {}), {} evictions, {} invalidations, " +
+                      "{} entries", getHits(), getMisses(), getHitRate(),
+                      getEvictions(), getInvalidations(), getSize());
+        }
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    /**
+     * @return the fraction of lookups served from the cache, 0 if there have
+     *         been no lookups
+     */
+    public double getHitRate() {
+        long hitCount = getHits();
+        long total = hitCount + getMisses();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    public int getSize() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private static class CacheEntry {
+        private final Map<String, String> properties;
+        private final long expires;
+
+        CacheEntry(Map<String, String> properties, long expires) {
+            this.properties = properties;
+            this.expires = expires;
+        }
+    }
+
+    /*
+     * The remaining methods pass through to the target provider
+     */
+
+    @Override
+    public StorageProviderType getStorageProviderType() {
+        return targetProvider.getStorageProviderType();
+    }
+
+    @Override
+    public Iterator<String> getSpaces() {
+        return targetProvider.getSpaces();
+    }
+
+    @Override
+    public Iterator<String> getSpaceContents(String spaceId, String prefix) {
+        return targetProvider.getSpaceContents(spaceId, prefix);
+    }
+
+    @Override
+    public List<String> getSpaceContentsChunked(String spaceId,
+                                                String prefix,
+                                                long maxResults,
+                                                String marker) {
+        return targetProvider.getSpaceContentsChunked(spaceId,
+                                                      prefix,
+                                                      maxResults,
+                                                      marker);
+    }
+
+    @Override
+    public void createSpace(String spaceId) {
+        targetProvider.createSpace(spaceId);
+    }
+
+    @Override
+    public Map<String, String> getSpaceProperties(String spaceId) {
+        return targetProvider.getSpaceProperties(spaceId);
+    }
+
+    @Override
+    public Map<String, AclType> getSpaceACLs(String spaceId) {
+        return targetProvider.getSpaceACLs(spaceId);
+    }
+
+    @Override
+    public void setSpaceACLs(String spaceId, Map<String, AclType> spaceACLs) {
+        targetProvider.setSpaceACLs(spaceId, spaceACLs);
+    }
+
+    @Override
+    public InputStream getContent(String spaceId, String contentId) {
+        return targetProvider.getContent(spaceId, contentId);
+    }
+
+    @Override
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  long endByte) {
+        return targetProvider.getContent(spaceId, contentId, startByte, endByte);
+    }
+
+}
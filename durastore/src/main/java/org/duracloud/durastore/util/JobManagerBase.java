@@ -0,0 +1,101 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+
+/**
+ * Runs jobs on a bounded pool of worker threads, so that long running work
+ * does not hold a request thread open for its duration.
+ *
+ * Jobs are held in memory on the node which accepted them. Finished jobs are
+ * retained for a period of time so that their final state can be retrieved.
+ */
+public abstract class JobManagerBase<T extends ManagedJob> {
+
+    public static final int DEFAULT_THREADS = 4;
+    public static final int DEFAULT_QUEUE_SIZE = 100;
+    public static final long DEFAULT_RETENTION_MS = 24 * 60 * 60 * 1000;
+
+    private ThreadPoolExecutor executor;
+    private Map<String, T> jobs = new ConcurrentHashMap<>();
+    private long retentionMs;
+
+    public JobManagerBase(int threads, int queueSize, long retentionMs) {
+        this.executor =
+            new ThreadPoolExecutor(threads,
+                                   threads,
+                                   0L,
+                                   TimeUnit.MILLISECONDS,
+                                   new ArrayBlockingQueue<Runnable>(queueSize),
+                                   new ThreadPoolExecutor.AbortPolicy());
+        this.retentionMs = retentionMs;
+    }
+
+    protected String createJobId() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * Queues the runner and tracks the job it performs. Finished jobs which
+     * are past their retention period are dropped first.
+     *
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    protected void queue(T job, Runnable runner) {
+        expireFinishedJobs();
+        execute(runner);
+        jobs.put(job.getJobId(), job);
+    }
+
+    /**
+     * Queues the runner. The security context of the calling thread is
+     * carried over to the thread which runs it.
+     *
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    protected void execute(Runnable runner) {
+        executor.execute(new DelegatingSecurityContextRunnable(runner));
+    }
+
+    /**
+     * @return the job, or null if no job with this ID exists for the account
+     */
+    public T getJob(String accountId, String jobId) {
+        T job = jobs.get(jobId);
+        if (null == job || !job.getAccountId().equals(accountId)) {
+            return null;
+        }
+        return job;
+    }
+
+    private void expireFinishedJobs() {
+        long cutoff = System.currentTimeMillis() - retentionMs;
+        Iterator<T> jobIterator = jobs.values().iterator();
+        while (jobIterator.hasNext()) {
+            T job = jobIterator.next();
+            if (job.isFinished() && job.getModified() < cutoff) {
+                jobIterator.remove();
+            }
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+}
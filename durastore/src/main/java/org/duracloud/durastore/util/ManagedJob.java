@@ -0,0 +1,30 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+/**
+ * A job which is run and tracked by a JobManagerBase.
+ */
+public interface ManagedJob {
+
+    String getJobId();
+
+    String getAccountId();
+
+    /**
+     * @return true if the job has reached a state in which it will no longer
+     *         change unless it is run again
+     */
+    boolean isFinished();
+
+    /**
+     * @return time (in millis) of the last change to the state of the job
+     */
+    long getModified();
+
+}
@@ -0,0 +1,184 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.duracloud.common.model.AclType;
+import org.duracloud.durastore.manifest.ManifestChangeLog;
+import org.duracloud.storage.domain.StorageProviderType;
+import org.duracloud.storage.provider.StorageProvider;
+
+/**
+ * This class records each change made to content through the storage
+ * provider it wraps in the manifest change log, so that manifest snapshots
+ * of the changed spaces can be brought up to date. Only calls which succeed
+ * are recorded.
+ */
+public class ManifestChangeStorageProvider implements StorageProvider {
+
+    private final StorageProvider targetProvider;
+    private final ManifestChangeLog changeLog;
+    private final String account;
+    private final String storeId;
+
+    public ManifestChangeStorageProvider(StorageProvider targetProvider,
+                                         ManifestChangeLog changeLog,
+                                         String account,
+                                         String storeId) {
+        assert targetProvider != null;
+
+        this.targetProvider = targetProvider;
+        this.changeLog = changeLog;
+        this.account = account;
+        this.storeId = storeId;
+    }
+
+    private void contentChanged(String spaceId,
+                                String contentId,
+                                String checksum) {
+        changeLog.contentChanged(account, storeId, spaceId, contentId,
+                                 checksum);
+    }
+
+    @Override
+    public StorageProviderType getStorageProviderType() {
+        return targetProvider.getStorageProviderType();
+    }
+
+    @Override
+    public Iterator<String> getSpaces() {
+        return targetProvider.getSpaces();
+    }
+
+    @Override
+    public Iterator<String> getSpaceContents(String spaceId, String prefix) {
+        return targetProvider.getSpaceContents(spaceId, prefix);
+    }
+
+    @Override
+    public List<String> getSpaceContentsChunked(String spaceId,
+                                                String prefix,
+                                                long maxResults,
+                                                String marker) {
+        return targetProvider.getSpaceContentsChunked(spaceId,
+                                                      prefix,
+                                                      maxResults,
+                                                      marker);
+    }
+
+    @Override
+    public void createSpace(String spaceId) {
+        targetProvider.createSpace(spaceId);
+        changeLog.spaceChanged(account, storeId, spaceId);
+    }
+
+    @Override
+    public void deleteSpace(String spaceId) {
+        targetProvider.deleteSpace(spaceId);
+        changeLog.spaceChanged(account, storeId, spaceId);
+    }
+
+    @Override
+    public Map<String, String> getSpaceProperties(String spaceId) {
+        return targetProvider.getSpaceProperties(spaceId);
+    }
+
+    @Override
+    public Map<String, AclType> getSpaceACLs(String spaceId) {
+        return targetProvider.getSpaceACLs(spaceId);
+    }
+
+    @Override
+    public void setSpaceACLs(String spaceId, Map<String, AclType> spaceACLs) {
+        targetProvider.setSpaceACLs(spaceId, spaceACLs);
+    }
+
+    @Override
+    public String addContent(String spaceId,
+                             String contentId,
+                             String contentMimeType,
+                             Map<String, String> userProperties,
+                             long contentSize,
+                             String contentChecksum,
+                             InputStream content) {
+        String checksum = targetProvider.addContent(spaceId,
+                                                    contentId,
+                                                    contentMimeType,
+                                                    userProperties,
+                                                    contentSize,
+                                                    contentChecksum,
+                                                    content);
+        recordAdded(spaceId, contentId, checksum);
+        return checksum;
+    }
+
+    @Override
+    public String copyContent(String sourceSpaceId,
+                              String sourceContentId,
+                              String destSpaceId,
+                              String destContentId) {
+        String checksum = targetProvider.copyContent(sourceSpaceId,
+                                                     sourceContentId,
+                                                     destSpaceId,
+                                                     destContentId);
+        recordAdded(destSpaceId, destContentId, checksum);
+        return checksum;
+    }
+
+    /*
+     * Content added without a known checksum leaves the space in a state
+     * which cannot be reached from the changes, so the space is marked as
+     * changed
+     */
+    private void recordAdded(String spaceId, String contentId, String checksum) {
+        if (null == checksum) {
+            changeLog.spaceChanged(account, storeId, spaceId);
+        } else {
+            contentChanged(spaceId, contentId, checksum);
+        }
+    }
+
+    @Override
+    public InputStream getContent(String spaceId, String contentId) {
+        return targetProvider.getContent(spaceId, contentId);
+    }
+
+    @Override
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  long endByte) {
+        return targetProvider.getContent(spaceId, contentId, startByte, endByte);
+    }
+
+    @Override
+    public void deleteContent(String spaceId, String contentId) {
+        targetProvider.deleteContent(spaceId, contentId);
+        contentChanged(spaceId, contentId, null);
+    }
+
+    @Override
+    public void setContentProperties(String spaceId,
+                                     String contentId,
+                                     Map<String, String> contentProperties) {
+        targetProvider.setContentProperties(spaceId,
+                                            contentId,
+                                            contentProperties);
+    }
+
+    @Override
+    public Map<String, String> getContentProperties(String spaceId,
+                                                    String contentId) {
+        return targetProvider.getContentProperties(spaceId, contentId);
+    }
+
+}
@@ -0,0 +1,56 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+/**
+ * Settings for the manifest snapshots from which space manifests are served.
+ */
+public class ManifestSnapshotConfig {
+
+    private boolean enabled = false;
+    private String snapshotSpaceId = "x-duracloud-admin";
+    private long maxAgeMillis = 60 * 60 * 1000;
+    private long auditLagMillis = 30 * 60 * 1000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getSnapshotSpaceId() {
+        return snapshotSpaceId;
+    }
+
+    public void setSnapshotSpaceId(String snapshotSpaceId) {
+        this.snapshotSpaceId = snapshotSpaceId;
+    }
+
+    public long getMaxAgeMillis() {
+        return maxAgeMillis;
+    }
+
+    public void setMaxAgeMillis(long maxAgeMillis) {
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * @return longest time expected between a change to content and the
+     *         manifest database being updated with it
+     */
+    public long getAuditLagMillis() {
+        return auditLagMillis;
+    }
+
+    public void setAuditLagMillis(long auditLagMillis) {
+        this.auditLagMillis = auditLagMillis;
+    }
+
+}
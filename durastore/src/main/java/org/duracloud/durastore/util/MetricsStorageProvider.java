@@ -0,0 +1,249 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.apache.commons.io.input.ProxyInputStream;
+import org.duracloud.common.model.AclType;
+import org.duracloud.durastore.metrics.OperationMetrics;
+import org.duracloud.durastore.metrics.StorageProviderMetrics;
+import org.duracloud.storage.domain.StorageProviderType;
+import org.duracloud.storage.provider.StorageProvider;
+
+/**
+ * This class records the number of calls, failures and time taken for each
+ * operation of the storage provider it wraps, along with the bytes of
+ * content added and retrieved, in the shared storage provider metrics.
+ *
+ * The time recorded for getContent() is the time taken to open the content
+ * stream; the bytes are counted as the stream is read.
+ */
+public class MetricsStorageProvider implements StorageProvider {
+
+    private static final String[] OPERATIONS =
+        {"getStorageProviderType", "getSpaces", "getSpaceContents",
+         "getSpaceContentsChunked", "createSpace", "deleteSpace",
+         "getSpaceProperties", "getSpaceACLs", "setSpaceACLs", "addContent",
+         "copyContent", "getContent", "deleteContent", "setContentProperties",
+         "getContentProperties"};
+
+    private final StorageProvider targetProvider;
+    private final Map<String, OperationMetrics> operations = new HashMap<>();
+
+    public MetricsStorageProvider(StorageProvider targetProvider,
+                                  StorageProviderMetrics metrics,
+                                  String account,
+                                  String storeId,
+                                  String providerType) {
+        assert targetProvider != null;
+
+        this.targetProvider = targetProvider;
+        for (String operation : OPERATIONS) {
+            operations.put(operation,
+                           metrics.getOperationMetrics(account,
+                                                       storeId,
+                                                       providerType,
+                                                       operation));
+        }
+    }
+
+    private <T> T measure(String operation, Supplier<T> call) {
+        OperationMetrics metrics = operations.get(operation);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = call.get();
+            failed = false;
+            return result;
+        } finally {
+            metrics.record(System.nanoTime() - start, failed);
+        }
+    }
+
+    private void measure(String operation, Runnable call) {
+        measure(operation, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    @Override
+    public StorageProviderType getStorageProviderType() {
+        return measure("getStorageProviderType",
+                       targetProvider::getStorageProviderType);
+    }
+
+    @Override
+    public Iterator<String> getSpaces() {
+        return measure("getSpaces", targetProvider::getSpaces);
+    }
+
+    @Override
+    public Iterator<String> getSpaceContents(String spaceId, String prefix) {
+        return measure("getSpaceContents",
+                       () -> targetProvider.getSpaceContents(spaceId, prefix));
+    }
+
+    @Override
+    public List<String> getSpaceContentsChunked(String spaceId,
+                                                String prefix,
+                                                long maxResults,
+                                                String marker) {
+        return measure("getSpaceContentsChunked",
+                       () -> targetProvider.getSpaceContentsChunked(spaceId,
+                                                                    prefix,
+                                                                    maxResults,
+                                                                    marker));
+    }
+
+    @Override
+    public void createSpace(String spaceId) {
+        measure("createSpace", () -> targetProvider.createSpace(spaceId));
+    }
+
+    @Override
+    public void deleteSpace(String spaceId) {
+        measure("deleteSpace", () -> targetProvider.deleteSpace(spaceId));
+    }
+
+    @Override
+    public Map<String, String> getSpaceProperties(String spaceId) {
+        return measure("getSpaceProperties",
+                       () -> targetProvider.getSpaceProperties(spaceId));
+    }
+
+    @Override
+    public Map<String, AclType> getSpaceACLs(String spaceId) {
+        return measure("getSpaceACLs",
+                       () -> targetProvider.getSpaceACLs(spaceId));
+    }
+
+    @Override
+    public void setSpaceACLs(String spaceId, Map<String, AclType> spaceACLs) {
+        measure("setSpaceACLs",
+                () -> targetProvider.setSpaceACLs(spaceId, spaceACLs));
+    }
+
+    @Override
+    public String addContent(String spaceId,
+                             String contentId,
+                             String contentMimeType,
+                             Map<String, String> userProperties,
+                             long contentSize,
+                             String contentChecksum,
+                             InputStream content) {
+        OperationMetrics metrics = operations.get("addContent");
+        InputStream countedContent =
+            (null == content) ? null : new CountingStream(content, true, metrics);
+        return measure("addContent",
+                       () -> targetProvider.addContent(spaceId,
+                                                       contentId,
+                                                       contentMimeType,
+                                                       userProperties,
+                                                       contentSize,
+                                                       contentChecksum,
+                                                       countedContent));
+    }
+
+    @Override
+    public String copyContent(String sourceSpaceId,
+                              String sourceContentId,
+                              String destSpaceId,
+                              String destContentId) {
+        return measure("copyContent",
+                       () -> targetProvider.copyContent(sourceSpaceId,
+                                                        sourceContentId,
+                                                        destSpaceId,
+                                                        destContentId));
+    }
+
+    @Override
+    public InputStream getContent(String spaceId, String contentId) {
+        InputStream content =
+            measure("getContent",
+                    () -> targetProvider.getContent(spaceId, contentId));
+        if (null == content) {
+            return null;
+        }
+        return new CountingStream(content, false, operations.get("getContent"));
+    }
+
+    @Override
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  long endByte) {
+        InputStream content =
+            measure("getContent",
+                    () -> targetProvider.getContent(spaceId, contentId,
+                                                    startByte, endByte));
+        if (null == content) {
+            return null;
+        }
+        return new CountingStream(content, false, operations.get("getContent"));
+    }
+
+    @Override
+    public void deleteContent(String spaceId, String contentId) {
+        measure("deleteContent",
+                () -> targetProvider.deleteContent(spaceId, contentId));
+    }
+
+    @Override
+    public void setContentProperties(String spaceId,
+                                     String contentId,
+                                     Map<String, String> contentProperties) {
+        measure("setContentProperties",
+                () -> targetProvider.setContentProperties(spaceId,
+                                                          contentId,
+                                                          contentProperties));
+    }
+
+    @Override
+    public Map<String, String> getContentProperties(String spaceId,
+                                                    String contentId) {
+        return measure("getContentProperties",
+                       () -> targetProvider.getContentProperties(spaceId,
+                                                                 contentId));
+    }
+
+    /*
+     * Counts the bytes read through a content stream
+     */
+    private static class CountingStream extends ProxyInputStream {
+        private final boolean bytesIn;
+        private final OperationMetrics metrics;
+
+        CountingStream(InputStream stream,
+                       boolean bytesIn,
+                       OperationMetrics metrics) {
+            super(stream);
+            this.bytesIn = bytesIn;
+            this.metrics = metrics;
+        }
+
+        @Override
+        protected void afterRead(int n) throws IOException {
+            if (n > 0) {
+                if (bytesIn) {
+                    metrics.addBytesIn(n);
+                } else {
+                    metrics.addBytesOut(n);
+                }
+            }
+        }
+    }
+
+}
@@ -17,6 +17,8 @@ import org.duracloud.common.event.AccountChangeEvent.EventType;
 import org.duracloud.common.rest.DuraCloudRequestContextUtil;
 import org.duracloud.common.sns.AccountChangeNotifier;
 import org.duracloud.common.util.UserUtil;
+import org.duracloud.durastore.manifest.ManifestChangeLog;
+import org.duracloud.durastore.metrics.StorageProviderMetrics;
 import org.duracloud.storage.domain.AuditConfig;
 import org.duracloud.storage.domain.StorageAccountManager;
 import org.duracloud.storage.provider.StatelessStorageProvider;
@@ -36,6 +38,10 @@ public class StorageProviderFactoryCache extends AbstractAccountComponentCache<S
     private DuracloudMillRepo millRepo;
     private DuraCloudRequestContextUtil contextUtil;
     private AccountChangeNotifier notifier;
+    private ContentPropertiesCacheConfig contentPropertiesCacheConfig;
+    private StorageProviderMetrics storageProviderMetrics;
+    private ManifestChangeLog manifestChangeLog;
+    private ManifestSnapshotConfig manifestSnapshotConfig;
 
     private Logger log = LoggerFactory.getLogger(StorageProviderFactoryCache.class);
     public StorageProviderFactoryCache(StorageAccountManagerFactory storageAccountManagerFactory,
@@ -104,8 +110,31 @@ public class StorageProviderFactoryCache extends AbstractAccountComponentCache<S
                                            this.contextUtil, 
                                            this.notifier,
                                            auditConfig);
+        factory.setContentPropertiesCacheConfig(contentPropertiesCacheConfig);
+        factory.setStorageProviderMetrics(storageProviderMetrics);
+        factory.setManifestChangeLog(manifestChangeLog);
+        factory.setManifestSnapshotConfig(manifestSnapshotConfig);
         
         return factory;
     }
+
+    public void setContentPropertiesCacheConfig(
+        ContentPropertiesCacheConfig contentPropertiesCacheConfig) {
+        this.contentPropertiesCacheConfig = contentPropertiesCacheConfig;
+    }
+
+    public void setStorageProviderMetrics(
+        StorageProviderMetrics storageProviderMetrics) {
+        this.storageProviderMetrics = storageProviderMetrics;
+    }
+
+    public void setManifestChangeLog(ManifestChangeLog manifestChangeLog) {
+        this.manifestChangeLog = manifestChangeLog;
+    }
+
+    public void setManifestSnapshotConfig(
+        ManifestSnapshotConfig manifestSnapshotConfig) {
+        this.manifestSnapshotConfig = manifestSnapshotConfig;
+    }
    
 }
@@ -20,12 +20,15 @@ import org.duracloud.common.queue.noop.NoopTaskQueue;
 import org.duracloud.common.rest.DuraCloudRequestContextUtil;
 import org.duracloud.common.sns.AccountChangeNotifier;
 import org.duracloud.common.util.UserUtil;
+import org.duracloud.durastore.manifest.ManifestChangeLog;
+import org.duracloud.durastore.metrics.StorageProviderMetrics;
 import org.duracloud.durastore.test.MockRetryStorageProvider;
 import org.duracloud.durastore.test.MockVerifyCreateStorageProvider;
 import org.duracloud.durastore.test.MockVerifyDeleteStorageProvider;
 import org.duracloud.glacierstorage.GlacierStorageProvider;
 import org.duracloud.irodsstorage.IrodsStorageProvider;
 import org.duracloud.rackspacestorage.RackspaceStorageProvider;
+import org.duracloud.s3storage.AwsClientRegistry;
 import org.duracloud.s3storage.S3StorageProvider;
 import org.duracloud.sdscstorage.SDSCStorageProvider;
 import org.duracloud.snapshotstorage.ChronopolisStorageProvider;
@@ -42,6 +45,9 @@ import org.duracloud.storage.provider.BrokeredStorageProvider;
 import org.duracloud.storage.provider.StatelessStorageProvider;
 import org.duracloud.storage.provider.StorageProvider;
 import org.duracloud.storage.provider.StorageProviderBase;
+import org.duracloud.storage.provider.simulated.FaultInjectingStorageProvider;
+import org.duracloud.storage.provider.simulated.InMemoryStorageProvider;
+import org.duracloud.storage.provider.simulated.SimulatedStorageConfig;
 import org.duracloud.storage.util.StorageProviderFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,6 +70,10 @@ public class StorageProviderFactoryImpl extends ProviderFactoryBase
     private boolean cacheStorageProvidersOnInit = false;
     private DuraCloudRequestContextUtil contextUtil;
     private AccountChangeNotifier notifier;
+    private ContentPropertiesCacheConfig contentPropertiesCacheConfig;
+    private StorageProviderMetrics storageProviderMetrics;
+    private ManifestChangeLog manifestChangeLog;
+    private ManifestSnapshotConfig manifestSnapshotConfig;
 
     public StorageProviderFactoryImpl(StorageAccountManager storageAccountManager,
                                       StatelessStorageProvider statelessStorageProvider,
@@ -140,12 +150,33 @@ public class StorageProviderFactoryImpl extends ProviderFactoryBase
                 // If no queue name is defined, turn off auditing
                 this.auditQueue = new NoopTaskQueue();
             } else {
-                this.auditQueue = new SQSTaskQueue(queueName);
+                this.auditQueue =
+                    new SQSTaskQueue(AwsClientRegistry.getInstance().getSQSClient(),
+                                     queueName);
             }
         }
     }
 
 
+    public void setContentPropertiesCacheConfig(
+        ContentPropertiesCacheConfig contentPropertiesCacheConfig) {
+        this.contentPropertiesCacheConfig = contentPropertiesCacheConfig;
+    }
+
+    public void setStorageProviderMetrics(
+        StorageProviderMetrics storageProviderMetrics) {
+        this.storageProviderMetrics = storageProviderMetrics;
+    }
+
+    public void setManifestChangeLog(ManifestChangeLog manifestChangeLog) {
+        this.manifestChangeLog = manifestChangeLog;
+    }
+
+    public void setManifestSnapshotConfig(
+        ManifestSnapshotConfig manifestSnapshotConfig) {
+        this.manifestSnapshotConfig = manifestSnapshotConfig;
+    }
+
     @Override
     public TaskQueue getAuditQueue() {
         return this.auditQueue;
@@ -210,11 +241,15 @@ public class StorageProviderFactoryImpl extends ProviderFactoryBase
         StorageProviderType type = account.getType();
 
         StorageProvider storageProvider = null;
-        if (type.equals(StorageProviderType.AMAZON_S3)) {
+        if (SimulatedStorageConfig.isSimulated(account.getOptions())) {
+            storageProvider = createSimulatedProvider(type, account.getOptions());
+        } else if (type.equals(StorageProviderType.AMAZON_S3)) {
+            evictStaleAwsClients(username, password);
             storageProvider = new S3StorageProvider(username,
                                                     password,
                                                     account.getOptions());
         } else if (type.equals(StorageProviderType.AMAZON_GLACIER)) {
+            evictStaleAwsClients(username, password);
             storageProvider = new GlacierStorageProvider(username, password);
         } else if (type.equals(StorageProviderType.RACKSPACE)) {
             storageProvider = new RackspaceStorageProvider(username, password);
@@ -240,16 +275,49 @@ public class StorageProviderFactoryImpl extends ProviderFactoryBase
                 + storageAccountId + "): unable to create");
         }
 
+        StorageProvider targetProvider = storageProvider;
+        if (null != storageProviderMetrics) {
+            targetProvider =
+                new MetricsStorageProvider(storageProvider,
+                                           storageProviderMetrics,
+                                           storageAccountManager.getAccountName(),
+                                           storageAccountId,
+                                           type.getName());
+        }
+
+        // Changes are only recorded while there are snapshots to apply them
+        if (null != manifestChangeLog &&
+            null != manifestSnapshotConfig &&
+            manifestSnapshotConfig.isEnabled()) {
+            targetProvider =
+                new ManifestChangeStorageProvider(targetProvider,
+                                                  manifestChangeLog,
+                                                  storageAccountManager.getAccountName(),
+                                                  storageAccountId);
+        }
+
+        if (null != contentPropertiesCacheConfig &&
+            contentPropertiesCacheConfig.isEnabled()) {
+            targetProvider =
+                new ContentPropertiesCacheStorageProvider(targetProvider,
+                                                          contentPropertiesCacheConfig);
+        }
+
         StorageProvider auditProvider =
-            new AuditStorageProvider(storageProvider,
+            new AuditStorageProvider(targetProvider,
                                      storageAccountManager.getAccountName(),
                                      storageAccountId,
                                      type.getName(),
                                      userUtil,
                                      auditQueue);
         
-        if(storageProvider instanceof StorageProviderBase){
-            ((StorageProviderBase)storageProvider).setWrappedStorageProvider(auditProvider);
+        StorageProvider baseProvider = storageProvider;
+        if (storageProvider instanceof FaultInjectingStorageProvider) {
+            baseProvider =
+                ((FaultInjectingStorageProvider) storageProvider).getTargetProvider();
+        }
+        if(baseProvider instanceof StorageProviderBase){
+            ((StorageProviderBase)baseProvider).setWrappedStorageProvider(auditProvider);
         }
         
         StorageProvider aclProvider = new ACLStorageProvider(auditProvider, notifier, contextUtil);
@@ -263,6 +331,30 @@ public class StorageProviderFactoryImpl extends ProviderFactoryBase
         return brokeredProvider;
     }
 
+    /*
+     * Storage providers are created with the current credentials of an
+     * account after the account has changed, so clients created with any
+     * earlier credentials for the same access key are no longer needed.
+     */
+    private void evictStaleAwsClients(String accessKey, String secretKey) {
+        AwsClientRegistry.getInstance().evictStale(accessKey, secretKey);
+    }
+
+    /*
+     * Creates an in-memory storage provider, with the latency and faults
+     * given in the storage account options, in place of the storage provider
+     * of the account type. Used for load testing.
+     */
+    private StorageProvider createSimulatedProvider(StorageProviderType type,
+                                                    Map<String, String> options) {
+        SimulatedStorageConfig config = new SimulatedStorageConfig(options);
+        log.warn("Using simulated in-memory storage in place of {} storage",
+                 type.name());
+        return new FaultInjectingStorageProvider(
+            new InMemoryStorageProvider(type, config.getConsistencyDelay()),
+            config);
+    }
+
     private String checkStorageAccountId(String storageAccountId) {
         if(null == storageAccountId) {
             return getAccountManager().getPrimaryStorageAccount().getId();
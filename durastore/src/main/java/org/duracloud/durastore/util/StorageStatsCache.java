@@ -0,0 +1,136 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Holds storage statistics series which have been read from the stats
+ * database, so that repeated requests for the same series (as made by
+ * dashboards which chart stats over a long period) do not each require the
+ * aggregate queries to be run again. Statistics are collected once a day,
+ * so entries can be kept for a long period without becoming stale.
+ *
+ * The cache is bounded in size, with the least recently used entries being
+ * removed first. When more than one request asks for a series which is not
+ * in the cache, only one of them loads it.
+ */
+public class StorageStatsCache {
+
+    private final Logger log = LoggerFactory.getLogger(StorageStatsCache.class);
+
+    private final boolean enabled;
+    private final long timeToLiveMillis;
+    private final Map<String, CacheEntry> cache;
+    private final Map<String, Object> loadLocks = new ConcurrentHashMap<>();
+
+    public StorageStatsCache(StorageStatsCacheConfig config) {
+        this(config.isEnabled(),
+             config.getMaxEntries(),
+             config.getTimeToLiveMillis());
+    }
+
+    public StorageStatsCache(boolean enabled,
+                             final int maxEntries,
+                             long timeToLiveMillis) {
+        this.enabled = enabled;
+        this.timeToLiveMillis = timeToLiveMillis;
+        this.cache = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Builds a cache key from the parts which identify a series
+     */
+    public static String getKey(String... parts) {
+        return String.join("/", parts);
+    }
+
+    /**
+     * Returns the series held for the key, calling the loader to read it
+     * when it is not held or has expired.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> get(String key, Supplier<List<T>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+
+        CacheEntry entry = getEntry(key);
+        if (null != entry) {
+            return (List<T>) entry.series;
+        }
+
+        Object lock = loadLocks.computeIfAbsent(key, k -> new Object());
+        try {
+            synchronized (lock) {
+                // Another request may have loaded the series while waiting
+                entry = getEntry(key);
+                if (null != entry) {
+                    return (List<T>) entry.series;
+                }
+
+                long start = System.currentTimeMillis();
+                List<T> series = loader.get();
+                log.debug("Loaded storage stats series {} ({} items) in {} ms",
+                          key, series.size(),
+                          System.currentTimeMillis() - start);
+                synchronized (cache) {
+                    cache.put(key, new CacheEntry(series,
+                                                  System.currentTimeMillis()));
+                }
+                return series;
+            }
+        } finally {
+            loadLocks.remove(key, lock);
+        }
+    }
+
+    private CacheEntry getEntry(String key) {
+        synchronized (cache) {
+            CacheEntry entry = cache.get(key);
+            if (null != entry &&
+                System.currentTimeMillis() - entry.loaded > timeToLiveMillis) {
+                cache.remove(key);
+                entry = null;
+            }
+            return entry;
+        }
+    }
+
+    /**
+     * Removes all series from the cache
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private static class CacheEntry {
+        private final List<?> series;
+        private final long loaded;
+
+        CacheEntry(List<?> series, long loaded) {
+            this.series = series;
+            this.loaded = loaded;
+        }
+    }
+
+}
@@ -8,6 +8,7 @@
 package org.duracloud.durastore.util;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.duracloud.glacierstorage.GlacierStorageProvider;
 import org.duracloud.glaciertask.GlacierTaskProvider;
@@ -32,7 +33,10 @@ import com.amazonaws.services.cloudfront.AmazonCloudFrontClient;
 import com.amazonaws.services.s3.AmazonS3Client;
 
 /**
- * Provides access to TaskProvider implementations
+ * Provides access to TaskProvider implementations. Task providers are
+ * created on first use for each storage account and then reused; an
+ * instance of this factory is specific to a single DuraCloud account and is
+ * discarded (along with its task providers) when that account changes.
  *
  * @author Bill Branan
  * Date: May 20, 2010
@@ -42,6 +46,7 @@ public class TaskProviderFactoryImpl extends ProviderFactoryBase
 
     private StorageProviderFactory storageProviderFactory;
     private ManifestStore manifestStore;
+    private Map<String, TaskProvider> taskProviders = new ConcurrentHashMap<>();
     
     public TaskProviderFactoryImpl(StorageAccountManager storageAccountManager,
                                StorageProviderFactory storageProviderFactory,
@@ -66,6 +71,22 @@ public class TaskProviderFactoryImpl extends ProviderFactoryBase
             account = storageAccountManager.getPrimaryStorageAccount();
             storageAccountId = account.getId();
         }
+
+        TaskProvider taskProvider = taskProviders.get(storageAccountId);
+        if (null == taskProvider) {
+            taskProvider = createTaskProvider(account, storageAccountId);
+            TaskProvider existing =
+                taskProviders.putIfAbsent(storageAccountId, taskProvider);
+            if (null != existing) {
+                taskProvider = existing;
+            }
+        }
+        return taskProvider;
+    }
+
+    private TaskProvider createTaskProvider(StorageAccount account,
+                                            String storageAccountId) {
+        StorageAccountManager storageAccountManager = getAccountManager();
         String username = account.getUsername();
         String password = account.getPassword();
         StorageProviderType type = account.getType();
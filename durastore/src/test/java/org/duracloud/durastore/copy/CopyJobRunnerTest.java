@@ -0,0 +1,147 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.copy;
+
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.duracloud.common.util.ChecksumUtil;
+import org.duracloud.copyjob.dto.CopyJobStatus;
+import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.provider.StorageProvider;
+import org.easymock.Capture;
+import org.easymock.EasyMockSupport;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CopyJobRunnerTest extends EasyMockSupport {
+
+    private StorageProvider srcProvider;
+    private StorageProvider destProvider;
+
+    private String srcSpaceId = "src-space";
+    private String srcContentId = "src-content";
+    private String destSpaceId = "dest-space";
+    private String destContentId = "dest-content";
+    private String content = "copy job content";
+    private String checksum;
+
+    @Before
+    public void setup() {
+        srcProvider = createMock("srcProvider", StorageProvider.class);
+        destProvider = createMock("destProvider", StorageProvider.class);
+        checksum = new ChecksumUtil(ChecksumUtil.Algorithm.MD5)
+            .generateChecksum(content);
+    }
+
+    private CopyJob createJob() {
+        return new CopyJob("job-id", "account", srcProvider, "0", srcSpaceId,
+                           srcContentId, destProvider, "1", destSpaceId,
+                           destContentId);
+    }
+
+    private Map<String, String> createProperties() {
+        Map<String, String> props = new HashMap<>();
+        props.put(StorageProvider.PROPERTIES_CONTENT_CHECKSUM, checksum);
+        props.put(StorageProvider.PROPERTIES_CONTENT_MIMETYPE, "text/plain");
+        props.put(StorageProvider.PROPERTIES_CONTENT_SIZE,
+                  String.valueOf(content.length()));
+        props.put("custom", "value");
+        return props;
+    }
+
+    @Test
+    public void testCopy() throws Exception {
+        expect(srcProvider.getContentProperties(srcSpaceId, srcContentId))
+            .andReturn(createProperties());
+        expect(srcProvider.getContent(srcSpaceId, srcContentId))
+            .andReturn(new ByteArrayInputStream(content.getBytes()));
+
+        Capture<InputStream> streamCapture = new Capture<>();
+        Capture<Map<String, String>> propsCapture = new Capture<>();
+        expect(destProvider.addContent(eq(destSpaceId),
+                                       eq(destContentId),
+                                       eq("text/plain"),
+                                       capture(propsCapture),
+                                       eq((long) content.length()),
+                                       eq(checksum),
+                                       capture(streamCapture)))
+            .andAnswer(() -> {
+                InputStream stream = streamCapture.getValue();
+                while (stream.read() != -1) {
+                    // consume the stream, as a provider would
+                }
+                return checksum;
+            });
+        replayAll();
+
+        CopyJob job = createJob();
+        new CopyJobRunner(job).run();
+
+        CopyJobStatus status = job.getStatus();
+        assertEquals(CopyJobStatus.State.COMPLETE.name(), status.getState());
+        assertEquals(checksum, status.getChecksum());
+        assertEquals(content.length(), status.getBytesCopied());
+        assertEquals(content.length(), status.getTotalBytes());
+        assertEquals("value", propsCapture.getValue().get("custom"));
+        assertFalse(propsCapture.getValue().containsKey(
+            StorageProvider.PROPERTIES_CONTENT_CHECKSUM));
+        verifyAll();
+    }
+
+    @Test
+    public void testCopyNotFound() throws Exception {
+        expect(srcProvider.getContentProperties(srcSpaceId, srcContentId))
+            .andThrow(new NotFoundException("not found"));
+        replayAll();
+
+        CopyJob job = createJob();
+        new CopyJobRunner(job).run();
+
+        CopyJobStatus status = job.getStatus();
+        assertEquals(CopyJobStatus.State.FAILED.name(), status.getState());
+        assertEquals("not found", status.getError());
+        verifyAll();
+    }
+
+    @Test
+    public void testCancelBeforeStart() throws Exception {
+        replayAll();
+
+        CopyJob job = createJob();
+        assertTrue(job.requestCancel());
+        new CopyJobRunner(job).run();
+
+        assertEquals(CopyJobStatus.State.CANCELLED.name(),
+                     job.getStatus().getState());
+        verifyAll();
+    }
+
+    @Test
+    public void testRetryAfterCancelBeforeStart() throws Exception {
+        replayAll();
+
+        CopyJob job = createJob();
+        CopyJobRunner cancelledRunner = new CopyJobRunner(job);
+        assertTrue(job.requestCancel());
+        assertTrue(job.requeue());
+
+        // The runner queued before the retry must not run the job
+        cancelledRunner.run();
+        CopyJobStatus status = job.getStatus();
+        assertEquals(CopyJobStatus.State.QUEUED.name(), status.getState());
+        assertEquals(0, status.getAttempts());
+        verifyAll();
+    }
+
+}
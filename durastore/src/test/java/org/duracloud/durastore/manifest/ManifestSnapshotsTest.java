@@ -0,0 +1,191 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.manifest;
+
+import static org.easymock.EasyMock.expect;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.duracloud.common.constant.ManifestFormat;
+import org.duracloud.durastore.util.ManifestSnapshotConfig;
+import org.duracloud.manifest.ManifestGenerator;
+import org.duracloud.storage.domain.StorageProviderType;
+import org.duracloud.storage.provider.simulated.InMemoryStorageProvider;
+import org.duracloud.storage.util.StorageProviderFactory;
+import org.easymock.EasyMockSupport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ManifestSnapshotsTest extends EasyMockSupport {
+
+    private static final String account = "account";
+    private static final String storeId = "store-id";
+    private static final String spaceId = "space-id";
+    private static final String header = "space-id\tcontent-id\tMD5";
+
+    private ManifestGenerator generator;
+    private StorageProviderFactory storageProviderFactory;
+    private InMemoryStorageProvider snapshotStore;
+    private ManifestChangeLog changeLog;
+    private ManifestSnapshots snapshots;
+
+    @Before
+    public void setUp() throws Exception {
+        generator = createMock("ManifestGenerator", ManifestGenerator.class);
+        storageProviderFactory = createMock("StorageProviderFactory",
+                                            StorageProviderFactory.class);
+
+        ManifestSnapshotConfig config = new ManifestSnapshotConfig();
+        config.setEnabled(true);
+        snapshotStore =
+            new InMemoryStorageProvider(StorageProviderType.AMAZON_S3, 0);
+        snapshotStore.createSpace(config.getSnapshotSpaceId());
+        expect(storageProviderFactory.getStorageProvider())
+            .andReturn(snapshotStore).anyTimes();
+
+        changeLog = new ManifestChangeLog();
+        snapshots = new ManifestSnapshots(generator, storageProviderFactory,
+                                          changeLog, config);
+    }
+
+    @After
+    public void tearDown() {
+        verifyAll();
+    }
+
+    private void expectGenerate(String... lines) throws Exception {
+        String manifest = String.join("\n", lines) + "\n";
+        expect(generator.getManifest(account, storeId, spaceId,
+                                     ManifestFormat.TSV))
+            .andReturn(new ByteArrayInputStream(
+                manifest.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private ManifestSnapshot getSnapshot() throws Exception {
+        return snapshots.getSnapshot(account, storeId, spaceId,
+                                     ManifestFormat.TSV);
+    }
+
+    private Set<String> readLines(ManifestSnapshot snapshot) throws Exception {
+        try (InputStream content =
+                 new GZIPInputStream(snapshots.getContent(snapshot))) {
+            return new HashSet<>(IOUtils.readLines(content,
+                                                   StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testUnchanged() throws Exception {
+        expectGenerate(header, "space-id\ta\tmd5-a");
+        replayAll();
+
+        ManifestSnapshot snapshot = getSnapshot();
+        assertSame(snapshot, getSnapshot());
+        assertEquals(new HashSet<>(Arrays.asList(header, "space-id\ta\tmd5-a")),
+                     readLines(snapshot));
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+        expectGenerate(header,
+                       "space-id\ta\tmd5-a",
+                       "space-id\tb\tmd5-b",
+                       "space-id\tc\tmd5-c");
+        replayAll();
+
+        ManifestSnapshot snapshot = getSnapshot();
+
+        changeLog.contentChanged(account, storeId, spaceId, "a", null);
+        changeLog.contentChanged(account, storeId, spaceId, "b", "md5-b2");
+        changeLog.contentChanged(account, storeId, spaceId, "d/e", "md5-d");
+        // Changes to other spaces are not applied
+        changeLog.contentChanged(account, storeId, "other", "f", "md5-f");
+
+        ManifestSnapshot updated = getSnapshot();
+        assertNotEquals(snapshot.getETag(), updated.getETag());
+        assertEquals(snapshot.getCreated(), updated.getCreated());
+        assertEquals(new HashSet<>(Arrays.asList(header,
+                                                 "space-id\tb\tmd5-b2",
+                                                 "space-id\tc\tmd5-c",
+                                                 "space-id\td/e\tmd5-d")),
+                     readLines(updated));
+        assertSame(updated, getSnapshot());
+    }
+
+    @Test
+    public void testGenerateWhenChangesNotHeld() throws Exception {
+        expectGenerate(header, "space-id\ta\tmd5-a");
+        expectGenerate(header, "space-id\tb\tmd5-b");
+        replayAll();
+
+        changeLog.setMaxChanges(1);
+        ManifestSnapshot snapshot = getSnapshot();
+        changeLog.contentChanged(account, storeId, spaceId, "a", null);
+        changeLog.contentChanged(account, storeId, spaceId, "b", "md5-b");
+
+        ManifestSnapshot generated = getSnapshot();
+        assertNotEquals(snapshot.getETag(), generated.getETag());
+        assertEquals(new HashSet<>(Arrays.asList(header, "space-id\tb\tmd5-b")),
+                     readLines(generated));
+    }
+
+    @Test
+    public void testGenerateAppliesRecentChanges() throws Exception {
+        // The database has not yet been updated with these changes
+        expectGenerate(header, "space-id\ta\tmd5-a", "space-id\tb\tmd5-b");
+        replayAll();
+
+        changeLog.contentChanged(account, storeId, spaceId, "a", null);
+        changeLog.contentChanged(account, storeId, spaceId, "c", "md5-c");
+
+        ManifestSnapshot snapshot = getSnapshot();
+        assertEquals(new HashSet<>(Arrays.asList(header,
+                                                 "space-id\tb\tmd5-b",
+                                                 "space-id\tc\tmd5-c")),
+                     readLines(snapshot));
+        assertSame(snapshot, getSnapshot());
+    }
+
+    @Test
+    public void testIdleSpaceDropped() throws Exception {
+        expectGenerate(header, "space-id\ta\tmd5-a");
+        replayAll();
+
+        ManifestSnapshot snapshot = getSnapshot();
+        changeLog.contentChanged(account, storeId, "other", "f", "md5-f");
+        changeLog.contentChanged(account, storeId, spaceId, "b", "md5-b");
+        snapshot = getSnapshot();
+
+        changeLog.dropIdleSpaces(Long.MAX_VALUE);
+        assertNull(changeLog.getChangesSince(account, storeId, spaceId, 0));
+
+        // The snapshot includes every change made before the space was
+        // dropped, so is still current
+        assertSame(snapshot, getSnapshot());
+
+        changeLog.contentChanged(account, storeId, spaceId, "c", "md5-c");
+        assertEquals(new HashSet<>(Arrays.asList(header,
+                                                 "space-id\ta\tmd5-a",
+                                                 "space-id\tb\tmd5-b",
+                                                 "space-id\tc\tmd5-c")),
+                     readLines(getSnapshot()));
+    }
+
+}
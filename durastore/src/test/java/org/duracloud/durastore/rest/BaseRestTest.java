@@ -0,0 +1,46 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.rest;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class BaseRestTest {
+
+    @Test
+    public void testAcceptsGzip() {
+        assertTrue(acceptsGzip("gzip"));
+        assertTrue(acceptsGzip("deflate, GZIP"));
+        assertTrue(acceptsGzip("gzip;q=0.5, deflate;q=1.0"));
+        assertTrue(acceptsGzip("x-gzip"));
+        assertTrue(acceptsGzip("*"));
+        assertTrue(acceptsGzip("deflate;q=0, *;q=0.1"));
+        assertTrue(BaseRest.acceptsGzip(Arrays.asList("identity", "gzip")));
+    }
+
+    @Test
+    public void testNotAcceptsGzip() {
+        assertFalse(BaseRest.acceptsGzip(null));
+        assertFalse(acceptsGzip(""));
+        assertFalse(acceptsGzip("identity"));
+        assertFalse(acceptsGzip("gzip;q=0"));
+        assertFalse(acceptsGzip("gzip; q=0.0, deflate"));
+        assertFalse(acceptsGzip("*, gzip;q=0"));
+        assertFalse(acceptsGzip("*;q=0"));
+        assertFalse(acceptsGzip("gzipped"));
+    }
+
+    private boolean acceptsGzip(String encoding) {
+        return BaseRest.acceptsGzip(Collections.singletonList(encoding));
+    }
+
+}
@@ -7,8 +7,11 @@
  */
 package org.duracloud.durastore.rest;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -16,6 +19,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
+import org.apache.commons.io.IOUtils;
 import org.duracloud.common.rest.HttpHeaders;
 import org.duracloud.common.rest.RestUtil;
 import org.duracloud.storage.provider.StorageProvider;
@@ -255,6 +259,69 @@ public class ContentRestTest {
         assertFalse(contentRest.validMimetype("***"));
     }
 
+    @Test
+    public void testParseRange() {
+        replayMocks();
+        contentRest = new ContentRest(null, null);
+
+        assertRange(contentRest.parseRange("bytes=10-", 100), 10, 99);
+        assertRange(contentRest.parseRange("bytes=10-19", 100), 10, 19);
+        assertRange(contentRest.parseRange("bytes=90-200", 100), 90, 99);
+        assertRange(contentRest.parseRange("bytes=100-", 100), 100, 99);
+
+        assertNull(contentRest.parseRange(null, 100));
+        assertNull(contentRest.parseRange("bytes=10-", -1));
+        assertNull(contentRest.parseRange("bytes=-10", 100));
+        assertNull(contentRest.parseRange("bytes=20-10", 100));
+        assertNull(contentRest.parseRange("bytes=0-5,10-15", 100));
+        assertNull(contentRest.parseRange("items=0-5", 100));
+        assertNull(contentRest.parseRange("bytes=a-", 100));
+    }
+
+    private void assertRange(long[] range, long start, long end) {
+        assertEquals(start, range[0]);
+        assertEquals(end, range[1]);
+    }
+
+    @Test
+    public void testGetContentRange() throws Exception {
+        Map<String, String> props = new HashMap<>();
+        props.put(StorageProvider.PROPERTIES_CONTENT_SIZE, "10");
+        EasyMock.expect(contentResource.getContentProperties(srcSpaceId,
+                                                             srcContentId,
+                                                             storeId))
+                .andReturn(props)
+                .times(2);
+        // Only the requested range is retrieved from the storage provider
+        EasyMock.expect(contentResource.getContent(srcSpaceId,
+                                                   srcContentId,
+                                                   storeId,
+                                                   4,
+                                                   9))
+                .andReturn(new ByteArrayInputStream(
+                    "456789".getBytes(StandardCharsets.UTF_8)));
+
+        replayMocks();
+        contentRest = new ContentRest(contentResource, restUtil);
+
+        Response response = contentRest.getContent(srcSpaceId, srcContentId,
+                                                   storeId, false, "bytes=4-");
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 4-9/10",
+                     getHeader(response, HttpHeaders.CONTENT_RANGE));
+        assertEquals("6", getHeader(response, HttpHeaders.CONTENT_LENGTH));
+        assertEquals("456789",
+                     IOUtils.toString((InputStream) response.getEntity(),
+                                      StandardCharsets.UTF_8));
+
+        props.put(StorageProvider.PROPERTIES_CONTENT_SIZE, "10");
+        response = contentRest.getContent(srcSpaceId, srcContentId, storeId,
+                                          false, "bytes=10-");
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10",
+                     getHeader(response, HttpHeaders.CONTENT_RANGE));
+    }
+
     @Test
     public void testCopyContent() throws Exception {
         doTestCopyContent(true, 201);
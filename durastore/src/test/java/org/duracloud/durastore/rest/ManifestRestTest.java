@@ -14,17 +14,21 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 
 import org.apache.http.HttpStatus;
 import org.duracloud.common.constant.Constants;
 import org.duracloud.common.constant.ManifestFormat;
 import org.duracloud.common.util.IOUtil;
+import org.duracloud.durastore.manifest.ManifestSnapshot;
+import org.duracloud.durastore.manifest.ManifestSnapshots;
 import org.duracloud.manifest.error.ManifestArgumentException;
 import org.duracloud.manifest.error.ManifestNotFoundException;
 import org.duracloud.storage.domain.StorageAccount;
@@ -136,6 +140,31 @@ public class ManifestRestTest extends EasyMockSupport {
                    latch.await(10000, TimeUnit.MILLISECONDS));
     }
 
+    @Test
+    public void getManifestSnapshotNotModified() throws Exception {
+        String format = ManifestFormat.TSV.name();
+        ManifestSnapshots snapshots =
+            createMock("ManifestSnapshots", ManifestSnapshots.class);
+        HttpHeaders headers = createMock("HttpHeaders", HttpHeaders.class);
+        rest.setManifestSnapshots(snapshots);
+        rest.headers = headers;
+
+        ManifestSnapshot snapshot =
+            new ManifestSnapshot("content-id", "log", 5, 1000);
+        setupAccountId();
+        expect(snapshots.isEnabled()).andReturn(true);
+        expect(resource.validateFormat(format)).andReturn(ManifestFormat.TSV);
+        expect(snapshots.getSnapshot(account, storeId, spaceId,
+                                     ManifestFormat.TSV)).andReturn(snapshot);
+        expect(headers.getRequestHeader(HttpHeaders.IF_NONE_MATCH))
+            .andReturn(Collections.singletonList(
+                "\"other\", \"" + snapshot.getETag() + "\""));
+
+        replayAll();
+        Response response = rest.getManifest(spaceId, format, storeId);
+        assertEquals(HttpStatus.SC_NOT_MODIFIED, response.getStatus());
+    }
+
     protected IExpectationSetters<InputStream> expectGetManifest(String format)
         throws ManifestArgumentException,
             ManifestNotFoundException {
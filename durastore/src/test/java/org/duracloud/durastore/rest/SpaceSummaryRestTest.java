@@ -0,0 +1,148 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.rest;
+
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.core.Response;
+
+import org.duracloud.common.constant.Constants;
+import org.duracloud.durastore.error.ResourceException;
+import org.duracloud.reportdata.storage.SpaceStatsDTO;
+import org.duracloud.spacesummary.dto.SpaceSummary;
+import org.duracloud.spacesummary.dto.SpaceSummaryList;
+import org.duracloud.storage.domain.StorageAccount;
+import org.duracloud.storage.util.StorageProviderFactory;
+import org.easymock.EasyMockSupport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SpaceSummaryRestTest extends EasyMockSupport {
+
+    private SpaceSummaryRest rest;
+
+    private SpaceResource spaceResource;
+    private StorageStatsResource statsResource;
+    private StorageProviderFactory storageProviderFactory;
+    private HttpServletRequest request;
+
+    private String storeId = "store-id";
+    private String account = "account";
+    private String spaceId0 = "space-0";
+    private String spaceId1 = "space-1";
+
+    @Before
+    public void setUp() throws Exception {
+        spaceResource = createMock("SpaceResource", SpaceResource.class);
+        statsResource =
+            createMock("StorageStatsResource", StorageStatsResource.class);
+        storageProviderFactory =
+            createMock("StorageProviderFactory", StorageProviderFactory.class);
+        request = createMock("HttpServletRequest", HttpServletRequest.class);
+
+        rest = new SpaceSummaryRest(spaceResource,
+                                    statsResource,
+                                    storageProviderFactory);
+        rest.request = request;
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        verifyAll();
+    }
+
+    @Test
+    public void testGetSpaceSummaries() throws Exception {
+        expectGetSummaries(storeId);
+        expect(request.getAttribute(Constants.ACCOUNT_ID_ATTRIBUTE))
+            .andReturn(account);
+
+        Date timestamp = new Date();
+        List<SpaceStatsDTO> stats = new ArrayList<>();
+        stats.add(new SpaceStatsDTO(timestamp, account, storeId, spaceId0,
+                                    2048L, 20L));
+        expect(statsResource.getLatestSpaceStats(account, storeId))
+            .andReturn(stats);
+        replayAll();
+
+        List<SpaceSummary> summaries = getSummaries(storeId);
+        assertEquals(2, summaries.size());
+
+        SpaceSummary summary0 = summaries.get(0);
+        assertEquals(spaceId0, summary0.getSpaceId());
+        assertEquals("WRITE", summary0.getAcls().get("user-0"));
+        assertEquals(20, summary0.getItemCount());
+        assertEquals(2048, summary0.getByteCount());
+        assertEquals(timestamp.getTime(), summary0.getStatsTimestamp());
+
+        // No statistics collected for this space
+        SpaceSummary summary1 = summaries.get(1);
+        assertEquals(spaceId1, summary1.getSpaceId());
+        assertEquals(-1, summary1.getItemCount());
+        assertEquals(-1, summary1.getByteCount());
+    }
+
+    @Test
+    public void testGetSpaceSummariesPrimaryStoreStatsError()
+        throws Exception {
+        expectGetSummaries(null);
+        expect(request.getAttribute(Constants.ACCOUNT_ID_ATTRIBUTE))
+            .andReturn(account);
+
+        StorageAccount storageAccount =
+            createMock("StorageAccount", StorageAccount.class);
+        expect(storageAccount.isPrimary()).andReturn(true);
+        expect(storageAccount.getId()).andReturn(storeId);
+        expect(storageProviderFactory.getStorageAccounts())
+            .andReturn(Arrays.asList(storageAccount));
+
+        expect(statsResource.getLatestSpaceStats(account, storeId))
+            .andThrow(new RuntimeException("stats unavailable"));
+        replayAll();
+
+        // Summaries are returned without statistics
+        List<SpaceSummary> summaries = getSummaries(null);
+        assertEquals(2, summaries.size());
+        assertEquals(-1, summaries.get(0).getItemCount());
+    }
+
+    @Test
+    public void testGetSpaceSummariesError() throws Exception {
+        expect(spaceResource.getSpaceSummaries(storeId))
+            .andThrow(new ResourceException("test", new RuntimeException()));
+        replayAll();
+
+        Response response = rest.getSpaceSummaries(storeId);
+        assertEquals(500, response.getStatus());
+    }
+
+    private void expectGetSummaries(String storeId) throws Exception {
+        List<SpaceSummary> summaries = new ArrayList<>();
+        SpaceSummary summary0 = new SpaceSummary(spaceId0);
+        summary0.getAcls().put("user-0", "WRITE");
+        summaries.add(summary0);
+        summaries.add(new SpaceSummary(spaceId1));
+        expect(spaceResource.getSpaceSummaries(storeId)).andReturn(summaries);
+    }
+
+    private List<SpaceSummary> getSummaries(String storeId) {
+        Response response = rest.getSpaceSummaries(storeId);
+        assertEquals(200, response.getStatus());
+        return SpaceSummaryList.deserialize((String) response.getEntity())
+                               .getSpaces();
+    }
+
+}
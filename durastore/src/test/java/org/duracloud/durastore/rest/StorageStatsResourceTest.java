@@ -0,0 +1,195 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.rest;
+
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.duracloud.durastore.rest.StorageStatsResource.GroupBy;
+import org.duracloud.durastore.util.StorageStatsCache;
+import org.duracloud.mill.db.repo.JpaSpaceStatsRepo;
+import org.duracloud.reportdata.storage.SpaceStatsDTO;
+import org.duracloud.reportdata.storage.StoreStatsDTO;
+import org.easymock.EasyMockRunner;
+import org.easymock.EasyMockSupport;
+import org.easymock.Mock;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+@RunWith(EasyMockRunner.class)
+public class StorageStatsResourceTest extends EasyMockSupport {
+
+    private static final long DAY_SECONDS = 24 * 60 * 60;
+
+    private String account = "account";
+    private String storeId = "store-id";
+    private String spaceId = "space-id";
+
+    @Mock
+    private JpaSpaceStatsRepo repo;
+
+    @After
+    public void tearDown() {
+        verifyAll();
+    }
+
+    @Test
+    public void testGetSpaceStatsCached() {
+        List<Object[]> rows = new ArrayList<>();
+        for (int day = 2; day <= 4; day++) {
+            rows.add(spaceRow(day));
+        }
+        // Each range is read once, however many times it is requested
+        expect(repo.getByAccountIdAndStoreIdAndSpaceId(account,
+                                                       storeId,
+                                                       spaceId,
+                                                       getDate(2),
+                                                       getDate(4),
+                                                       JpaSpaceStatsRepo.INTERVAL_DAY))
+            .andReturn(rows).once();
+        replayAll();
+
+        StorageStatsResource resource = createResource(true);
+        for (int i = 0; i < 2; i++) {
+            List<SpaceStatsDTO> stats =
+                resource.getSpaceStats(account, storeId, spaceId,
+                                       getDate(2), getDate(4), GroupBy.day);
+            assertEquals(3, stats.size());
+            assertEquals(getDate(2), stats.get(0).getTimestamp());
+            assertEquals(200, stats.get(0).getByteCount());
+            assertEquals(2, stats.get(0).getObjectCount());
+            assertEquals(spaceId, stats.get(0).getSpaceId());
+        }
+    }
+
+    /*
+     * Verifies that ranges ending at the present share a cache entry, even
+     * though the end time of each request differs
+     */
+    @Test
+    public void testGetSpaceStatsOpenEndCached() throws Exception {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(spaceRow(5));
+        expect(repo.getByAccountIdAndStoreIdAndSpaceId(eq(account),
+                                                       eq(storeId),
+                                                       eq(spaceId),
+                                                       eq(getDate(5)),
+                                                       isA(Date.class),
+                                                       eq(JpaSpaceStatsRepo.INTERVAL_DAY)))
+            .andReturn(rows).once();
+        replayAll();
+
+        StorageStatsResource resource = createResource(true);
+        for (int i = 0; i < 2; i++) {
+            List<SpaceStatsDTO> stats =
+                resource.getSpaceStats(account, storeId, spaceId,
+                                       getDate(5), new Date(), GroupBy.day);
+            assertEquals(1, stats.size());
+            Thread.sleep(5);
+        }
+    }
+
+    /*
+     * Verifies that the weekly totals at the edges of a range are read for
+     * that range, rather than being taken from a wider range, so that they
+     * cover only the days within the range
+     */
+    @Test
+    public void testGetSpaceStatsRangeEdges() {
+        List<Object[]> fullWeekRows = new ArrayList<>();
+        fullWeekRows.add(new Object[] {BigInteger.valueOf(0),
+                                       account, storeId, spaceId,
+                                       BigDecimal.valueOf(700),
+                                       BigDecimal.valueOf(7)});
+        expect(repo.getByAccountIdAndStoreIdAndSpaceId(account,
+                                                       storeId,
+                                                       spaceId,
+                                                       getDate(0),
+                                                       getDate(6),
+                                                       JpaSpaceStatsRepo.INTERVAL_WEEK))
+            .andReturn(fullWeekRows).once();
+
+        List<Object[]> partWeekRows = new ArrayList<>();
+        partWeekRows.add(new Object[] {BigInteger.valueOf(3 * DAY_SECONDS),
+                                       account, storeId, spaceId,
+                                       BigDecimal.valueOf(200),
+                                       BigDecimal.valueOf(2)});
+        expect(repo.getByAccountIdAndStoreIdAndSpaceId(account,
+                                                       storeId,
+                                                       spaceId,
+                                                       getDate(3),
+                                                       getDate(4),
+                                                       JpaSpaceStatsRepo.INTERVAL_WEEK))
+            .andReturn(partWeekRows).once();
+        replayAll();
+
+        StorageStatsResource resource = createResource(true);
+        List<SpaceStatsDTO> stats =
+            resource.getSpaceStats(account, storeId, spaceId,
+                                   getDate(0), getDate(6), GroupBy.week);
+        assertEquals(1, stats.size());
+        assertEquals(700, stats.get(0).getByteCount());
+
+        stats = resource.getSpaceStats(account, storeId, spaceId,
+                                       getDate(3), getDate(4), GroupBy.week);
+        assertEquals(1, stats.size());
+        assertEquals(200, stats.get(0).getByteCount());
+        assertEquals(2, stats.get(0).getObjectCount());
+    }
+
+    @Test
+    public void testGetStorageProviderStatsNotCached() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {BigInteger.valueOf(DAY_SECONDS),
+                               account, storeId,
+                               BigDecimal.valueOf(1000),
+                               BigDecimal.valueOf(10)});
+        expect(repo.getByAccountIdAndStoreId(eq(account),
+                                             eq(storeId),
+                                             eq(getDate(0)),
+                                             isA(Date.class),
+                                             eq(JpaSpaceStatsRepo.INTERVAL_MONTH)))
+            .andReturn(rows).times(2);
+        replayAll();
+
+        StorageStatsResource resource = createResource(false);
+        for (int i = 0; i < 2; i++) {
+            List<StoreStatsDTO> stats =
+                resource.getStorageProviderStats(account, storeId, getDate(0),
+                                                 new Date(), GroupBy.month);
+            assertEquals(1, stats.size());
+            assertEquals(1000, stats.get(0).getByteCount());
+        }
+    }
+
+    private StorageStatsResource createResource(boolean cacheEnabled) {
+        return new StorageStatsResource(repo,
+                                        new StorageStatsCache(cacheEnabled,
+                                                              100,
+                                                              60000));
+    }
+
+    private Object[] spaceRow(int day) {
+        return new Object[] {BigInteger.valueOf(day * DAY_SECONDS),
+                             account, storeId, spaceId,
+                             BigDecimal.valueOf(day * 100),
+                             BigDecimal.valueOf(day)};
+    }
+
+    private Date getDate(int day) {
+        return new Date(day * DAY_SECONDS * 1000);
+    }
+
+}
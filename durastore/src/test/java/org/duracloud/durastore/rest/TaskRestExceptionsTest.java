@@ -9,8 +9,11 @@ package org.duracloud.durastore.rest;
 
 import javax.ws.rs.core.Response;
 
+import org.duracloud.common.rest.DuraCloudRequestContextUtil;
 import org.duracloud.common.rest.RestUtil;
+import org.duracloud.durastore.taskjob.TaskJobManager;
 import org.duracloud.storage.provider.TaskProviderFactory;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -25,6 +28,7 @@ public class TaskRestExceptionsTest {
     private TaskRest taskRest;
     private TaskProviderFactory taskProviderFactory;
     private RestUtil restUtil;
+    private TaskJobManager taskJobManager;
 
     private RestExceptionsTestSupport support = new RestExceptionsTestSupport();
 
@@ -32,7 +36,16 @@ public class TaskRestExceptionsTest {
     public void setUp() throws Exception {
         taskProviderFactory = support.createTaskProviderFactory();
         restUtil = support.createRestUtil();
-        taskRest = new TaskRest(taskProviderFactory, restUtil);
+        taskJobManager = new TaskJobManager();
+        taskRest = new TaskRest(taskProviderFactory,
+                                restUtil,
+                                taskJobManager,
+                                new DuraCloudRequestContextUtil());
+    }
+
+    @After
+    public void tearDown() {
+        taskJobManager.shutdown();
     }
 
     @Test
@@ -43,7 +56,7 @@ public class TaskRestExceptionsTest {
 
     @Test
     public void testPerformTask() throws Exception {
-        Response response = taskRest.performTask(null, null);
+        Response response = taskRest.performTask(null, null, false);
         support.verifyErrorResponse(response);
     }
 
@@ -0,0 +1,86 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.taskjob;
+
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+
+import org.duracloud.storage.provider.TaskProvider;
+import org.duracloud.taskjob.dto.TaskJobStatus;
+import org.duracloud.taskjob.dto.TaskJobStatus.State;
+import org.easymock.EasyMockSupport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TaskJobManagerTest extends EasyMockSupport {
+
+    private TaskJobManager manager;
+    private TaskProvider taskProvider;
+
+    private String accountId = "account-id";
+    private String taskName = "task-name";
+    private String taskParams = "task-params";
+
+    @Before
+    public void setup() {
+        manager = new TaskJobManager(1, 10, 60000);
+        taskProvider = createMock("TaskProvider", TaskProvider.class);
+        expect(taskProvider.getStoreId()).andReturn("store-id");
+    }
+
+    @After
+    public void tearDown() {
+        manager.shutdown();
+        verifyAll();
+    }
+
+    @Test
+    public void testSubmit() throws Exception {
+        expect(taskProvider.performTask(taskName, taskParams))
+            .andReturn("result");
+        replayAll();
+
+        TaskJob job = manager.submit(accountId, taskProvider, taskName,
+                                     taskParams);
+        waitForJob(job);
+
+        TaskJobStatus status = job.getStatus();
+        assertEquals(State.COMPLETE.name(), status.getState());
+        assertEquals("result", status.getResult());
+        assertEquals("store-id", status.getStoreId());
+        assertEquals(taskName, status.getTaskName());
+
+        assertSame(job, manager.getJob(accountId, job.getJobId()));
+        assertNull(manager.getJob("other-account", job.getJobId()));
+        assertNull(manager.getJob(accountId, "unknown-job"));
+    }
+
+    @Test
+    public void testSubmitFailure() throws Exception {
+        expect(taskProvider.performTask(taskName, taskParams))
+            .andThrow(new RuntimeException("task error"));
+        replayAll();
+
+        TaskJob job = manager.submit(accountId, taskProvider, taskName,
+                                     taskParams);
+        waitForJob(job);
+
+        TaskJobStatus status = job.getStatus();
+        assertEquals(State.FAILED.name(), status.getState());
+        assertEquals("task error", status.getError());
+        assertNull(status.getResult());
+    }
+
+    private void waitForJob(TaskJob job) throws InterruptedException {
+        for (int i = 0; i < 100 && !job.getState().isFinished(); i++) {
+            Thread.sleep(50);
+        }
+    }
+
+}
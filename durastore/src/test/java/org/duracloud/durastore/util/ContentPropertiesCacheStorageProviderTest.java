@@ -0,0 +1,177 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.provider.StorageProvider;
+import org.easymock.EasyMockSupport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ContentPropertiesCacheStorageProviderTest extends EasyMockSupport {
+
+    private StorageProvider target;
+    private TestCacheProvider provider;
+
+    private String spaceId = "space-id";
+    private String contentId = "content-id";
+    private long now = 1000;
+
+    @Before
+    public void setup() {
+        target = createMock("StorageProvider", StorageProvider.class);
+        provider = new TestCacheProvider(target, 2, 100);
+    }
+
+    @After
+    public void tearDown() {
+        verifyAll();
+    }
+
+    private Map<String, String> createProperties(String value) {
+        Map<String, String> props = new HashMap<>();
+        props.put("name", value);
+        return props;
+    }
+
+    @Test
+    public void testCacheHit() {
+        expect(target.getContentProperties(spaceId, contentId))
+            .andReturn(createProperties("one"));
+        replayAll();
+
+        Map<String, String> props =
+            provider.getContentProperties(spaceId, contentId);
+        assertEquals("one", props.get("name"));
+
+        // Callers may modify the returned map without affecting the cache
+        props.put("name", "changed");
+        props = provider.getContentProperties(spaceId, contentId);
+        assertEquals("one", props.get("name"));
+
+        assertEquals(1, provider.getHits());
+        assertEquals(1, provider.getMisses());
+        assertEquals(0.5, provider.getHitRate(), 0.001);
+    }
+
+    @Test
+    public void testExpiration() {
+        expect(target.getContentProperties(spaceId, contentId))
+            .andReturn(createProperties("one"));
+        expect(target.getContentProperties(spaceId, contentId))
+            .andReturn(createProperties("two"));
+        replayAll();
+
+        assertEquals("one", provider.getContentProperties(spaceId, contentId)
+                                    .get("name"));
+        now += 100;
+        assertEquals("two", provider.getContentProperties(spaceId, contentId)
+                                    .get("name"));
+        assertEquals(0, provider.getHits());
+    }
+
+    @Test
+    public void testInvalidation() {
+        Map<String, String> newProps = createProperties("two");
+        expect(target.getContentProperties(spaceId, contentId))
+            .andReturn(createProperties("one"));
+        target.setContentProperties(spaceId, contentId, newProps);
+        expectLastCall();
+        expect(target.getContentProperties(spaceId, contentId))
+            .andReturn(newProps);
+        target.deleteContent(spaceId, contentId);
+        expectLastCall();
+        expect(target.getContentProperties(spaceId, contentId))
+            .andThrow(new NotFoundException("not found"));
+        replayAll();
+
+        provider.getContentProperties(spaceId, contentId);
+        provider.setContentProperties(spaceId, contentId, newProps);
+        assertEquals("two", provider.getContentProperties(spaceId, contentId)
+                                    .get("name"));
+        provider.deleteContent(spaceId, contentId);
+        try {
+            provider.getContentProperties(spaceId, contentId);
+            fail("NotFoundException expected");
+        } catch (NotFoundException e) {
+            assertNotNull(e.getMessage());
+        }
+        assertEquals(2, provider.getInvalidations());
+    }
+
+    @Test
+    public void testCopyInvalidatesDestination() {
+        String srcContentId = "src-content-id";
+        expect(target.getContentProperties(spaceId, contentId))
+            .andReturn(createProperties("one")).times(2);
+        expect(target.copyContent(spaceId, srcContentId, spaceId, contentId))
+            .andReturn("checksum");
+        replayAll();
+
+        provider.getContentProperties(spaceId, contentId);
+        provider.copyContent(spaceId, srcContentId, spaceId, contentId);
+        provider.getContentProperties(spaceId, contentId);
+    }
+
+    @Test
+    public void testDeleteSpace() {
+        expect(target.getContentProperties(spaceId, contentId))
+            .andReturn(createProperties("one"));
+        expect(target.getContentProperties("other-space", contentId))
+            .andReturn(createProperties("one"));
+        target.deleteSpace(spaceId);
+        expectLastCall();
+        replayAll();
+
+        provider.getContentProperties(spaceId, contentId);
+        provider.getContentProperties("other-space", contentId);
+        provider.deleteSpace(spaceId);
+        assertEquals(1, provider.getSize());
+        provider.getContentProperties("other-space", contentId);
+        assertEquals(1, provider.getHits());
+    }
+
+    @Test
+    public void testEviction() {
+        expect(target.getContentProperties(eq(spaceId), anyObject(String.class)))
+            .andReturn(createProperties("one")).times(4);
+        replayAll();
+
+        provider.getContentProperties(spaceId, "a");
+        provider.getContentProperties(spaceId, "b");
+        provider.getContentProperties(spaceId, "a");
+        provider.getContentProperties(spaceId, "c"); // evicts b
+        provider.getContentProperties(spaceId, "a");
+        provider.getContentProperties(spaceId, "b");
+
+        assertEquals(2, provider.getSize());
+        assertEquals(2, provider.getEvictions());
+        assertEquals(2, provider.getHits());
+    }
+
+    private class TestCacheProvider extends ContentPropertiesCacheStorageProvider {
+        public TestCacheProvider(StorageProvider target,
+                                 int maxEntries,
+                                 long timeToLiveMillis) {
+            super(target, maxEntries, timeToLiveMillis);
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+            return now;
+        }
+    }
+
+}
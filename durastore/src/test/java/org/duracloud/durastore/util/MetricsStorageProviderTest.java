@@ -0,0 +1,152 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.durastore.util;
+
+import static org.easymock.EasyMock.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.duracloud.durastore.metrics.OperationMetrics;
+import org.duracloud.durastore.metrics.StorageProviderMetrics;
+import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.provider.StorageProvider;
+import org.easymock.EasyMockSupport;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetricsStorageProviderTest extends EasyMockSupport {
+
+    private StorageProvider target;
+    private StorageProviderMetrics metrics;
+    private MetricsStorageProvider provider;
+
+    private String spaceId = "space-id";
+    private String contentId = "content-id";
+
+    @Before
+    public void setup() {
+        target = createMock("StorageProvider", StorageProvider.class);
+        metrics = StorageProviderMetrics.getInstance();
+        metrics.clear();
+        provider = new MetricsStorageProvider(target, metrics, "account",
+                                              "1", "amazon_s3");
+    }
+
+    @After
+    public void tearDown() {
+        verifyAll();
+    }
+
+    private OperationMetrics getOperation(String operation) {
+        return metrics.getOperationMetrics("account", "1", "amazon_s3",
+                                           operation);
+    }
+
+    @Test
+    public void testCallsAndErrors() {
+        Map<String, String> props = new HashMap<>();
+        expect(target.getContentProperties(spaceId, contentId))
+            .andReturn(props).times(2);
+        expect(target.getContentProperties(spaceId, "missing"))
+            .andThrow(new NotFoundException("missing"));
+        replayAll();
+
+        assertSame(props, provider.getContentProperties(spaceId, contentId));
+        assertSame(props, provider.getContentProperties(spaceId, contentId));
+        try {
+            provider.getContentProperties(spaceId, "missing");
+            fail("Exception expected");
+        } catch (NotFoundException e) {
+            // Expected
+        }
+
+        OperationMetrics operation = getOperation("getContentProperties");
+        assertEquals(3, operation.getCalls());
+        assertEquals(1, operation.getErrors());
+        assertEquals(0, getOperation("getContent").getCalls());
+
+        long[] counts = operation.getLatencyCounts();
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        assertEquals(3, total);
+        assertTrue(operation.getLatencyPercentile(0.99) > 0);
+    }
+
+    @Test
+    public void testBytes() throws Exception {
+        expect(target.getContent(spaceId, contentId))
+            .andReturn(new ByteArrayInputStream(new byte[1000]));
+        expect(target.addContent(eq(spaceId), eq(contentId), eq("text/plain"),
+                                 isNull(), eq(500L), eq("checksum"),
+                                 isA(InputStream.class)))
+            .andAnswer(() -> {
+                IOUtils.toByteArray((InputStream) getCurrentArguments()[6]);
+                return "checksum";
+            });
+        replayAll();
+
+        InputStream content = provider.getContent(spaceId, contentId);
+        assertEquals(1000, IOUtils.toByteArray(content).length);
+        provider.addContent(spaceId, contentId, "text/plain", null, 500,
+                            "checksum", new ByteArrayInputStream(new byte[500]));
+
+        assertEquals(1000, getOperation("getContent").getBytesOut());
+        assertEquals(500, getOperation("addContent").getBytesIn());
+    }
+
+    @Test
+    public void testPercentiles() {
+        OperationMetrics operation = new OperationMetrics();
+        assertEquals(0, operation.getLatencyPercentile(0.5), 0);
+
+        // 90 fast calls and 10 slow calls
+        for (int i = 0; i < 90; i++) {
+            operation.record(1000000, false);
+        }
+        for (int i = 0; i < 10; i++) {
+            operation.record(2000000000L, false);
+        }
+        replayAll();
+
+        assertEquals(0.005, operation.getLatencyPercentile(0.5), 0);
+        assertEquals(0.005, operation.getLatencyPercentile(0.9), 0);
+        assertEquals(2.5, operation.getLatencyPercentile(0.99), 0);
+        assertEquals(20.09, operation.getLatencySeconds(), 0.001);
+    }
+
+    @Test
+    public void testText() {
+        target.deleteContent(spaceId, contentId);
+        expectLastCall();
+        replayAll();
+
+        provider.deleteContent(spaceId, contentId);
+
+        String text = metrics.getText();
+        String tags = "account=\"account\",store_id=\"1\"," +
+                      "provider_type=\"amazon_s3\",operation=\"deleteContent\"";
+        assertTrue(text.contains("# TYPE duracloud_storage_operations_total counter\n"));
+        assertTrue(text.contains("duracloud_storage_operations_total{" + tags + "} 1\n"));
+        assertTrue(text.contains("duracloud_storage_operation_errors_total{" + tags + "} 0\n"));
+        assertTrue(text.contains("duracloud_storage_operation_duration_seconds_bucket{" +
+                                 tags + ",le=\"+Inf\"} 1\n"));
+        assertTrue(text.contains("duracloud_storage_operation_duration_seconds_count{" +
+                                 tags + "} 1\n"));
+        assertTrue(text.contains("duracloud_storage_operation_duration_percentile_seconds{" +
+                                 tags + ",quantile=\"0.5\"}"));
+    }
+
+}
@@ -23,6 +23,7 @@ import org.duracloud.storage.domain.StorageAccountManager;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.domain.impl.StorageAccountImpl;
 import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.error.StorageException;
 import org.duracloud.storage.provider.BrokeredStorageProvider;
 import org.duracloud.storage.provider.StatelessStorageProvider;
 import org.duracloud.storage.provider.StorageProvider;
@@ -162,6 +163,32 @@ public class StorageProviderFactoryTest {
         replayMocks();
     }
 
+    @Test
+    public void testGetSimulatedStorageProvider() {
+        EasyMock.expect(mockSAM.getStorageAccount(acctId1))
+            .andReturn(acct1)
+            .times(2);
+        EasyMock.expect(mockSAM.getAccountName()).andReturn(acct1Name);
+        replayMocks();
+
+        // Simulated storage options are only read for simulated accounts
+        acct1.setOption(StorageAccount.OPTS.SIMULATED.name(), "true");
+        acct1.setOption(StorageAccount.OPTS.SIM_ERROR_RATE.name(), "invalid");
+        try {
+            factory.getStorageProvider(acctId1);
+            fail("Exception expected with invalid simulated storage options");
+        } catch(StorageException e) {
+            assertNotNull(e);
+        }
+
+        acct1.setOption(StorageAccount.OPTS.SIM_ERROR_RATE.name(), "0.01");
+        StorageProvider provider = factory.getStorageProvider(acctId1);
+        assertNotNull(provider);
+        StorageProviderType type =
+            ((BrokeredStorageProvider)provider).getTargetType();
+        assertEquals(StorageProviderType.AMAZON_S3, type);
+    }
+
     @Test
     public void testGetStorageProviderInvalidId() {
         setUpMocksGetStorageProviderInvalidId();
@@ -25,6 +25,7 @@ import org.duracloud.common.model.AclType;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.StorageException;
 import org.duracloud.storage.provider.StorageProvider;
+import org.duracloud.storage.util.StorageProviderUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -383,6 +384,19 @@ public class IrodsStorageProvider implements StorageProvider {
         }
     }
 
+    /**
+     * iRODS content is read from the start, the bytes before the range are
+     * read and discarded.
+     */
+    @Override
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  long endByte) {
+        return StorageProviderUtil.getContentRange(
+            getContent(spaceId, contentId), startByte, endByte);
+    }
+
     @Override
     public void deleteContent(String spaceId, String contentId) {
         String path = baseDirectory + "/" + spaceId + "/" + contentId;
@@ -22,7 +22,7 @@ import org.slf4j.LoggerFactory;
  *         Date: 3/29/12
  */
 public class BagitManifestFormatter extends ManifestFormatterBase {
-    private static Pattern LINE_PATTERN = Pattern.compile("(\\w+)\\s+(.*)/(.*)");
+    private static Pattern LINE_PATTERN = Pattern.compile("(\\w+)\\s+([^/]+)/(.*)");
     
     private final Logger log =
         LoggerFactory.getLogger(BagitManifestFormatter.class);
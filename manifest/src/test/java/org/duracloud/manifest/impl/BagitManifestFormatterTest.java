@@ -70,6 +70,15 @@ public class BagitManifestFormatterTest {
         Assert.assertEquals(spaceId, item.getSpaceId());
     }
     
+    @Test
+    public void testParseLineContentIdWithSlashes() throws Exception {
+        String contentId = "dir/subdir/contentid";
+        String line = formatter.formatLine("checksum", "spaceid", contentId);
+        ManifestItem item = formatter.parseLine(line);
+        Assert.assertEquals("spaceid", item.getSpaceId());
+        Assert.assertEquals(contentId, item.getContentId());
+    }
+
     @Test
     public void testParseLineFailure() {
         String line = "invalid line";
@@ -28,6 +28,7 @@ import org.jclouds.ContextBuilder;
 import org.jclouds.blobstore.ContainerNotFoundException;
 import org.jclouds.blobstore.domain.PageSet;
 import org.jclouds.enterprise.config.EnterpriseConfigurationModule;
+import org.jclouds.http.options.GetOptions;
 import org.jclouds.openstack.swift.CopyObjectException;
 import org.jclouds.openstack.swift.SwiftApiMetadata;
 import org.jclouds.openstack.swift.SwiftClient;
@@ -482,6 +483,29 @@ public abstract class OpenStackStorageProvider extends StorageProviderBase {
 
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  long endByte) {
+        log.debug("getContent(" + spaceId + ", " + contentId + ", " +
+                  startByte + ", " + endByte + ")");
+
+        throwIfSpaceNotExist(spaceId);
+        String containerName = getContainerName(spaceId);
+        String encContentId = sanitizeForURI(contentId);
+        SwiftObject swiftObject =
+            swiftClient.getObject(containerName, encContentId,
+                                  GetOptions.Builder.range(startByte, endByte));
+        if(swiftObject == null) {
+            String errMsg = createNotFoundMsg(spaceId, contentId);
+            throw new NotFoundException(errMsg);
+        }
+        return swiftObject.getPayload().getInput();
+    }
+
     private String createNotFoundMsg(String spaceId,
                                      String contentId) {
         StringBuilder msg = new StringBuilder(getProviderName());
@@ -9,6 +9,8 @@ package org.duracloud.retrieval;
 
 import org.duracloud.client.ContentStore;
 import org.duracloud.common.error.DuraCloudRuntimeException;
+import org.duracloud.common.stream.BandwidthLimiter;
+import org.duracloud.common.stream.BandwidthSchedule;
 import org.duracloud.common.util.ApplicationConfig;
 import org.duracloud.error.ContentStoreException;
 import org.duracloud.retrieval.config.RetrievalToolConfig;
@@ -82,7 +84,16 @@ public class RetrievalTool {
         this.retConfig.setVersion(version);
     }
 
+    private void applyBandwidthLimit() {
+        BandwidthLimiter limiter = BandwidthLimiter.getInstance();
+        limiter.setBytesPerSecond(retConfig.getBandwidthLimit());
+        String schedule = retConfig.getBandwidthSchedule();
+        limiter.setSchedule(null == schedule ? null :
+                            BandwidthSchedule.parse(schedule));
+    }
+
     private void startRetrievalManager(ContentStore contentStore) {
+        applyBandwidthLimit();
         retSource = getRetrievalSource(contentStore);
         outWriter = new CSVFileOutputWriter(retConfig.getWorkDir());
         boolean createSpaceDir = isCreateSpaceDir();
@@ -95,6 +106,7 @@ public class RetrievalTool {
                                           outWriter,
                                           createSpaceDir,
                                           applyTimestamps);
+        retManager.setLargestFirst(retConfig.isLargestFirst());
 
         executor.execute(retManager);
     }
@@ -113,7 +125,9 @@ public class RetrievalTool {
                     retSource = new DuraStoreSpecifiedRetrievalSource(
                         contentStore,
                         retConfig.getSpaces(),  // this list should only contain 1 space ID, length 1
-                        specifiedIds.iterator());
+                        specifiedIds.iterator(),
+                        retConfig.getChunkThreads(),
+                        retConfig.getWorkDir());
                 } catch(FileNotFoundException fnfe) {
                     String error = "Error: file of content IDs specified using '-f' option does not exist.\n" +
                                    "Error Message: " + fnfe.getMessage();
@@ -126,7 +140,9 @@ public class RetrievalTool {
             } else {
                 retSource = new DuraStoreStitchingRetrievalSource(contentStore,
                                 retConfig.getSpaces(),
-                                retConfig.isAllSpaces());
+                                retConfig.isAllSpaces(),
+                                retConfig.getChunkThreads(),
+                                retConfig.getWorkDir());
             }
         }
         return retSource;
@@ -35,6 +35,10 @@ public class RetrievalToolConfig implements Serializable {
     private boolean applyTimestamps;
     private boolean listOnly;
     private File listFile;
+    private long bandwidthLimit;
+    private String bandwidthSchedule;
+    private int chunkThreads;
+    private boolean largestFirst;
 
     public String getPrintableConfig() {
         StringBuilder config = new StringBuilder();
@@ -81,6 +85,21 @@ public class RetrievalToolConfig implements Serializable {
             config.append(listFile.getAbsolutePath()).append("\n");
         }
 
+        config.append("Retrieval Tool Bandwidth Limit: ");
+        if(bandwidthLimit > 0) {
+            config.append(bandwidthLimit).append(" bytes per second\n");
+        } else {
+            config.append("unlimited\n");
+        }
+        if(bandwidthSchedule != null) {
+            config.append("Retrieval Tool Bandwidth Schedule: ");
+            config.append(bandwidthSchedule).append("\n");
+        }
+        config.append("Retrieval Tool Chunk Threads: ");
+        config.append(chunkThreads).append("\n");
+        config.append("Retrieval Tool Largest Files First: ");
+        config.append(isLargestFirst()).append("\n");
+
         config.append("--------------------------------------\n");
 
         return config.toString();
@@ -210,4 +229,36 @@ public class RetrievalToolConfig implements Serializable {
         this.listFile = listFile;
     }
 
+    public long getBandwidthLimit() {
+        return bandwidthLimit;
+    }
+
+    public void setBandwidthLimit(long bandwidthLimit) {
+        this.bandwidthLimit = bandwidthLimit;
+    }
+
+    public String getBandwidthSchedule() {
+        return bandwidthSchedule;
+    }
+
+    public void setBandwidthSchedule(String bandwidthSchedule) {
+        this.bandwidthSchedule = bandwidthSchedule;
+    }
+
+    public int getChunkThreads() {
+        return chunkThreads;
+    }
+
+    public void setChunkThreads(int chunkThreads) {
+        this.chunkThreads = chunkThreads;
+    }
+
+    public boolean isLargestFirst() {
+        return largestFirst;
+    }
+
+    public void setLargestFirst(boolean largestFirst) {
+        this.largestFirst = largestFirst;
+    }
+
 }
@@ -14,6 +14,7 @@ import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 import org.apache.commons.cli.PosixParser;
+import org.duracloud.common.stream.BandwidthSchedule;
 import org.duracloud.common.util.CommandLineToolUtil;
 import org.duracloud.common.util.ConsolePrompt;
 
@@ -31,6 +32,7 @@ public class RetrievalToolConfigParser {
 
     protected static final int DEFAULT_PORT = 443;
     protected static final int DEFAULT_NUM_THREADS = 3;
+    protected static final int DEFAULT_CHUNK_THREADS = 1;
     protected static final String DEFAULT_CONTEXT = "durastore";
     
     private Options cmdOptions;
@@ -158,6 +160,43 @@ public class RetrievalToolConfigParser {
                        "operate on one space at a time.");
         listFile.setRequired(false);
         cmdOptions.addOption(listFile);
+
+        Option bandwidthLimit =
+            new Option(null, "bandwidth-limit", true,
+                       "the maximum rate at which content is retrieved, in " +
+                       "bytes per second, optionally followed by K, M or G " +
+                       "(optional, default value is 0, no limit)");
+        bandwidthLimit.setRequired(false);
+        cmdOptions.addOption(bandwidthLimit);
+
+        Option bandwidthSchedule =
+            new Option(null, "bandwidth-schedule", true,
+                       "limits which apply at certain times of day, as a " +
+                       "comma separated list in the form HH:mm-HH:mm=RATE, " +
+                       "for example 08:00-18:00=512K; outside of these " +
+                       "times the bandwidth-limit applies (optional)");
+        bandwidthSchedule.setRequired(false);
+        cmdOptions.addOption(bandwidthSchedule);
+
+        Option chunkThreads =
+            new Option(null, "chunk-threads", true,
+                       "the number of chunks of a chunked file which are " +
+                       "retrieved at the same time; with more than one, " +
+                       "chunks are held in the temporary directory until " +
+                       "they are written (optional, default value is " +
+                       DEFAULT_CHUNK_THREADS + ")");
+        chunkThreads.setRequired(false);
+        cmdOptions.addOption(chunkThreads);
+
+        Option largestFirst =
+            new Option(null, "largest-first", false,
+                       "retrieve the largest files first, so that they are " +
+                       "not left to run on their own at the end of the " +
+                       "retrieval; this requires an additional call to " +
+                       "DuraCloud to find the size of each file " +
+                       "(optional, not set by default)");
+        largestFirst.setRequired(false);
+        cmdOptions.addOption(largestFirst);
     }
 
     /**
@@ -324,6 +363,43 @@ public class RetrievalToolConfigParser {
             }
         }
 
+        if(cmd.hasOption("bandwidth-limit")) {
+            try {
+                config.setBandwidthLimit(BandwidthSchedule.parseRate(
+                    cmd.getOptionValue("bandwidth-limit")));
+            } catch(IllegalArgumentException e) {
+                throw new ParseException("The value for bandwidth limit " +
+                                         "(--bandwidth-limit) is not valid: " +
+                                         e.getMessage());
+            }
+        }
+
+        if(cmd.hasOption("bandwidth-schedule")) {
+            String schedule = cmd.getOptionValue("bandwidth-schedule");
+            try {
+                BandwidthSchedule.parse(schedule);
+            } catch(IllegalArgumentException e) {
+                throw new ParseException("The value for bandwidth schedule " +
+                                         "(--bandwidth-schedule) is not " +
+                                         "valid: " + e.getMessage());
+            }
+            config.setBandwidthSchedule(schedule.trim());
+        }
+
+        if(cmd.hasOption("chunk-threads")) {
+            try {
+                config.setChunkThreads(
+                    Integer.valueOf(cmd.getOptionValue("chunk-threads")));
+            } catch(NumberFormatException e) {
+                throw new ParseException("The value for chunk threads " +
+                                         "(--chunk-threads) must be a number.");
+            }
+        } else {
+            config.setChunkThreads(DEFAULT_CHUNK_THREADS);
+        }
+
+        config.setLargestFirst(cmd.hasOption("largest-first"));
+
         return config;
     }
     
@@ -13,32 +13,57 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
-import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * The RetreivalManager manages the retrieval of files from DuraCloud to the
  * local file system.
  *
- * @author: Bill Branan
- * Date: Oct 12, 2010
+ * The content lists provided by the retrieval source (one for each space)
+ * are read at the same time by a set of lister threads, which add each
+ * file to a queue shared by all of the retrieval threads. The queue has a
+ * fixed capacity; when it is full the lister threads wait for space.
+ *
+ * Files are retrieved in the order they are listed unless largest first
+ * ordering is enabled, in which case the listers look up the size of each
+ * file and the queue hands out the largest files first, so that they are
+ * not left to run on their own at the end of the retrieval. Looking up sizes
+ * costs a call to the retrieval source for each file.
  */
 public class RetrievalManager implements Runnable {
 
     private final Logger logger =
         LoggerFactory.getLogger(RetrievalManager.class);
 
+    protected static final int QUEUE_CAPACITY = 1000;
+
     private RetrievalSource source;
     private File contentDir;
     private File workDir;
     private boolean overwrite;
+    private int threads;
     private ThreadPoolExecutor workerPool;
+    private Semaphore queueSlots;
+    private AtomicLong sequence = new AtomicLong();
     private OutputWriter outWriter;
     private boolean createSpaceDir;
     private boolean applyTimestamps;
+    private boolean largestFirst;
+    private volatile boolean stopped;
     private boolean complete;
+    private RetrievalRecord retrievalRecord;
+    private StatusManager statusManager;
 
     public RetrievalManager(RetrievalSource source,
                             File contentDir,
@@ -53,56 +78,105 @@ public class RetrievalManager implements Runnable {
         this.contentDir = contentDir;
         this.workDir = workDir;
         this.overwrite = overwrite;
+        this.threads = threads;
         this.outWriter = outWriter;
         this.createSpaceDir = createSpaceDir;
         this.applyTimestamps = applyTimestamps;
+        this.retrievalRecord = new RetrievalRecord(workDir);
+        this.statusManager = StatusManager.getInstance();
 
-        // Create thread pool for retrieval workers
+        // Create thread pool for retrieval workers, which take the largest
+        // files from the queue first when sizes are known
         workerPool =
             new ThreadPoolExecutor(threads,
                                    threads,
                                    Long.MAX_VALUE,
                                    TimeUnit.NANOSECONDS,
-                                   new SynchronousQueue(),
-                                   new ThreadPoolExecutor.AbortPolicy());
+                                   new PriorityBlockingQueue<Runnable>());
+        queueSlots = new Semaphore(threads + QUEUE_CAPACITY);
+    }
+
+    /**
+     * Sets whether the largest files are retrieved first. This requires the
+     * size of each file to be looked up as it is listed. Must be set before
+     * the retrieval is started.
+     *
+     * @param largestFirst true to retrieve the largest files first
+     */
+    public void setLargestFirst(boolean largestFirst) {
+        this.largestFirst = largestFirst;
     }
 
     /**
      * Begins the content retrieval process
      */
     public void run() {
-        while(!complete) {
-            ContentItem contentItem = source.getNextContentItem();
-            if(contentItem == null) {
-                shutdown();
-                break;
-            }
+        // File sizes, and so the time remaining, are only known when they
+        // are looked up to order the retrieval
+        statusManager.setSizesListed(largestFirst);
+        ContentLists contentLists =
+            new ContentLists(source.getContentItemLists());
+
+        ExecutorService listerPool = Executors.newFixedThreadPool(threads);
+        for(int i = 0; i < threads; i++) {
+            listerPool.execute(() -> listContent(contentLists));
+        }
+        listerPool.shutdown();
 
-            while(!retrieveContent(contentItem)) {
-                sleep(1000);
+        try {
+            listerPool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch(InterruptedException e) {
+            listerPool.shutdownNow();
+        }
+        statusManager.listingComplete();
+        shutdown();
+    }
+
+    /*
+     * Adds content items from the lists to the queue until there are no more
+     * items or the retrieval is stopped
+     */
+    private void listContent(ContentLists contentLists) {
+        ContentItem contentItem;
+        while(!stopped && (contentItem = contentLists.next()) != null) {
+            long size = largestFirst ? getSize(contentItem) : -1;
+            try {
+                queueSlots.acquire();
+            } catch(InterruptedException e) {
+                return;
+            }
+            if(!retrieveContent(contentItem, size)) {
+                return;
             }
         }
     }
 
-    private void sleep(long millis) {
+    private long getSize(ContentItem contentItem) {
         try {
-            Thread.sleep(millis);
-        } catch (InterruptedException e) {
+            return source.getSourceSize(contentItem);
+        } catch(RuntimeException e) {
+            logger.warn("Unable to determine size of " +
+                        contentItem.toString() + ": " + e.getMessage());
+            return -1;
         }
     }
 
-    private boolean retrieveContent(ContentItem contentItem) {
+    private boolean retrieveContent(ContentItem contentItem, long size) {
+        RetrievalWorker worker = new RetrievalWorker(contentItem,
+                                                     source,
+                                                     contentDir,
+                                                     overwrite,
+                                                     outWriter,
+                                                     createSpaceDir,
+                                                     applyTimestamps);
+        worker.setRetrievalRecord(retrievalRecord);
+        statusManager.addBytesListed(Math.max(size, 0));
         try {
-            RetrievalWorker worker = new RetrievalWorker(contentItem, 
-                                                         source,
-                                                         contentDir,
-                                                         overwrite,
-                                                         outWriter,
-                                                         createSpaceDir,
-                                                         applyTimestamps);
-            workerPool.execute(worker);
+            workerPool.execute(new RetrievalTask(worker, size,
+                                                 sequence.getAndIncrement()));
             return true;
         } catch(RejectedExecutionException e) {
+            queueSlots.release();
             return false;
         }
     }
@@ -113,12 +187,19 @@ public class RetrievalManager implements Runnable {
      */
     public void shutdown() {
         logger.info("Closing Retrieval Manager");
+        stopped = true;
         workerPool.shutdown();
 
+        // Retrievals of large files can take any length of time, the record
+        // must not be closed while any of them are still running
         try {
-            workerPool.awaitTermination(30, TimeUnit.MINUTES);
-        } catch(InterruptedException e) {          
+            while(!workerPool.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.info("Waiting for retrievals in progress to complete");
+            }
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+        retrievalRecord.close();
 
         complete = true;
     }
@@ -127,4 +208,127 @@ public class RetrievalManager implements Runnable {
         return complete;
     }
 
+    /*
+     * Hands out items from a set of content lists, spreading the lister
+     * threads across the lists so that they are read at the same time.
+     */
+    private static class ContentLists {
+        private static final Logger log =
+            LoggerFactory.getLogger(ContentLists.class);
+
+        private final List<Iterator<ContentItem>> lists;
+        private final List<ReentrantLock> locks;
+        private final boolean[] done;
+        private int nextList = 0;
+
+        ContentLists(List<Iterator<ContentItem>> lists) {
+            this.lists = lists;
+            this.locks = new ArrayList<>();
+            for(int i = 0; i < lists.size(); i++) {
+                locks.add(new ReentrantLock());
+            }
+            this.done = new boolean[lists.size()];
+        }
+
+        /*
+         * Returns the next item from a list which no other thread is reading,
+         * waiting on a busy list only when all are busy. Returns null when
+         * all lists have been read.
+         */
+        ContentItem next() {
+            while(true) {
+                int start = nextListIndex();
+                if(start < 0) {
+                    return null;
+                }
+
+                ReentrantLock lock = null;
+                int index = start;
+                for(int i = 0; i < lists.size() && null == lock; i++) {
+                    int candidate = (start + i) % lists.size();
+                    if(!isDone(candidate) &&
+                       locks.get(candidate).tryLock()) {
+                        lock = locks.get(candidate);
+                        index = candidate;
+                    }
+                }
+                if(null == lock) {
+                    lock = locks.get(start);
+                    lock.lock();
+                }
+
+                try {
+                    if(!isDone(index)) {
+                        Iterator<ContentItem> list = lists.get(index);
+                        try {
+                            if(list.hasNext()) {
+                                return list.next();
+                            }
+                        } catch(RuntimeException e) {
+                            log.error("Unable to read content list: " +
+                                      e.getMessage(), e);
+                        }
+                        setDone(index);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        private synchronized int nextListIndex() {
+            for(int i = 0; i < lists.size(); i++) {
+                int index = (nextList + i) % lists.size();
+                if(!done[index]) {
+                    nextList = (index + 1) % lists.size();
+                    return index;
+                }
+            }
+            return -1;
+        }
+
+        private synchronized boolean isDone(int index) {
+            return done[index];
+        }
+
+        private synchronized void setDone(int index) {
+            done[index] = true;
+        }
+    }
+
+    /*
+     * Runs a retrieval worker from the queue, larger files ahead of smaller
+     * ones and otherwise in the order they were listed.
+     */
+    private class RetrievalTask
+        implements Runnable, Comparable<RetrievalTask> {
+        private final RetrievalWorker worker;
+        private final long size;
+        private final long order;
+
+        RetrievalTask(RetrievalWorker worker, long size, long order) {
+            this.worker = worker;
+            this.size = size;
+            this.order = order;
+        }
+
+        @Override
+        public void run() {
+            try {
+                worker.run();
+            } finally {
+                statusManager.addBytesCompleted(Math.max(size, 0));
+                queueSlots.release();
+            }
+        }
+
+        @Override
+        public int compareTo(RetrievalTask other) {
+            if(size != other.size) {
+                return size > other.size ? -1 : 1;
+            }
+            return Long.compare(order, other.order);
+        }
+    }
+
 }
@@ -0,0 +1,151 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.retrieval.mgmt;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a record of the files which have been retrieved, including the size,
+ * last modified time and checksum of each local file as it was written. When
+ * a retrieval is run again, a local file whose size and modified time still
+ * match the record, and whose recorded checksum matches the remote checksum,
+ * is known to be unchanged without reading the file to compute its checksum.
+ *
+ * The record is kept in a file in the work directory, to which an entry is
+ * appended for each file retrieved. When a file appears more than once, the
+ * last entry applies.
+ */
+public class RetrievalRecord {
+
+    private final Logger logger =
+        LoggerFactory.getLogger(RetrievalRecord.class);
+
+    public static final String RECORD_FILE_NAME = "retrieved-files.txt";
+
+    private static final String SEPARATOR = "\t";
+
+    private final File recordFile;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private Writer writer;
+
+    public RetrievalRecord(File workDir) {
+        this.recordFile = new File(workDir, RECORD_FILE_NAME);
+        if(recordFile.exists()) {
+            load();
+        }
+    }
+
+    private void load() {
+        try(BufferedReader reader = new BufferedReader(
+            new InputStreamReader(new FileInputStream(recordFile),
+                                  StandardCharsets.UTF_8))) {
+            String line;
+            while((line = reader.readLine()) != null) {
+                // size, modified time, checksum, path
+                String[] values = line.split(SEPARATOR, 4);
+                if(values.length == 4) {
+                    try {
+                        entries.put(values[3],
+                                    new Entry(Long.parseLong(values[0]),
+                                              Long.parseLong(values[1]),
+                                              values[2]));
+                    } catch(NumberFormatException e) {
+                        logger.warn("Skipping invalid retrieval record " +
+                                    "entry: " + line);
+                    }
+                }
+            }
+        } catch(IOException e) {
+            logger.error("Unable to read retrieval record " +
+                         recordFile.getAbsolutePath() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Determines if the local file is as it was when it was last retrieved
+     * with the given checksum.
+     *
+     * @param localFile the retrieved file
+     * @param checksum the checksum of the remote file
+     * @return true if the local file is known to match the checksum
+     */
+    public boolean isUnchanged(File localFile, String checksum) {
+        if(null == checksum) {
+            return false;
+        }
+        Entry entry = entries.get(localFile.getAbsolutePath());
+        return null != entry &&
+               entry.checksum.equals(checksum) &&
+               entry.size == localFile.length() &&
+               entry.modified == localFile.lastModified();
+    }
+
+    /**
+     * Adds the local file, which has the given checksum, to the record.
+     * Must be called after the file's timestamps have been set.
+     */
+    public synchronized void record(File localFile, String checksum) {
+        String path = localFile.getAbsolutePath();
+        Entry entry = new Entry(localFile.length(),
+                                localFile.lastModified(),
+                                checksum);
+        entries.put(path, entry);
+
+        try {
+            if(null == writer) {
+                writer = new OutputStreamWriter(
+                    new FileOutputStream(recordFile, true),
+                    StandardCharsets.UTF_8);
+            }
+            writer.write(entry.size + SEPARATOR + entry.modified + SEPARATOR +
+                         entry.checksum + SEPARATOR + path + "\n");
+            writer.flush();
+        } catch(IOException e) {
+            logger.error("Unable to add " + path + " to retrieval record " +
+                         recordFile.getAbsolutePath() + ": " + e.getMessage());
+        }
+    }
+
+    public synchronized void close() {
+        if(null != writer) {
+            try {
+                writer.close();
+            } catch(IOException e) {
+                logger.warn("Unable to close retrieval record: " +
+                            e.getMessage());
+            }
+            writer = null;
+        }
+    }
+
+    private static class Entry {
+        private final long size;
+        private final long modified;
+        private final String checksum;
+
+        Entry(long size, long modified, String checksum) {
+            this.size = size;
+            this.modified = modified;
+            this.checksum = checksum;
+        }
+    }
+
+}
@@ -7,24 +7,36 @@
  */
 package org.duracloud.retrieval.mgmt;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributeView;
 import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.text.ParseException;
 import java.util.Date;
 import java.util.Map;
+import java.util.Properties;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.commons.io.output.NullOutputStream;
 import org.duracloud.chunk.util.ChunkUtil;
 import org.duracloud.client.ContentStore;
 import org.duracloud.common.model.ContentItem;
+import org.duracloud.common.stream.BandwidthLimiter;
 import org.duracloud.common.util.ChecksumUtil;
 import org.duracloud.common.util.DateUtil;
 import org.duracloud.retrieval.source.ContentStream;
@@ -44,6 +56,13 @@ public class RetrievalWorker implements Runnable {
 
     private static final int MAX_ATTEMPTS = 5;
     private static final String COPY = "-copy";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String PARTIAL = ".partial";
+    private static final String PARTIAL_STATE = ".partial-state";
+    private static final String STATE_CHECKSUM = "checksum";
+    private static final String STATE_OFFSET = "offset";
+    // Bytes written to a partial file between saves of its state
+    private static final long STATE_INTERVAL = 16 * 1024 * 1024;
 
     private ContentItem contentItem;
     private RetrievalSource source;
@@ -57,6 +76,7 @@ public class RetrievalWorker implements Runnable {
     private ContentStream contentStream;
 
     private StatusManager statusManager;
+    private RetrievalRecord retrievalRecord;
 
     /**
      * Creates a Retrieval Worker to handle retrieving a file
@@ -79,6 +99,15 @@ public class RetrievalWorker implements Runnable {
         this.attempts = 0;
     }
 
+    /**
+     * @param retrievalRecord the record of retrieved files, which is used to
+     *                        avoid computing checksums of files which are
+     *                        known to be unchanged, may be null
+     */
+    public void setRetrievalRecord(RetrievalRecord retrievalRecord) {
+        this.retrievalRecord = retrievalRecord;
+    }
+
     public void run() {
         statusManager.startingWork();
         retrieveFile();
@@ -89,41 +118,47 @@ public class RetrievalWorker implements Runnable {
     }
     
     public Map<String,String> retrieveFile(RetrievalListener listener) {
-        attempts++;
         File localFile = getLocalFile();
         Map<String,String> props = null;
-        try {
-            if(localFile.exists()) { // File already exists
-                props = getContentProperties();
-                if(checksumsMatch(localFile,
-                                  props.get(ContentStore.CONTENT_CHECKSUM))) {
-                    noChangeNeeded(localFile.getAbsolutePath());
-                } else { // Different file in DuraStore
-                    if(overwrite) {
-                        deleteFile(localFile);
-                    } else {
-                        renameFile(localFile);
+        attempts = 0;
+        boolean retry = true;
+        while(retry) {
+            retry = false;
+            attempts++;
+            try {
+                if(localFile.exists()) { // File already exists
+                    props = getContentProperties();
+                    String checksum = props.get(ContentStore.CONTENT_CHECKSUM);
+                    if(isUnchanged(localFile, checksum)) {
+                        noChangeNeeded(localFile.getAbsolutePath());
+                    } else { // Different file in DuraStore
+                        if(overwrite) {
+                            deleteFile(localFile);
+                        } else {
+                            renameFile(localFile);
+                        }
+                        props = retrieveToFile(localFile, listener);
+                        succeed(localFile.getAbsolutePath());
+                    }
+                } else { // File does not exist
+                    File parentDir = localFile.getParentFile();
+                    if(!parentDir.exists()) {
+                        parentDir.mkdirs();
+                        parentDir.setWritable(true);
                     }
                     props = retrieveToFile(localFile, listener);
                     succeed(localFile.getAbsolutePath());
                 }
-            } else { // File does not exist
-                File parentDir = localFile.getParentFile();
-                if(!parentDir.exists()) {
-                    parentDir.mkdirs();
-                    parentDir.setWritable(true);
+            } catch(Exception e) {
+                logger.error("Exception retrieving remote file " +
+                             contentItem.getContentId() + " as local file " +
+                             localFile.getAbsolutePath() + ": " +
+                             e.getMessage(), e);
+                if(attempts < MAX_ATTEMPTS) {
+                    retry = true;
+                } else {
+                    fail(e.getMessage());
                 }
-                props = retrieveToFile(localFile, listener);
-                succeed(localFile.getAbsolutePath());
-            }
-        } catch(Exception e) {
-            logger.error("Exception retrieving remote file " +
-                         contentItem.getContentId() + " as local file " +
-                         localFile.getAbsolutePath() + ": " + e.getMessage(), e);
-            if(attempts < MAX_ATTEMPTS) {
-                props = retrieveFile();
-            } else {
-                fail(e.getMessage());
             }
         }
         return props;
@@ -170,6 +205,31 @@ public class RetrievalWorker implements Runnable {
         return localChecksum.equals(remoteChecksum);
     }
 
+    /*
+     * Determines if the local file matches the remote file. The record of
+     * retrieved files is used where possible, so that the local checksum
+     * need not be computed.
+     */
+    protected boolean isUnchanged(File localFile, String remoteChecksum)
+        throws IOException {
+        if(null != retrievalRecord &&
+           retrievalRecord.isUnchanged(localFile, remoteChecksum)) {
+            return true;
+        }
+        if(checksumsMatch(localFile, remoteChecksum)) {
+            recordRetrieval(localFile, remoteChecksum);
+            return true;
+        }
+        return false;
+    }
+
+    private void recordRetrieval(File localFile, String checksum) {
+        if(null != retrievalRecord && null != checksum &&
+           !"".equals(checksum)) {
+            retrievalRecord.record(localFile, checksum);
+        }
+    }
+
     protected String getChecksum(File localFile) throws IOException {
         ChecksumUtil checksumUtil =
             new ChecksumUtil(ChecksumUtil.Algorithm.MD5);
@@ -211,7 +271,12 @@ public class RetrievalWorker implements Runnable {
     }
 
     /**
-     * Transfers the remote file stream to the local file
+     * Transfers the remote file stream to the local file. The content is
+     * written to a partial file alongside the local file, which is renamed
+     * once the content is complete and its checksum verified. If a partial
+     * file remains from an earlier attempt, and the remote file is unchanged
+     * since, the transfer resumes from the point which was saved in the
+     * partial file's state file.
      * @returns the checksum of the File upon successful retrieval.  Successful
      * retrieval means the checksum of the local file and remote file match,
      * otherwise an IOException is thrown.
@@ -221,37 +286,143 @@ public class RetrievalWorker implements Runnable {
      * @throws IOException
      */
     protected Map<String, String> retrieveToFile(File localFile, RetrievalListener listener) throws IOException {
+        File partialFile = getPartialFile(localFile);
+        File stateFile = getPartialStateFile(localFile);
+
+        long resumeFrom = 0;
+        String resumeChecksum = null;
+        Properties state = loadPartialState(partialFile, stateFile);
+        if(null != state) {
+            resumeFrom = Long.parseLong(state.getProperty(STATE_OFFSET));
+            resumeChecksum = state.getProperty(STATE_CHECKSUM);
+        }
 
-        contentStream = source.getSourceContent(contentItem, listener);
+        contentStream =
+            source.getSourceContent(contentItem, resumeFrom, listener);
+        String checksum = contentStream.getChecksum();
+        if(contentStream.getStartByte() > 0 &&
+           (contentStream.getStartByte() > resumeFrom ||
+            null == checksum || !checksum.equals(resumeChecksum))) {
+            // The remote file has changed since the partial file was written
+            contentStream.getStream().close();
+            contentStream = source.getSourceContent(contentItem, 0, listener);
+            checksum = contentStream.getChecksum();
+        }
+        long startByte = contentStream.getStartByte();
+        if(startByte > 0 && logger.isDebugEnabled()) {
+            logger.debug("Resuming retrieval of " + contentItem.toString() +
+                         " at byte " + startByte);
+        }
 
+        MessageDigest digest;
         try (
             InputStream inStream = contentStream.getStream();
-            OutputStream outStream = new FileOutputStream(localFile);
+            FileChannel channel =
+                FileChannel.open(partialFile.toPath(),
+                                 StandardOpenOption.CREATE,
+                                 StandardOpenOption.WRITE);
         ) {
-            IOUtils.copyLarge(inStream, outStream);
-        } catch(IOException e) {
-            try {
-                deleteFile(localFile);
-            } catch(IOException ioe) {
-                logger.error("Exception deleting local file " +
-                             localFile.getAbsolutePath() + " due to: " + ioe.getMessage());
-            }
-            throw e;
+            digest = digestPrefix(partialFile, startByte);
+            channel.truncate(startByte);
+            channel.position(startByte);
+            copy(inStream, channel, digest, stateFile, checksum);
         }
 
-        if(! checksumsMatch(localFile, contentStream.getChecksum())) {
-            deleteFile(localFile);
+        String localChecksum =
+            ChecksumUtil.checksumBytesToString(digest.digest());
+        if(null == checksum || "".equals(checksum)) {
+            checksum = source.getSourceChecksum(contentItem);
+        }
+        if(! localChecksum.equals(checksum)) {
+            deleteFile(partialFile);
+            deleteFile(stateFile);
             throw new IOException("Calculated checksum value for retrieved " +
                                   "file does not match properties checksum.");
         }
 
+        Files.move(partialFile.toPath(), localFile.toPath(),
+                   StandardCopyOption.REPLACE_EXISTING);
+        deleteFile(stateFile);
+
         // Set time stamps
         if(applyTimestamps) {
             applyTimestamps(contentStream, localFile);
         }
+        recordRetrieval(localFile, checksum);
         return contentStream.getProperties();
     }
 
+    protected File getPartialFile(File localFile) {
+        return new File(localFile.getParentFile(),
+                        "." + localFile.getName() + PARTIAL);
+    }
+
+    protected File getPartialStateFile(File localFile) {
+        return new File(localFile.getParentFile(),
+                        "." + localFile.getName() + PARTIAL_STATE);
+    }
+
+    /*
+     * Reads the state of a partial file left by an earlier attempt. Returns
+     * null if there is no partial file which can be resumed.
+     */
+    private Properties loadPartialState(File partialFile, File stateFile) {
+        if(!partialFile.exists() || !stateFile.exists()) {
+            return null;
+        }
+        Properties state = new Properties();
+        try(InputStream stateStream = new FileInputStream(stateFile)) {
+            state.load(stateStream);
+            long offset = Long.parseLong(state.getProperty(STATE_OFFSET));
+            if(null != state.getProperty(STATE_CHECKSUM) &&
+               offset > 0 && offset <= partialFile.length()) {
+                return state;
+            }
+        } catch(IOException | RuntimeException e) {
+            logger.warn("Unable to read partial file state " +
+                        stateFile.getAbsolutePath() + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    /*
+     * Saves the offset up to which the partial file has been written to disk,
+     * along with the checksum of the remote file being retrieved
+     */
+    private void savePartialState(File stateFile, String checksum, long offset)
+        throws IOException {
+        Properties state = new Properties();
+        state.setProperty(STATE_CHECKSUM, checksum);
+        state.setProperty(STATE_OFFSET, String.valueOf(offset));
+        try(OutputStream stateStream = new FileOutputStream(stateFile)) {
+            state.store(stateStream, null);
+        }
+    }
+
+    /*
+     * Creates an MD5 digest which includes the first length bytes of the file
+     */
+    private MessageDigest digestPrefix(File file, long length)
+        throws IOException {
+        DigestInputStream digestStream;
+        if(length > 0) {
+            digestStream =
+                ChecksumUtil.wrapStream(
+                    new BoundedInputStream(new FileInputStream(file), length),
+                    ChecksumUtil.Algorithm.MD5);
+            try {
+                IOUtils.copyLarge(digestStream, NullOutputStream.NULL_OUTPUT_STREAM);
+            } finally {
+                digestStream.close();
+            }
+        } else {
+            digestStream = ChecksumUtil.wrapStream(
+                new ByteArrayInputStream(new byte[0]),
+                ChecksumUtil.Algorithm.MD5);
+        }
+        return digestStream.getMessageDigest();
+    }
+
     /*
      * Applies timestamps which are found in the content item's properties
      * to the retrieved file
@@ -278,6 +449,52 @@ public class RetrievalWorker implements Runnable {
         }
     }
 
+    /*
+     * Copies the stream to the partial file while computing its checksum, in
+     * the same way as IOUtils.copyLarge, holding to the bandwidth limit shared
+     * by all transfers. The partial file's state is saved at intervals, and
+     * when the transfer fails, so that the transfer may be resumed.
+     */
+    private void copy(InputStream inStream,
+                      FileChannel channel,
+                      MessageDigest digest,
+                      File stateFile,
+                      String checksum)
+        throws IOException {
+        BandwidthLimiter limiter = BandwidthLimiter.getInstance();
+        boolean resumable = null != checksum && !"".equals(checksum);
+        long savedAt = channel.position();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        try {
+            while ((read = inStream.read(buffer)) != -1) {
+                limiter.acquire(read);
+                digest.update(buffer, 0, read);
+                ByteBuffer writeBuffer = ByteBuffer.wrap(buffer, 0, read);
+                while (writeBuffer.hasRemaining()) {
+                    channel.write(writeBuffer);
+                }
+                if(resumable && channel.position() - savedAt >= STATE_INTERVAL) {
+                    channel.force(false);
+                    savedAt = channel.position();
+                    savePartialState(stateFile, checksum, savedAt);
+                }
+            }
+        } catch(IOException e) {
+            if(resumable) {
+                try {
+                    channel.force(false);
+                    savePartialState(stateFile, checksum, channel.position());
+                } catch(IOException ioe) {
+                    logger.error("Unable to save state of partial file for " +
+                                 contentItem.toString() + " due to: " +
+                                 ioe.getMessage());
+                }
+            }
+            throw e;
+        }
+    }
+
     /*
      * Converts a date in LONG string format to a FileTime object
      */
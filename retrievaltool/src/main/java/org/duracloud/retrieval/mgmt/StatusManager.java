@@ -10,6 +10,11 @@ package org.duracloud.retrieval.mgmt;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.io.FileUtils;
+import org.duracloud.common.stream.BandwidthLimiter;
 
 /**
  * Singleton class which tracks the status of the retrieval activity
@@ -27,6 +32,11 @@ public class StatusManager {
     private long succeeded;
     private long failed;
     private String startTime;
+    private long startMillis;
+    private final LongAdder bytesListed = new LongAdder();
+    private final LongAdder bytesCompleted = new LongAdder();
+    private volatile boolean listingComplete;
+    private volatile boolean sizesListed;
     private String version;
 
     private static StatusManager instance;
@@ -50,7 +60,12 @@ public class StatusManager {
         noChange = 0;
         succeeded = 0;
         failed = 0;
-        startTime = DATE_FORMAT.format(new Date());
+        startMillis = System.currentTimeMillis();
+        startTime = DATE_FORMAT.format(new Date(startMillis));
+        bytesListed.reset();
+        bytesCompleted.reset();
+        listingComplete = false;
+        sizesListed = false;
     }
 
     public synchronized void startingWork() {
@@ -88,10 +103,101 @@ public class StatusManager {
         return failed;
     }
 
+    /**
+     * Records the size of a file which has been listed for retrieval
+     */
+    public void addBytesListed(long bytes) {
+        bytesListed.add(bytes);
+    }
+
+    /**
+     * Records the size of a file whose retrieval has completed, whether or
+     * not the file needed to be transferred
+     */
+    public void addBytesCompleted(long bytes) {
+        bytesCompleted.add(bytes);
+    }
+
+    /**
+     * Indicates whether the size of each file is found as it is listed. When
+     * it is not, the bytes remaining are not known and no estimate of the
+     * time remaining is made.
+     */
+    public void setSizesListed(boolean sizesListed) {
+        this.sizesListed = sizesListed;
+    }
+
+    /**
+     * Indicates that all files to be retrieved have been listed, so that the
+     * bytes remaining are known
+     */
+    public void listingComplete() {
+        listingComplete = true;
+    }
+
+    public long getBytesListed() {
+        return bytesListed.sum();
+    }
+
+    public long getBytesCompleted() {
+        return bytesCompleted.sum();
+    }
+
+    public long getBytesRemaining() {
+        return Math.max(getBytesListed() - getBytesCompleted(), 0);
+    }
+
+    /**
+     * @return the estimated milliseconds until all listed files are
+     *         retrieved, based on the rate at which bytes have been completed
+     *         so far, or -1 if no estimate can be made (yet)
+     */
+    public long getEstimatedMillisRemaining() {
+        long completed = getBytesCompleted();
+        long elapsed = System.currentTimeMillis() - startMillis;
+        if(!sizesListed || completed <= 0 || elapsed <= 0) {
+            return -1;
+        }
+        return getBytesRemaining() * elapsed / completed;
+    }
+
+    /**
+     * @return the estimated time remaining, noting whether files are still
+     *         being listed, in which case more time will be needed
+     */
+    public String getPrintableTimeRemaining() {
+        long remaining = getEstimatedMillisRemaining();
+        String estimate;
+        if(remaining < 0) {
+            estimate = "unknown";
+        } else {
+            long hours = TimeUnit.MILLISECONDS.toHours(remaining);
+            long minutes = TimeUnit.MILLISECONDS.toMinutes(remaining) % 60;
+            long seconds = TimeUnit.MILLISECONDS.toSeconds(remaining) % 60;
+            estimate = String.format("%d:%02d:%02d", hours, minutes, seconds);
+        }
+        return estimate + " (" +
+               FileUtils.byteCountToDisplaySize(getBytesRemaining()) +
+               " remaining" + (listingComplete ? "" : ", still listing") + ")";
+    }
+
     public void setVersion(String version) {
         this.version = version;
     }
 
+    /**
+     * @return the current rate at which content is being retrieved, along
+     *         with the bandwidth limit in effect
+     */
+    public String getPrintableTransferRate() {
+        BandwidthLimiter limiter = BandwidthLimiter.getInstance();
+        long limit = limiter.getCurrentLimit();
+        return FileUtils.byteCountToDisplaySize(limiter.getCurrentRate()) +
+               "/sec (limit: " + (limit > 0 ?
+               FileUtils.byteCountToDisplaySize(limit) + "/sec" :
+               "unlimited") + ")";
+    }
+
     public String getPrintableStatus() {
         StringBuilder status = new StringBuilder();
 
@@ -104,6 +210,11 @@ public class StatusManager {
         status.append("Successful Retrievals: " + getSucceeded() + "\n");
         status.append("No Change Needed: " + getNoChange() + "\n");
         status.append("Failed Retrievals: " + getFailed() + "\n");
+        status.append("Transfer Rate: " + getPrintableTransferRate() + "\n");
+        if(sizesListed) {
+            status.append("Time Remaining: " + getPrintableTimeRemaining() +
+                          "\n");
+        }
         status.append("--------------------------------------\n");
         return status.toString();
     }
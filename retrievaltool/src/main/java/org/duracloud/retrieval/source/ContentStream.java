@@ -20,11 +20,23 @@ public class ContentStream {
 
     private InputStream stream;
     private Map<String, String> properties;
+    private long startByte;
 
     public ContentStream(InputStream stream,
                          Map<String, String> properties) {
+        this(stream, properties, 0);
+    }
+
+    /**
+     * @param startByte the offset within the content at which the stream
+     *                  begins
+     */
+    public ContentStream(InputStream stream,
+                         Map<String, String> properties,
+                         long startByte) {
         this.stream = stream;
         this.properties = properties;
+        this.startByte = startByte;
     }
 
     public InputStream getStream() {
@@ -35,6 +47,10 @@ public class ContentStream {
         return properties;
     }
 
+    public long getStartByte() {
+        return startByte;
+    }
+
     public String getChecksum() {
         return getProperties().get(ContentStore.CONTENT_CHECKSUM);
     }
@@ -8,12 +8,15 @@
 package org.duracloud.retrieval.source;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 
 import org.apache.commons.lang.StringUtils;
 import org.duracloud.client.ContentStore;
+import org.duracloud.client.HttpHeaders;
 import org.duracloud.common.error.DuraCloudRuntimeException;
 import org.duracloud.common.model.ContentItem;
 import org.duracloud.domain.Content;
@@ -35,6 +38,7 @@ public class DuraStoreRetrievalSource implements RetrievalSource {
     protected Iterator<String> spaceIds = null;
     protected String currentSpaceId = null;
     protected Iterator<String> currentContentList = null;
+    protected List<String> spaceList = null;
 
     public DuraStoreRetrievalSource(ContentStore store,
                                     List<String> spaces,
@@ -65,6 +69,7 @@ public class DuraStoreRetrievalSource implements RetrievalSource {
                     throw new DuraCloudRuntimeException(error);
                 }
 
+                spaceList = spaces;
                 spaceIds = spaces.iterator();
             } catch(ContentStoreException cse) {
                 throw new DuraCloudRuntimeException("Error retrieving spaces list", cse);
@@ -87,6 +92,27 @@ public class DuraStoreRetrievalSource implements RetrievalSource {
         }
     }
 
+    /**
+     * Provides one list of content items for each space, each of which is
+     * read from DuraStore as it is needed.
+     */
+    @Override
+    public List<Iterator<ContentItem>> getContentItemLists() {
+        List<Iterator<ContentItem>> lists = new ArrayList<>();
+        for(String spaceId : spaceList) {
+            lists.add(new SpaceContentIterator(spaceId));
+        }
+        return lists;
+    }
+
+    /*
+     * Determines if a content item should be included in the space content
+     * lists
+     */
+    protected boolean includeContentItem(ContentItem contentItem) {
+        return true;
+    }
+
     protected void getNextSpace() {
         if(spaceIds.hasNext()) {
             currentSpaceId = spaceIds.next();
@@ -123,13 +149,94 @@ public class DuraStoreRetrievalSource implements RetrievalSource {
 
     @Override
     public ContentStream getSourceContent(ContentItem contentItem, RetrievalListener listener) {
-        Content content = doGetContent(contentItem, listener);
+        return getSourceContent(contentItem, 0, listener);
+    }
+
+    @Override
+    public ContentStream getSourceContent(ContentItem contentItem,
+                                          long startByte,
+                                          RetrievalListener listener) {
+        Content content = doGetContent(contentItem, startByte, listener);
         return new ContentStream(content.getStream(),
-                                 content.getProperties());
+                                 content.getProperties(),
+                                 getStartByte(content, startByte));
+    }
+
+    /*
+     * Determines where the content stream begins. Stitched content begins at
+     * a chunk boundary, which is given by its Content-Range property, other
+     * content begins where it was requested.
+     */
+    protected long getStartByte(Content content, long startByte) {
+        Map<String, String> properties = content.getProperties();
+        String range = null;
+        if(null != properties) {
+            range = properties.get(HttpHeaders.CONTENT_RANGE);
+        }
+        if(null != range) {
+            try {
+                return Long.parseLong(
+                    range.substring(range.indexOf(' ') + 1, range.indexOf('-')));
+            } catch(RuntimeException e) {
+                throw new DuraCloudRuntimeException(
+                    "Unable to read content range: " + range, e);
+            }
+        }
+        return Math.max(startByte, 0);
     }
 
-    protected Content doGetContent(ContentItem contentItem, RetrievalListener listener) {
+    /*
+     * Iterates over the items in a space, listing the space on first use
+     */
+    private class SpaceContentIterator implements Iterator<ContentItem> {
+        private final String spaceId;
+        private Iterator<String> contentIds;
+        private ContentItem next;
+
+        SpaceContentIterator(String spaceId) {
+            this.spaceId = spaceId;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if(null == contentIds) {
+                try {
+                    contentIds = contentStore.getSpaceContents(spaceId);
+                } catch(ContentStoreException e) {
+                    logger.error("Unable to get contents of space: " +
+                                 spaceId + " due to error: " + e.getMessage());
+                    contentIds = Collections.emptyIterator();
+                }
+            }
+            while(null == next && contentIds.hasNext()) {
+                ContentItem item = new ContentItem(spaceId, contentIds.next());
+                if(includeContentItem(item)) {
+                    next = item;
+                }
+            }
+            return null != next;
+        }
+
+        @Override
+        public ContentItem next() {
+            if(!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ContentItem current = next;
+            next = null;
+            return current;
+        }
+    }
+
+    protected Content doGetContent(ContentItem contentItem,
+                                   long startByte,
+                                   RetrievalListener listener) {
         try {
+            if(startByte > 0) {
+                return contentStore.getContent(contentItem.getSpaceId(),
+                                               contentItem.getContentId(),
+                                               startByte);
+            }
             return contentStore.getContent(contentItem.getSpaceId(),
                                            contentItem.getContentId());
         } catch (ContentStoreException e) {
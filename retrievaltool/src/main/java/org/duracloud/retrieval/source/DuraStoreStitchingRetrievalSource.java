@@ -7,6 +7,7 @@
  */
 package org.duracloud.retrieval.source;
 
+import java.io.File;
 import java.util.List;
 
 import org.duracloud.chunk.manifest.ChunksManifest;
@@ -42,8 +43,36 @@ public class DuraStoreStitchingRetrievalSource extends DuraStoreRetrievalSource
     public DuraStoreStitchingRetrievalSource(ContentStore store,
                                              List<String> spaces,
                                              boolean allSpaces) {
+        this(store, spaces, allSpaces, 1);
+    }
+
+    /**
+     * @param chunkThreads the number of chunks of a chunked file to retrieve
+     *                     at the same time
+     */
+    public DuraStoreStitchingRetrievalSource(ContentStore store,
+                                             List<String> spaces,
+                                             boolean allSpaces,
+                                             int chunkThreads) {
+        this(store, spaces, allSpaces, chunkThreads, null);
+    }
+
+    /**
+     * @param chunkThreads the number of chunks of a chunked file to retrieve
+     *                     at the same time
+     * @param chunkDir     directory in which chunks retrieved ahead of being
+     *                     written are held, null to use the default
+     *                     temporary directory
+     */
+    public DuraStoreStitchingRetrievalSource(ContentStore store,
+                                             List<String> spaces,
+                                             boolean allSpaces,
+                                             int chunkThreads,
+                                             File chunkDir) {
         super(store, spaces, allSpaces);
-        this.stitcher = new FileStitcherImpl(new DuraStoreDataSource(store));
+        this.stitcher = new FileStitcherImpl(new DuraStoreDataSource(store),
+                                             chunkThreads,
+                                             chunkDir);
         this.chunkUtil = new ChunkUtil();
     }
 
@@ -62,6 +91,34 @@ public class DuraStoreStitchingRetrievalSource extends DuraStoreRetrievalSource
         return item;
     }
 
+    @Override
+    protected boolean includeContentItem(ContentItem contentItem) {
+        return !chunkUtil.isChunk(contentItem.getContentId());
+    }
+
+    /**
+     * The size of chunked content is the size of the original file, as
+     * given in its manifest.
+     */
+    @Override
+    public long getSourceSize(ContentItem contentItem) {
+        if (chunkUtil.isChunkManifest(contentItem.getContentId())) {
+            try {
+                ChunksManifest manifest =
+                    stitcher.getManifest(contentItem.getSpaceId(),
+                                         contentItem.getContentId());
+                return manifest.getHeader().getSourceByteSize();
+            } catch (InvalidManifestException e) {
+                log.warn("Unable to get size of {} due to: {}",
+                         contentItem, e.getMessage());
+                return -1;
+            }
+
+        } else {
+            return super.getSourceSize(contentItem);
+        }
+    }
+
     @Override
     public String getSourceChecksum(ContentItem contentItem) {
         if (chunkUtil.isChunkManifest(contentItem.getContentId())) {
@@ -82,7 +139,9 @@ public class DuraStoreStitchingRetrievalSource extends DuraStoreRetrievalSource
     }
 
     @Override
-    protected Content doGetContent(ContentItem item, RetrievalListener listener) {
+    protected Content doGetContent(ContentItem item,
+                                   long startByte,
+                                   RetrievalListener listener) {
         log.debug("enter doGetContent: {}", item);
 
         if (null != item && chunkUtil.isChunk(item.getContentId())) {
@@ -97,18 +156,25 @@ public class DuraStoreStitchingRetrievalSource extends DuraStoreRetrievalSource
 
         if (null != item && chunkUtil.isChunkManifest(item.getContentId())) {
             log.debug("retrieving manifest: {}", item);
-            return doGetContentFromManifest(item, listener);
+            return doGetContentFromManifest(item, startByte, listener);
 
         } else {
             log.debug("retrieving basic content: {}", item);
-            return super.doGetContent(item, listener);
+            return super.doGetContent(item, startByte, listener);
         }
     }
 
-    protected Content doGetContentFromManifest(ContentItem item, RetrievalListener listener) {
+    /*
+     * Stitched content which is resumed begins with the chunk which
+     * includes the start byte.
+     */
+    protected Content doGetContentFromManifest(ContentItem item,
+                                               long startByte,
+                                               RetrievalListener listener) {
         try {
             return stitcher.getContentFromManifest(item.getSpaceId(),
                                                    item.getContentId(),
+                                                   startByte,
                                                    new FileStitcherListener() {
                                                        public void chunkStitched(String chunkId) {
                                                            if(listener != null){
@@ -0,0 +1,48 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.retrieval.source;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.duracloud.common.model.ContentItem;
+
+/**
+ * Iterates over the content items provided by a retrieval source's
+ * getNextContentItem() method.
+ */
+public class NextContentItemIterator implements Iterator<ContentItem> {
+
+    private final RetrievalSource source;
+    private ContentItem next;
+    private boolean started = false;
+
+    public NextContentItemIterator(RetrievalSource source) {
+        this.source = source;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if(!started) {
+            next = source.getNextContentItem();
+            started = true;
+        }
+        return null != next;
+    }
+
+    @Override
+    public ContentItem next() {
+        if(!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ContentItem current = next;
+        next = source.getNextContentItem();
+        return current;
+    }
+
+}
@@ -7,8 +7,12 @@
  */
 package org.duracloud.retrieval.source;
 
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
+import org.duracloud.client.ContentStore;
 import org.duracloud.common.model.ContentItem;
 import org.duracloud.retrieval.mgmt.RetrievalListener;
 
@@ -27,6 +31,19 @@ public interface RetrievalSource {
      */
     public ContentItem getNextContentItem();
 
+    /**
+     * Provides the content items to be processed as a set of lists which are
+     * independent of each other, so that they may be read at the same time,
+     * typically one list per space. Each list may only be read by one thread
+     * at a time. By default a single list is provided, which is made up of
+     * the items from getNextContentItem().
+     *
+     * @return lists of content items to be processed
+     */
+    default public List<Iterator<ContentItem>> getContentItemLists() {
+        return Collections.singletonList(new NextContentItemIterator(this));
+    }
+
     /**
      * Retrieves the Duracloud properties for the specified ContentItem.
      *
@@ -44,6 +61,23 @@ public interface RetrievalSource {
      */
     public String getSourceChecksum(ContentItem contentItem);
 
+    /**
+     * Provides the size of the specified source file based on the file's
+     * properties.
+     *
+     * @param contentItem the file to consider
+     * @return size of the given file in bytes, or -1 if it is not known
+     */
+    default public long getSourceSize(ContentItem contentItem) {
+        String size =
+            getSourceProperties(contentItem).get(ContentStore.CONTENT_SIZE);
+        try {
+            return null == size ? -1 : Long.parseLong(size);
+        } catch(NumberFormatException e) {
+            return -1;
+        }
+    }
+
     /**
      * Gets the actual content, including the stream and the checksum.
      *
@@ -62,6 +96,23 @@ public interface RetrievalSource {
      * @return
      */
     public ContentStream getSourceContent(ContentItem contentItem, RetrievalListener listener);
-    
-    
+
+    /**
+     * Gets the actual content, beginning at or before the given byte offset,
+     * so that an interrupted retrieval can be resumed. The offset at which
+     * the stream actually begins is available from the returned
+     * ContentStream. Sources which are not able to begin part way through
+     * the content provide the full content.
+     *
+     * @param contentItem the file to retrieve
+     * @param startByte the offset at which to begin, 0 for the full content
+     * @param listener of the specified operation
+     * @return content stream of the specified file
+     */
+    default public ContentStream getSourceContent(ContentItem contentItem,
+                                                  long startByte,
+                                                  RetrievalListener listener) {
+        return getSourceContent(contentItem, listener);
+    }
+
 }
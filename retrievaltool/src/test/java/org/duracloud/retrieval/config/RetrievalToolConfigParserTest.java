@@ -68,6 +68,10 @@ public class RetrievalToolConfigParserTest extends RetrievalTestBase {
         argsMap.remove("-d");
         argsMap.remove("-l");
         argsMap.remove("-w");
+        argsMap.remove("--bandwidth-limit");
+        argsMap.remove("--bandwidth-schedule");
+        argsMap.remove("--chunk-threads");
+        argsMap.remove("--largest-first");
 
         // Process configs, make sure optional params are set to defaults
         retConfig = retConfigParser.processOptions(mapToArray(argsMap));
@@ -81,6 +85,11 @@ public class RetrievalToolConfigParserTest extends RetrievalTestBase {
         assertEquals(false, retConfig.isListOnly());
         assertEquals(expectedPassword, retConfig.getPassword());
         assertNull(retConfig.getWorkDir());
+        assertEquals(0, retConfig.getBandwidthLimit());
+        assertNull(retConfig.getBandwidthSchedule());
+        assertEquals(RetrievalToolConfigParser.DEFAULT_CHUNK_THREADS,
+                     retConfig.getChunkThreads());
+        assertEquals(false, retConfig.isLargestFirst());
 
         // Make sure error is thrown on missing required params
         for(String arg : argsMap.keySet()) {
@@ -94,6 +103,15 @@ public class RetrievalToolConfigParserTest extends RetrievalTestBase {
         addArgFailTest(retConfigParser, argsMap, "-r", "nonNum", failMsg);
         failMsg = "Threads arg should require a numerical value";
         addArgFailTest(retConfigParser, argsMap, "-t", "nonNum", failMsg);
+        failMsg = "Bandwidth limit arg should require a rate";
+        addArgFailTest(retConfigParser, argsMap, "--bandwidth-limit", "fast",
+                       failMsg);
+        failMsg = "Bandwidth schedule arg should require a valid schedule";
+        addArgFailTest(retConfigParser, argsMap, "--bandwidth-schedule",
+                       "08:00=1M", failMsg);
+        failMsg = "Chunk threads arg should require a numerical value";
+        addArgFailTest(retConfigParser, argsMap, "--chunk-threads", "nonNum",
+                       failMsg);
     }
 
     private HashMap<String, String> getArgsMap() {
@@ -109,6 +127,10 @@ public class RetrievalToolConfigParserTest extends RetrievalTestBase {
         argsMap.put("-o", "");
         argsMap.put("-t", "5");
         argsMap.put("-d", "");
+        argsMap.put("--bandwidth-limit", "512K");
+        argsMap.put("--bandwidth-schedule", "18:00-08:00=0");
+        argsMap.put("--chunk-threads", "4");
+        argsMap.put("--largest-first", "");
         return argsMap;
     }
 
@@ -133,6 +155,12 @@ public class RetrievalToolConfigParserTest extends RetrievalTestBase {
         assertEquals(true, retConfig.isOverwrite());
         assertEquals(argsMap.get("-t"),
                      String.valueOf(retConfig.getNumThreads()));
+        assertEquals(512 * 1024, retConfig.getBandwidthLimit());
+        assertEquals(argsMap.get("--bandwidth-schedule"),
+                     retConfig.getBandwidthSchedule());
+        assertEquals(argsMap.get("--chunk-threads"),
+                     String.valueOf(retConfig.getChunkThreads()));
+        assertEquals(true, retConfig.isLargestFirst());
     }
 
     private String[] mapToArray(HashMap<String, String> map) {
@@ -20,8 +20,15 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertTrue;
@@ -53,6 +60,135 @@ public class RetrievalManagerTest extends RetrievalTestBase {
         EasyMock.verify(outWriter);
     }
 
+    @Test
+    public void testRetrievalManagerLists() throws Exception {
+        // Three spaces, with items listed in no particular size order
+        List<List<ContentItem>> lists = new ArrayList<>();
+        Map<String, Long> sizes = new HashMap<>();
+        long[][] listSizes = {{5, 40, 10}, {30, 1}, {20, 50, 2, 15}};
+        for(int i = 0; i < listSizes.length; i++) {
+            List<ContentItem> list = new ArrayList<>();
+            for(long size : listSizes[i]) {
+                ContentItem item = new ContentItem("space-" + i,
+                                                   "content-" + size);
+                list.add(item);
+                sizes.put(item.getContentId(), size);
+            }
+            lists.add(list);
+        }
+
+        OutputWriter outWriter = createMockOutputWriter();
+        ListRetrievalSource source = new ListRetrievalSource(lists, sizes);
+        StatusManager status = StatusManager.getInstance();
+        status.reset();
+
+        RetrievalManager retManager =
+            new RetrievalManager(source, tempDir, tempDir,
+                                 false, 1, outWriter, true, false);
+        retManager.setLargestFirst(true);
+        retManager.run();
+
+        for(int i = 0; i < listSizes.length; i++) {
+            File spaceDir = new File(tempDir, "space-" + i);
+            assertEquals(listSizes[i].length, spaceDir.listFiles().length);
+        }
+
+        // Once everything is queued, the largest items are retrieved first
+        List<Long> retrieved = source.getRetrieved();
+        assertEquals(sizes.size(), retrieved.size());
+        List<Long> remaining = new ArrayList<>(retrieved.subList(1, 9));
+        List<Long> expected = new ArrayList<>(remaining);
+        Collections.sort(expected, Collections.reverseOrder());
+        assertEquals(expected, remaining);
+
+        assertEquals(173, status.getBytesListed());
+        assertEquals(173, status.getBytesCompleted());
+        assertEquals(0, status.getBytesRemaining());
+        assertTrue(retManager.isComplete());
+
+        EasyMock.verify(outWriter);
+    }
+
+    @Test
+    public void testRetrievalManagerNoSizeLookup() throws Exception {
+        int numTestFiles = 5;
+        OutputWriter outWriter = createMockOutputWriter();
+        AtomicInteger sizeLookups = new AtomicInteger();
+        RetrievalSource source = new MockRetrievalSource(numTestFiles) {
+            @Override
+            public long getSourceSize(ContentItem contentItem) {
+                sizeLookups.incrementAndGet();
+                return 0;
+            }
+        };
+
+        // Sizes are only needed when the largest files are retrieved first
+        RetrievalManager retManager =
+            new RetrievalManager(source, tempDir, tempDir,
+                                 false, 1, outWriter, true, false);
+        retManager.run();
+
+        File spaceDir = new File(tempDir, spaceId);
+        assertEquals(numTestFiles, spaceDir.listFiles().length);
+        assertEquals(0, sizeLookups.get());
+        assertTrue(retManager.isComplete());
+
+        EasyMock.verify(outWriter);
+    }
+
+    /*
+     * Provides a content list per space. The first item retrieved waits until
+     * all items have been listed, so that the order of the rest is decided
+     * by the queue.
+     */
+    private class ListRetrievalSource extends MockRetrievalSource {
+
+        private List<List<ContentItem>> lists;
+        private Map<String, Long> sizes;
+        private CountDownLatch listed;
+        private List<Long> retrieved =
+            Collections.synchronizedList(new ArrayList<Long>());
+
+        public ListRetrievalSource(List<List<ContentItem>> lists,
+                                   Map<String, Long> sizes) {
+            super(0);
+            this.lists = lists;
+            this.sizes = sizes;
+            this.listed = new CountDownLatch(sizes.size());
+        }
+
+        @Override
+        public List<Iterator<ContentItem>> getContentItemLists() {
+            List<Iterator<ContentItem>> iterators = new ArrayList<>();
+            for(List<ContentItem> list : lists) {
+                iterators.add(list.iterator());
+            }
+            return iterators;
+        }
+
+        @Override
+        public long getSourceSize(ContentItem contentItem) {
+            listed.countDown();
+            return sizes.get(contentItem.getContentId());
+        }
+
+        @Override
+        public ContentStream getSourceContent(ContentItem contentItem,
+                                              RetrievalListener listener) {
+            try {
+                listed.await(10, TimeUnit.SECONDS);
+            } catch(InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            retrieved.add(sizes.get(contentItem.getContentId()));
+            return super.getSourceContent(contentItem, listener);
+        }
+
+        public List<Long> getRetrieved() {
+            return retrieved;
+        }
+    }
+
     private class MockRetrievalSource implements RetrievalSource {
 
         private int items;
@@ -8,6 +8,7 @@
 package org.duracloud.retrieval.mgmt;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.duracloud.client.ContentStore;
 import org.duracloud.common.model.ContentItem;
 import org.duracloud.common.util.ChecksumUtil;
@@ -21,9 +22,13 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.nio.file.Files;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static junit.framework.Assert.assertEquals;
@@ -121,6 +126,88 @@ public class RetrievalWorkerTest extends RetrievalTestBase {
         assertNotNull(fileProps);
     }
 
+    @Test
+    public void testResumeRetrieveFile() throws Exception {
+        // The first attempt fails part way through the content
+        ResumableMockRetrievalSource source =
+            new ResumableMockRetrievalSource(8);
+        RetrievalWorker worker = createRetrievalWorker(source);
+        File localFile = worker.getLocalFile();
+        assertFalse(localFile.exists());
+
+        StatusManager status = StatusManager.getInstance();
+        status.reset();
+
+        worker.retrieveFile();
+        checkFile(localFile, contentValue);
+        checkStatus(status, 1, 0, 0);
+
+        // The second attempt picks up where the first stopped
+        assertEquals(Arrays.asList(0L, 8L), source.startBytes);
+        assertFalse(worker.getPartialFile(localFile).exists());
+        assertFalse(worker.getPartialStateFile(localFile).exists());
+    }
+
+    @Test
+    public void testResumeChangedFile() throws Exception {
+        ResumableMockRetrievalSource source =
+            new ResumableMockRetrievalSource(-1);
+        RetrievalWorker worker = createRetrievalWorker(source);
+        File localFile = worker.getLocalFile();
+        localFile.getParentFile().mkdirs();
+
+        // Partial file left from a version of the content which has changed
+        FileUtils.writeStringToFile(worker.getPartialFile(localFile),
+                                    "previous-value");
+        FileUtils.writeStringToFile(worker.getPartialStateFile(localFile),
+                                    "checksum=previous-checksum\noffset=9\n");
+
+        worker.retrieveFile();
+        checkFile(localFile, contentValue);
+        assertEquals(Arrays.asList(9L, 0L), source.startBytes);
+        assertFalse(worker.getPartialFile(localFile).exists());
+        assertFalse(worker.getPartialStateFile(localFile).exists());
+    }
+
+    @Test
+    public void testRetrievalRecord() throws Exception {
+        RetrievalRecord record = new RetrievalRecord(tempDir);
+        RetrievalWorker worker = createRetrievalWorker(true);
+        worker.setRetrievalRecord(record);
+        File localFile = worker.getLocalFile();
+
+        StatusManager status = StatusManager.getInstance();
+        status.reset();
+
+        worker.retrieveFile();
+        checkStatus(status, 1, 0, 0);
+        String checksum =
+            new ChecksumUtil(ChecksumUtil.Algorithm.MD5).generateChecksum(
+                contentValue);
+        assertTrue(record.isUnchanged(localFile, checksum));
+        record.close();
+
+        // A new record reads the earlier entries, and the local file is
+        // found to be unchanged without computing its checksum
+        record = new RetrievalRecord(tempDir);
+        worker = new RetrievalWorker(new ContentItem(spaceId, contentId),
+                                     new MockRetrievalSource(),
+                                     tempDir,
+                                     true,
+                                     createMockOutputWriter(),
+                                     true,
+                                     true) {
+            @Override
+            protected String getChecksum(File localFile) {
+                throw new RuntimeException("Checksum not expected");
+            }
+        };
+        worker.setRetrievalRecord(record);
+        worker.retrieveFile();
+        checkStatus(status, 0, 1, 0);
+        record.close();
+    }
+
     @Test
     public void testGetLocalFile() throws Exception {
         RetrievalWorker worker = createRetrievalWorker(true);
@@ -278,6 +365,16 @@ public class RetrievalWorkerTest extends RetrievalTestBase {
                                    true);
     }
 
+    private RetrievalWorker createRetrievalWorker(RetrievalSource source) {
+        return new RetrievalWorker(new ContentItem(spaceId, contentId),
+                                   source,
+                                   tempDir,
+                                   true,
+                                   createMockOutputWriter(),
+                                   true,
+                                   true);
+    }
+
     private RetrievalWorker createRetrievalWorkerSingleSpace(boolean overwrite) {
         return new RetrievalWorker(new ContentItem(spaceId, contentId),
                                    new MockRetrievalSource(),
@@ -380,4 +477,40 @@ public class RetrievalWorkerTest extends RetrievalTestBase {
         }
     }
 
+    /*
+     * Create a retrieval source which is able to begin part way through the
+     * content, and which records where each request began. If failAfter is
+     * not negative, the first stream fails after that many bytes.
+     */
+    private class ResumableMockRetrievalSource extends MockRetrievalSource {
+        private final List<Long> startBytes = new ArrayList<>();
+        private int failAfter;
+
+        ResumableMockRetrievalSource(int failAfter) {
+            this.failAfter = failAfter;
+        }
+
+        @Override
+        public ContentStream getSourceContent(ContentItem contentItem,
+                                              long startByte,
+                                              RetrievalListener listener) {
+            startBytes.add(startByte);
+            byte[] value = contentValue.getBytes();
+            InputStream stream = new ByteArrayInputStream(
+                value, (int) startByte, value.length - (int) startByte);
+            if(failAfter >= 0) {
+                stream = new SequenceInputStream(
+                    new BoundedInputStream(stream, failAfter),
+                    new InputStream() {
+                        public int read() throws IOException {
+                            throw new IOException("Connection reset");
+                        }
+                    });
+                failAfter = -1;
+            }
+            return new ContentStream(stream, getSourceProperties(contentItem),
+                                     startByte);
+        }
+    }
+
 }
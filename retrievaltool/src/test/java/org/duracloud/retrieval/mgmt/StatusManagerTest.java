@@ -10,6 +10,8 @@ package org.duracloud.retrieval.mgmt;
 import org.junit.Test;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
 
 /**
  * @author: Bill Branan
@@ -64,4 +66,22 @@ public class StatusManagerTest {
         assertEquals(50, status.getFailed());
     }
 
+    @Test
+    public void testTimeRemaining() throws Exception {
+        StatusManager status = StatusManager.getInstance();
+        status.reset();
+        status.setVersion("test");
+        status.addBytesListed(200);
+        status.addBytesCompleted(100);
+        Thread.sleep(10);
+
+        // Without file sizes there is no estimate to show
+        assertEquals(-1, status.getEstimatedMillisRemaining());
+        assertFalse(status.getPrintableStatus().contains("Time Remaining"));
+
+        status.setSizesListed(true);
+        assertTrue(status.getEstimatedMillisRemaining() >= 0);
+        assertTrue(status.getPrintableStatus().contains("Time Remaining"));
+    }
+
 }
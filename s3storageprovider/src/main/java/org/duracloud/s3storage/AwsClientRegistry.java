@@ -0,0 +1,466 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.s3storage;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.AmazonWebServiceClient;
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.auth.AWSCredentialsProvider;
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.auth.DefaultAWSCredentialsProviderChain;
+import com.amazonaws.handlers.RequestHandler2;
+import com.amazonaws.services.cloudfront.AmazonCloudFrontClient;
+import com.amazonaws.services.s3.AmazonS3Client;
+import com.amazonaws.services.sns.AmazonSNSClient;
+import com.amazonaws.services.sqs.AmazonSQSClient;
+import org.duracloud.common.util.ChecksumUtil;
+import org.duracloud.common.util.ChecksumUtil.Algorithm;
+import org.duracloud.storage.error.StorageException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.duracloud.storage.error.StorageException.RETRY;
+
+/**
+ * Creates and holds the AWS clients used by DuraCloud, so that a single
+ * client (and a single connection pool) is shared by all callers using the
+ * same service and credentials.
+ *
+ * Clients are keyed by service, access key and a hash of the secret key, so
+ * a client is only shared by callers holding the same credentials. When the
+ * secret key for an access key changes, a new client is created and the
+ * existing one is left as it is, as callers may still hold it, until
+ * evictStale() is called with the current credentials once the account using
+ * them has been reloaded. Clients are shut down only by evictStale(), evict()
+ * and shutdown(). A null access key indicates that credentials should be
+ * found using the default AWS provider chain.
+ *
+ * Connection settings (max connections, timeouts, TCP keep-alive) are held
+ * here and apply to every client created after they are set. Each client
+ * is instrumented to track in-flight and completed requests, which are
+ * reported per service by getStats().
+ */
+public class AwsClientRegistry {
+
+    private static final Logger log =
+        LoggerFactory.getLogger(AwsClientRegistry.class);
+
+    public enum ClientType {
+        S3, SQS, SNS, CLOUDFRONT
+    }
+
+    private static final AwsClientRegistry instance = new AwsClientRegistry();
+
+    private final ConcurrentMap<String, RegisteredClient> clients =
+        new ConcurrentHashMap<>();
+    private final Map<ClientType, ClientStats> stats;
+
+    private volatile int maxConnections =
+        ClientConfiguration.DEFAULT_MAX_CONNECTIONS;
+    private volatile int connectionTimeout =
+        ClientConfiguration.DEFAULT_CONNECTION_TIMEOUT;
+    private volatile int socketTimeout =
+        ClientConfiguration.DEFAULT_SOCKET_TIMEOUT;
+    private volatile long connectionTTL =
+        ClientConfiguration.DEFAULT_CONNECTION_TTL;
+    private volatile boolean tcpKeepAlive = true;
+
+    public static AwsClientRegistry getInstance() {
+        return instance;
+    }
+
+    protected AwsClientRegistry() {
+        Map<ClientType, ClientStats> statsMap = new EnumMap<>(ClientType.class);
+        for (ClientType type : ClientType.values()) {
+            statsMap.put(type, new ClientStats(type));
+        }
+        this.stats = Collections.unmodifiableMap(statsMap);
+    }
+
+    public AmazonS3Client getS3Client(String accessKey, String secretKey) {
+        return (AmazonS3Client) getClient(ClientType.S3, accessKey, secretKey);
+    }
+
+    public AmazonCloudFrontClient getCloudFrontClient(String accessKey,
+                                                      String secretKey) {
+        return (AmazonCloudFrontClient)
+            getClient(ClientType.CLOUDFRONT, accessKey, secretKey);
+    }
+
+    public AmazonSQSClient getSQSClient(String accessKey, String secretKey) {
+        return (AmazonSQSClient) getClient(ClientType.SQS, accessKey, secretKey);
+    }
+
+    public AmazonSNSClient getSNSClient(String accessKey, String secretKey) {
+        return (AmazonSNSClient) getClient(ClientType.SNS, accessKey, secretKey);
+    }
+
+    /**
+     * @return the shared SQS client which uses the default credentials chain
+     */
+    public AmazonSQSClient getSQSClient() {
+        return getSQSClient(null, null);
+    }
+
+    /**
+     * @return the shared SNS client which uses the default credentials chain
+     */
+    public AmazonSNSClient getSNSClient() {
+        return getSNSClient(null, null);
+    }
+
+    private AmazonWebServiceClient getClient(final ClientType type,
+                                             final String accessKey,
+                                             final String secretKey) {
+        String key = getKey(type, accessKey, secretKey);
+        RegisteredClient registered = clients.get(key);
+        if (null != registered) {
+            return registered.client;
+        }
+
+        return clients.computeIfAbsent(key, k -> {
+            if (hasClient(type, accessKey)) {
+                log.info("New credentials for {} client with access key {}, " +
+                         "creating another client", type, accessKey);
+            }
+            return new RegisteredClient(type,
+                                        accessKey,
+                                        getSecretHash(secretKey),
+                                        createClient(type, accessKey, secretKey));
+        }).client;
+    }
+
+    private String getKey(ClientType type, String accessKey, String secretKey) {
+        return type.name() + "/" + (null == accessKey ? "" : accessKey) + "/" +
+               getSecretHash(secretKey);
+    }
+
+    private String getSecretHash(String secretKey) {
+        return null == secretKey ? "" :
+            new ChecksumUtil(Algorithm.SHA_256).generateChecksum(secretKey);
+    }
+
+    private boolean hasClient(ClientType type, String accessKey) {
+        for (RegisteredClient registered : clients.values()) {
+            if (registered.type == type &&
+                Objects.equals(registered.accessKey, accessKey)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private AmazonWebServiceClient createClient(ClientType type,
+                                                String accessKey,
+                                                String secretKey) {
+        AWSCredentialsProvider credentials;
+        if (null == accessKey) {
+            credentials = new DefaultAWSCredentialsProviderChain();
+        } else {
+            credentials = new AWSStaticCredentialsProvider(
+                new BasicAWSCredentials(accessKey, secretKey));
+        }
+        ClientConfiguration config = createClientConfiguration();
+
+        AmazonWebServiceClient client;
+        try {
+            switch (type) {
+                case S3:
+                    client = new AmazonS3Client(credentials, config);
+                    break;
+                case SQS:
+                    client = new AmazonSQSClient(credentials, config);
+                    break;
+                case SNS:
+                    client = new AmazonSNSClient(credentials, config);
+                    break;
+                case CLOUDFRONT:
+                    client = new AmazonCloudFrontClient(credentials, config);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown type " + type);
+            }
+        } catch (AmazonServiceException e) {
+            String err = "Could not create connection to Amazon " + type +
+                         " due to error: " + e.getMessage();
+            throw new StorageException(err, e, RETRY);
+        }
+
+        ClientStats clientStats = stats.get(type);
+        client.addRequestHandler(new StatsRequestHandler(clientStats));
+        clientStats.clientsCreated.incrementAndGet();
+        return client;
+    }
+
+    protected ClientConfiguration createClientConfiguration() {
+        ClientConfiguration config = new ClientConfiguration();
+        config.setMaxConnections(maxConnections);
+        config.setConnectionTimeout(connectionTimeout);
+        config.setSocketTimeout(socketTimeout);
+        config.setConnectionTTL(connectionTTL);
+        config.setUseTcpKeepAlive(tcpKeepAlive);
+        return config;
+    }
+
+    /**
+     * Shuts down and removes the clients created with the given access key
+     * and a secret key other than the one given, for use when the
+     * credentials of a storage account have been reloaded. Clients created
+     * with the current credentials are kept. Callers must no longer be using
+     * the clients created with the earlier credentials.
+     *
+     * @param accessKey
+     * @param secretKey the current secret key for the access key
+     */
+    public void evictStale(String accessKey, String secretKey) {
+        String currentSecretHash = getSecretHash(secretKey);
+        for (Map.Entry<String, RegisteredClient> entry : clients.entrySet()) {
+            RegisteredClient registered = entry.getValue();
+            if (Objects.equals(registered.accessKey, accessKey) &&
+                !registered.secretHash.equals(currentSecretHash) &&
+                clients.remove(entry.getKey(), registered)) {
+                log.info("Credentials for {} client with access key {} have " +
+                         "changed, shutting down the earlier client",
+                         registered.type, accessKey);
+                shutdown(registered);
+            }
+        }
+    }
+
+    /**
+     * Shuts down and removes all clients created with the given access key,
+     * whatever their secret key, for use when the credentials associated
+     * with that key are no longer valid. Callers must no longer be using
+     * those clients.
+     *
+     * @param accessKey
+     */
+    public void evict(String accessKey) {
+        for (Map.Entry<String, RegisteredClient> entry : clients.entrySet()) {
+            RegisteredClient registered = entry.getValue();
+            if (Objects.equals(registered.accessKey, accessKey) &&
+                clients.remove(entry.getKey(), registered)) {
+                shutdown(registered);
+            }
+        }
+    }
+
+    /**
+     * Shuts down and removes all clients
+     */
+    public void shutdown() {
+        for (String key : clients.keySet()) {
+            RegisteredClient removed = clients.remove(key);
+            if (null != removed) {
+                shutdown(removed);
+            }
+        }
+    }
+
+    private void shutdown(RegisteredClient registered) {
+        stats.get(registered.type).clientsEvicted.incrementAndGet();
+        try {
+            registered.client.shutdown();
+        } catch (Exception e) {
+            log.warn("Error shutting down {} client: {}",
+                     registered.type, e.getMessage());
+        }
+    }
+
+    /**
+     * @return usage statistics for each type of client
+     */
+    public Map<ClientType, ClientStats> getStats() {
+        return stats;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public int getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    public void setConnectionTimeout(int connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    public int getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    public void setSocketTimeout(int socketTimeout) {
+        this.socketTimeout = socketTimeout;
+    }
+
+    public long getConnectionTTL() {
+        return connectionTTL;
+    }
+
+    public void setConnectionTTL(long connectionTTL) {
+        this.connectionTTL = connectionTTL;
+    }
+
+    public boolean isTcpKeepAlive() {
+        return tcpKeepAlive;
+    }
+
+    public void setTcpKeepAlive(boolean tcpKeepAlive) {
+        this.tcpKeepAlive = tcpKeepAlive;
+    }
+
+    private static class RegisteredClient {
+        private final ClientType type;
+        private final String accessKey;
+        private final String secretHash;
+        private final AmazonWebServiceClient client;
+
+        RegisteredClient(ClientType type,
+                         String accessKey,
+                         String secretHash,
+                         AmazonWebServiceClient client) {
+            this.type = type;
+            this.accessKey = accessKey;
+            this.secretHash = secretHash;
+            this.client = client;
+        }
+    }
+
+    /**
+     * Counts requests made through the clients of a single service. A
+     * request is in flight from the time the client begins to handle it
+     * until its response (or error) is received. This is not a count of the
+     * pooled connections in use: a request waiting for a connection is
+     * counted, while a connection still held to stream a response body
+     * after the response is received is not.
+     */
+    public class ClientStats {
+        private final ClientType type;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger peakInFlight = new AtomicInteger();
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong clientsCreated = new AtomicLong();
+        private final AtomicLong clientsEvicted = new AtomicLong();
+
+        ClientStats(ClientType type) {
+            this.type = type;
+        }
+
+        void requestStarted() {
+            int current = inFlight.incrementAndGet();
+            peakInFlight.accumulateAndGet(current, Math::max);
+        }
+
+        void requestCompleted(boolean failed) {
+            inFlight.decrementAndGet();
+            requests.incrementAndGet();
+            if (failed) {
+                failures.incrementAndGet();
+            }
+        }
+
+        public ClientType getType() {
+            return type;
+        }
+
+        public int getClients() {
+            String prefix = type.name() + "/";
+            int count = 0;
+            for (String key : clients.keySet()) {
+                if (key.startsWith(prefix)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        public int getMaxConnectionsPerClient() {
+            return maxConnections;
+        }
+
+        public int getInFlight() {
+            return inFlight.get();
+        }
+
+        public int getPeakInFlight() {
+            return peakInFlight.get();
+        }
+
+        public long getRequests() {
+            return requests.get();
+        }
+
+        public long getFailures() {
+            return failures.get();
+        }
+
+        public long getClientsCreated() {
+            return clientsCreated.get();
+        }
+
+        public long getClientsEvicted() {
+            return clientsEvicted.get();
+        }
+
+        @Override
+        public String toString() {
+            return type + " clients=" + getClients() +
+                   ", maxConnectionsPerClient=" + getMaxConnectionsPerClient() +
+                   ", inFlight=" + getInFlight() +
+                   ", peakInFlight=" + getPeakInFlight() +
+                   ", requests=" + getRequests() +
+                   ", failures=" + getFailures() +
+                   ", created=" + getClientsCreated() +
+                   ", evicted=" + getClientsEvicted();
+        }
+    }
+
+    private static class StatsRequestHandler extends RequestHandler2 {
+        private final ClientStats clientStats;
+
+        StatsRequestHandler(ClientStats clientStats) {
+            this.clientStats = clientStats;
+        }
+
+        @Override
+        public void beforeRequest(Request<?> request) {
+            clientStats.requestStarted();
+        }
+
+        @Override
+        public void afterResponse(Request<?> request, Response<?> response) {
+            clientStats.requestCompleted(false);
+        }
+
+        @Override
+        public void afterError(Request<?> request,
+                               Response<?> response,
+                               Exception e) {
+            clientStats.requestCompleted(true);
+        }
+    }
+
+}
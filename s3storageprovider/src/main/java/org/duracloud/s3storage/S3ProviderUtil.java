@@ -7,23 +7,16 @@
  */
 package org.duracloud.s3storage;
 
-import com.amazonaws.AmazonServiceException;
-import com.amazonaws.auth.BasicAWSCredentials;
 import com.amazonaws.services.cloudfront.AmazonCloudFrontClient;
 import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.AmazonS3URI;
 import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.S3Object;
 
-import org.duracloud.storage.error.StorageException;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
-
-import static org.duracloud.storage.error.StorageException.RETRY;
 
 /**
  * @author: Bill Branan
@@ -31,58 +24,28 @@ import static org.duracloud.storage.error.StorageException.RETRY;
  */
 public class S3ProviderUtil {
 
-    private static Map<String, AmazonS3Client> s3Clients = new HashMap<>();
-    private static Map<String, AmazonCloudFrontClient> cloudFrontClients = new HashMap<>();
-
+    /**
+     * Retrieves the shared S3 client for the given credentials.
+     *
+     * @see AwsClientRegistry
+     */
     public static AmazonS3Client getAmazonS3Client(String accessKey,
                                                    String secretKey) {
-        AmazonS3Client client = s3Clients.get(key(accessKey, secretKey));
-        if (null == client) {
-            client = newS3Client(accessKey, secretKey);
-            s3Clients.put(key(accessKey, secretKey), client);
-        }
-        return client;
-    }
-
-    private static String key(String accessKey, String secretKey) {
-        return accessKey + secretKey;
+        return AwsClientRegistry.getInstance().getS3Client(accessKey, secretKey);
     }
 
-    private static AmazonS3Client newS3Client(String accessKey,
-                                              String secretKey) {
-        BasicAWSCredentials awsCredentials = new BasicAWSCredentials(accessKey,
-                                                                     secretKey);
-        try {
-            return new AmazonS3Client(awsCredentials);
-        } catch (AmazonServiceException e) {
-            String err = "Could not create connection to Amazon S3 due " +
-                         "to error: " + e.getMessage();
-            throw new StorageException(err, e, RETRY);
-        }
+    /**
+     * Retrieves the shared S3 client which uses credentials found by the
+     * default AWS credentials provider chain.
+     */
+    public static AmazonS3Client getAmazonS3Client() {
+        return getAmazonS3Client(null, null);
     }
 
     public static AmazonCloudFrontClient getAmazonCloudFrontClient(String accessKey,
                                                                    String secretKey) {
-        AmazonCloudFrontClient client =
-            cloudFrontClients.get(key(accessKey, secretKey));
-        if (null == client) {
-            client = newAmazonCloudFrontClient(accessKey, secretKey);
-            cloudFrontClients.put(key(accessKey, secretKey), client);
-        }
-        return client;
-    }
-
-    private static AmazonCloudFrontClient newAmazonCloudFrontClient(String accessKey,
-                                                                    String secretKey) {
-        BasicAWSCredentials awsCredentials =
-            new BasicAWSCredentials(accessKey, secretKey);
-        try {
-            return new AmazonCloudFrontClient(awsCredentials);
-        } catch (AmazonServiceException e) {
-            String err = "Could not create connection to Amazon CloudFront " +
-                         "due to error: " + e.getMessage();
-            throw new StorageException(err, e, RETRY);
-        }
+        return AwsClientRegistry.getInstance()
+                                .getCloudFrontClient(accessKey, secretKey);
     }
 
     /**
@@ -122,7 +85,7 @@ public class S3ProviderUtil {
      * @throws IOException
      */
     public static Resource getS3ObjectByUrl(String s3Url) throws IOException {
-        AmazonS3Client client = new AmazonS3Client();
+        AmazonS3Client client = getAmazonS3Client();
         AmazonS3URI s3Uri = new AmazonS3URI(s3Url);
         S3Object s3Obj = client.getObject(new GetObjectRequest(s3Uri.getBucket(), s3Uri.getKey()));
         s3Obj.getObjectContent();
@@ -18,6 +18,7 @@ import com.amazonaws.services.s3.model.BucketTaggingConfiguration;
 import com.amazonaws.services.s3.model.CannedAccessControlList;
 import com.amazonaws.services.s3.model.CopyObjectRequest;
 import com.amazonaws.services.s3.model.CopyObjectResult;
+import com.amazonaws.services.s3.model.GetObjectRequest;
 import com.amazonaws.services.s3.model.ListObjectsRequest;
 import com.amazonaws.services.s3.model.ObjectListing;
 import com.amazonaws.services.s3.model.ObjectMetadata;
@@ -746,6 +747,34 @@ public class S3StorageProvider extends StorageProviderBase {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  long endByte) {
+        log.debug("getContent(" + spaceId + ", " + contentId + ", " +
+                  startByte + ", " + endByte + ")");
+
+        // Will throw if bucket does not exist
+        String bucketName = getBucketName(spaceId);
+
+        try {
+            GetObjectRequest request =
+                new GetObjectRequest(bucketName, contentId);
+            request.setRange(startByte, endByte);
+            S3Object contentItem = s3Client.getObject(request);
+            return contentItem.getObjectContent();
+        } catch (AmazonClientException e) {
+            throwIfContentNotExist(bucketName, contentId);
+            String err = "Could not retrieve content " + contentId
+                    + " in S3 bucket " + bucketName + " due to error: "
+                    + e.getMessage();
+            throw new StorageException(err, e, RETRY);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,122 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.s3storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.services.s3.AmazonS3Client;
+import org.duracloud.s3storage.AwsClientRegistry.ClientStats;
+import org.duracloud.s3storage.AwsClientRegistry.ClientType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AwsClientRegistryTest {
+
+    private AwsClientRegistry registry;
+
+    @Before
+    public void setup() {
+        registry = new AwsClientRegistry();
+    }
+
+    @After
+    public void tearDown() {
+        registry.shutdown();
+    }
+
+    @Test
+    public void testSharedClient() {
+        AmazonS3Client client = registry.getS3Client("access", "secret");
+        assertSame(client, registry.getS3Client("access", "secret"));
+        assertNotSame(client, registry.getS3Client("other", "secret"));
+
+        ClientStats stats = registry.getStats().get(ClientType.S3);
+        assertEquals(2, stats.getClients());
+        assertEquals(2, stats.getClientsCreated());
+        assertEquals(0, stats.getClientsEvicted());
+        assertEquals(0, registry.getStats().get(ClientType.SQS).getClients());
+    }
+
+    @Test
+    public void testCredentialChange() {
+        AmazonS3Client client = registry.getS3Client("access", "secret");
+        AmazonS3Client updated = registry.getS3Client("access", "new-secret");
+        assertNotSame(client, updated);
+        assertSame(updated, registry.getS3Client("access", "new-secret"));
+
+        // The existing client may still be in use, so is kept
+        assertSame(client, registry.getS3Client("access", "secret"));
+
+        ClientStats stats = registry.getStats().get(ClientType.S3);
+        assertEquals(2, stats.getClients());
+        assertEquals(2, stats.getClientsCreated());
+        assertEquals(0, stats.getClientsEvicted());
+    }
+
+    @Test
+    public void testEvictStale() {
+        AmazonS3Client client = registry.getS3Client("access", "secret");
+        AmazonS3Client updated = registry.getS3Client("access", "new-secret");
+        registry.getCloudFrontClient("access", "secret");
+        AmazonS3Client other = registry.getS3Client("other", "secret");
+        registry.evictStale("access", "new-secret");
+
+        ClientStats stats = registry.getStats().get(ClientType.S3);
+        assertEquals(2, stats.getClients());
+        assertEquals(1, stats.getClientsEvicted());
+        assertSame(updated, registry.getS3Client("access", "new-secret"));
+        assertSame(other, registry.getS3Client("other", "secret"));
+        assertEquals(0, registry.getStats()
+                                .get(ClientType.CLOUDFRONT).getClients());
+        assertNotSame(client, registry.getS3Client("access", "secret"));
+
+        // Nothing is evicted when the credentials have not changed
+        registry.evictStale("other", "secret");
+        assertSame(other, registry.getS3Client("other", "secret"));
+    }
+
+    @Test
+    public void testEvict() {
+        AmazonS3Client client = registry.getS3Client("access", "secret");
+        registry.getS3Client("access", "new-secret");
+        registry.getCloudFrontClient("access", "secret");
+        AmazonS3Client other = registry.getS3Client("other", "secret");
+        registry.evict("access");
+
+        assertEquals(1, registry.getStats().get(ClientType.S3).getClients());
+        assertEquals(2, registry.getStats()
+                                .get(ClientType.S3).getClientsEvicted());
+        assertSame(other, registry.getS3Client("other", "secret"));
+        assertEquals(0, registry.getStats()
+                                .get(ClientType.CLOUDFRONT).getClients());
+        assertNotSame(client, registry.getS3Client("access", "secret"));
+    }
+
+    @Test
+    public void testClientConfiguration() {
+        registry.setMaxConnections(200);
+        registry.setConnectionTimeout(1000);
+        registry.setSocketTimeout(2000);
+        registry.setTcpKeepAlive(false);
+
+        ClientConfiguration config = registry.createClientConfiguration();
+        assertEquals(200, config.getMaxConnections());
+        assertEquals(1000, config.getConnectionTimeout());
+        assertEquals(2000, config.getSocketTimeout());
+        assertFalse(config.useTcpKeepAlive());
+        assertEquals(200, registry.getStats()
+                                  .get(ClientType.S3)
+                                  .getMaxConnectionsPerClient());
+    }
+
+}
@@ -7,6 +7,7 @@
  */
 package org.duracloud.security.vote;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -43,6 +44,10 @@ public abstract class SpaceAccessVoter implements AccessDecisionVoter {
     private StorageProviderFactory storageProviderFactory;
     private static String[] EXCEPTIONAL_PATH_PREFIXES =
         { "/manifest/", "/bit-integrity/", "/report/space/" };
+    // Resources whose names are also legal space IDs, so are open only when
+    // requested by exactly their own path, never as a space with content
+    private static List<String> EXACT_OPEN_RESOURCES =
+        Arrays.asList("metrics", "space-summary");
 
     public SpaceAccessVoter(StorageProviderFactory storageProviderFactory,
                             UserDetailsService userDetailsService) {
@@ -53,15 +58,23 @@ public abstract class SpaceAccessVoter implements AccessDecisionVoter {
 
 
     protected boolean isOpenResource(HttpServletRequest httpRequest) {
-        String spaceId = getSpaceId(httpRequest);
-        if (null == spaceId) {
+        String pathInfo = httpRequest.getPathInfo();
+        if (null == pathInfo) {
             return false;
         }
 
+        String path = pathInfo.startsWith("/") ? pathInfo.substring(1)
+                                               : pathInfo;
+        if (EXACT_OPEN_RESOURCES.contains(path)) {
+            return true;
+        }
+
+        String spaceId = extractSpaceId(pathInfo);
         return spaceId.equals("spaces")
             || spaceId.equals("stores")
             || spaceId.equals("acl")
-            || spaceId.equals("task");
+            || spaceId.equals("task")
+            || spaceId.equals("copy-job");
 
     }
 
@@ -160,7 +160,8 @@ public class SpaceWriteAccessVoter extends SpaceAccessVoter {
     }
 
     private boolean isTask(HttpServletRequest httpRequest) {
-        return "task".equals(getSpaceId(httpRequest));
+        String spaceId = getSpaceId(httpRequest);
+        return "task".equals(spaceId) || "copy-job".equals(spaceId);
     }
 
     private boolean isRoot(Authentication auth) {
@@ -196,6 +196,43 @@ public class SpaceReadAccessVoterTest {
         doTestVoteReservedResourcesOpen("acl");
     }
 
+    @Test
+    public void testVoteReservedResourcesOpenSpaceSummary() {
+        doTestVoteReservedResourcesOpen("space-summary");
+    }
+
+    @Test
+    public void testVoteClosedSpaceNamedSpaceSummary() {
+        doTestVoteClosedSpaceWithReservedName("space-summary");
+    }
+
+
+    @Test
+    public void testVoteReservedResourcesOpenMetrics() {
+        doTestVoteReservedResourcesOpen("/metrics");
+    }
+
+    @Test
+    public void testVoteClosedSpaceNamedMetrics() {
+        doTestVoteClosedSpaceWithReservedName("metrics");
+    }
+
+    /*
+     * Resources named like spaces are open only at their own path, so content
+     * in a closed space of the same name is still protected by its ACLs.
+     */
+    private void doTestVoteClosedSpaceWithReservedName(String spaceId) {
+        boolean securedSpace = true;
+        Authentication caller = registeredUser("joe", "none");
+        createMockInvocation(caller, securedSpace, HttpVerb.GET,
+                             "/" + spaceId + "/content-id", 3);
+        Collection<ConfigAttribute> config = getConfigAttribute(securedSpace);
+        setupGetSpaceAcls(spaceId, acls);
+        replayMocks();
+
+        int decision = voter.vote(caller, resource, config);
+        Assert.assertEquals(ACCESS_DENIED, decision);
+    }
 
     private void doTestVoteReservedResourcesOpen(String spaceId) {
         boolean securedSpace = false;
@@ -37,6 +37,30 @@ public interface FileStitcher {
 
     public Content getContentFromManifest(String spaceId, String contentId, FileStitcherListener listener)
         throws InvalidManifestException;
+
+    /**
+     * This method retrieves the original content item as defined by the chunks
+     * manifest, starting from the chunk which contains the arg startByte. The
+     * stream begins at the first byte of that chunk, which is given in the
+     * Content-Range property of the returned content (in the form
+     * "bytes start-end/size"). When startByte is 0 or less, the full content
+     * is returned and no Content-Range property is included.
+     *
+     * @param spaceId   of chunks manifest
+     * @param contentId of chunks manifest
+     * @param startByte offset within the original content item
+     * @param listener  notified as each chunk is read, may be null
+     * @return reconstituted content item defined in manifest
+     * @throws InvalidManifestException on error retrieving the manifest, or
+     *                                  if startByte is beyond the end of the
+     *                                  content
+     */
+    public Content getContentFromManifest(String spaceId,
+                                          String contentId,
+                                          long startByte,
+                                          FileStitcherListener listener)
+        throws InvalidManifestException;
+
     /**
      * This method returns the deserialized ChunksManifest object found in the
      * arg spaceId with the arg manifestId.
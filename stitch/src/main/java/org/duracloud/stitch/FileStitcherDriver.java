@@ -49,7 +49,11 @@ public class FileStitcherDriver {
     private FileStitcher stitcher;
 
     public FileStitcherDriver(DataSource dataSource) {
-        this.stitcher = new FileStitcherImpl(dataSource);
+        this(dataSource, 1);
+    }
+
+    public FileStitcherDriver(DataSource dataSource, int threads) {
+        this.stitcher = new FileStitcherImpl(dataSource, threads);
     }
 
     /**
@@ -161,6 +165,12 @@ public class FileStitcherDriver {
                                   "to-dir",
                                   true,
                                   "destination directory of full content");
+
+        Option threads = new Option("t",
+                                    "threads",
+                                    true,
+                                    "number of chunks to retrieve at the " +
+                                        "same time, default is 1");
         host.setRequired(true);
         port.setRequired(false);
         username.setRequired(true);
@@ -169,6 +179,7 @@ public class FileStitcherDriver {
         spaceId.setRequired(true);
         manifestId.setRequired(true);
         toDir.setRequired(true);
+        threads.setRequired(false);
 
         Options options = new Options();
         options.addOption(host);
@@ -179,6 +190,7 @@ public class FileStitcherDriver {
         options.addOption(spaceId);
         options.addOption(manifestId);
         options.addOption(toDir);
+        options.addOption(threads);
 
         return options;
     }
@@ -219,8 +231,14 @@ public class FileStitcherDriver {
 
         // do the stitching.
         try {
+            int threads = 1;
+            if (cmd.hasOption("threads")) {
+                threads = Integer.parseInt(cmd.getOptionValue("threads"));
+            }
+
             DataSource dataSource = getDataSource(cmd);
-            FileStitcherDriver driver = new FileStitcherDriver(dataSource);
+            FileStitcherDriver driver =
+                new FileStitcherDriver(dataSource, threads);
 
             driver.stitch(spaceId, manifestId, new File(toDir));
 
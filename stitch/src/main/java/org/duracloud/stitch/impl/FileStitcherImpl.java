@@ -7,8 +7,10 @@
  */
 package org.duracloud.stitch.impl;
 
+import static org.duracloud.client.HttpHeaders.CONTENT_RANGE;
 import static org.duracloud.storage.provider.StorageProvider.*;
 
+import java.io.File;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -27,6 +29,7 @@ import org.duracloud.stitch.datasource.DataSource;
 import org.duracloud.stitch.error.InvalidManifestException;
 import org.duracloud.stitch.stream.MultiContentInputStream;
 import org.duracloud.stitch.stream.MultiContentInputStreamListener;
+import org.duracloud.stitch.stream.ParallelContentInputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,15 +44,51 @@ public class FileStitcherImpl implements FileStitcher {
     private Logger log = LoggerFactory.getLogger(FileStitcherImpl.class);
 
     private DataSource dataSource;
+    private int threads;
+    private File tempDir;
 
     public FileStitcherImpl(DataSource dataSource) {
+        this(dataSource, 1);
+    }
+
+    /**
+     * @param dataSource from which manifests and chunks are retrieved
+     * @param threads    number of chunks to retrieve at the same time; with
+     *                   more than one, chunks are held in temporary files
+     *                   until they are read
+     */
+    public FileStitcherImpl(DataSource dataSource, int threads) {
+        this(dataSource, threads, null);
+    }
+
+    /**
+     * @param dataSource from which manifests and chunks are retrieved
+     * @param threads    number of chunks to retrieve at the same time; with
+     *                   more than one, chunks are held in temporary files
+     *                   until they are read
+     * @param tempDir    directory in which to hold those temporary files,
+     *                   null to use the default temporary directory
+     */
+    public FileStitcherImpl(DataSource dataSource, int threads, File tempDir) {
         this.dataSource = dataSource;
+        this.threads = threads;
+        this.tempDir = tempDir;
     }
 
     @Override
     public Content getContentFromManifest(String spaceId, String contentId, FileStitcherListener listener)
         throws InvalidManifestException {
-        log.debug("getContentFromManifest({}, {})", spaceId, contentId);
+        return getContentFromManifest(spaceId, contentId, 0, listener);
+    }
+
+    @Override
+    public Content getContentFromManifest(String spaceId,
+                                          String contentId,
+                                          long startByte,
+                                          FileStitcherListener listener)
+        throws InvalidManifestException {
+        log.debug("getContentFromManifest({}, {}, {})",
+                  spaceId, contentId, startByte);
 
         // verify contentId corresponds to the manifest naming convention.
         if (!isManifest(contentId)) {
@@ -62,7 +101,9 @@ public class FileStitcherImpl implements FileStitcher {
         ChunksManifest manifest = getManifest(manifestContent, spaceId, contentId);
 
         // collect ordered sequence of chunk streams.
-        InputStream multiStream = getChunkSequenceStream(spaceId, manifest, listener);
+        long[] chunkStart = new long[1];
+        InputStream multiStream =
+            getChunkSequenceStream(spaceId, manifest, startByte, chunkStart, listener);
 
         // package the chunks as the reconstituted content item.
         Content content = new Content();
@@ -77,6 +118,12 @@ public class FileStitcherImpl implements FileStitcher {
         }else{
             manifestProps.putAll(stitchedProps);
         }
+        if (startByte > 0) {
+            long size = manifest.getHeader().getSourceByteSize();
+            manifestProps.put(CONTENT_RANGE,
+                              "bytes " + chunkStart[0] + "-" + (size - 1) +
+                              "/" + size);
+        }
         content.setProperties(manifestProps);
         return content;
     }
@@ -111,38 +158,72 @@ public class FileStitcherImpl implements FileStitcher {
         }
     }
 
+    /*
+     * Collects the chunks in index order, leaving out those which end at or
+     * before startByte. The offset of the first chunk included is set in
+     * chunkStart[0].
+     */
     private InputStream getChunkSequenceStream(String spaceId,
-                                               ChunksManifest manifest, FileStitcherListener listener)
+                                               ChunksManifest manifest,
+                                               long startByte,
+                                               long[] chunkStart,
+                                               FileStitcherListener listener)
         throws InvalidManifestException {
         // sort chunks by their index.
-        Map<Integer, String> sortedChunkIds = new TreeMap<Integer, String>();
+        Map<Integer, ChunksManifestBean.ManifestEntry> sortedChunks =
+            new TreeMap<Integer, ChunksManifestBean.ManifestEntry>();
         for (ChunksManifestBean.ManifestEntry entry : manifest.getEntries()) {
-            sortedChunkIds.put(entry.getIndex(), entry.getChunkId());
+            sortedChunks.put(entry.getIndex(), entry);
         }
 
         // collect ordered sequence of chunk streams.
-        List<ContentItem> chunks = new ArrayList<ContentItem>();
-        for (String chunkId : sortedChunkIds.values()) {
-            chunks.add(new ContentItem(spaceId, chunkId));
+        List<ChunksManifestBean.ManifestEntry> chunks =
+            new ArrayList<ChunksManifestBean.ManifestEntry>();
+        long offset = 0;
+        for (ChunksManifestBean.ManifestEntry entry : sortedChunks.values()) {
+            long chunkEnd = offset + entry.getByteSize();
+            if (chunkEnd > startByte || startByte <= 0) {
+                if (chunks.isEmpty()) {
+                    chunkStart[0] = offset;
+                }
+                chunks.add(entry);
+            }
+            offset = chunkEnd;
         }
 
         if (chunks.size() == 0) {
-            String msg = "No chunk streams found!";
-            log.error(msg);
             String contentId = manifest.getHeader().getSourceContentId();
+            String msg = sortedChunks.isEmpty() ? "No chunk streams found!" :
+                "Start byte " + startByte + " is beyond the end of the content";
+            log.error(msg);
             throw new InvalidManifestException(spaceId, contentId, msg);
         }
-        
+
+        MultiContentInputStreamListener chunkListener =
+            new MultiContentInputStreamListener() {
+                public void contentIdRead(String contentId) {
+                    if (listener != null) {
+                        listener.chunkStitched(contentId);
+                    }
+                }
+            };
+
+        if (threads > 1) {
+            return new ParallelContentInputStream(dataSource,
+                                                  spaceId,
+                                                  chunks,
+                                                  threads,
+                                                  tempDir,
+                                                  chunkListener);
+        }
+
+        List<ContentItem> contentItems = new ArrayList<ContentItem>();
+        for (ChunksManifestBean.ManifestEntry entry : chunks) {
+            contentItems.add(new ContentItem(spaceId, entry.getChunkId()));
+        }
         return new MultiContentInputStream(dataSource,
-                                           chunks,
-                                           new MultiContentInputStreamListener() {
-                                               public void
-                                                      contentIdRead(String contentId) {
-                                                   if (listener != null) {
-                                                       listener.chunkStitched(contentId);
-                                                   }
-                                               }
-                                           });
+                                           contentItems,
+                                           chunkListener);
     }
 
     private Map<String, String> getContentProperties(ChunksManifest manifest) {
@@ -0,0 +1,277 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.stitch.stream;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.duracloud.chunk.manifest.ChunksManifestBean.ManifestEntry;
+import org.duracloud.common.util.ChecksumUtil;
+import org.duracloud.domain.Content;
+import org.duracloud.stitch.datasource.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class exposes a single InputStream composed of the sequence of chunks
+ * listed in a manifest, where the chunks are fetched from the data source by
+ * a set of threads ahead of being read. Each chunk is written to a temporary
+ * file while its MD5 is computed, and is fetched again if the transfer fails
+ * or the MD5 does not match the one listed in the manifest. No more chunks
+ * than there are threads are held in temporary files waiting to be read,
+ * along with the chunk currently being read.
+ */
+public class ParallelContentInputStream extends InputStream {
+
+    private final Logger log =
+        LoggerFactory.getLogger(ParallelContentInputStream.class);
+
+    protected static final int MAX_ATTEMPTS = 3;
+
+    private static final AtomicInteger streamCount = new AtomicInteger();
+
+    private final DataSource dataSource;
+    private final String spaceId;
+    private final List<ManifestEntry> chunks;
+    private final int threads;
+    private final File tempDir;
+    private final MultiContentInputStreamListener listener;
+    private final ExecutorService executor;
+
+    // Chunks which have been requested, in the order they are to be read
+    private final Deque<Future<File>> pending = new ArrayDeque<>();
+    private int nextToFetch = 0;
+    private int nextToRead = 0;
+
+    private InputStream currentStream;
+    private File currentFile;
+    private String currentChunkId;
+    private boolean closed = false;
+
+    /**
+     * @param dataSource from which chunks are retrieved
+     * @param spaceId    of the chunks
+     * @param chunks     manifest entries of the chunks, in the order in which
+     *                   they are to be read
+     * @param threads    number of chunks to fetch at the same time
+     * @param tempDir    directory in which to hold chunks, null to use the
+     *                   default temporary directory
+     * @param listener   notified as each chunk is read, may be null
+     */
+    public ParallelContentInputStream(DataSource dataSource,
+                                      String spaceId,
+                                      List<ManifestEntry> chunks,
+                                      int threads,
+                                      File tempDir,
+                                      MultiContentInputStreamListener listener) {
+        this.dataSource = dataSource;
+        this.spaceId = spaceId;
+        this.chunks = chunks;
+        this.threads = Math.max(threads, 1);
+        this.tempDir = tempDir;
+        this.listener = listener;
+
+        final String threadPrefix =
+            "chunk-fetch-" + streamCount.incrementAndGet() + "-";
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.threads, runnable -> {
+            Thread thread = new Thread(runnable, threadPrefix +
+                                                 threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public int read() throws IOException {
+        while (true) {
+            if (null == currentStream && !nextStream()) {
+                return -1;
+            }
+
+            int bite = currentStream.read();
+            if (-1 != bite) {
+                return bite;
+            }
+            finishStream();
+        }
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (0 == length) {
+            return 0;
+        }
+
+        while (true) {
+            if (null == currentStream && !nextStream()) {
+                return -1;
+            }
+
+            int read = currentStream.read(bytes, offset, length);
+            if (-1 != read) {
+                return read;
+            }
+            finishStream();
+        }
+    }
+
+    /*
+     * Opens the next chunk in sequence, waiting for it to arrive if needed.
+     * Returns false when all chunks have been read.
+     */
+    private boolean nextStream() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+
+        fetchAhead();
+        Future<File> next = pending.poll();
+        if (null == next) {
+            executor.shutdown();
+            return false;
+        }
+
+        currentChunkId = chunks.get(nextToRead++).getChunkId();
+        try {
+            currentFile = next.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(
+                "Interrupted waiting for chunk " + currentChunkId);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw new IOException("Unable to retrieve chunk " + currentChunkId +
+                                  ": " + cause.getMessage(), cause);
+        }
+
+        fetchAhead();
+        currentStream =
+            new BufferedInputStream(new FileInputStream(currentFile));
+        return true;
+    }
+
+    private void finishStream() {
+        IOUtils.closeQuietly(currentStream);
+        FileUtils.deleteQuietly(currentFile);
+        currentStream = null;
+        currentFile = null;
+
+        if (null != listener) {
+            listener.contentIdRead(currentChunkId);
+        }
+    }
+
+    /*
+     * Keeps as many chunks in progress as there are threads
+     */
+    private void fetchAhead() {
+        while (pending.size() < threads && nextToFetch < chunks.size()) {
+            final ManifestEntry chunk = chunks.get(nextToFetch++);
+            pending.add(executor.submit(() -> fetchChunk(chunk)));
+        }
+    }
+
+    /*
+     * Retrieves a chunk into a temporary file, verifying its checksum
+     * against the manifest, and retrying on failure.
+     */
+    protected File fetchChunk(ManifestEntry chunk) throws IOException {
+        String chunkId = chunk.getChunkId();
+        Exception error = null;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            File chunkFile = File.createTempFile("chunk-", ".tmp", tempDir);
+            try {
+                Content content = dataSource.getContent(spaceId, chunkId);
+                DigestInputStream digestStream =
+                    ChecksumUtil.wrapStream(content.getStream(),
+                                            ChecksumUtil.Algorithm.MD5);
+                try (InputStream inStream = digestStream;
+                     OutputStream outStream = new FileOutputStream(chunkFile)) {
+                    IOUtils.copyLarge(inStream, outStream);
+                }
+
+                if (Thread.currentThread().isInterrupted()) {
+                    // The stream was closed while this chunk was in transit
+                    FileUtils.deleteQuietly(chunkFile);
+                    throw new InterruptedIOException(
+                        "Interrupted retrieving chunk " + chunkId);
+                }
+
+                String checksum = ChecksumUtil.getChecksum(digestStream);
+                String expected = chunk.getChunkMD5();
+                if (null == expected || expected.equalsIgnoreCase(checksum)) {
+                    return chunkFile;
+                }
+                error = new IOException("Checksum of chunk " + chunkId + " (" +
+                                        checksum + ") does not match the " +
+                                        "manifest (" + expected + ")");
+
+            } catch (InterruptedIOException e) {
+                FileUtils.deleteQuietly(chunkFile);
+                throw e;
+            } catch (IOException | RuntimeException e) {
+                error = e;
+            }
+
+            FileUtils.deleteQuietly(chunkFile);
+            log.warn("Attempt {} of {} to retrieve chunk {} failed: {}",
+                     attempt, MAX_ATTEMPTS, chunkId, error.getMessage());
+        }
+        throw new IOException("Chunk " + chunkId + " could not be retrieved " +
+                              "after " + MAX_ATTEMPTS + " attempts: " +
+                              error.getMessage(), error);
+    }
+
+    /**
+     * Stops the retrieval of any chunks in progress and removes any chunks
+     * held in temporary files.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        executor.shutdownNow();
+
+        IOUtils.closeQuietly(currentStream);
+        FileUtils.deleteQuietly(currentFile);
+        currentStream = null;
+        currentFile = null;
+
+        for (Future<File> chunk : pending) {
+            if (!chunk.cancel(true)) {
+                try {
+                    FileUtils.deleteQuietly(chunk.get());
+                } catch (Exception e) {
+                    // Nothing to remove
+                }
+            }
+        }
+        pending.clear();
+    }
+
+}
@@ -185,20 +185,40 @@ public class FileStitcherImplTest {
                             fullContent.length());
     }
 
+    @Test
+    public void testGetContentFromManifestStartByte() throws Exception {
+        createMocks(RESUME_CHUNKS);
+        replayMocks();
+
+        // Each chunk holds 7 bytes, so byte 16 falls in the third chunk
+        stitcher = new FileStitcherImpl(dataSource);
+        Content content =
+            stitcher.getContentFromManifest(spaceId, contentId, 16, null);
+        Assert.assertEquals("bytes 14-98/99",
+                            content.getProperties().get("Content-Range"));
+        Assert.assertEquals("99",
+                            content.getProperties().get(PROPERTIES_CONTENT_SIZE));
+
+        String fullContent = IOUtils.toString(content.getStream());
+        Assert.assertEquals(getChunkContent(2) + getChunkContent(3) +
+                            getChunkContent(4), fullContent);
+    }
+
     private void createMocks(MODE mode) {
         if (mode == ERROR_NAME) {
             return;
         }
 
         Content content = null;
-        if (mode == VALID_CHUNKS) {
+        if (mode == VALID_CHUNKS || mode == RESUME_CHUNKS) {
             List<Integer> indexes = new ArrayList<Integer>();
             indexes.add(3);
             indexes.add(4);
             indexes.add(0);
             indexes.add(2);
             indexes.add(1);
-            content = createManifestContentWithChunks(indexes);
+            content = createManifestContentWithChunks(
+                indexes, mode == RESUME_CHUNKS ? 2 : 0);
 
         } else if (mode == ERROR_DESERIALIZE) {
             content = new Content();
@@ -208,7 +228,8 @@ public class FileStitcherImplTest {
             content);
     }
 
-    private Content createManifestContentWithChunks(List<Integer> chunkIndexes) {
+    private Content createManifestContentWithChunks(List<Integer> chunkIndexes,
+                                                    int firstChunkRead) {
         long sourceByteSize = 99;
         ChunksManifest manifest = createManifest(sourceByteSize);
 
@@ -225,6 +246,9 @@ public class FileStitcherImplTest {
             manifest.addEntry(chunkId, md5, chunkText.length());
 
             // create chunk expectation.
+            if (chunkIndex < firstChunkRead) {
+                continue;
+            }
             Content chunk = new Content();
             chunk.setId(chunkId);
             chunk.setStream(getStream(chunkText));
@@ -282,6 +306,7 @@ public class FileStitcherImplTest {
 
     protected enum MODE {
         VALID_CHUNKS,
+        RESUME_CHUNKS,
         ERROR_NAME,
         ERROR_NULL,
         ERROR_DESERIALIZE;
@@ -0,0 +1,180 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.stitch.stream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.duracloud.chunk.manifest.ChunksManifestBean.ManifestEntry;
+import org.duracloud.common.util.ChecksumUtil;
+import org.duracloud.domain.Content;
+import org.duracloud.stitch.datasource.DataSource;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelContentInputStreamTest {
+
+    private static final String spaceId = "space-id";
+    private static final int NUM_CHUNKS = 8;
+
+    private File tempDir;
+    private List<ManifestEntry> chunks;
+    private Map<String, String> chunkText;
+    private Map<String, AtomicInteger> requests;
+    private List<String> chunksRead;
+
+    @Before
+    public void setUp() throws Exception {
+        tempDir = new File("target", "parallel-stream-test");
+        FileUtils.deleteDirectory(tempDir);
+        tempDir.mkdirs();
+
+        ChecksumUtil checksumUtil = new ChecksumUtil(ChecksumUtil.Algorithm.MD5);
+        chunks = new ArrayList<>();
+        chunkText = new ConcurrentHashMap<>();
+        requests = new ConcurrentHashMap<>();
+        chunksRead = Collections.synchronizedList(new ArrayList<String>());
+        for (int i = 0; i < NUM_CHUNKS; i++) {
+            String chunkId = "chunk-" + i;
+            String text = "content of chunk " + i + ";";
+            chunkText.put(chunkId, text);
+            requests.put(chunkId, new AtomicInteger());
+            chunks.add(new ManifestEntry(chunkId,
+                                         checksumUtil.generateChecksum(text),
+                                         i,
+                                         text.length()));
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(tempDir);
+    }
+
+    @Test
+    public void testRead() throws Exception {
+        InputStream stream = createStream(new ChunkDataSource(null, 0));
+        Assert.assertEquals(getFullText(), readFully(stream));
+
+        // Chunks are read in order, each fetched once, and none left behind
+        List<String> expected = new ArrayList<>();
+        for (ManifestEntry chunk : chunks) {
+            expected.add(chunk.getChunkId());
+            Assert.assertEquals(1, requests.get(chunk.getChunkId()).get());
+        }
+        Assert.assertEquals(expected, chunksRead);
+        Assert.assertEquals(0, tempDir.list().length);
+    }
+
+    @Test
+    public void testReadByByte() throws Exception {
+        InputStream stream = createStream(new ChunkDataSource(null, 0));
+        StringBuilder text = new StringBuilder();
+        int bite;
+        while ((bite = stream.read()) != -1) {
+            text.append((char) bite);
+        }
+        stream.close();
+        Assert.assertEquals(getFullText(), text.toString());
+    }
+
+    @Test
+    public void testRetryChecksumMismatch() throws Exception {
+        // The chunk is corrupted on its first two transfers
+        InputStream stream = createStream(new ChunkDataSource("chunk-3", 2));
+        Assert.assertEquals(getFullText(), readFully(stream));
+        Assert.assertEquals(3, requests.get("chunk-3").get());
+        Assert.assertEquals(1, requests.get("chunk-4").get());
+    }
+
+    @Test
+    public void testRetryFailure() throws Exception {
+        InputStream stream = createStream(new ChunkDataSource("chunk-5", -1));
+        try {
+            readFully(stream);
+            Assert.fail("Exception expected");
+        } catch (IOException e) {
+            Assert.assertTrue(e.getMessage().contains("chunk-5"));
+        }
+        Assert.assertEquals(ParallelContentInputStream.MAX_ATTEMPTS,
+                            requests.get("chunk-5").get());
+
+        // Chunks before the failed chunk were all read
+        Assert.assertEquals(5, chunksRead.size());
+    }
+
+    private InputStream createStream(DataSource dataSource) {
+        return new ParallelContentInputStream(dataSource,
+                                              spaceId,
+                                              chunks,
+                                              3,
+                                              tempDir,
+                                              chunkId -> chunksRead.add(chunkId));
+    }
+
+    private String readFully(InputStream stream) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            IOUtils.copy(stream, out);
+        } finally {
+            stream.close();
+        }
+        return out.toString();
+    }
+
+    private String getFullText() {
+        StringBuilder text = new StringBuilder();
+        for (ManifestEntry chunk : chunks) {
+            text.append(chunkText.get(chunk.getChunkId()));
+        }
+        return text.toString();
+    }
+
+    /*
+     * Provides chunk content. The bad chunk is corrupted on the given number
+     * of requests, or on all requests when the number is negative.
+     */
+    private class ChunkDataSource implements DataSource {
+        private final String badChunkId;
+        private final int badRequests;
+
+        ChunkDataSource(String badChunkId, int badRequests) {
+            this.badChunkId = badChunkId;
+            this.badRequests = badRequests;
+        }
+
+        @Override
+        public Content getContent(String spaceId, String contentId) {
+            int request = requests.get(contentId).incrementAndGet();
+            String text = chunkText.get(contentId);
+            if (contentId.equals(badChunkId) &&
+                (badRequests < 0 || request <= badRequests)) {
+                text = "corrupted";
+            }
+
+            Content content = new Content();
+            content.setId(contentId);
+            content.setStream(new ByteArrayInputStream(text.getBytes()));
+            return content;
+        }
+    }
+
+}
@@ -37,7 +37,13 @@ public interface StorageAccount {
         BRIDGE_PORT,
         BRIDGE_USER,
         BRIDGE_PASS,
-        BRIDGE_MEMBER_ID;
+        BRIDGE_MEMBER_ID,
+        // Simulated storage below
+        SIMULATED,
+        SIM_LATENCY,
+        SIM_ERROR_RATE,
+        SIM_THROTTLE_RATE,
+        SIM_CONSISTENCY_DELAY;
     }
 
     public String getId();
@@ -103,6 +103,19 @@ public class BrokeredStorageProvider
                                            contentId);
     }
 
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  long endByte)
+            throws StorageException {
+        return dispatchProvider.getContent(targetProvider,
+                                           storeId,
+                                           spaceId,
+                                           contentId,
+                                           startByte,
+                                           endByte);
+    }
+
     public Map<String, String> getContentProperties(String spaceId,
                                                     String contentId)
             throws StorageException {
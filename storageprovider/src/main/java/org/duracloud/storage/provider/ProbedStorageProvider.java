@@ -142,6 +142,18 @@ public abstract class ProbedStorageProvider
         return result;
     }
 
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  long endByte)
+            throws StorageException {
+        startMetric("getContent");
+        InputStream result =
+            storageProvider.getContent(spaceId, contentId, startByte, endByte);
+        stopMetric("getContent");
+        return result;
+    }
+
     public Map<String, String> getContentProperties(String spaceId,
                                                     String contentId)
             throws StorageException {
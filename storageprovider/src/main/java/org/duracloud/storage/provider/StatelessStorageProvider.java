@@ -61,6 +61,14 @@ public interface StatelessStorageProvider {
                                            String contentId)
             throws StorageException;
 
+    public abstract InputStream getContent(StorageProvider targetProvider,
+                                           String storeId,
+                                           String spaceId,
+                                           String contentId,
+                                           long startByte,
+                                           long endByte)
+            throws StorageException;
+
     public abstract Map<String, String> getContentProperties(StorageProvider targetProvider,
                                                              String storeId,
                                                              String spaceId,
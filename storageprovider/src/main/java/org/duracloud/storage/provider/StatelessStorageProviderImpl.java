@@ -98,6 +98,18 @@ public class StatelessStorageProviderImpl
         return targetProvider.getContent(spaceId, contentId);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public InputStream getContent(StorageProvider targetProvider,
+                                  String storeId,
+                                  String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  long endByte) throws StorageException {
+        return targetProvider.getContent(spaceId, contentId, startByte, endByte);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -222,6 +222,24 @@ public interface StorageProvider {
     public InputStream getContent(String spaceId,
                                   String contentId);
 
+    /**
+     * Gets a range of the bytes of content from a space.
+     *
+     * @param spaceId - ID of the space
+     * @param contentId - ID of the content in the space
+     * @param startByte - offset of the first byte to retrieve
+     * @param endByte - offset of the last byte to retrieve, inclusive; this
+     *                  must not be beyond the end of the content
+     * @return the content stream, holding only the requested bytes
+     * @throws NotFoundException if space with ID spaceId does not exist or the
+     *                           content item with ID contentId does not exist
+     * @throws StorageException if errors occur
+     */
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  long endByte);
+
     /**
      * Removes content from a space.
      *
@@ -11,6 +11,7 @@ import org.duracloud.common.model.AclType;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.StorageException;
 import org.duracloud.storage.provider.StorageProvider;
+import org.duracloud.storage.util.StorageProviderUtil;
 
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -102,6 +103,14 @@ public class MockStorageProvider
         return content;
     }
 
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  long endByte)
+            throws StorageException {
+        return StorageProviderUtil.getContentRange(content, startByte, endByte);
+    }
+
     public Map<String, String> getContentProperties(String spaceId,
                                                     String contentId)
             throws StorageException {
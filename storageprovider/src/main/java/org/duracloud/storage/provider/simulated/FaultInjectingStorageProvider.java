@@ -0,0 +1,212 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.provider.simulated;
+
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.duracloud.common.model.AclType;
+import org.duracloud.storage.domain.StorageProviderType;
+import org.duracloud.storage.error.StorageException;
+import org.duracloud.storage.provider.StorageProvider;
+
+import static org.duracloud.storage.error.StorageException.RETRY;
+
+/**
+ * Wraps a storage provider, adding latency to each call and causing calls
+ * to fail, as set in the simulated storage configuration. Calls made at a
+ * higher rate than the throttle rate are rejected without being passed on.
+ */
+public class FaultInjectingStorageProvider implements StorageProvider {
+
+    public static final String THROTTLED_MESSAGE = "SlowDown";
+
+    private final StorageProvider target;
+    private final SimulatedStorageConfig config;
+
+    // Throttling allows up to throttle rate calls in each second
+    private long throttleSecond = 0;
+    private int throttleCalls = 0;
+
+    public FaultInjectingStorageProvider(StorageProvider target,
+                                         SimulatedStorageConfig config) {
+        this.target = target;
+        this.config = config;
+    }
+
+    /*
+     * Applies the throttling, latency and error rate of the operation,
+     * throwing if the call is to be rejected or is to fail
+     */
+    protected void simulate(String operation) {
+        if (isThrottled()) {
+            throw new StorageException(THROTTLED_MESSAGE + ": rate of calls " +
+                                       "exceeds " + config.getThrottleRate() +
+                                       " per second, " + operation +
+                                       " rejected", RETRY);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] latency = config.getLatency(operation);
+        long delay = latency[0];
+        if (latency[1] > latency[0]) {
+            delay += random.nextLong(latency[1] - latency[0] + 1);
+        }
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        double errorRate = config.getErrorRate(operation);
+        if (errorRate > 0 && random.nextDouble() < errorRate) {
+            throw new StorageException("Simulated failure of " + operation,
+                                       RETRY);
+        }
+    }
+
+    private synchronized boolean isThrottled() {
+        int rate = config.getThrottleRate();
+        if (rate <= 0) {
+            return false;
+        }
+        long second = System.currentTimeMillis() / 1000;
+        if (second != throttleSecond) {
+            throttleSecond = second;
+            throttleCalls = 0;
+        }
+        return ++throttleCalls > rate;
+    }
+
+    public StorageProvider getTargetProvider() {
+        return target;
+    }
+
+    @Override
+    public StorageProviderType getStorageProviderType() {
+        return target.getStorageProviderType();
+    }
+
+    @Override
+    public Iterator<String> getSpaces() {
+        simulate("getSpaces");
+        return target.getSpaces();
+    }
+
+    @Override
+    public Iterator<String> getSpaceContents(String spaceId, String prefix) {
+        simulate("getSpaceContents");
+        return target.getSpaceContents(spaceId, prefix);
+    }
+
+    @Override
+    public List<String> getSpaceContentsChunked(String spaceId,
+                                                String prefix,
+                                                long maxResults,
+                                                String marker) {
+        simulate("getSpaceContentsChunked");
+        return target.getSpaceContentsChunked(spaceId, prefix,
+                                              maxResults, marker);
+    }
+
+    @Override
+    public void createSpace(String spaceId) {
+        simulate("createSpace");
+        target.createSpace(spaceId);
+    }
+
+    @Override
+    public void deleteSpace(String spaceId) {
+        simulate("deleteSpace");
+        target.deleteSpace(spaceId);
+    }
+
+    @Override
+    public Map<String, String> getSpaceProperties(String spaceId) {
+        simulate("getSpaceProperties");
+        return target.getSpaceProperties(spaceId);
+    }
+
+    @Override
+    public Map<String, AclType> getSpaceACLs(String spaceId) {
+        simulate("getSpaceACLs");
+        return target.getSpaceACLs(spaceId);
+    }
+
+    @Override
+    public void setSpaceACLs(String spaceId, Map<String, AclType> spaceACLs) {
+        simulate("setSpaceACLs");
+        target.setSpaceACLs(spaceId, spaceACLs);
+    }
+
+    @Override
+    public String addContent(String spaceId,
+                             String contentId,
+                             String contentMimeType,
+                             Map<String, String> userProperties,
+                             long contentSize,
+                             String contentChecksum,
+                             InputStream content) {
+        simulate("addContent");
+        return target.addContent(spaceId, contentId, contentMimeType,
+                                 userProperties, contentSize,
+                                 contentChecksum, content);
+    }
+
+    @Override
+    public String copyContent(String sourceSpaceId,
+                              String sourceContentId,
+                              String destSpaceId,
+                              String destContentId) {
+        simulate("copyContent");
+        return target.copyContent(sourceSpaceId, sourceContentId,
+                                  destSpaceId, destContentId);
+    }
+
+    @Override
+    public InputStream getContent(String spaceId, String contentId) {
+        simulate("getContent");
+        return target.getContent(spaceId, contentId);
+    }
+
+    @Override
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  long endByte) {
+        simulate("getContent");
+        return target.getContent(spaceId, contentId, startByte, endByte);
+    }
+
+    @Override
+    public void deleteContent(String spaceId, String contentId) {
+        simulate("deleteContent");
+        target.deleteContent(spaceId, contentId);
+    }
+
+    @Override
+    public void setContentProperties(String spaceId,
+                                     String contentId,
+                                     Map<String, String> contentProperties) {
+        simulate("setContentProperties");
+        target.setContentProperties(spaceId, contentId, contentProperties);
+    }
+
+    @Override
+    public Map<String, String> getContentProperties(String spaceId,
+                                                    String contentId) {
+        simulate("getContentProperties");
+        return target.getContentProperties(spaceId, contentId);
+    }
+
+}
@@ -0,0 +1,368 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.provider.simulated;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.apache.commons.io.IOUtils;
+import org.duracloud.common.util.ChecksumUtil;
+import org.duracloud.common.util.DateUtil;
+import org.duracloud.storage.domain.StorageProviderType;
+import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.error.StorageException;
+import org.duracloud.storage.provider.StorageProviderBase;
+import org.duracloud.storage.util.StorageProviderUtil;
+
+import static org.duracloud.storage.error.StorageException.NO_RETRY;
+import static org.duracloud.storage.error.StorageException.RETRY;
+
+/**
+ * Storage provider which holds all spaces and content in memory, for use in
+ * load testing without a cloud storage account.
+ *
+ * Listings may be made to lag behind changes, as they do with eventually
+ * consistent storage: content which is added is not listed until the
+ * consistency delay has passed, and content which is deleted continues to
+ * be listed until the delay has passed. Reads of content are not delayed.
+ */
+public class InMemoryStorageProvider extends StorageProviderBase {
+
+    private final StorageProviderType type;
+    private final long consistencyDelay;
+
+    private final ConcurrentNavigableMap<String, Space> spaces =
+        new ConcurrentSkipListMap<>();
+
+    /**
+     * @param type             storage provider type reported by this provider
+     * @param consistencyDelay time, in milliseconds, before a change to the
+     *                         content of a space is seen in listings
+     */
+    public InMemoryStorageProvider(StorageProviderType type,
+                                   long consistencyDelay) {
+        this.type = type;
+        this.consistencyDelay = consistencyDelay;
+    }
+
+    @Override
+    public StorageProviderType getStorageProviderType() {
+        return type;
+    }
+
+    @Override
+    public Iterator<String> getSpaces() {
+        return new ArrayList<>(spaces.keySet()).iterator();
+    }
+
+    @Override
+    public Iterator<String> getSpaceContents(String spaceId, String prefix) {
+        return listContents(getSpace(spaceId), prefix, -1, null).iterator();
+    }
+
+    @Override
+    public List<String> getSpaceContentsChunked(String spaceId,
+                                                String prefix,
+                                                long maxResults,
+                                                String marker) {
+        if (maxResults <= 0) {
+            maxResults = DEFAULT_MAX_RESULTS;
+        }
+        return listContents(getSpace(spaceId), prefix, maxResults, marker);
+    }
+
+    private List<String> listContents(Space space,
+                                      String prefix,
+                                      long maxResults,
+                                      String marker) {
+        ConcurrentNavigableMap<String, Item> contents = space.contents;
+        if (null != marker) {
+            contents = contents.tailMap(marker, false);
+        } else if (null != prefix) {
+            contents = contents.tailMap(prefix, true);
+        }
+
+        long now = System.currentTimeMillis();
+        List<String> contentIds = new ArrayList<>();
+        for (Map.Entry<String, Item> entry : contents.entrySet()) {
+            if (maxResults >= 0 && contentIds.size() >= maxResults) {
+                break;
+            }
+            String contentId = entry.getKey();
+            if (null != prefix && !contentId.startsWith(prefix)) {
+                if (contentId.compareTo(prefix) > 0) {
+                    break;
+                }
+                continue;
+            }
+
+            Item item = entry.getValue();
+            if (item.isDeleted() &&
+                item.deleted + consistencyDelay <= now) {
+                space.contents.remove(contentId, item);
+            } else if (item.isListed(now, consistencyDelay)) {
+                contentIds.add(contentId);
+            }
+        }
+        return contentIds;
+    }
+
+    @Override
+    public void createSpace(String spaceId) {
+        log.debug("createSpace(" + spaceId + ")");
+        if (null != spaces.putIfAbsent(spaceId, new Space())) {
+            throw new StorageException("Error: Space already exists: " +
+                                       spaceId, NO_RETRY);
+        }
+
+        Map<String, String> spaceProperties = new HashMap<>();
+        spaceProperties.put(PROPERTIES_SPACE_CREATED,
+                            DateUtil.convertToString(new Date().getTime()));
+        setNewSpaceProperties(spaceId, spaceProperties, new HashMap<>());
+    }
+
+    @Override
+    protected boolean spaceExists(String spaceId) {
+        return spaces.containsKey(spaceId);
+    }
+
+    @Override
+    protected void removeSpace(String spaceId) {
+        spaces.remove(spaceId);
+    }
+
+    @Override
+    protected Map<String, String> getAllSpaceProperties(String spaceId) {
+        Space space = getSpace(spaceId);
+        Map<String, String> properties = new HashMap<>(space.properties);
+        long count = 0;
+        for (Item item : space.contents.values()) {
+            if (!item.isDeleted()) {
+                count++;
+            }
+        }
+        properties.put(PROPERTIES_SPACE_COUNT, String.valueOf(count));
+        return properties;
+    }
+
+    @Override
+    protected void doSetSpaceProperties(String spaceId,
+                                        Map<String, String> spaceProps) {
+        Space space = getSpace(spaceId);
+        Map<String, String> properties = new HashMap<>(spaceProps);
+        properties.remove(PROPERTIES_SPACE_COUNT);
+        space.properties = properties;
+    }
+
+    @Override
+    public String addContent(String spaceId,
+                             String contentId,
+                             String contentMimeType,
+                             Map<String, String> userProperties,
+                             long contentSize,
+                             String contentChecksum,
+                             InputStream content) {
+        log.debug("addContent(" + spaceId + ", " + contentId + ")");
+        Space space = getSpace(spaceId);
+
+        byte[] data;
+        try {
+            data = IOUtils.toByteArray(content);
+        } catch (IOException e) {
+            throw new StorageException("Unable to read content " + contentId +
+                                       ": " + e.getMessage(), e, RETRY);
+        }
+
+        String checksum = new ChecksumUtil(ChecksumUtil.Algorithm.MD5)
+            .generateChecksum(new ByteArrayInputStream(data));
+        if (null != contentChecksum) {
+            StorageProviderUtil.compareChecksum(checksum, spaceId,
+                                                contentId, contentChecksum);
+        }
+
+        Map<String, String> properties = new HashMap<>();
+        if (null != userProperties) {
+            properties.putAll(removeCalculatedProperties(
+                new HashMap<>(userProperties)));
+        }
+        properties.put(PROPERTIES_CONTENT_MIMETYPE,
+                       null == contentMimeType ? DEFAULT_MIMETYPE
+                                               : contentMimeType);
+        properties.put(PROPERTIES_CONTENT_SIZE, String.valueOf(data.length));
+        properties.put(PROPERTIES_CONTENT_CHECKSUM, checksum);
+        properties.put(PROPERTIES_CONTENT_MD5, checksum);
+        properties.put(PROPERTIES_CONTENT_MODIFIED,
+                       DateUtil.convertToString(System.currentTimeMillis()));
+
+        putItem(space, contentId, data, properties);
+        return checksum;
+    }
+
+    /*
+     * Content which is replaced keeps its place in listings
+     */
+    private void putItem(Space space,
+                         String contentId,
+                         byte[] data,
+                         Map<String, String> properties) {
+        long now = System.currentTimeMillis();
+        Item existing = space.contents.get(contentId);
+        long added = (null != existing && !existing.isDeleted()) ?
+                     existing.added : now;
+        space.contents.put(contentId, new Item(data, properties, added));
+    }
+
+    @Override
+    public String copyContent(String sourceSpaceId,
+                              String sourceContentId,
+                              String destSpaceId,
+                              String destContentId) {
+        log.debug("copyContent(" + sourceSpaceId + ", " + sourceContentId +
+                  ", " + destSpaceId + ", " + destContentId + ")");
+        Item source = getItem(sourceSpaceId, sourceContentId);
+        Space destSpace = getSpace(destSpaceId);
+
+        Map<String, String> properties = new HashMap<>(source.properties);
+        properties.put(PROPERTIES_CONTENT_MODIFIED,
+                       DateUtil.convertToString(System.currentTimeMillis()));
+        putItem(destSpace, destContentId, source.data, properties);
+        return properties.get(PROPERTIES_CONTENT_CHECKSUM);
+    }
+
+    @Override
+    public InputStream getContent(String spaceId, String contentId) {
+        return new ByteArrayInputStream(getItem(spaceId, contentId).data);
+    }
+
+    @Override
+    public InputStream getContent(String spaceId,
+                                  String contentId,
+                                  long startByte,
+                                  long endByte) {
+        byte[] data = getItem(spaceId, contentId).data;
+        return new ByteArrayInputStream(data, (int) startByte,
+                                        (int) (endByte - startByte + 1));
+    }
+
+    @Override
+    public void deleteContent(String spaceId, String contentId) {
+        log.debug("deleteContent(" + spaceId + ", " + contentId + ")");
+        Space space = getSpace(spaceId);
+        Item item = getItem(spaceId, contentId);
+        if (consistencyDelay > 0) {
+            space.contents.replace(contentId, item, item.delete());
+        } else {
+            space.contents.remove(contentId, item);
+        }
+    }
+
+    @Override
+    public void setContentProperties(String spaceId,
+                                     String contentId,
+                                     Map<String, String> contentProperties) {
+        log.debug("setContentProperties(" + spaceId + ", " + contentId + ")");
+        Space space = getSpace(spaceId);
+        Item item = getItem(spaceId, contentId);
+
+        Map<String, String> properties =
+            removeCalculatedProperties(new HashMap<>(contentProperties));
+        String mimetype = properties.get(PROPERTIES_CONTENT_MIMETYPE);
+        if (null == mimetype || mimetype.isEmpty()) {
+            properties.put(PROPERTIES_CONTENT_MIMETYPE,
+                           item.properties.get(PROPERTIES_CONTENT_MIMETYPE));
+        }
+        for (String name : new String[]{PROPERTIES_CONTENT_SIZE,
+                                        PROPERTIES_CONTENT_CHECKSUM,
+                                        PROPERTIES_CONTENT_MD5,
+                                        PROPERTIES_CONTENT_MODIFIED}) {
+            properties.put(name, item.properties.get(name));
+        }
+        space.contents.replace(contentId, item,
+                               new Item(item.data, properties, item.added));
+    }
+
+    @Override
+    public Map<String, String> getContentProperties(String spaceId,
+                                                    String contentId) {
+        return new HashMap<>(getItem(spaceId, contentId).properties);
+    }
+
+    private Space getSpace(String spaceId) {
+        Space space = spaces.get(spaceId);
+        if (null == space) {
+            throw new NotFoundException("Error: Space does not exist: " +
+                                        spaceId);
+        }
+        return space;
+    }
+
+    private Item getItem(String spaceId, String contentId) {
+        Item item = getSpace(spaceId).contents.get(contentId);
+        if (null == item || item.isDeleted()) {
+            throw new NotFoundException("Content " + contentId +
+                                        " does not exist in space " + spaceId);
+        }
+        return item;
+    }
+
+    private static class Space {
+        private final ConcurrentNavigableMap<String, Item> contents =
+            new ConcurrentSkipListMap<>();
+        private volatile Map<String, String> properties = new HashMap<>();
+    }
+
+    /*
+     * Content items are not changed once created, an update replaces the item
+     */
+    private static class Item {
+        private final byte[] data;
+        private final Map<String, String> properties;
+        private final long added;
+        private final long deleted;
+
+        Item(byte[] data, Map<String, String> properties, long added) {
+            this(data, properties, added, 0);
+        }
+
+        private Item(byte[] data,
+                     Map<String, String> properties,
+                     long added,
+                     long deleted) {
+            this.data = data;
+            this.properties = properties;
+            this.added = added;
+            this.deleted = deleted;
+        }
+
+        Item delete() {
+            return new Item(data, properties, added,
+                            System.currentTimeMillis());
+        }
+
+        boolean isDeleted() {
+            return deleted > 0;
+        }
+
+        boolean isListed(long now, long delay) {
+            if (isDeleted()) {
+                return added + delay <= deleted && deleted + delay > now;
+            }
+            return added + delay <= now;
+        }
+    }
+
+}
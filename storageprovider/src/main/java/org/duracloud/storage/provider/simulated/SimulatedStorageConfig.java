@@ -0,0 +1,205 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.provider.simulated;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.duracloud.storage.domain.StorageAccount;
+import org.duracloud.storage.error.StorageException;
+
+/**
+ * Configuration of a simulated storage provider, read from the options of a
+ * storage account. A storage account of any type is served by a simulated
+ * provider when its SIMULATED option is set to true. The other options are:
+ *
+ * SIM_LATENCY - time in milliseconds added to each call, as a range from
+ *               which a value is picked at random (e.g. 20-100), or a
+ *               single value
+ * SIM_ERROR_RATE - fraction of calls which fail (e.g. 0.01)
+ * SIM_THROTTLE_RATE - calls per second above which calls are rejected as
+ *                     being throttled, 0 for no limit
+ * SIM_CONSISTENCY_DELAY - time in milliseconds after content is added or
+ *                         deleted before the change is seen in listings
+ *
+ * The latency and error rate can be set for each operation, by following
+ * the default value with operation=value pairs, where the operation is the
+ * name of a StorageProvider method. For example, a SIM_LATENCY of
+ * "10-50,getContent=100-400,addContent=200-800".
+ */
+public class SimulatedStorageConfig {
+
+    private static final String DEFAULT_KEY = "";
+
+    private Map<String, long[]> latencies = new HashMap<>();
+    private Map<String, Double> errorRates = new HashMap<>();
+    private int throttleRate = 0;
+    private long consistencyDelay = 0;
+
+    /**
+     * Creates a configuration which simulates no latency or faults
+     */
+    public SimulatedStorageConfig() {
+    }
+
+    public SimulatedStorageConfig(Map<String, String> options) {
+        String latency = options.get(StorageAccount.OPTS.SIM_LATENCY.name());
+        for (Map.Entry<String, String> entry : split(latency).entrySet()) {
+            setLatency(entry.getKey(), parseRange(entry.getValue()));
+        }
+
+        String errorRate =
+            options.get(StorageAccount.OPTS.SIM_ERROR_RATE.name());
+        for (Map.Entry<String, String> entry : split(errorRate).entrySet()) {
+            setErrorRate(entry.getKey(), parseRate(entry.getValue()));
+        }
+
+        String throttle =
+            options.get(StorageAccount.OPTS.SIM_THROTTLE_RATE.name());
+        if (null != throttle) {
+            setThrottleRate((int) parseLong(throttle));
+        }
+
+        String delay =
+            options.get(StorageAccount.OPTS.SIM_CONSISTENCY_DELAY.name());
+        if (null != delay) {
+            setConsistencyDelay(parseLong(delay));
+        }
+    }
+
+    /**
+     * @return true if the storage account options call for a simulated
+     *         storage provider
+     */
+    public static boolean isSimulated(Map<String, String> options) {
+        return null != options && Boolean.parseBoolean(
+            options.get(StorageAccount.OPTS.SIMULATED.name()));
+    }
+
+    /*
+     * Splits a value of the form "default,operation=value,..." into a map of
+     * operation to value, with the default under the empty key
+     */
+    private Map<String, String> split(String value) {
+        Map<String, String> values = new HashMap<>();
+        if (null == value) {
+            return values;
+        }
+        for (String part : value.split(",")) {
+            part = part.trim();
+            int equals = part.indexOf('=');
+            if (equals < 0) {
+                values.put(DEFAULT_KEY, part);
+            } else {
+                values.put(part.substring(0, equals).trim(),
+                           part.substring(equals + 1).trim());
+            }
+        }
+        return values;
+    }
+
+    private long[] parseRange(String value) {
+        int dash = value.indexOf('-');
+        if (dash < 0) {
+            long latency = parseLong(value);
+            return new long[]{latency, latency};
+        }
+        long min = parseLong(value.substring(0, dash));
+        long max = parseLong(value.substring(dash + 1));
+        if (max < min) {
+            throw new StorageException("Invalid simulated latency range: " +
+                                       value);
+        }
+        return new long[]{min, max};
+    }
+
+    private double parseRate(String value) {
+        try {
+            double rate = Double.parseDouble(value.trim());
+            if (rate < 0 || rate > 1) {
+                throw new StorageException("Simulated error rate must be " +
+                                           "between 0 and 1: " + value);
+            }
+            return rate;
+        } catch (NumberFormatException e) {
+            throw new StorageException("Invalid simulated error rate: " +
+                                       value, e);
+        }
+    }
+
+    private long parseLong(String value) {
+        try {
+            long number = Long.parseLong(value.trim());
+            if (number < 0) {
+                throw new StorageException("Simulated storage options may " +
+                                           "not be negative: " + value);
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new StorageException("Invalid simulated storage option " +
+                                       "value: " + value, e);
+        }
+    }
+
+    /**
+     * @param operation name of the StorageProvider method
+     * @return the minimum and maximum latency, in milliseconds
+     */
+    public long[] getLatency(String operation) {
+        long[] latency = latencies.get(operation);
+        if (null == latency) {
+            latency = latencies.get(DEFAULT_KEY);
+        }
+        return null == latency ? new long[]{0, 0} : latency;
+    }
+
+    /**
+     * @param operation name of the StorageProvider method, or the empty
+     *                  string to set the default for all operations
+     */
+    public void setLatency(String operation, long[] latency) {
+        latencies.put(operation, latency);
+    }
+
+    /**
+     * @param operation name of the StorageProvider method
+     * @return the fraction of calls to the operation which fail
+     */
+    public double getErrorRate(String operation) {
+        Double rate = errorRates.get(operation);
+        if (null == rate) {
+            rate = errorRates.get(DEFAULT_KEY);
+        }
+        return null == rate ? 0 : rate;
+    }
+
+    /**
+     * @param operation name of the StorageProvider method, or the empty
+     *                  string to set the default for all operations
+     */
+    public void setErrorRate(String operation, double errorRate) {
+        errorRates.put(operation, errorRate);
+    }
+
+    public int getThrottleRate() {
+        return throttleRate;
+    }
+
+    public void setThrottleRate(int throttleRate) {
+        this.throttleRate = throttleRate;
+    }
+
+    public long getConsistencyDelay() {
+        return consistencyDelay;
+    }
+
+    public void setConsistencyDelay(long consistencyDelay) {
+        this.consistencyDelay = consistencyDelay;
+    }
+
+}
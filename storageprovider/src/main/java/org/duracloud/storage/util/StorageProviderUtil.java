@@ -7,6 +7,8 @@
  */
 package org.duracloud.storage.util;
 
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.BoundedInputStream;
 import org.duracloud.common.util.DateUtil;
 import org.duracloud.storage.error.ChecksumMismatchException;
 import org.duracloud.storage.error.StorageException;
@@ -149,6 +151,33 @@ public class StorageProviderUtil {
         return providerChecksum;
     }
 
+    /**
+     * Limits a stream of the full content of an item to a range of its
+     * bytes, by reading past those before the range. Used by providers which
+     * cannot retrieve a range of the content directly.
+     *
+     * @param content stream of the full content, closed if the range cannot
+     *                be reached
+     * @param startByte offset of the first byte of the range
+     * @param endByte offset of the last byte of the range, inclusive
+     * @return stream of the bytes in the range
+     * @throws StorageException if the content could not be read up to the
+     *                          start of the range
+     */
+    public static InputStream getContentRange(InputStream content,
+                                              long startByte,
+                                              long endByte)
+        throws StorageException {
+        try {
+            IOUtils.skipFully(content, startByte);
+        } catch(IOException e) {
+            IOUtils.closeQuietly(content);
+            throw new StorageException("Unable to read content up to byte " +
+                                       startByte + ": " + e.getMessage(), e);
+        }
+        return new BoundedInputStream(content, endByte - startByte + 1);
+    }
+
     /**
      * Determines if a String value is included in a Iterated list.
      * The iteration is only run as far as necessary to determine
@@ -569,4 +569,9 @@ public class StorageProviderBaseTest {
             return mock.getContentProperties(spaceId, contentId);
         }
     }
+
+        public InputStream getContent(String spaceId, String contentId,
+                                      long startByte, long endByte) {
+            return mock.getContent(spaceId, contentId, startByte, endByte);
+        }
 }
@@ -0,0 +1,137 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.provider.simulated;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.duracloud.storage.domain.StorageAccount;
+import org.duracloud.storage.error.StorageException;
+import org.duracloud.storage.provider.StorageProvider;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FaultInjectingStorageProviderTest {
+
+    private static final String spaceId = "space-id";
+
+    private StorageProvider target;
+    private Iterator<String> spaces;
+
+    @Before
+    public void setUp() {
+        target = EasyMock.createMock("StorageProvider", StorageProvider.class);
+        spaces = Collections.singletonList(spaceId).iterator();
+    }
+
+    @After
+    public void tearDown() {
+        EasyMock.verify(target);
+    }
+
+    @Test
+    public void testConfig() {
+        Map<String, String> options = new HashMap<>();
+        Assert.assertFalse(SimulatedStorageConfig.isSimulated(options));
+
+        options.put(StorageAccount.OPTS.SIMULATED.name(), "true");
+        options.put(StorageAccount.OPTS.SIM_LATENCY.name(),
+                    "10-50, getContent=100-400,addContent=200");
+        options.put(StorageAccount.OPTS.SIM_ERROR_RATE.name(),
+                    "getContent=0.5");
+        options.put(StorageAccount.OPTS.SIM_THROTTLE_RATE.name(), "100");
+        options.put(StorageAccount.OPTS.SIM_CONSISTENCY_DELAY.name(), "1000");
+        Assert.assertTrue(SimulatedStorageConfig.isSimulated(options));
+
+        SimulatedStorageConfig config = new SimulatedStorageConfig(options);
+        Assert.assertArrayEquals(new long[]{10, 50},
+                                 config.getLatency("getSpaces"));
+        Assert.assertArrayEquals(new long[]{100, 400},
+                                 config.getLatency("getContent"));
+        Assert.assertArrayEquals(new long[]{200, 200},
+                                 config.getLatency("addContent"));
+        Assert.assertEquals(0.5, config.getErrorRate("getContent"), 0);
+        Assert.assertEquals(0, config.getErrorRate("getSpaces"), 0);
+        Assert.assertEquals(100, config.getThrottleRate());
+        Assert.assertEquals(1000, config.getConsistencyDelay());
+
+        options.put(StorageAccount.OPTS.SIM_ERROR_RATE.name(), "2");
+        try {
+            new SimulatedStorageConfig(options);
+            Assert.fail("Exception expected");
+        } catch (StorageException e) {
+            // expected
+        }
+        EasyMock.replay(target);
+    }
+
+    @Test
+    public void testLatency() {
+        EasyMock.expect(target.getSpaces()).andReturn(spaces);
+        EasyMock.replay(target);
+
+        SimulatedStorageConfig config = new SimulatedStorageConfig();
+        config.setLatency("getSpaces", new long[]{100, 100});
+        StorageProvider provider =
+            new FaultInjectingStorageProvider(target, config);
+
+        long start = System.currentTimeMillis();
+        Assert.assertSame(spaces, provider.getSpaces());
+        Assert.assertTrue(System.currentTimeMillis() - start >= 100);
+    }
+
+    @Test
+    public void testErrorRate() {
+        EasyMock.expect(target.getSpaces()).andReturn(spaces);
+        EasyMock.replay(target);
+
+        SimulatedStorageConfig config = new SimulatedStorageConfig();
+        config.setErrorRate("", 0);
+        config.setErrorRate("getContent", 1);
+        StorageProvider provider =
+            new FaultInjectingStorageProvider(target, config);
+
+        try {
+            provider.getContent(spaceId, "content-id");
+            Assert.fail("Exception expected");
+        } catch (StorageException e) {
+            Assert.assertTrue(e.isRetry());
+        }
+        Assert.assertSame(spaces, provider.getSpaces());
+    }
+
+    @Test
+    public void testThrottle() {
+        EasyMock.expect(target.getSpaces()).andReturn(spaces).times(3, 6);
+        EasyMock.replay(target);
+
+        SimulatedStorageConfig config = new SimulatedStorageConfig();
+        config.setThrottleRate(3);
+        StorageProvider provider =
+            new FaultInjectingStorageProvider(target, config);
+
+        // The calls fall within at most two seconds, so at most six pass
+        int throttled = 0;
+        for (int i = 0; i < 9; i++) {
+            try {
+                provider.getSpaces();
+            } catch (StorageException e) {
+                Assert.assertTrue(e.getMessage().startsWith(
+                    FaultInjectingStorageProvider.THROTTLED_MESSAGE));
+                throttled++;
+            }
+        }
+        Assert.assertTrue(throttled >= 3);
+    }
+
+}
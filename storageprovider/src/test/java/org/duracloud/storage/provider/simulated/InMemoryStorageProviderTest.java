@@ -0,0 +1,166 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.storage.provider.simulated;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.duracloud.common.util.ChecksumUtil;
+import org.duracloud.storage.domain.StorageProviderType;
+import org.duracloud.storage.error.ChecksumMismatchException;
+import org.duracloud.storage.error.NotFoundException;
+import org.duracloud.storage.provider.StorageProvider;
+import org.duracloud.storage.util.StorageProviderUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InMemoryStorageProviderTest {
+
+    private static final String spaceId = "space-id";
+
+    @Test
+    public void testContent() throws Exception {
+        InMemoryStorageProvider provider =
+            new InMemoryStorageProvider(StorageProviderType.AMAZON_S3, 0);
+        provider.createSpace(spaceId);
+        Assert.assertEquals(Arrays.asList(spaceId),
+                            StorageProviderUtil.getList(provider.getSpaces()));
+
+        String text = "content-text";
+        String checksum = addContent(provider, "content-id", text);
+        Assert.assertEquals(
+            new ChecksumUtil(ChecksumUtil.Algorithm.MD5).generateChecksum(text),
+            checksum);
+
+        try (InputStream content = provider.getContent(spaceId, "content-id")) {
+            Assert.assertEquals(text, IOUtils.toString(content));
+        }
+
+        Map<String, String> properties =
+            provider.getContentProperties(spaceId, "content-id");
+        Assert.assertEquals("text/plain",
+                            properties.get(StorageProvider.PROPERTIES_CONTENT_MIMETYPE));
+        Assert.assertEquals(String.valueOf(text.length()),
+                            properties.get(StorageProvider.PROPERTIES_CONTENT_SIZE));
+        Assert.assertEquals(checksum,
+                            properties.get(StorageProvider.PROPERTIES_CONTENT_CHECKSUM));
+        Assert.assertEquals("value", properties.get("name"));
+
+        // Updating properties keeps the calculated properties
+        Map<String, String> newProperties = new HashMap<>();
+        newProperties.put("other", "value");
+        provider.setContentProperties(spaceId, "content-id", newProperties);
+        properties = provider.getContentProperties(spaceId, "content-id");
+        Assert.assertNull(properties.get("name"));
+        Assert.assertEquals("value", properties.get("other"));
+        Assert.assertEquals(checksum,
+                            properties.get(StorageProvider.PROPERTIES_CONTENT_CHECKSUM));
+        Assert.assertEquals("text/plain",
+                            properties.get(StorageProvider.PROPERTIES_CONTENT_MIMETYPE));
+
+        Assert.assertEquals(checksum,
+                            provider.copyContent(spaceId, "content-id",
+                                                 spaceId, "copy-id"));
+        Assert.assertEquals("2", provider.getSpaceProperties(spaceId)
+                                         .get(StorageProvider.PROPERTIES_SPACE_COUNT));
+
+        provider.deleteContent(spaceId, "content-id");
+        try {
+            provider.getContent(spaceId, "content-id");
+            Assert.fail("Exception expected");
+        } catch (NotFoundException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testChecksumMismatch() {
+        InMemoryStorageProvider provider =
+            new InMemoryStorageProvider(StorageProviderType.AMAZON_S3, 0);
+        provider.createSpace(spaceId);
+        try {
+            provider.addContent(spaceId, "content-id", null, null, 4,
+                                "bad-checksum",
+                                new ByteArrayInputStream("text".getBytes()));
+            Assert.fail("Exception expected");
+        } catch (ChecksumMismatchException e) {
+            // expected
+        }
+        Assert.assertFalse(provider.getSpaceContents(spaceId, null).hasNext());
+    }
+
+    @Test
+    public void testListing() {
+        InMemoryStorageProvider provider =
+            new InMemoryStorageProvider(StorageProviderType.AMAZON_S3, 0);
+        provider.createSpace(spaceId);
+        for (String contentId : new String[]{"b/2", "a/1", "b/1", "c/1"}) {
+            addContent(provider, contentId, contentId);
+        }
+
+        Assert.assertEquals(Arrays.asList("a/1", "b/1", "b/2", "c/1"),
+                            StorageProviderUtil.getList(
+                                provider.getSpaceContents(spaceId, null)));
+        Assert.assertEquals(Arrays.asList("b/1", "b/2"),
+                            StorageProviderUtil.getList(
+                                provider.getSpaceContents(spaceId, "b/")));
+
+        List<String> chunk =
+            provider.getSpaceContentsChunked(spaceId, null, 2, null);
+        Assert.assertEquals(Arrays.asList("a/1", "b/1"), chunk);
+        chunk = provider.getSpaceContentsChunked(spaceId, null, 2, "b/1");
+        Assert.assertEquals(Arrays.asList("b/2", "c/1"), chunk);
+        chunk = provider.getSpaceContentsChunked(spaceId, "b/", 0, "b/1");
+        Assert.assertEquals(Arrays.asList("b/2"), chunk);
+    }
+
+    @Test
+    public void testConsistencyDelay() throws Exception {
+        long delay = 200;
+        InMemoryStorageProvider provider =
+            new InMemoryStorageProvider(StorageProviderType.AMAZON_S3, delay);
+        provider.createSpace(spaceId);
+        addContent(provider, "content-id", "text");
+
+        // Added content can be read, but is not yet listed
+        Assert.assertNotNull(provider.getContent(spaceId, "content-id"));
+        Assert.assertFalse(provider.getSpaceContents(spaceId, null).hasNext());
+
+        Thread.sleep(delay + 50);
+        Assert.assertTrue(provider.getSpaceContents(spaceId, null).hasNext());
+
+        // Deleted content can no longer be read, but is still listed
+        provider.deleteContent(spaceId, "content-id");
+        try {
+            provider.getContent(spaceId, "content-id");
+            Assert.fail("Exception expected");
+        } catch (NotFoundException e) {
+            // expected
+        }
+        Assert.assertTrue(provider.getSpaceContents(spaceId, null).hasNext());
+
+        Thread.sleep(delay + 50);
+        Assert.assertFalse(provider.getSpaceContents(spaceId, null).hasNext());
+    }
+
+    private String addContent(InMemoryStorageProvider provider,
+                              String contentId,
+                              String text) {
+        Map<String, String> properties = new HashMap<>();
+        properties.put("name", "value");
+        return provider.addContent(spaceId, contentId, "text/plain",
+                                   properties, text.length(), null,
+                                   new ByteArrayInputStream(text.getBytes()));
+    }
+
+}
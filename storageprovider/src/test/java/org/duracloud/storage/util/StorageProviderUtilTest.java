@@ -7,6 +7,7 @@
  */
 package org.duracloud.storage.util;
 
+import org.apache.commons.io.IOUtils;
 import org.duracloud.storage.error.ChecksumMismatchException;
 import org.duracloud.storage.provider.StorageProvider;
 import org.junit.After;
@@ -15,6 +16,7 @@ import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -111,6 +113,13 @@ public class StorageProviderUtilTest {
         }
     }
 
+    @Test
+    public void testGetContentRange() throws Exception {
+        InputStream content = new ByteArrayInputStream("0123456789".getBytes());
+        InputStream range = StorageProviderUtil.getContentRange(content, 3, 6);
+        assertEquals("3456", IOUtils.toString(range));
+    }
+
     @Test
     public void testCreateContentProperties() throws IOException{
         File file = File.createTempFile("test", ".properties");
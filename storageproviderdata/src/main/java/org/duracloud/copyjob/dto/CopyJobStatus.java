@@ -0,0 +1,303 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.copyjob.dto;
+
+import java.io.IOException;
+
+import javax.xml.bind.annotation.XmlValue;
+
+import org.duracloud.common.json.JaxbJsonSerializer;
+import org.duracloud.error.TaskDataException;
+
+/**
+ * Describes the state of an asynchronous copy job
+ */
+public class CopyJobStatus {
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETE, FAILED, CANCELLED;
+
+        public boolean isFinished() {
+            return this == COMPLETE || this == FAILED || this == CANCELLED;
+        }
+    }
+
+    /**
+     * The ID of the copy job
+     */
+    @XmlValue
+    private String jobId;
+
+    /**
+     * The current state of the job, one of the CopyJobStatus.State values
+     */
+    @XmlValue
+    private String state;
+
+    /**
+     * The ID of the store from which content is copied
+     */
+    @XmlValue
+    private String srcStoreId;
+
+    /**
+     * The ID of the space from which content is copied
+     */
+    @XmlValue
+    private String srcSpaceId;
+
+    /**
+     * The ID of the content item being copied
+     */
+    @XmlValue
+    private String srcContentId;
+
+    /**
+     * The ID of the store to which content is copied
+     */
+    @XmlValue
+    private String destStoreId;
+
+    /**
+     * The ID of the space to which content is copied
+     */
+    @XmlValue
+    private String destSpaceId;
+
+    /**
+     * The ID of the copied content item
+     */
+    @XmlValue
+    private String destContentId;
+
+    /**
+     * Total number of bytes to be copied, -1 if not known
+     */
+    @XmlValue
+    private long totalBytes;
+
+    /**
+     * Number of bytes copied so far
+     */
+    @XmlValue
+    private long bytesCopied;
+
+    /**
+     * Number of chunks which make up the content, 0 if the content is not chunked
+     */
+    @XmlValue
+    private int totalChunks;
+
+    /**
+     * Number of chunks copied so far
+     */
+    @XmlValue
+    private int chunksCopied;
+
+    /**
+     * Number of times the copy has been attempted
+     */
+    @XmlValue
+    private int attempts;
+
+    /**
+     * MD5 checksum of the copied content, set when the job completes
+     */
+    @XmlValue
+    private String checksum;
+
+    /**
+     * Description of the most recent failure, if any
+     */
+    @XmlValue
+    private String error;
+
+    /**
+     * Time at which the job was created (Unix epoch, in milliseconds)
+     */
+    @XmlValue
+    private long created;
+
+    /**
+     * Time at which the job state was last updated (Unix epoch, in milliseconds)
+     */
+    @XmlValue
+    private long modified;
+
+    // Required by JAXB
+    public CopyJobStatus() {}
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public String getSrcStoreId() {
+        return srcStoreId;
+    }
+
+    public void setSrcStoreId(String srcStoreId) {
+        this.srcStoreId = srcStoreId;
+    }
+
+    public String getSrcSpaceId() {
+        return srcSpaceId;
+    }
+
+    public void setSrcSpaceId(String srcSpaceId) {
+        this.srcSpaceId = srcSpaceId;
+    }
+
+    public String getSrcContentId() {
+        return srcContentId;
+    }
+
+    public void setSrcContentId(String srcContentId) {
+        this.srcContentId = srcContentId;
+    }
+
+    public String getDestStoreId() {
+        return destStoreId;
+    }
+
+    public void setDestStoreId(String destStoreId) {
+        this.destStoreId = destStoreId;
+    }
+
+    public String getDestSpaceId() {
+        return destSpaceId;
+    }
+
+    public void setDestSpaceId(String destSpaceId) {
+        this.destSpaceId = destSpaceId;
+    }
+
+    public String getDestContentId() {
+        return destContentId;
+    }
+
+    public void setDestContentId(String destContentId) {
+        this.destContentId = destContentId;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    public long getBytesCopied() {
+        return bytesCopied;
+    }
+
+    public void setBytesCopied(long bytesCopied) {
+        this.bytesCopied = bytesCopied;
+    }
+
+    public int getTotalChunks() {
+        return totalChunks;
+    }
+
+    public void setTotalChunks(int totalChunks) {
+        this.totalChunks = totalChunks;
+    }
+
+    public int getChunksCopied() {
+        return chunksCopied;
+    }
+
+    public void setChunksCopied(int chunksCopied) {
+        this.chunksCopied = chunksCopied;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public void setChecksum(String checksum) {
+        this.checksum = checksum;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public void setCreated(long created) {
+        this.created = created;
+    }
+
+    public long getModified() {
+        return modified;
+    }
+
+    public void setModified(long modified) {
+        this.modified = modified;
+    }
+
+    /**
+     * Creates a serialized version of the job status
+     *
+     * @return JSON formatted job status
+     */
+    public String serialize() {
+        JaxbJsonSerializer<CopyJobStatus> serializer =
+            new JaxbJsonSerializer<>(CopyJobStatus.class);
+        try {
+            return serializer.serialize(this);
+        } catch(IOException e) {
+            throw new TaskDataException(
+                "Unable to serialize copy job status due to: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parses the job status
+     *
+     * @param status - JSON formatted job status
+     */
+    public static CopyJobStatus deserialize(String status) {
+        JaxbJsonSerializer<CopyJobStatus> serializer =
+            new JaxbJsonSerializer<>(CopyJobStatus.class);
+        try {
+            return serializer.deserialize(status);
+        } catch(IOException e) {
+            throw new TaskDataException(
+                "Unable to parse copy job status due to: " + e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.spacesummary.dto;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.bind.annotation.XmlValue;
+
+/**
+ * Describes a space, as included in the listing of all spaces in a store
+ */
+public class SpaceSummary {
+
+    /**
+     * The ID of the space
+     */
+    @XmlValue
+    private String spaceId;
+
+    /**
+     * The ACLs of the space, as a map of user or group name to the name of
+     * an AclType value
+     */
+    @XmlValue
+    private Map<String, String> acls = new HashMap<>();
+
+    /**
+     * Number of content items in the space, -1 if not known
+     */
+    @XmlValue
+    private long itemCount = -1;
+
+    /**
+     * Total size in bytes of the content in the space, -1 if not known
+     */
+    @XmlValue
+    private long byteCount = -1;
+
+    /**
+     * Time at which the item and byte counts were collected (Unix epoch, in
+     * milliseconds), 0 if they are not known
+     */
+    @XmlValue
+    private long statsTimestamp;
+
+    // Required by JAXB
+    public SpaceSummary() {}
+
+    public SpaceSummary(String spaceId) {
+        this.spaceId = spaceId;
+    }
+
+    public String getSpaceId() {
+        return spaceId;
+    }
+
+    public void setSpaceId(String spaceId) {
+        this.spaceId = spaceId;
+    }
+
+    public Map<String, String> getAcls() {
+        return acls;
+    }
+
+    public void setAcls(Map<String, String> acls) {
+        this.acls = acls;
+    }
+
+    public long getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(long itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public long getByteCount() {
+        return byteCount;
+    }
+
+    public void setByteCount(long byteCount) {
+        this.byteCount = byteCount;
+    }
+
+    public long getStatsTimestamp() {
+        return statsTimestamp;
+    }
+
+    public void setStatsTimestamp(long statsTimestamp) {
+        this.statsTimestamp = statsTimestamp;
+    }
+
+}
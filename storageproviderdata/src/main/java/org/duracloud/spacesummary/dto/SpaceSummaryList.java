@@ -0,0 +1,77 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.spacesummary.dto;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlValue;
+
+import org.duracloud.common.json.JaxbJsonSerializer;
+import org.duracloud.error.TaskDataException;
+
+/**
+ * The summaries of all spaces in a store, as returned in a single call
+ */
+public class SpaceSummaryList {
+
+    /**
+     * The summaries, one for each space
+     */
+    @XmlValue
+    private List<SpaceSummary> spaces = new ArrayList<>();
+
+    // Required by JAXB
+    public SpaceSummaryList() {}
+
+    public SpaceSummaryList(List<SpaceSummary> spaces) {
+        this.spaces = spaces;
+    }
+
+    public List<SpaceSummary> getSpaces() {
+        return spaces;
+    }
+
+    public void setSpaces(List<SpaceSummary> spaces) {
+        this.spaces = spaces;
+    }
+
+    /**
+     * Creates a serialized version of the space summaries
+     *
+     * @return JSON formatted space summaries
+     */
+    public String serialize() {
+        JaxbJsonSerializer<SpaceSummaryList> serializer =
+            new JaxbJsonSerializer<>(SpaceSummaryList.class);
+        try {
+            return serializer.serialize(this);
+        } catch(IOException e) {
+            throw new TaskDataException(
+                "Unable to serialize space summaries due to: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parses the space summaries
+     *
+     * @param summaries - JSON formatted space summaries
+     */
+    public static SpaceSummaryList deserialize(String summaries) {
+        JaxbJsonSerializer<SpaceSummaryList> serializer =
+            new JaxbJsonSerializer<>(SpaceSummaryList.class);
+        try {
+            return serializer.deserialize(summaries);
+        } catch(IOException e) {
+            throw new TaskDataException(
+                "Unable to parse space summaries due to: " + e.getMessage());
+        }
+    }
+
+}
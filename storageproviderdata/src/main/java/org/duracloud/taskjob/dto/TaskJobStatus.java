@@ -0,0 +1,174 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.taskjob.dto;
+
+import java.io.IOException;
+
+import javax.xml.bind.annotation.XmlValue;
+
+import org.duracloud.common.json.JaxbJsonSerializer;
+import org.duracloud.error.TaskDataException;
+
+/**
+ * Describes the state of a task which is being performed asynchronously
+ */
+public class TaskJobStatus {
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETE, FAILED;
+
+        public boolean isFinished() {
+            return this == COMPLETE || this == FAILED;
+        }
+    }
+
+    /**
+     * The ID of the task job
+     */
+    @XmlValue
+    private String jobId;
+
+    /**
+     * The current state of the job, one of the TaskJobStatus.State values
+     */
+    @XmlValue
+    private String state;
+
+    /**
+     * The name of the task being performed
+     */
+    @XmlValue
+    private String taskName;
+
+    /**
+     * The ID of the store against which the task is performed
+     */
+    @XmlValue
+    private String storeId;
+
+    /**
+     * The response of the task, available once the job is complete
+     */
+    @XmlValue
+    private String result;
+
+    /**
+     * A description of the error which caused the job to fail
+     */
+    @XmlValue
+    private String error;
+
+    /**
+     * The time at which the job was created, in milliseconds
+     */
+    @XmlValue
+    private long created;
+
+    /**
+     * The time at which the job state last changed, in milliseconds
+     */
+    @XmlValue
+    private long modified;
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public String getTaskName() {
+        return taskName;
+    }
+
+    public void setTaskName(String taskName) {
+        this.taskName = taskName;
+    }
+
+    public String getStoreId() {
+        return storeId;
+    }
+
+    public void setStoreId(String storeId) {
+        this.storeId = storeId;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public void setCreated(long created) {
+        this.created = created;
+    }
+
+    public long getModified() {
+        return modified;
+    }
+
+    public void setModified(long modified) {
+        this.modified = modified;
+    }
+
+    /**
+     * Creates a serialized version of the job status
+     *
+     * @return JSON formatted job status
+     */
+    public String serialize() {
+        JaxbJsonSerializer<TaskJobStatus> serializer =
+            new JaxbJsonSerializer<>(TaskJobStatus.class);
+        try {
+            return serializer.serialize(this);
+        } catch(IOException e) {
+            throw new TaskDataException(
+                "Unable to serialize task job status due to: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parses the job status
+     *
+     * @param status - JSON formatted job status
+     */
+    public static TaskJobStatus deserialize(String status) {
+        JaxbJsonSerializer<TaskJobStatus> serializer =
+            new JaxbJsonSerializer<>(TaskJobStatus.class);
+        try {
+            return serializer.deserialize(status);
+        } catch(IOException e) {
+            throw new TaskDataException(
+                "Unable to parse task job status due to: " + e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,48 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.copyjob.dto;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.matchers.JUnitMatchers.containsString;
+
+public class CopyJobStatusTest {
+
+    private final String jobId = "job-id";
+    private final String state = CopyJobStatus.State.RUNNING.name();
+    private final long bytesCopied = 1024;
+
+    @Test
+    public void testSerialize() {
+        CopyJobStatus status = new CopyJobStatus();
+        status.setJobId(jobId);
+        status.setState(state);
+        status.setBytesCopied(bytesCopied);
+
+        String result = status.serialize();
+        String cleanResult = result.replaceAll("\\s+", "");
+        assertThat(cleanResult, containsString("\"jobId\":\""+jobId+"\""));
+        assertThat(cleanResult, containsString("\"state\":\""+state+"\""));
+        assertThat(cleanResult, containsString("\"bytesCopied\":"+bytesCopied));
+    }
+
+    @Test
+    public void testDeserialize() {
+        String serialized = "{\"jobId\" : \""+jobId+"\"," +
+                            "\"state\" : \""+state+"\"," +
+                            "\"bytesCopied\" : "+bytesCopied+"}";
+
+        CopyJobStatus status = CopyJobStatus.deserialize(serialized);
+        assertEquals(jobId, status.getJobId());
+        assertEquals(state, status.getState());
+        assertEquals(bytesCopied, status.getBytesCopied());
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.spacesummary.dto;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.matchers.JUnitMatchers.containsString;
+
+public class SpaceSummaryListTest {
+
+    private final String spaceId = "space-id";
+    private final String user = "user-0";
+    private final String acl = "READ";
+    private final long itemCount = 10;
+    private final long byteCount = 1024;
+
+    @Test
+    public void testSerialize() {
+        SpaceSummary summary = new SpaceSummary(spaceId);
+        summary.getAcls().put(user, acl);
+        summary.setItemCount(itemCount);
+        summary.setByteCount(byteCount);
+        List<SpaceSummary> summaries = new ArrayList<>();
+        summaries.add(summary);
+
+        String result = new SpaceSummaryList(summaries).serialize();
+        String cleanResult = result.replaceAll("\\s+", "");
+        assertThat(cleanResult, containsString("\"spaceId\":\""+spaceId+"\""));
+        assertThat(cleanResult, containsString("\""+user+"\":\""+acl+"\""));
+        assertThat(cleanResult, containsString("\"itemCount\":"+itemCount));
+        assertThat(cleanResult, containsString("\"byteCount\":"+byteCount));
+    }
+
+    @Test
+    public void testDeserialize() {
+        String serialized = "{\"spaces\" : [ {" +
+                            "\"spaceId\" : \""+spaceId+"\"," +
+                            "\"acls\" : {\""+user+"\" : \""+acl+"\"}," +
+                            "\"itemCount\" : "+itemCount+"} ]}";
+
+        SpaceSummaryList list = SpaceSummaryList.deserialize(serialized);
+        assertEquals(1, list.getSpaces().size());
+        SpaceSummary summary = list.getSpaces().get(0);
+        assertEquals(spaceId, summary.getSpaceId());
+        assertEquals(acl, summary.getAcls().get(user));
+        assertEquals(itemCount, summary.getItemCount());
+        assertEquals(-1, summary.getByteCount());
+        assertEquals(0, summary.getStatsTimestamp());
+    }
+
+}
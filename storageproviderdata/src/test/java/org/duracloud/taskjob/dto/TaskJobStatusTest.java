@@ -0,0 +1,48 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.taskjob.dto;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.matchers.JUnitMatchers.containsString;
+
+public class TaskJobStatusTest {
+
+    private final String jobId = "job-id";
+    private final String state = TaskJobStatus.State.RUNNING.name();
+    private final String taskName = "enable-streaming";
+
+    @Test
+    public void testSerialize() {
+        TaskJobStatus status = new TaskJobStatus();
+        status.setJobId(jobId);
+        status.setState(state);
+        status.setTaskName(taskName);
+
+        String result = status.serialize();
+        String cleanResult = result.replaceAll("\\s+", "");
+        assertThat(cleanResult, containsString("\"jobId\":\""+jobId+"\""));
+        assertThat(cleanResult, containsString("\"state\":\""+state+"\""));
+        assertThat(cleanResult, containsString("\"taskName\":\""+taskName+"\""));
+    }
+
+    @Test
+    public void testDeserialize() {
+        String serialized = "{\"jobId\" : \""+jobId+"\"," +
+                            "\"state\" : \""+state+"\"," +
+                            "\"taskName\" : \""+taskName+"\"}";
+
+        TaskJobStatus status = TaskJobStatus.deserialize(serialized);
+        assertEquals(jobId, status.getJobId());
+        assertEquals(state, status.getState());
+        assertEquals(taskName, status.getTaskName());
+    }
+
+}
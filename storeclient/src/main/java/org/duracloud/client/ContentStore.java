@@ -16,14 +16,17 @@ import java.util.Map;
 import org.duracloud.common.constant.ManifestFormat;
 import org.duracloud.common.model.AclType;
 import org.duracloud.common.retry.ExceptionHandler;
+import org.duracloud.copyjob.dto.CopyJobStatus;
 import org.duracloud.domain.Content;
 import org.duracloud.domain.Space;
+import org.duracloud.error.ContentStateException;
 import org.duracloud.error.ContentStoreException;
 import org.duracloud.error.InvalidIdException;
 import org.duracloud.error.NotFoundException;
 import org.duracloud.reportdata.bitintegrity.BitIntegrityReport;
 import org.duracloud.reportdata.bitintegrity.BitIntegrityReportProperties;
 import org.duracloud.reportdata.storage.SpaceStatsDTO;
+import org.duracloud.spacesummary.dto.SpaceSummaryList;
 import org.duracloud.storage.provider.StorageProvider;
 
 /**
@@ -100,6 +103,16 @@ public interface ContentStore {
      */
     public List<String> getSpaces() throws ContentStoreException;
 
+    /**
+     * Provides a summary of each space, including the space ACLs and the
+     * item count and size of the space as of the most recent collection of
+     * storage statistics, in a single call.
+     *
+     * @return summaries of all spaces
+     * @throws ContentStoreException if an error occurs
+     */
+    public SpaceSummaryList getSpaceSummaries() throws ContentStoreException;
+
     /**
      * Retrieves the complete list of content items within a space. For spaces
      * with many content items, the list is paged and updated automatically in
@@ -275,6 +288,58 @@ public interface ContentStore {
                               String destSpaceId,
                               String destContentId) throws ContentStoreException;
     
+    /**
+     * This method starts an asynchronous copy of a content item, which may be
+     * to another content provider. The copy is performed by DuraStore after
+     * this call returns; use getCopyJob() to follow its progress. Chunked
+     * content is copied chunk by chunk, and checksums are verified as each
+     * item is written.
+     *
+     * @param srcSpaceId of content to copy
+     * @param srcContentId of content to copy
+     * @param destStoreId where the copied content will end up
+     * @param destSpaceId where copied content will end up
+     * @param destContentId given to copied content
+     * @return status of the new copy job, including its ID
+     * @throws ContentStoreException on error
+     */
+    public CopyJobStatus startCopyJob(String srcSpaceId,
+                                      String srcContentId,
+                                      String destStoreId,
+                                      String destSpaceId,
+                                      String destContentId)
+        throws ContentStoreException;
+
+    /**
+     * Retrieves the current status of a copy job.
+     *
+     * @param jobId ID of the copy job
+     * @return copy job status
+     * @throws NotFoundException if the job does not exist
+     * @throws ContentStoreException on error
+     */
+    public CopyJobStatus getCopyJob(String jobId) throws ContentStoreException;
+
+    /**
+     * Cancels a queued or running copy job.
+     *
+     * @param jobId ID of the copy job
+     * @throws ContentStateException if the job has already finished
+     * @throws ContentStoreException on error
+     */
+    public void cancelCopyJob(String jobId) throws ContentStoreException;
+
+    /**
+     * Runs a failed or cancelled copy job again. Chunks which were copied
+     * successfully by earlier attempts are not copied again.
+     *
+     * @param jobId ID of the copy job
+     * @return copy job status
+     * @throws ContentStateException if the job is not failed or cancelled
+     * @throws ContentStoreException on error
+     */
+    public CopyJobStatus retryCopyJob(String jobId) throws ContentStoreException;
+
     /**
      * This method moves the content item found in source-space with the id of
      * source-content-id into the dest-space, naming it to dest-content-id.
@@ -322,6 +387,21 @@ public interface ContentStore {
     public Content getContent(String spaceId, String contentId)
             throws ContentStoreException;
 
+    /**
+     * Gets content from a space, beginning at the given byte offset. This
+     * allows an interrupted retrieval to be resumed. The content size
+     * property is the size of the full content item.
+     *
+     * @param spaceId the identifier of the DuraCloud Space
+     * @param contentId the identifier of the content item
+     * @param startByte the offset of the first byte to retrieve
+     * @return the content stream, starting at startByte
+     * @throws NotFoundException if the space or content does not exist
+     * @throws ContentStoreException if an error occurs
+     */
+    public Content getContent(String spaceId, String contentId, long startByte)
+            throws ContentStoreException;
+
     /**
      * Removes content from a space.
      *
@@ -22,21 +22,28 @@ import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
 import org.apache.http.Header;
 import org.apache.http.HttpStatus;
 import org.duracloud.common.constant.Constants;
 import org.duracloud.common.constant.ManifestFormat;
 import org.duracloud.common.json.JaxbJsonSerializer;
+import org.duracloud.client.util.ContentStoreRetryClassifier;
 import org.duracloud.common.model.AclType;
+import org.duracloud.common.retry.CircuitBreaker;
 import org.duracloud.common.retry.ExceptionHandler;
 import org.duracloud.common.retry.Retriable;
 import org.duracloud.common.retry.Retrier;
+import org.duracloud.common.retry.RetryBudget;
+import org.duracloud.common.retry.RetryClassifier;
+import org.duracloud.common.retry.RetryPolicy;
 import org.duracloud.common.util.DateUtil.DateFormat;
 import org.duracloud.common.util.SerializationUtil;
 import org.duracloud.common.web.EncodeUtil;
 import org.duracloud.common.web.RestHttpHelper;
 import org.duracloud.common.web.RestHttpHelper.HttpResponse;
+import org.duracloud.copyjob.dto.CopyJobStatus;
 import org.duracloud.domain.Content;
 import org.duracloud.domain.Space;
 import org.duracloud.error.ContentStateException;
@@ -49,6 +56,7 @@ import org.duracloud.error.UnsupportedTaskException;
 import org.duracloud.reportdata.bitintegrity.BitIntegrityReport;
 import org.duracloud.reportdata.bitintegrity.BitIntegrityReportProperties;
 import org.duracloud.reportdata.bitintegrity.BitIntegrityReportResult;
+import org.duracloud.spacesummary.dto.SpaceSummaryList;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.error.ChecksumMismatchException;
 import org.duracloud.storage.provider.StorageProvider;
@@ -85,6 +93,13 @@ public class ContentStoreImpl implements ContentStore {
 
     private ExceptionHandler retryExceptionHandler;
 
+    private RetryClassifier retryClassifier = new ContentStoreRetryClassifier();
+
+    // Shared by all calls made through this client
+    private RetryBudget retryBudget = new RetryBudget();
+
+    // Optional, fails calls fast when DuraStore is known to be down
+    private CircuitBreaker circuitBreaker;
     
     private String clientVersion;
     
@@ -143,6 +158,19 @@ public class ContentStoreImpl implements ContentStore {
         this.retryExceptionHandler = retryExceptionHandler;
     }
 
+    /**
+     * Sets a circuit breaker which will reject calls while DuraStore is
+     * failing consistently. The same breaker may be shared by multiple
+     * ContentStores which talk to the same DuraStore.
+     */
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    public void setRetryBudget(RetryBudget retryBudget) {
+        this.retryBudget = retryBudget;
+    }
+
     public String getBaseURL() {
         return baseURL;
     }
@@ -237,13 +265,26 @@ public class ContentStoreImpl implements ContentStore {
     protected <T extends Object> T execute(Retriable retriable)
         throws ContentStoreException {
         try {
-            Retrier retrier = new Retrier(maxRetries);
+            Retrier retrier = new Retrier(createRetryPolicy());
             return retrier.execute(retriable, retryExceptionHandler);
+        } catch(ContentStoreException e) {
+            throw e;
         } catch(Exception e) {
-            throw (ContentStoreException)e;
+            throw new ContentStoreException(e.getMessage(), e);
         }
     }
 
+    private RetryPolicy createRetryPolicy() {
+        RetryPolicy policy = new RetryPolicy(maxRetries,
+                                             Retrier.DEFAULT_WAIT_BETWEEN_RETRIES,
+                                             Retrier.DEFAULT_WAIT_MULTIPLIER,
+                                             RetryPolicy.Jitter.FULL);
+        policy.setClassifier(retryClassifier);
+        policy.setBudget(retryBudget);
+        policy.setCircuitBreaker(circuitBreaker);
+        return policy;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -291,6 +332,44 @@ public class ContentStoreImpl implements ContentStore {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public SpaceSummaryList getSpaceSummaries() throws ContentStoreException {
+        return execute(new Retriable() {
+            @Override
+            public SpaceSummaryList retry() throws ContentStoreException {
+                // The actual method being executed
+                return doGetSpaceSummaries();
+            }
+        });
+    }
+
+    private SpaceSummaryList doGetSpaceSummaries()
+        throws ContentStoreException {
+        String task = "get space summaries";
+        String url = buildURL("/space-summary");
+        url = addStoreIdQueryParameter(url);
+
+        try {
+            HttpResponse response = restHelper.get(url);
+            checkResponse(response, HttpStatus.SC_OK);
+            String responseText = response.getResponseBody();
+            if (responseText != null) {
+                return SpaceSummaryList.deserialize(responseText);
+            } else {
+                throw new ContentStoreException("Response body is empty");
+            }
+        } catch(UnauthorizedException e) {
+            throw new UnauthorizedException(task, "listing", e);
+        } catch (Exception e) {
+            throw new ContentStoreException("Error attempting to get space " +
+                                            "summaries due to: " +
+                                            e.getMessage(), e);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -770,6 +849,138 @@ public class ContentStoreImpl implements ContentStore {
                            destContentId);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CopyJobStatus startCopyJob(String srcSpaceId,
+                                      String srcContentId,
+                                      String destStoreId,
+                                      String destSpaceId,
+                                      String destContentId)
+        throws ContentStoreException {
+        // Not retried, as a retry could start a duplicate job
+        String task = "start copy job";
+        String url = buildURL("/copy-job");
+        url = addQueryParameter(url, "srcStoreID", getStoreId());
+        url = addQueryParameter(url, "srcSpaceID", srcSpaceId);
+        url = addQueryParameter(url, "srcContentID", srcContentId);
+        url = addQueryParameter(url, "destStoreID", destStoreId);
+        url = addQueryParameter(url, "destSpaceID", destSpaceId);
+        url = addQueryParameter(url, "destContentID", destContentId);
+        try {
+            HttpResponse response = restHelper.post(url, null, null);
+            checkResponse(response, HttpStatus.SC_ACCEPTED);
+            return CopyJobStatus.deserialize(response.getResponseBody());
+        } catch (NotFoundException e) {
+            throw new NotFoundException(task, srcSpaceId, srcContentId, e);
+        } catch (UnauthorizedException e) {
+            throw new UnauthorizedException(task, srcSpaceId, srcContentId, e);
+        } catch (Exception e) {
+            throw new ContentStoreException(task,
+                                            srcSpaceId,
+                                            srcContentId,
+                                            destSpaceId,
+                                            destContentId,
+                                            e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CopyJobStatus getCopyJob(final String jobId)
+        throws ContentStoreException {
+        return execute(new Retriable() {
+            @Override
+            public CopyJobStatus retry() throws ContentStoreException {
+                // The actual method being executed
+                return doGetCopyJob(jobId);
+            }
+        });
+    }
+
+    private CopyJobStatus doGetCopyJob(String jobId)
+        throws ContentStoreException {
+        String url = buildURL("/copy-job/" + jobId);
+        try {
+            HttpResponse response = restHelper.get(url);
+            checkResponse(response, HttpStatus.SC_OK);
+            return CopyJobStatus.deserialize(response.getResponseBody());
+        } catch (NotFoundException e) {
+            throw new NotFoundException("Copy job " + jobId + " not found: " +
+                                        e.getMessage());
+        } catch (UnauthorizedException e) {
+            throw new UnauthorizedException(
+                "Not authorized to get copy job " + jobId, e);
+        } catch (Exception e) {
+            throw new ContentStoreException("Error getting copy job " + jobId +
+                                            ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void cancelCopyJob(final String jobId) throws ContentStoreException {
+        execute(new Retriable() {
+            @Override
+            public String retry() throws ContentStoreException {
+                // The actual method being executed
+                doUpdateCopyJob(jobId, "cancel", HttpStatus.SC_OK);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CopyJobStatus retryCopyJob(final String jobId)
+        throws ContentStoreException {
+        return execute(new Retriable() {
+            @Override
+            public CopyJobStatus retry() throws ContentStoreException {
+                // The actual method being executed
+                String status =
+                    doUpdateCopyJob(jobId, "retry", HttpStatus.SC_ACCEPTED);
+                return CopyJobStatus.deserialize(status);
+            }
+        });
+    }
+
+    private String doUpdateCopyJob(String jobId, String action, int expectedCode)
+        throws ContentStoreException {
+        String url = buildURL("/copy-job/" + jobId);
+        try {
+            HttpResponse response;
+            if ("cancel".equals(action)) {
+                response = restHelper.delete(url);
+            } else {
+                response = restHelper.post(url + "/" + action, null, null);
+            }
+            checkResponse(response, expectedCode);
+            return response.getResponseBody();
+        } catch (NotFoundException e) {
+            throw new NotFoundException("Copy job " + jobId + " not found: " +
+                                        e.getMessage());
+        } catch (ContentStateException e) {
+            throw new ContentStateException("Unable to " + action +
+                                            " copy job " + jobId + ": " +
+                                            e.getMessage());
+        } catch (UnauthorizedException e) {
+            throw new UnauthorizedException(
+                "Not authorized to " + action + " copy job " + jobId, e);
+        } catch (Exception e) {
+            throw new ContentStoreException("Error attempting to " + action +
+                                            " copy job " + jobId + ": " +
+                                            e.getMessage(), e);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -845,6 +1056,73 @@ public class ContentStoreImpl implements ContentStore {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Content getContent(final String spaceId,
+                              final String contentId,
+                              final long startByte)
+        throws ContentStoreException {
+        if(startByte <= 0) {
+            return getContent(spaceId, contentId);
+        }
+        return execute(new Retriable() {
+            @Override
+            public Content retry() throws ContentStoreException {
+                // The actual method being executed
+                return doGetContent(spaceId, contentId, startByte);
+            }
+        });
+    }
+
+    private Content doGetContent(String spaceId,
+                                 String contentId,
+                                 long startByte)
+        throws ContentStoreException {
+        String task = "get content";
+        String url = buildContentURL(spaceId, contentId);
+        try {
+            Map<String, String> headers = new HashMap<>();
+            headers.put(HttpHeaders.RANGE, "bytes=" + startByte + "-");
+            HttpResponse response = restHelper.get(url, headers);
+            boolean partial =
+                response.getStatusCode() == HttpStatus.SC_PARTIAL_CONTENT;
+            if(!partial) {
+                checkResponse(response, HttpStatus.SC_OK);
+            }
+
+            Content content = new Content();
+            content.setId(contentId);
+            Map<String, String> properties =
+                mergeMaps(extractPropertiesFromHeaders(response),
+                          extractNonPropertiesHeaders(response));
+            if(partial) {
+                // Content-Range is in the form: bytes start-end/size
+                String contentRange =
+                    response.getResponseHeader(HttpHeaders.CONTENT_RANGE)
+                            .getValue();
+                properties.put(CONTENT_SIZE,
+                               contentRange.substring(
+                                   contentRange.lastIndexOf('/') + 1));
+                content.setStream(response.getResponseStream());
+            } else {
+                // Ranges are not supported, skip ahead to the requested byte
+                InputStream stream = response.getResponseStream();
+                IOUtils.skipFully(stream, startByte);
+                content.setStream(stream);
+            }
+            content.setProperties(properties);
+            return content;
+        } catch(NotFoundException e) {
+            throw new NotFoundException(task, spaceId, contentId, e);
+        } catch(UnauthorizedException e) {
+            throw new UnauthorizedException(task, spaceId, contentId, e);
+        } catch (Exception e) {
+            throw new ContentStoreException(task, spaceId, contentId, e);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -15,9 +15,11 @@ public interface HttpHeaders {
 
     public static final String CONTENT_MD5 = "Content-MD5";
     public static final String CONTENT_LENGTH = "Content-Length";
+    public static final String CONTENT_RANGE = "Content-Range";
     public static final String CONTENT_TYPE = "Content-Type";
     public static final String ETAG = "ETag";
     public static final String LAST_MODIFIED = "Last-Modified";
+    public static final String RANGE = "Range";
     public static final String BIT_INTEGRITY_REPORT_RESULT = "Bit-Integrity-Report-Result";
     public static final String BIT_INTEGRITY_REPORT_COMPLETION_DATE = "Bit-Integrity-Report-Completion-Date";
     
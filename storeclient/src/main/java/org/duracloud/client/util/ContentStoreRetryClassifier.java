@@ -0,0 +1,53 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.client.util;
+
+import org.duracloud.common.retry.RetryClassifier;
+import org.duracloud.error.ContentStateException;
+import org.duracloud.error.InvalidIdException;
+import org.duracloud.error.NotFoundException;
+import org.duracloud.error.NotImplementedException;
+import org.duracloud.error.UnauthorizedException;
+import org.duracloud.error.UnsupportedTaskException;
+
+/**
+ * Separates permanent ContentStore failures, which correspond to 4xx
+ * responses from DuraStore (not found, bad request, unauthorized, conflict,
+ * not implemented), from transient ones such as 5xx responses and I/O
+ * errors. Only transient failures are retried.
+ *
+ * The full cause chain is examined, as callers frequently wrap the
+ * original exception.
+ */
+public class ContentStoreRetryClassifier implements RetryClassifier {
+
+    @Override
+    public boolean isRetryable(Exception e) {
+        Throwable current = e;
+        while (null != current) {
+            if (isPermanent(current)) {
+                return false;
+            }
+            if (current.getCause() == current) {
+                break;
+            }
+            current = current.getCause();
+        }
+        return RetryClassifier.DEFAULT.isRetryable(e);
+    }
+
+    private boolean isPermanent(Throwable t) {
+        return t instanceof NotFoundException ||
+               t instanceof InvalidIdException ||
+               t instanceof UnauthorizedException ||
+               t instanceof ContentStateException ||
+               t instanceof NotImplementedException ||
+               t instanceof UnsupportedTaskException;
+    }
+
+}
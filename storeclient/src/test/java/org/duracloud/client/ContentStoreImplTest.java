@@ -38,6 +38,8 @@ import org.duracloud.domain.Space;
 import org.duracloud.error.ContentStoreException;
 import org.duracloud.error.InvalidIdException;
 import org.duracloud.reportdata.storage.SpaceStatsDTO;
+import org.duracloud.spacesummary.dto.SpaceSummary;
+import org.duracloud.spacesummary.dto.SpaceSummaryList;
 import org.duracloud.storage.domain.StorageProviderType;
 import org.duracloud.storage.provider.StorageProvider;
 import org.easymock.Capture;
@@ -145,6 +147,30 @@ public class ContentStoreImplTest {
         Assert.assertEquals(2, spaces.size());
     }
 
+    @Test
+    public void testGetSpaceSummaries() throws Exception {
+        SpaceSummary summary = new SpaceSummary(spaceId);
+        summary.getAcls().put("user-0", "READ");
+        summary.setItemCount(10);
+        List<SpaceSummary> summaries = new ArrayList<>();
+        summaries.add(summary);
+        String json = new SpaceSummaryList(summaries).serialize();
+
+        String fullURL = baseURL + "/space-summary" + "?storeID=" + storeId;
+        EasyMock.expect(response.getStatusCode()).andReturn(200);
+        EasyMock.expect(response.getResponseBody()).andReturn(json);
+        EasyMock.expect(restHelper.get(fullURL)).andReturn(response);
+
+        replayMocks();
+
+        SpaceSummaryList result = contentStore.getSpaceSummaries();
+        Assert.assertEquals(1, result.getSpaces().size());
+        SpaceSummary resultSummary = result.getSpaces().get(0);
+        Assert.assertEquals(spaceId, resultSummary.getSpaceId());
+        Assert.assertEquals("READ", resultSummary.getAcls().get("user-0"));
+        Assert.assertEquals(10, resultSummary.getItemCount());
+    }
+
     @Test
     public void testGetSpaceContents() throws Exception {
         String xml = "<space id=\"space1\">" +
@@ -378,6 +404,54 @@ public class ContentStoreImplTest {
         Assert.assertEquals(stream, content.getStream());
     }
 
+    @Test
+    public void testGetContentRange() throws Exception {
+        InputStream stream = IOUtils.toInputStream("tent");
+
+        String fullURL = baseURL + "/" + spaceId + "/" + contentId +
+                         "?storeID=" + storeId;
+        Capture<Map<String, String>> headersCapture = new Capture<>();
+        EasyMock.expect(response.getStatusCode()).andReturn(206);
+        EasyMock.expect(response.getResponseHeaders())
+                .andReturn(new Header[]{
+                    new BasicHeader("Content-Length", "4")}).times(2);
+        EasyMock.expect(response.getResponseHeader("Content-Range"))
+                .andReturn(new BasicHeader("Content-Range", "bytes 3-6/7"));
+        EasyMock.expect(response.getResponseStream()).andReturn(stream);
+        EasyMock.expect(restHelper.get(EasyMock.eq(fullURL),
+                                       EasyMock.capture(headersCapture)))
+                .andReturn(response);
+
+        replayMocks();
+
+        Content content = contentStore.getContent(spaceId, contentId, 3);
+        Assert.assertEquals("bytes=3-",
+                            headersCapture.getValue().get("Range"));
+        Assert.assertEquals(stream, content.getStream());
+        Assert.assertEquals("7", content.getProperties().get(
+            StorageProvider.PROPERTIES_CONTENT_SIZE));
+    }
+
+    @Test
+    public void testGetContentRangeNotSupported() throws Exception {
+        InputStream stream = IOUtils.toInputStream("content");
+
+        String fullURL = baseURL + "/" + spaceId + "/" + contentId +
+                         "?storeID=" + storeId;
+        EasyMock.expect(response.getStatusCode()).andReturn(200).times(2);
+        EasyMock.expect(response.getResponseHeaders())
+                .andReturn(new Header[0]).times(2);
+        EasyMock.expect(response.getResponseStream()).andReturn(stream);
+        EasyMock.expect(restHelper.get(EasyMock.eq(fullURL),
+                                       EasyMock.<Map<String, String>>anyObject()))
+                .andReturn(response);
+
+        replayMocks();
+
+        Content content = contentStore.getContent(spaceId, contentId, 3);
+        Assert.assertEquals("tent", IOUtils.toString(content.getStream()));
+    }
+
     @Test
     public void testDeleteContent() throws Exception {
         String fullURL = baseURL + "/" + spaceId + "/" + contentId +
@@ -541,12 +615,13 @@ public class ContentStoreImplTest {
 
         String expectedMd5 = "md5";
         int status = 400;
+        // A bad request is a permanent failure, so it is not retried
         createCopyContentMocksError(destStoreId,
                                     destSpaceId,
                                     destContentId,
                                     expectedMd5,
                                     status,
-                                    retries + 1);
+                                    1);
         replayMocks();
 
         try {
@@ -0,0 +1,45 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.client.util;
+
+import java.io.IOException;
+
+import org.duracloud.common.error.DuraCloudRuntimeException;
+import org.duracloud.error.ContentStoreException;
+import org.duracloud.error.InvalidIdException;
+import org.duracloud.error.NotFoundException;
+import org.duracloud.error.UnauthorizedException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ContentStoreRetryClassifierTest {
+
+    private ContentStoreRetryClassifier classifier =
+        new ContentStoreRetryClassifier();
+
+    @Test
+    public void testIsRetryable() {
+        Assert.assertTrue(classifier.isRetryable(
+            new ContentStoreException("Response code was 500")));
+        Assert.assertTrue(classifier.isRetryable(
+            new ContentStoreException("error", new IOException("reset"))));
+
+        Assert.assertFalse(classifier.isRetryable(
+            new NotFoundException("Response code was 404")));
+        Assert.assertFalse(classifier.isRetryable(
+            new InvalidIdException("Response code was 400")));
+        Assert.assertFalse(classifier.isRetryable(
+            new UnauthorizedException("Response code was 401")));
+
+        // Wrapped permanent failures are still permanent
+        Assert.assertFalse(classifier.isRetryable(
+            new DuraCloudRuntimeException("error",
+                new NotFoundException("Response code was 404"))));
+    }
+
+}
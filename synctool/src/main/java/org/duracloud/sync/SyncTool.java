@@ -15,6 +15,8 @@ import java.util.Properties;
 
 import org.duracloud.client.ContentStore;
 import org.duracloud.client.util.StoreClientUtil;
+import org.duracloud.common.stream.BandwidthLimiter;
+import org.duracloud.common.stream.BandwidthSchedule;
 import org.duracloud.common.util.ApplicationConfig;
 import org.duracloud.sync.backup.SyncBackupManager;
 import org.duracloud.sync.config.SyncToolConfig;
@@ -160,7 +162,17 @@ public class SyncTool {
         return false;
     }
 
+    private void applyBandwidthLimit() {
+        BandwidthLimiter limiter = BandwidthLimiter.getInstance();
+        limiter.setBytesPerSecond(syncConfig.getBandwidthLimit());
+        String schedule = syncConfig.getBandwidthSchedule();
+        limiter.setSchedule(null == schedule ? null :
+                            BandwidthSchedule.parse(schedule));
+    }
+
     private void startSyncManager() {
+        applyBandwidthLimit();
+
         StoreClientUtil clientUtil = new StoreClientUtil();
         ContentStore contentStore =
             clientUtil.createContentStore(syncConfig.getHost(),
@@ -187,25 +199,35 @@ public class SyncTool {
         syncManager = new SyncManager(syncConfig.getContentDirs(),
                                       syncEndpoint,
                                       syncConfig.getNumThreads(),
-                                      syncConfig.getPollFrequency());
+                                      syncConfig.getPollFrequency(),
+                                      syncConfig.getLargeFileSize(),
+                                      syncConfig.getLargeFileShare());
         syncManager.beginSync();
     }
 
     private void startDirWalker() {
-        dirWalker = DirWalker.start(syncConfig.getContentDirs(), fileExclusionManager);
+        dirWalker = DirWalker.start(syncConfig.getContentDirs(),
+                                    fileExclusionManager,
+                                    syncConfig.getWalkThreads());
     }
 
     private void startRestartDirWalker(long lastBackup) {
         dirWalker = RestartDirWalker.start(syncConfig.getContentDirs(),
                                            lastBackup, 
-                                           fileExclusionManager);
+                                           fileExclusionManager,
+                                           syncConfig.getWalkThreads());
     }
 
     private void startDeleteChecker() {
+        File deleteCheckDir = new File(syncConfig.getWorkDir(), "delete-check");
         deleteChecker = DeleteChecker.start(syncEndpoint,
                                             syncConfig.getSpaceId(),
                                             syncConfig.getContentDirs(),
-                                            syncConfig.getPrefix());
+                                            syncConfig.getPrefix(),
+                                            syncConfig.getDeleteThreads(),
+                                            syncConfig.getDeleteRate(),
+                                            deleteCheckDir,
+                                            syncConfig.isDeleteDryRun());
     }
 
     private void startDirMonitor() {
@@ -331,6 +353,8 @@ public class SyncTool {
 
         if(dirWalker == null){
             logger.info("Running Sync Tool complete file check");
+            // Changes recorded by an earlier run are not relevant
+            syncBackupManager.clearBackups();
             startDirWalker();
         }
 
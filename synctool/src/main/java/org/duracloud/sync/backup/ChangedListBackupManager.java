@@ -8,10 +8,12 @@
 package org.duracloud.sync.backup;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
-import org.duracloud.sync.config.SyncToolConfig;
 import org.duracloud.sync.mgmt.ChangedList;
+import org.duracloud.sync.mgmt.ChangedListJournal;
 import org.duracloud.sync.util.DirectoryUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,6 +21,12 @@ import org.slf4j.LoggerFactory;
 /**
  * Manages the backing up of the changed list on a consistent schedule.
  *
+ * Changes to the list are recorded as they happen in a ChangedListJournal.
+ * On each backup interval the journal is flushed to disk (making it usable
+ * for a restart) and compacted when needed. Backups written by earlier
+ * versions, as a single serialized file per backup, can still be loaded,
+ * and are removed once the journal has been flushed.
+ *
  * @author: Bill Branan
  * Date: Mar 19, 2010
  */
@@ -28,8 +36,13 @@ public class ChangedListBackupManager implements Runnable {
         LoggerFactory.getLogger(ChangedListBackupManager.class);
 
     public static final int SAVED_BACKUPS = 3;
+    // Legacy backups are held in BACKUP_DIR and the journal in JOURNAL_DIR,
+    // both directly under the sync backup directory
+    protected static final String BACKUP_DIR = "changeList";
+    protected static final String JOURNAL_DIR = "changeListJournal";
     protected static final int DEFAULT_SLEEP_TIME = 5000; // 5 seconds
     private File backupDir;
+    private ChangedListJournal journal;
     private long backupFrequency;
     private ChangedList changedList;
     private boolean continueBackup;
@@ -38,9 +51,9 @@ public class ChangedListBackupManager implements Runnable {
     private boolean backingUp = false;
     
     public ChangedListBackupManager(ChangedList changedList,
-                                    File backupDir,
+                                    File syncBackupDir,
                                     long backupFrequency, List<File> contentDirs) {
-        this.backupDir = new File(backupDir, "changeList");
+        this.backupDir = new File(syncBackupDir, BACKUP_DIR);
         if(!this.backupDir.exists()) {
             this.backupDir.mkdir();
         }
@@ -49,6 +62,10 @@ public class ChangedListBackupManager implements Runnable {
         this.changedList = changedList;
         this.contentDirs = contentDirs;
         continueBackup = true;
+
+        this.journal =
+            new ChangedListJournal(new File(syncBackupDir, JOURNAL_DIR));
+        changedList.setJournal(journal, ChangedList.DEFAULT_MAX_IN_MEMORY);
     }
 
     /**
@@ -60,6 +77,18 @@ public class ChangedListBackupManager implements Runnable {
      * @return the write time of the backup file, or -1 if no backup is available 
      */
     public long loadBackup() {
+        if(journal.hasCheckpoint()) {
+            try {
+                long backupTime = journal.getCheckpointTime();
+                changedList.restoreJournal(journal, this.contentDirs);
+                return backupTime;
+            } catch(RuntimeException e) {
+                logger.error("Unable to load changed list journal: " +
+                             e.getMessage(), e);
+                return -1;
+            }
+        }
+
         long backupTime = -1;
         File[] backupDirFiles = getSortedBackupDirFiles();
         if(backupDirFiles.length > 0) {
@@ -78,18 +107,22 @@ public class ChangedListBackupManager implements Runnable {
     }
 
     /**
-     * Runs the backup manager. Writes out files which are a backups of the
-     * changed list based on the set backup frequency. Retains SAVED_BACKUPS
-     * number of backup files, removes the rest.
+     * Runs the backup manager. Checkpoints the changed list journal based on
+     * the set backup frequency, compacting it when enough changes have
+     * accumulated. This is started only once the initial directory walk is
+     * complete, so a journal with a checkpoint is complete enough to be used
+     * for a restart.
      */
     public void run() {
         while(continueBackup) {
-            if(changedListVersion < changedList.getVersion()) {
-                cleanupBackupDir(SAVED_BACKUPS);
-                String filename = String.valueOf(System.currentTimeMillis());
-                File persistFile = new File(backupDir, filename);
+            long version = changedList.getVersion();
+            if(changedListVersion != version || !journal.hasCheckpoint()) {
                 backingUp = true;
-                changedListVersion = changedList.persist(persistFile);
+                changedList.checkpointJournal();
+                changedList.compactJournal();
+                changedListVersion = version;
+                // Backups in the previous format are no longer needed
+                cleanupBackupDir(0);
                 backingUp = false;
             }
 
@@ -140,19 +173,42 @@ public class ChangedListBackupManager implements Runnable {
         
         synchronized(this){
             cleanupBackupDir(0);
+            try {
+                journal.reset();
+            } catch(IOException e) {
+                logger.error("Unable to clear changed list journal: " +
+                             e.getMessage(), e);
+            }
         }
 
     }
 
+    /*
+     * Lists the legacy backup files, which are named by the time they were
+     * written, skipping anything else found in the backup directory
+     */
     private File[] getSortedBackupDirFiles() {
-        return DirectoryUtil.listFilesSortedByModDate(backupDir);
+        File[] files = DirectoryUtil.listFilesSortedByModDate(backupDir);
+        List<File> backups = new ArrayList<>();
+        for(File file : files) {
+            if(file.isFile() && file.getName().matches("\\d+")) {
+                backups.add(file);
+            }
+        }
+        return backups.toArray(new File[backups.size()]);
     }
 
+    /**
+     * Ends backups, flushing the journal and detaching it from the changed
+     * list so that no further changes are recorded.
+     */
     public void endBackup() {
         continueBackup = false;
+        changedList.detachJournal();
     }
 
     public boolean hasBackups() {
-        return getSortedBackupDirFiles().length > 0;
+        return journal.hasCheckpoint() ||
+               getSortedBackupDirFiles().length > 0;
     }    
 }
@@ -33,8 +33,16 @@ public class SyncToolConfig implements Serializable {
     private long pollFrequency;
     private long backupFrequency = DEFAULT_BACKUP_FREQUENCY;
     private int numThreads = 5;
+    private int walkThreads = 4;
     private long maxFileSize;
+    private long largeFileSize = 100 * 1024 * 1024;
+    private int largeFileShare = 25;
+    private long bandwidthLimit = 0;
+    private String bandwidthSchedule;
     private boolean syncDeletes;
+    private int deleteThreads = 4;
+    private int deleteRate = 0;
+    private boolean deleteDryRun = false;
     private boolean cleanStart;
     private boolean exitOnCompletion;
     private File excludeList;
@@ -80,11 +88,40 @@ public class SyncToolConfig implements Serializable {
         config.append("\n");
         config.append("SyncTool Threads: ");
         config.append(getNumThreads()).append("\n");
+        config.append("SyncTool Directory Walk Threads: ");
+        config.append(getWalkThreads()).append("\n");
         config.append("SyncTool Max File Size: ");
         config.append(getMaxFileSize()).append(" bytes\n");
+        config.append("SyncTool Large File Size: ");
+        config.append(getLargeFileSize()).append(" bytes\n");
+        config.append("SyncTool Large File Share: ");
+        config.append(getLargeFileShare()).append("% of threads\n");
+        config.append("SyncTool Bandwidth Limit: ");
+        if(getBandwidthLimit() > 0) {
+            config.append(getBandwidthLimit()).append(" bytes per second\n");
+        } else {
+            config.append("unlimited\n");
+        }
+        if(getBandwidthSchedule() != null) {
+            config.append("SyncTool Bandwidth Schedule: ");
+            config.append(getBandwidthSchedule()).append("\n");
+        }
         config.append("SyncTool Syncing Deletes: ");
         config.append(syncDeletes()).append("\n");
 
+        if(syncDeletes()) {
+            config.append("SyncTool Delete Threads: ");
+            config.append(getDeleteThreads()).append("\n");
+            config.append("SyncTool Delete Rate: ");
+            if(getDeleteRate() > 0) {
+                config.append(getDeleteRate()).append(" per second\n");
+            } else {
+                config.append("unlimited\n");
+            }
+            config.append("SyncTool Delete Check Dry Run: ");
+            config.append(isDeleteDryRun()).append("\n");
+        }
+
         if(getExcludeList() != null) {
             config.append("SyncTool Exclude List: ");
             config.append(getExcludeList()).append("\n");
@@ -199,6 +236,14 @@ public class SyncToolConfig implements Serializable {
         this.numThreads = numThreads;
     }
 
+    public int getWalkThreads() {
+        return walkThreads;
+    }
+
+    public void setWalkThreads(int walkThreads) {
+        this.walkThreads = walkThreads;
+    }
+
     public long getMaxFileSize() {
         return maxFileSize;
     }
@@ -207,6 +252,38 @@ public class SyncToolConfig implements Serializable {
         this.maxFileSize = maxFileSize;
     }
 
+    public long getLargeFileSize() {
+        return largeFileSize;
+    }
+
+    public void setLargeFileSize(long largeFileSize) {
+        this.largeFileSize = largeFileSize;
+    }
+
+    public int getLargeFileShare() {
+        return largeFileShare;
+    }
+
+    public void setLargeFileShare(int largeFileShare) {
+        this.largeFileShare = largeFileShare;
+    }
+
+    public long getBandwidthLimit() {
+        return bandwidthLimit;
+    }
+
+    public void setBandwidthLimit(long bandwidthLimit) {
+        this.bandwidthLimit = bandwidthLimit;
+    }
+
+    public String getBandwidthSchedule() {
+        return bandwidthSchedule;
+    }
+
+    public void setBandwidthSchedule(String bandwidthSchedule) {
+        this.bandwidthSchedule = bandwidthSchedule;
+    }
+
     public boolean syncDeletes() {
         return syncDeletes;
     }
@@ -215,6 +292,30 @@ public class SyncToolConfig implements Serializable {
         this.syncDeletes = syncDeletes;
     }
 
+    public int getDeleteThreads() {
+        return deleteThreads;
+    }
+
+    public void setDeleteThreads(int deleteThreads) {
+        this.deleteThreads = deleteThreads;
+    }
+
+    public int getDeleteRate() {
+        return deleteRate;
+    }
+
+    public void setDeleteRate(int deleteRate) {
+        this.deleteRate = deleteRate;
+    }
+
+    public boolean isDeleteDryRun() {
+        return deleteDryRun;
+    }
+
+    public void setDeleteDryRun(boolean deleteDryRun) {
+        this.deleteDryRun = deleteDryRun;
+    }
+
     public boolean isCleanStart() {
         return cleanStart;
     }
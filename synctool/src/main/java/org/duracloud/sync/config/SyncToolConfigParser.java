@@ -16,6 +16,7 @@ import org.apache.commons.cli.ParseException;
 import org.apache.commons.cli.PosixParser;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.duracloud.common.stream.BandwidthSchedule;
 import org.duracloud.common.util.CommandLineToolUtil;
 import org.duracloud.common.util.ConsolePrompt;
 
@@ -44,7 +45,12 @@ public class SyncToolConfigParser {
     protected static final int DEFAULT_PORT = 443;
     protected static final long DEFAULT_POLL_FREQUENCY = 10000;
     protected static final int DEFAULT_NUM_THREADS = 3;
+    protected static final int DEFAULT_WALK_THREADS = 4;
+    protected static final int DEFAULT_DELETE_THREADS = 4;
     protected static final int DEFAULT_MAX_FILE_SIZE = 1; // 1 GB
+    protected static final long MEGABYTE = 1024*1024;
+    protected static final int DEFAULT_LARGE_FILE_SIZE = 100; // 100 MB
+    protected static final int DEFAULT_LARGE_FILE_SHARE = 25;
     protected static final String context = "durastore";
     
     private Options cmdOptions;
@@ -125,7 +131,8 @@ public class SyncToolConfigParser {
        Option pollFrequency =
            new Option("f", "poll-frequency", true,
                       "the time (in ms) to wait between each poll of the " +
-                      "sync-dirs (optional, default value is " +
+                      "sync-dirs which cannot be watched for changes " +
+                      "(optional, default value is " +
                       DEFAULT_POLL_FREQUENCY + ")");
         pollFrequency.setRequired(false);
         cmdOptions.addOption(pollFrequency);
@@ -138,6 +145,14 @@ public class SyncToolConfigParser {
         numThreads.setRequired(false);
         cmdOptions.addOption(numThreads);
 
+       Option walkThreads =
+           new Option("k", "walk-threads", true,
+                      "the number of threads used to list the sync-dirs " +
+                      "when looking for files to sync (optional, default " +
+                      "value is " + DEFAULT_WALK_THREADS + ")");
+        walkThreads.setRequired(false);
+        cmdOptions.addOption(walkThreads);
+
        Option maxFileSize =
            new Option("m", "max-file-size", true,
                       "the maximum size of a stored file in GB (value must " +
@@ -147,6 +162,42 @@ public class SyncToolConfigParser {
         maxFileSize.setRequired(false);
         cmdOptions.addOption(maxFileSize);
 
+       Option largeFileSize =
+           new Option(null, "large-file-size", true,
+                      "files of this size in MB or larger are synced by a " +
+                      "separate set of threads, so that they do not hold up " +
+                      "smaller files (optional, default value is " +
+                      DEFAULT_LARGE_FILE_SIZE + ")");
+        largeFileSize.setRequired(false);
+        cmdOptions.addOption(largeFileSize);
+
+       Option largeFileShare =
+           new Option(null, "large-file-share", true,
+                      "the percentage of threads which sync large files, " +
+                      "and of the bandwidth limit given to them while " +
+                      "small files are also being synced " +
+                      "(value must be between 1 and 99; optional, default " +
+                      "value is " + DEFAULT_LARGE_FILE_SHARE + ")");
+        largeFileShare.setRequired(false);
+        cmdOptions.addOption(largeFileShare);
+
+       Option bandwidthLimit =
+           new Option(null, "bandwidth-limit", true,
+                      "the maximum rate at which content is transferred, " +
+                      "in bytes per second, optionally followed by K, M " +
+                      "or G (optional, default value is 0, no limit)");
+        bandwidthLimit.setRequired(false);
+        cmdOptions.addOption(bandwidthLimit);
+
+       Option bandwidthSchedule =
+           new Option(null, "bandwidth-schedule", true,
+                      "limits which apply at certain times of day, as a " +
+                      "comma separated list in the form HH:mm-HH:mm=RATE, " +
+                      "for example 08:00-18:00=512K; outside of these " +
+                      "times the bandwidth-limit applies (optional)");
+        bandwidthSchedule.setRequired(false);
+        cmdOptions.addOption(bandwidthSchedule);
+
 
          Option renameUpdates =
              new Option("n", "rename-updates", true,
@@ -177,6 +228,35 @@ public class SyncToolConfigParser {
         syncDeletes.setRequired(false);
         cmdOptions.addOption(syncDeletes);
 
+       Option deleteThreads =
+           new Option(null, "delete-threads", true,
+                      "the number of threads used to remove content from " +
+                      "DuraCloud which no longer exists in the sync " +
+                      "directories, applies only with option -d (optional, " +
+                      "default value is " + DEFAULT_DELETE_THREADS + ")");
+        deleteThreads.setRequired(false);
+        cmdOptions.addOption(deleteThreads);
+
+       Option deleteRate =
+           new Option(null, "delete-rate", true,
+                      "the maximum number of content items to remove from " +
+                      "DuraCloud each second when checking for files which " +
+                      "no longer exist in the sync directories, applies " +
+                      "only with option -d (optional, not limited by " +
+                      "default)");
+        deleteRate.setRequired(false);
+        cmdOptions.addOption(deleteRate);
+
+       Option deleteDryRun =
+           new Option(null, "delete-dry-run", false,
+                      "indicates that content found in DuraCloud which no " +
+                      "longer exists in the sync directories should be " +
+                      "listed in a report file in the work-dir rather than " +
+                      "removed, applies only with option -d (optional, not " +
+                      "set by default)");
+        deleteDryRun.setRequired(false);
+        cmdOptions.addOption(deleteDryRun);
+
        Option cleanStart =
            new Option("l", "clean-start", false,
                       "indicates that the sync tool should perform a clean " +
@@ -393,6 +473,21 @@ public class SyncToolConfigParser {
             config.setNumThreads(DEFAULT_NUM_THREADS);
         }
 
+        if(cmd.hasOption("k")) {
+            try {
+                int walkThreads = Integer.valueOf(cmd.getOptionValue("k"));
+                if(walkThreads < 1) {
+                    throw new NumberFormatException();
+                }
+                config.setWalkThreads(walkThreads);
+            } catch(NumberFormatException e) {
+                throw new ParseException("The value for walk threads (-k) " +
+                                         "must be a positive number.");
+            }
+        } else {
+            config.setWalkThreads(DEFAULT_WALK_THREADS);
+        }
+
         if(cmd.hasOption("m")) {
             String error = "The value for max-file-size (-m) must be a " +
                            "number between 1 and 5.";
@@ -410,6 +505,64 @@ public class SyncToolConfigParser {
             config.setMaxFileSize(DEFAULT_MAX_FILE_SIZE * GIGABYTE);
         }
 
+        if(cmd.hasOption("large-file-size")) {
+            try {
+                long largeFileSize =
+                    Long.valueOf(cmd.getOptionValue("large-file-size"));
+                if(largeFileSize < 1) {
+                    throw new NumberFormatException();
+                }
+                config.setLargeFileSize(largeFileSize * MEGABYTE);
+            } catch(NumberFormatException e) {
+                throw new ParseException("The value for large file size " +
+                                         "(--large-file-size) must be a " +
+                                         "positive number.");
+            }
+        } else {
+            config.setLargeFileSize(DEFAULT_LARGE_FILE_SIZE * MEGABYTE);
+        }
+
+        if(cmd.hasOption("large-file-share")) {
+            String error = "The value for large file share " +
+                           "(--large-file-share) must be a number between " +
+                           "1 and 99.";
+            try {
+                int largeFileShare =
+                    Integer.valueOf(cmd.getOptionValue("large-file-share"));
+                if(largeFileShare < 1 || largeFileShare > 99) {
+                    throw new ParseException(error);
+                }
+                config.setLargeFileShare(largeFileShare);
+            } catch(NumberFormatException e) {
+                throw new ParseException(error);
+            }
+        } else {
+            config.setLargeFileShare(DEFAULT_LARGE_FILE_SHARE);
+        }
+
+        if(cmd.hasOption("bandwidth-limit")) {
+            try {
+                config.setBandwidthLimit(BandwidthSchedule.parseRate(
+                    cmd.getOptionValue("bandwidth-limit")));
+            } catch(IllegalArgumentException e) {
+                throw new ParseException("The value for bandwidth limit " +
+                                         "(--bandwidth-limit) is not valid: " +
+                                         e.getMessage());
+            }
+        }
+
+        if(cmd.hasOption("bandwidth-schedule")) {
+            String schedule = cmd.getOptionValue("bandwidth-schedule");
+            try {
+                BandwidthSchedule.parse(schedule);
+            } catch(IllegalArgumentException e) {
+                throw new ParseException("The value for bandwidth schedule " +
+                                         "(--bandwidth-schedule) is not " +
+                                         "valid: " + e.getMessage());
+            }
+            config.setBandwidthSchedule(schedule.trim());
+        }
+
         if(cmd.hasOption("o") && cmd.hasOption("n")){
             throw new ParseException("Options -o (no updates) and -n " +
                                      "(rename updates) cannot be used together.");
@@ -438,6 +591,42 @@ public class SyncToolConfigParser {
             config.setSyncDeletes(false);
         }
 
+        if(cmd.hasOption("delete-threads")) {
+            try {
+                int deleteThreads =
+                    Integer.valueOf(cmd.getOptionValue("delete-threads"));
+                if(deleteThreads < 1) {
+                    throw new NumberFormatException();
+                }
+                config.setDeleteThreads(deleteThreads);
+            } catch(NumberFormatException e) {
+                throw new ParseException("The value for delete threads " +
+                                         "(--delete-threads) must be a " +
+                                         "positive number.");
+            }
+        } else {
+            config.setDeleteThreads(DEFAULT_DELETE_THREADS);
+        }
+
+        if(cmd.hasOption("delete-rate")) {
+            try {
+                int deleteRate =
+                    Integer.valueOf(cmd.getOptionValue("delete-rate"));
+                if(deleteRate < 1) {
+                    throw new NumberFormatException();
+                }
+                config.setDeleteRate(deleteRate);
+            } catch(NumberFormatException e) {
+                throw new ParseException("The value for delete rate " +
+                                         "(--delete-rate) must be a " +
+                                         "positive number.");
+            }
+        } else {
+            config.setDeleteRate(0);
+        }
+
+        config.setDeleteDryRun(cmd.hasOption("delete-dry-run"));
+
         if(cmd.hasOption("l")) {
             config.setCleanStart(true);
         } else {
@@ -7,10 +7,12 @@
  */
 package org.duracloud.sync.endpoint;
 
+import org.duracloud.common.stream.BandwidthLimiter;
 import org.duracloud.common.util.ChecksumUtil;
 import org.duracloud.common.util.MimetypeUtil;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URI;
@@ -25,12 +27,18 @@ public class MonitoredFile {
     private MonitoredInputStream stream;
     private String checksum;
     private String mimetype;
+    private BandwidthLimiter bandwidthLimiter;
 
     public MonitoredFile(File file) {
+        this(file, BandwidthLimiter.getInstance());
+    }
+
+    public MonitoredFile(File file, BandwidthLimiter bandwidthLimiter) {
         this.file = file;
         this.stream = null;
         this.checksum = null;
         this.mimetype = null;
+        this.bandwidthLimiter = bandwidthLimiter;
     }
 
     public File getFile() {
@@ -68,7 +76,8 @@ public class MonitoredFile {
     public MonitoredInputStream getStream() {
         if(null == stream) {
             try {
-                stream = new MonitoredInputStream(file);
+                stream = new MonitoredInputStream(new FileInputStream(file),
+                                                  bandwidthLimiter);
             } catch(FileNotFoundException e) {
                 throw new RuntimeException("Could not get stream for " +
                     "file: " + file.getAbsolutePath() + " due to " +
@@ -14,21 +14,32 @@ import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
+import org.duracloud.common.stream.BandwidthLimiter;
+
 /**
+ * Counts the bytes read from a file being synced, and holds reads to the
+ * bandwidth limit shared by all transfers.
+ *
  * @author: Bill Branan
  * Date: 10/20/11
  */
 public class MonitoredInputStream extends FilterInputStream {
 
     long bytesRead;
+    private BandwidthLimiter limiter;
 
     public MonitoredInputStream(File file) throws FileNotFoundException {
         this(new FileInputStream(file));
     }
     
     public MonitoredInputStream(InputStream is)  {
+        this(is, BandwidthLimiter.getInstance());
+    }
+
+    public MonitoredInputStream(InputStream is, BandwidthLimiter limiter)  {
         super(is);
         this.bytesRead = 0;
+        this.limiter = limiter;
     }
 
     @Override
@@ -36,6 +47,7 @@ public class MonitoredInputStream extends FilterInputStream {
         int value = super.read();
         if(value > -1) {
             bytesRead++;
+            limiter.acquire(1);
         }
         return value;
     }
@@ -47,7 +59,9 @@ public class MonitoredInputStream extends FilterInputStream {
 
     @Override
     public int read(byte[] b, int off, int len) throws IOException {
-        return updateBytesRead(super.read(b, off, len));
+        int byteCount = updateBytesRead(super.read(b, off, len));
+        limiter.acquire(byteCount);
+        return byteCount;
     }
 
     public int updateBytesRead(int byteCount) {
@@ -0,0 +1,205 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.sync.mgmt;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A first-in, first-out queue of changed files held in a file on disk. Used
+ * by the ChangedList to hold entries beyond those it keeps in memory. Uses
+ * the record layout of the ChangedListJournal.
+ *
+ * The queue file is truncated once the queue is empty, unless a snapshot of
+ * the queue is still being read, in which case the file is left to grow
+ * until the snapshot is closed.
+ */
+class ChangedFileQueue {
+
+    private final File queueFile;
+    private DataOutputStream out;
+    private long writeOffset;
+    private long readOffset;
+    private int size;
+    private int openSnapshots;
+
+    ChangedFileQueue(File queueFile) throws IOException {
+        this.queueFile = queueFile;
+        open();
+    }
+
+    private void open() throws IOException {
+        out = new DataOutputStream(
+            new BufferedOutputStream(new FileOutputStream(queueFile, false)));
+        writeOffset = 0;
+        readOffset = 0;
+        size = 0;
+    }
+
+    synchronized void add(ChangedFile changedFile) throws IOException {
+        writeOffset += ChangedListJournal.writeRecord(
+            out, ChangedListJournal.TYPE_ADD,
+            changedFile.getFile().getAbsolutePath(),
+            changedFile.getSyncAttempts());
+        size++;
+    }
+
+    /**
+     * Removes and returns up to maxFiles files from the head of the queue
+     */
+    synchronized List<ChangedFile> poll(int maxFiles) throws IOException {
+        List<ChangedFile> files = new ArrayList<>();
+        if(size == 0) {
+            return files;
+        }
+
+        out.flush();
+        try (DataInputStream in = openReader()) {
+            while(files.size() < maxFiles && readOffset < writeOffset) {
+                ChangedListJournal.Record record =
+                    ChangedListJournal.readRecord(in, queueFile.getName());
+                if(null == record) {
+                    throw new IOException("Unable to read from queue file " +
+                                          queueFile.getAbsolutePath());
+                }
+                readOffset += record.size;
+                files.add(record.toChangedFile());
+                size--;
+            }
+        }
+
+        if(size == 0) {
+            clear();
+        }
+        return files;
+    }
+
+    /**
+     * @return an iterator over the files in the queue at the time of the
+     *         call, which does not remove them. The queue may be changed
+     *         while the snapshot is read, and the snapshot must be closed
+     *         once it is no longer needed.
+     */
+    synchronized Snapshot snapshot() throws IOException {
+        out.flush();
+        Snapshot snapshot = new Snapshot(openReader(), readOffset, writeOffset);
+        openSnapshots++;
+        return snapshot;
+    }
+
+    private synchronized void closeSnapshot() {
+        openSnapshots--;
+        if(openSnapshots == 0 && size == 0 && writeOffset > 0) {
+            try {
+                clear();
+            } catch(IOException e) {
+                // The file is truncated on the next clear
+            }
+        }
+    }
+
+    private DataInputStream openReader() throws IOException {
+        FileInputStream fileIn = new FileInputStream(queueFile);
+        fileIn.getChannel().position(readOffset);
+        return new DataInputStream(new BufferedInputStream(fileIn));
+    }
+
+    private void close(DataInputStream in) {
+        try {
+            in.close();
+        } catch(IOException e) {
+            // Nothing further to do
+        }
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized void clear() throws IOException {
+        if(openSnapshots > 0) {
+            // Leave the records in place for the snapshots being read
+            readOffset = writeOffset;
+            size = 0;
+            return;
+        }
+        out.close();
+        open();
+    }
+
+    synchronized void close() throws IOException {
+        out.close();
+        queueFile.delete();
+    }
+
+    /**
+     * The files which were in the queue when the snapshot was taken
+     */
+    class Snapshot implements Iterator<ChangedFile>, Closeable {
+        private final DataInputStream in;
+        private final long end;
+        private long offset;
+        private boolean closed = false;
+
+        private Snapshot(DataInputStream in, long start, long end) {
+            this.in = in;
+            this.offset = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean hasNext() {
+            boolean hasNext = !closed && offset < end;
+            if(!hasNext) {
+                close();
+            }
+            return hasNext;
+        }
+
+        @Override
+        public ChangedFile next() {
+            if(!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                ChangedListJournal.Record record =
+                    ChangedListJournal.readRecord(in, queueFile.getName());
+                if(null == record) {
+                    throw new IOException("Unable to read from queue " +
+                                          "file " + queueFile.getName());
+                }
+                offset += record.size;
+                return record.toChangedFile();
+            } catch(IOException e) {
+                close();
+                throw new RuntimeException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public void close() {
+            if(!closed) {
+                closed = true;
+                ChangedFileQueue.this.close(in);
+                closeSnapshot();
+            }
+        }
+    }
+
+}
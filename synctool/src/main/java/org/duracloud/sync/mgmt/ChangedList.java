@@ -7,19 +7,27 @@
  */
 package org.duracloud.sync.mgmt;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -30,21 +38,46 @@ import org.slf4j.LoggerFactory;
 /**
  * The list of files which have been changed.
  *
- * @author: Bill Branan
- * Date: Mar 15, 2010
+ * When a ChangedListJournal is attached, each change to the list is
+ * recorded in the journal, and only a bounded number of pending files are
+ * held in memory. Files added beyond that number are held in a queue on
+ * disk (alongside the journal) and brought back into memory as the list
+ * drains. A file which is added again while it is waiting in that queue
+ * may be handed out for processing twice, so the removal of a file is only
+ * recorded in the journal once no other copy of it may still be waiting.
+ *
+ * Files which were modified recently are held apart from the others and
+ * are handed out for processing first, so that ongoing changes are not held
+ * up behind the backlog of an initial sync. Up to the in-memory limit of
+ * recently modified files are held this way, beyond that they wait with
+ * the others.
  */
 public class ChangedList implements Serializable {
 
     private static final Logger log = LoggerFactory.getLogger(ChangedList.class);
+
+    public static final int DEFAULT_MAX_IN_MEMORY = 100000;
+    public static final long RECENT_CHANGE_WINDOW = 10 * 60 * 1000;
+    private static final String OVERFLOW_FILE = "overflow";
+    private static final int OVERFLOW_KEY_BUCKETS = 1 << 20;
+
     private LinkedHashMap<String, ChangedFile> fileList;
+    private LinkedHashMap<String, ChangedFile> recentFiles;
     private LinkedHashMap<String, ChangedFile> reservedFiles;
     private ExecutorService executorService;
     private long listVersion;
     private boolean shutdown = false;
+
+    private volatile ChangedListJournal journal;
+    private volatile ChangedFileQueue overflow;
+    // Counts of the files waiting in the overflow queue, by hash of the file
+    // path. A count above zero means a file with that hash may be waiting.
+    private int[] overflowKeyCounts;
+    private int maxInMemory = Integer.MAX_VALUE;
     
     private static ChangedList instance;
 
-    private FileExclusionManager fileExclusionManager;
+    private volatile FileExclusionManager fileExclusionManager;
     private EventListenerSupport<ChangedListListener> listeners;
 
     public static synchronized ChangedList getInstance() {
@@ -56,6 +89,7 @@ public class ChangedList implements Serializable {
     
     private ChangedList() {
         fileList = new LinkedHashMap<String,ChangedFile>();
+        recentFiles = new LinkedHashMap<String,ChangedFile>();
         reservedFiles = new LinkedHashMap<String,ChangedFile>();
         this.fileExclusionManager = new FileExclusionManager();
         listVersion = 0;
@@ -71,6 +105,57 @@ public class ChangedList implements Serializable {
         this.fileExclusionManager = fileExclusionManager;
     }
 
+    /**
+     * Attaches a journal, which will record all further changes to the list.
+     * Replaces (and closes) any previously attached journal.
+     *
+     * @param journal to record changes
+     * @param maxInMemory the number of pending files to hold in memory
+     */
+    public synchronized void setJournal(ChangedListJournal journal,
+                                        int maxInMemory) {
+        detachJournal();
+        this.journal = journal;
+        this.maxInMemory = Math.max(maxInMemory, 1);
+        try {
+            this.overflow = new ChangedFileQueue(
+                new File(journal.getJournalDir(), OVERFLOW_FILE));
+            this.overflowKeyCounts = new int[OVERFLOW_KEY_BUCKETS];
+        } catch(IOException e) {
+            log.error("Unable to create changed list overflow queue, all " +
+                      "changed files will be held in memory: " +
+                      e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Flushes and detaches the journal, if one is attached. Further changes
+     * are not recorded, and all pending files are held in memory.
+     */
+    public synchronized void detachJournal() {
+        if(null != overflow) {
+            refill(Integer.MAX_VALUE);
+            try {
+                overflow.close();
+            } catch(IOException e) {
+                log.warn("Error closing overflow queue: " + e.getMessage());
+            }
+            overflow = null;
+            overflowKeyCounts = null;
+        }
+        if(null != journal) {
+            try {
+                journal.flush();
+                journal.close();
+            } catch(IOException e) {
+                log.error("Unable to flush changed list journal: " +
+                          e.getMessage(), e);
+            }
+            journal = null;
+        }
+        maxInMemory = Integer.MAX_VALUE;
+    }
+
     /**
      * Adds a changed file to the list of items to be processed. If the file
      * happens to match exclusion rules it will not be added to the list (and
@@ -91,12 +176,33 @@ public class ChangedList implements Serializable {
         }
     }
 
+    /**
+     * Adds a changed file to the list of items to be processed, as
+     * addChangedFile(File), using a modified time which the caller has
+     * already read rather than reading it from the file system again.
+     *
+     * @param changedFile
+     *            a file which has changed on the file system
+     * @param lastModified
+     *            the modified time of the file, in milliseconds
+     * @return false if the changedFile is null or matches at least one
+     *         exclusion rule.
+     */
+    public boolean addChangedFile(final File changedFile, long lastModified) {
+        if(null != changedFile){
+            return addChangedFile(new ChangedFile(changedFile), lastModified);
+        }else{
+            log.warn("The changedFile parameter was unexpectedly null. Ignored.");
+            return false;
+        }
+    }
+
     /**
      * Gets the current size of the changed list
      * @return the size of the list
      */
     public int getListSize() {
-        return fileList.size();
+        return fileList.size() + recentFiles.size() + getOverflowSize();
     }
     
     /**
@@ -104,18 +210,150 @@ public class ChangedList implements Serializable {
      * @return the size of the list
      */
     public int getListSizeIncludingReservedFiles() {
-        return fileList.size() + reservedFiles.size();
+        return fileList.size() + recentFiles.size() + reservedFiles.size() +
+               getOverflowSize();
     }
 
-    synchronized boolean addChangedFile(ChangedFile changedFile) {
-        File file = changedFile.getFile();
-        if(fileExclusionManager.isExcluded(file)){
+    private int getOverflowSize() {
+        ChangedFileQueue queue = overflow;
+        return null == queue ? 0 : queue.size();
+    }
+
+    boolean addChangedFile(ChangedFile changedFile) {
+        return addChangedFile(changedFile, -1);
+    }
+
+    /*
+     * Adds the file unless it is excluded. The modified time of the file is
+     * read if not given (less than zero), once the file is known to be
+     * included.
+     */
+    private boolean addChangedFile(ChangedFile changedFile, long lastModified) {
+        // Exclusion rules are checked before taking the lock, as walk
+        // threads add files concurrently
+        if(fileExclusionManager.isExcluded(changedFile.getFile())){
             return false;
         }
-        fileList.put(file.getAbsolutePath(), changedFile);
+        if(lastModified < 0) {
+            lastModified = changedFile.getFile().lastModified();
+        }
+        addIncludedFile(changedFile, isRecent(lastModified));
+        return true;
+    }
+
+    private boolean isRecent(ChangedFile changedFile) {
+        return isRecent(changedFile.getFile().lastModified());
+    }
+
+    private boolean isRecent(long lastModified) {
+        return lastModified > System.currentTimeMillis() - RECENT_CHANGE_WINDOW;
+    }
+
+    private synchronized void addIncludedFile(ChangedFile changedFile,
+                                              boolean recent) {
+        putEntry(changedFile, recent);
+        recordAdd(changedFile);
         incrementVersion();
         fireChangedEvent();
-        return true;
+    }
+
+    /*
+     * Adds to the recently modified files, if the file is recent and there is
+     * room, otherwise to the in-memory list, unless it is full, in which case
+     * the file goes to the overflow queue. Files which are reserved are
+     * always held in memory so that remove() can tell whether they are still
+     * pending.
+     */
+    private void putEntry(ChangedFile changedFile, boolean recent) {
+        String key = getKey(changedFile);
+        if(recentFiles.containsKey(key) ||
+           (recent && recentFiles.size() < maxInMemory)) {
+            fileList.remove(key);
+            recentFiles.put(key, changedFile);
+            return;
+        }
+        if(null != overflow && fileList.size() >= maxInMemory &&
+           !fileList.containsKey(key) && !reservedFiles.containsKey(key)) {
+            try {
+                overflow.add(changedFile);
+                countOverflowKey(key, 1);
+                return;
+            } catch(IOException e) {
+                log.error("Unable to add to overflow queue: " +
+                          e.getMessage(), e);
+            }
+        }
+        fileList.put(key, changedFile);
+    }
+
+    /*
+     * Moves files from the overflow queue into memory
+     */
+    private void refill(int maxFiles) {
+        if(null == overflow || overflow.size() == 0) {
+            return;
+        }
+        try {
+            for(ChangedFile changedFile : overflow.poll(maxFiles)) {
+                String key = getKey(changedFile);
+                countOverflowKey(key, -1);
+                if(!isPending(key)) {
+                    fileList.put(key, changedFile);
+                }
+            }
+        } catch(IOException e) {
+            log.error("Unable to read from overflow queue: " +
+                      e.getMessage(), e);
+        }
+    }
+
+    /*
+     * Determines if the file is waiting in memory to be reserved
+     */
+    private boolean isPending(String key) {
+        return fileList.containsKey(key) || recentFiles.containsKey(key);
+    }
+
+    private void countOverflowKey(String key, int delta) {
+        if(null != overflowKeyCounts) {
+            overflowKeyCounts[getOverflowBucket(key)] += delta;
+        }
+    }
+
+    /*
+     * Hash collisions may report a file as waiting when it is not, which
+     * only means its removal is not journaled and it may be synced again
+     * after a restart.
+     */
+    private boolean mayBeInOverflow(String key) {
+        return null != overflowKeyCounts &&
+               overflowKeyCounts[getOverflowBucket(key)] > 0;
+    }
+
+    private int getOverflowBucket(String key) {
+        return key.hashCode() & (OVERFLOW_KEY_BUCKETS - 1);
+    }
+
+    private void recordAdd(ChangedFile changedFile) {
+        if(null != journal) {
+            try {
+                journal.add(changedFile);
+            } catch(IOException e) {
+                log.error("Unable to record change in journal: " +
+                          e.getMessage(), e);
+            }
+        }
+    }
+
+    private void recordRemove(String key) {
+        if(null != journal) {
+            try {
+                journal.remove(key);
+            } catch(IOException e) {
+                log.error("Unable to record removal in journal: " +
+                          e.getMessage(), e);
+            }
+        }
     }
 
     protected void fireChangedEvent() {
@@ -144,10 +382,31 @@ public class ChangedList implements Serializable {
      */
     public synchronized void clear(){
         fileList.clear();
+        recentFiles.clear();
         reservedFiles.clear();
+        clearOverflow();
+        if(null != journal) {
+            try {
+                journal.clear();
+            } catch(IOException e) {
+                log.error("Unable to record clear in journal: " +
+                          e.getMessage(), e);
+            }
+        }
         fireChangedEvent();
     }
 
+    private void clearOverflow() {
+        if(null != overflow) {
+            try {
+                overflow.clear();
+                overflowKeyCounts = new int[OVERFLOW_KEY_BUCKETS];
+            } catch(IOException e) {
+                log.error("Unable to clear overflow queue: " + e.getMessage());
+            }
+        }
+    }
+
     /**
      * Retrieves a changed file for processing and removes it from the list of unreserved
      * files.  
@@ -156,12 +415,17 @@ public class ChangedList implements Serializable {
      * @return a file which has changed on the file system
      */
     public synchronized ChangedFile reserve() {
-        if(fileList.isEmpty() || shutdown) {
+        if(fileList.isEmpty()) {
+            refill(Math.max(maxInMemory / 2, 1));
+        }
+        Map<String, ChangedFile> pending =
+            recentFiles.isEmpty() ? fileList : recentFiles;
+        if(pending.isEmpty() || shutdown) {
             return null;
         }
 
-        String key = fileList.keySet().iterator().next();
-        ChangedFile changedFile = fileList.remove(key);
+        String key = pending.keySet().iterator().next();
+        ChangedFile changedFile = pending.remove(key);
         reservedFiles.put(key, changedFile);
         incrementVersion();
         fireChangedEventAsync();
@@ -181,27 +445,28 @@ public class ChangedList implements Serializable {
     }
 
     /**
-     * Writes out the current state of the ChangeList to the given file.
+     * Writes out the current state of the ChangeList to the given file, in
+     * the snapshot format described in ChangedListJournal.
      *
      * @param persistFile file to write state to
      * @return the version ID of the ChangedList which was persisted
      */
-    public  long persist(File persistFile) {
-        try {
-            FileOutputStream fileStream = new FileOutputStream(persistFile);
-            ObjectOutputStream oStream = new ObjectOutputStream((fileStream));
-
-            long persistVersion;
-            Map<String, ChangedFile> fileListCopy;
-            synchronized(this) {
-                fileListCopy = (Map<String, ChangedFile>)fileList.clone();
-                fileListCopy.putAll(reservedFiles);
-                persistVersion = listVersion;
+    public synchronized long persist(File persistFile) {
+        try (FileOutputStream fileStream = new FileOutputStream(persistFile);
+             Entries entries = getAllEntries()) {
+            DataOutputStream out =
+                new DataOutputStream(new BufferedOutputStream(fileStream));
+            ChangedListJournal.writeHeader(out,
+                                           ChangedListJournal.KIND_SNAPSHOT);
+            while(entries.hasNext()) {
+                ChangedFile entry = entries.next();
+                ChangedListJournal.writeRecord(out,
+                                               ChangedListJournal.TYPE_ADD,
+                                               getKey(entry),
+                                               entry.getSyncAttempts());
             }
-
-            oStream.writeObject(fileListCopy);
-            oStream.close();
-            return persistVersion;
+            out.flush();
+            return listVersion;
         } catch(IOException e) {
             throw new RuntimeException("Unable to persist File Changed List:" +
                 e.getMessage(), e);
@@ -209,61 +474,227 @@ public class ChangedList implements Serializable {
     }
 
     /**
-     * Restores the state of the ChangedList using the given backup file
+     * Restores the state of the ChangedList using the given backup file.
+     * Both the current format and the Java serialized format written by
+     * earlier versions are supported.
      *
      * @param persistFile file containing previous state
      * @param contentDirs content directories currently configured.
      */
     public synchronized void restore(File persistFile, List<File> contentDirs) {
-        try {
-            FileInputStream fileStream = new FileInputStream(persistFile);
-            ObjectInputStream oStream = new ObjectInputStream(fileStream);
-            log.info("Restoring changed list from backup: {}", persistFile.getAbsolutePath());
-            synchronized(this) {
-                LinkedHashMap<String, ChangedFile> fileListFromDisk = (LinkedHashMap<String, ChangedFile>) oStream.readObject();
-                
-                //remove files in change list that are not in the content dir list.
-                if (contentDirs != null && !contentDirs.isEmpty()) {
-
-                    Iterator<Entry<String, ChangedFile>> entries =
-                        fileListFromDisk.entrySet().iterator();
-                    while (entries.hasNext()) {
-                        Entry<String, ChangedFile> entry = entries.next();
-                        ChangedFile file = entry.getValue();
-                        boolean watched = false;
-                        for (File contentDir : contentDirs) {
-                            if (file.getFile()
-                                    .getAbsolutePath()
-                                    .startsWith(contentDir.getAbsolutePath()) &&
-                                    !this.fileExclusionManager.isExcluded(file.getFile())) {
-                                watched = true;
-                                break;
-                            }
-                        }
-
-                        if (!watched) {
-                            entries.remove();
-                        }
+        log.info("Restoring changed list from backup: {}", persistFile.getAbsolutePath());
+        try (InputStream fileStream =
+                 new BufferedInputStream(new FileInputStream(persistFile))) {
+            List<ChangedFile> restored = new ArrayList<>();
+            if(ChangedListJournal.isJournalFormat(fileStream)) {
+                DataInputStream in = new DataInputStream(fileStream);
+                ChangedListJournal.readHeader(in);
+                ChangedListJournal.Record record;
+                while(null != (record = ChangedListJournal.readRecord(
+                    in, persistFile.getName()))) {
+                    if(record.type == ChangedListJournal.TYPE_ADD) {
+                        restored.add(record.toChangedFile());
                     }
                 }
-                
-                this.fileList = fileListFromDisk;
+            } else {
+                ObjectInputStream oStream = new ObjectInputStream(fileStream);
+                Map<String, ChangedFile> fileListFromDisk =
+                    (Map<String, ChangedFile>) oStream.readObject();
+                restored.addAll(fileListFromDisk.values());
+            }
+
+            fileList.clear();
+            recentFiles.clear();
+            clearOverflow();
+            for(ChangedFile changedFile : restored) {
+                if(isWatched(changedFile, contentDirs)) {
+                    putEntry(changedFile, false);
+                    recordAdd(changedFile);
+                }
             }
-            oStream.close();
         } catch(Exception e) {
             throw new RuntimeException("Unable to restore File Changed List:" +
                 e.getMessage(), e);
         }
     }
-    
+
+    /**
+     * Restores the state of the ChangedList from a journal. Restored files
+     * are not recorded again in the attached journal.
+     *
+     * @param journal to restore from
+     * @param contentDirs content directories currently configured.
+     * @return the number of files restored
+     */
+    public synchronized long restoreJournal(ChangedListJournal journal,
+                                            List<File> contentDirs) {
+        log.info("Restoring changed list from journal: {}",
+                 journal.getJournalDir().getAbsolutePath());
+        fileList.clear();
+        recentFiles.clear();
+        clearOverflow();
+        final long[] count = {0};
+        try {
+            journal.replay(changedFile -> {
+                if(isWatched(changedFile, contentDirs)) {
+                    putEntry(changedFile, false);
+                    count[0]++;
+                }
+            });
+        } catch(IOException e) {
+            throw new RuntimeException("Unable to restore File Changed List " +
+                                       "from journal:" + e.getMessage(), e);
+        }
+        incrementVersion();
+        log.info("Restored {} files to the changed list", count[0]);
+        return count[0];
+    }
+
+    /*
+     * Files not in the content dir list are not restored.
+     */
+    private boolean isWatched(ChangedFile file, List<File> contentDirs) {
+        if (contentDirs == null || contentDirs.isEmpty()) {
+            return true;
+        }
+        for (File contentDir : contentDirs) {
+            if (file.getFile()
+                    .getAbsolutePath()
+                    .startsWith(contentDir.getAbsolutePath()) &&
+                    !this.fileExclusionManager.isExcluded(file.getFile())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes any buffered journal records to disk and records a checkpoint,
+     * marking the journal as usable for a restore.
+     */
+    public void checkpointJournal() {
+        ChangedListJournal current = journal;
+        if(null != current) {
+            try {
+                current.checkpoint();
+            } catch(IOException e) {
+                log.error("Unable to checkpoint changed list journal: " +
+                          e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Compacts the journal if enough changes have been recorded since it was
+     * last compacted. The entries in the list are captured while holding the
+     * lock, but the snapshot is written after releasing it, so files can be
+     * added and reserved while the journal is compacted.
+     *
+     * @return true if the journal was compacted
+     */
+    public boolean compactJournal() {
+        ChangedListJournal current;
+        ChangedListJournal.Compaction compaction;
+        Entries entries;
+        synchronized (this) {
+            current = journal;
+            if(null == current ||
+               !current.needsCompaction(getListSizeIncludingReservedFiles())) {
+                return false;
+            }
+            try {
+                entries = getAllEntries();
+            } catch(IOException e) {
+                log.error("Unable to compact changed list journal: " +
+                          e.getMessage(), e);
+                return false;
+            }
+            try {
+                compaction = current.startCompaction();
+            } catch(IOException e) {
+                entries.close();
+                log.error("Unable to compact changed list journal: " +
+                          e.getMessage(), e);
+                return false;
+            }
+        }
+
+        try (Entries liveEntries = entries) {
+            current.completeCompaction(compaction, liveEntries);
+            return true;
+        } catch(IOException | RuntimeException e) {
+            log.error("Unable to compact changed list journal: " +
+                      e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /*
+     * Iterates over the pending, reserved and overflow entries in the list
+     * at the time of the call, which must be made while holding the lock.
+     * The entries can be read after the lock is released, but must be
+     * closed once they are no longer needed.
+     */
+    private Entries getAllEntries() throws IOException {
+        List<ChangedFile> inMemory = new ArrayList<>(recentFiles.values());
+        inMemory.addAll(fileList.values());
+        for(Entry<String, ChangedFile> entry : reservedFiles.entrySet()) {
+            if(!isPending(entry.getKey())) {
+                inMemory.add(entry.getValue());
+            }
+        }
+        ChangedFileQueue.Snapshot overflowEntries =
+            null == overflow ? null : overflow.snapshot();
+        return new Entries(inMemory.iterator(), overflowEntries);
+    }
+
+    private static class Entries implements Iterator<ChangedFile>, Closeable {
+        private final Iterator<ChangedFile> inMemory;
+        private final ChangedFileQueue.Snapshot overflow;
+
+        Entries(Iterator<ChangedFile> inMemory,
+                ChangedFileQueue.Snapshot overflow) {
+            this.inMemory = inMemory;
+            this.overflow = overflow;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return inMemory.hasNext() ||
+                   (null != overflow && overflow.hasNext());
+        }
+
+        @Override
+        public ChangedFile next() {
+            if(inMemory.hasNext()) {
+                return inMemory.next();
+            }
+            if(null != overflow && overflow.hasNext()) {
+                return overflow.next();
+            }
+            throw new NoSuchElementException();
+        }
+
+        @Override
+        public void close() {
+            if(null != overflow) {
+                overflow.close();
+            }
+        }
+    }
 
     public synchronized List<File> peek(int maxFiles){
+        if(fileList.isEmpty()) {
+            refill(Math.max(maxInMemory / 2, 1));
+        }
         List<File> files = new LinkedList<File>();
-        Iterator<Entry<String, ChangedFile>> it = this.fileList.entrySet().iterator();
-        int count = 0;
-        while(it.hasNext() && count < maxFiles) {
-            files.add(it.next().getValue().getFile());
-            count++;
+        for(Map<String, ChangedFile> pending : Arrays.asList(recentFiles,
+                                                             fileList)) {
+            Iterator<Entry<String, ChangedFile>> it =
+                pending.entrySet().iterator();
+            while(it.hasNext() && files.size() < maxFiles) {
+                files.add(it.next().getValue().getFile());
+            }
         }
         return files;
     }
@@ -278,18 +709,32 @@ public class ChangedList implements Serializable {
      * @param changedFile
      */
     synchronized void  remove(ChangedFile changedFile) {
-       this.reservedFiles.remove(getKey(changedFile));
+       String key = getKey(changedFile);
+       this.reservedFiles.remove(key);
+       if(!isPending(key) && !mayBeInOverflow(key)) {
+           recordRemove(key);
+       }
     }
     
     /**
      * Releases the reservation on the file (if still reserved) and returns 
-     * it to the list.
+     * it to the list. The file was not removed from the journal when it was
+     * reserved, so it is not recorded again.
      * @param changedFile
      */
-    synchronized void  unreserve(ChangedFile changedFile){
-        ChangedFile removedFile = this.reservedFiles.remove(getKey(changedFile));
-        if(removedFile != null && !this.fileList.containsKey(getKey(removedFile))){
-            addChangedFile(removedFile);
+    void unreserve(ChangedFile changedFile){
+        boolean recent = isRecent(changedFile);
+        synchronized (this) {
+            String key = getKey(changedFile);
+            ChangedFile removedFile = this.reservedFiles.remove(key);
+            if(removedFile != null && !isPending(key)){
+                if(recent && recentFiles.size() < maxInMemory) {
+                    recentFiles.put(key, removedFile);
+                } else {
+                    fileList.put(key, removedFile);
+                }
+                incrementVersion();
+            }
         }
     }
 
@@ -0,0 +1,657 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.sync.mgmt;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A durable record of the changes made to the ChangedList, kept as an
+ * append-only log. Rather than writing out the entire list on each backup,
+ * each addition and removal is appended to the log as it happens, and the
+ * log is periodically compacted into a snapshot of the entries which remain.
+ *
+ * On-disk format (version 1)
+ *
+ * The journal directory holds a sequence of segment files, named
+ * changes-NNNNNNNNNNNNNNNNNNNN.log or changes-NNNNNNNNNNNNNNNNNNNN.snapshot,
+ * where N is a zero-padded sequence number. Segments are read in sequence
+ * order. Only the most recent snapshot segment and the log segments which
+ * follow it are in use; older segments remain only if they could not be
+ * deleted after compaction, and are ignored.
+ *
+ * Each segment begins with a header:
+ *   int  magic    0x44434A4C ("DCJL")
+ *   int  version  format version, currently 1
+ *   byte kind     'L' for a log segment, 'S' for a snapshot
+ *   long created  time the segment was created, in ms since the epoch
+ *
+ * The header is followed by any number of records:
+ *   int  length   length of the record body in bytes
+ *   int  crc      CRC-32 of the record body
+ *   body:
+ *     byte type   'A' (add), 'R' (remove) or 'C' (clear)
+ *     for A and R:
+ *       int    pathLength  length of the path in bytes
+ *       byte[] path        absolute file path, UTF-8 encoded
+ *     for A:
+ *       int    attempts    number of sync attempts made for the file
+ *
+ * All numbers are big-endian. A snapshot contains only add records. A
+ * truncated or corrupt record (as may be left by a crash) ends the segment.
+ *
+ * A checkpoint file holds the time of the most recent checkpoint, as a
+ * decimal number of ms since the epoch. All changes recorded before that
+ * time are known to be on disk. A journal without a checkpoint is not used
+ * for restoring the list.
+ *
+ * Restoring reads the records which follow the latest snapshot into memory
+ * (compaction keeps this bounded), then streams the snapshot, so the memory
+ * needed does not depend on the size of the snapshot.
+ */
+public class ChangedListJournal {
+
+    private static final Logger log =
+        LoggerFactory.getLogger(ChangedListJournal.class);
+
+    public static final int FORMAT_VERSION = 1;
+    public static final int MAGIC = 0x44434A4C;
+
+    public static final long DEFAULT_MAX_SEGMENT_BYTES = 64 * 1024 * 1024;
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 1000000;
+
+    static final byte KIND_LOG = 'L';
+    static final byte KIND_SNAPSHOT = 'S';
+    static final byte TYPE_ADD = 'A';
+    static final byte TYPE_REMOVE = 'R';
+    static final byte TYPE_CLEAR = 'C';
+
+    private static final String PREFIX = "changes-";
+    private static final String LOG_SUFFIX = ".log";
+    private static final String SNAPSHOT_SUFFIX = ".snapshot";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String CHECKPOINT = "checkpoint";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final File journalDir;
+    private final long maxSegmentBytes;
+    private final long compactionThreshold;
+
+    private long nextSequence;
+    private FileOutputStream segmentFile;
+    private DataOutputStream segmentOut;
+    private long segmentBytes;
+    private long tailRecords;
+    private boolean compacting = false;
+
+    public ChangedListJournal(File journalDir) {
+        this(journalDir, DEFAULT_MAX_SEGMENT_BYTES, DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * @param journalDir directory in which to store the journal
+     * @param maxSegmentBytes size at which a new log segment is started
+     * @param compactionThreshold minimum number of records written since the
+     *                            last snapshot before compaction is needed
+     */
+    public ChangedListJournal(File journalDir,
+                              long maxSegmentBytes,
+                              long compactionThreshold) {
+        this.journalDir = journalDir;
+        this.maxSegmentBytes = maxSegmentBytes;
+        this.compactionThreshold = compactionThreshold;
+
+        if(!journalDir.exists() && !journalDir.mkdirs()) {
+            throw new RuntimeException("Unable to create journal directory " +
+                                       journalDir.getAbsolutePath());
+        }
+
+        List<File> segments = listSegments();
+        nextSequence = segments.isEmpty() ? 1 :
+            getSequence(segments.get(segments.size() - 1)) + 1;
+        for(File file : journalDir.listFiles()) {
+            if(file.getName().endsWith(TEMP_SUFFIX)) {
+                file.delete();
+            }
+        }
+    }
+
+    public File getJournalDir() {
+        return journalDir;
+    }
+
+    /**
+     * @return true if a checkpoint has been written since the journal was
+     *         last reset, meaning it can be used to restore the list
+     */
+    public boolean hasCheckpoint() {
+        return getCheckpointTime() > 0;
+    }
+
+    /**
+     * @return the time of the last checkpoint, all changes recorded before
+     *         this time are included in the journal; -1 if there is none
+     */
+    public long getCheckpointTime() {
+        File checkpoint = new File(journalDir, CHECKPOINT);
+        if(!checkpoint.exists()) {
+            return -1;
+        }
+        try {
+            String value = new String(Files.readAllBytes(checkpoint.toPath()),
+                                      StandardCharsets.UTF_8);
+            return Long.parseLong(value.trim());
+        } catch(IOException | NumberFormatException e) {
+            log.warn("Unable to read changed list journal checkpoint: " +
+                     e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Records that a file was added to the list.
+     */
+    public synchronized void add(ChangedFile changedFile) throws IOException {
+        append(TYPE_ADD, changedFile.getFile().getAbsolutePath(),
+               changedFile.getSyncAttempts());
+    }
+
+    /**
+     * Records that a file was removed from the list.
+     */
+    public synchronized void remove(String path) throws IOException {
+        append(TYPE_REMOVE, path, 0);
+    }
+
+    /**
+     * Records that all files were removed from the list.
+     */
+    public synchronized void clear() throws IOException {
+        append(TYPE_CLEAR, null, 0);
+    }
+
+    private void append(byte type, String path, int attempts)
+        throws IOException {
+        if(null == segmentOut || segmentBytes >= maxSegmentBytes) {
+            closeSegment();
+            openSegment();
+        }
+        segmentBytes += writeRecord(segmentOut, type, path, attempts);
+        tailRecords++;
+    }
+
+    private void openSegment() throws IOException {
+        File file = getSegmentFile(nextSequence++, LOG_SUFFIX);
+        segmentFile = new FileOutputStream(file);
+        segmentOut = new DataOutputStream(
+            new BufferedOutputStream(segmentFile, BUFFER_SIZE));
+        writeHeader(segmentOut, KIND_LOG);
+        segmentBytes = 0;
+    }
+
+    private void closeSegment() throws IOException {
+        if(null != segmentOut) {
+            segmentOut.flush();
+            segmentFile.getFD().sync();
+            segmentOut.close();
+            segmentOut = null;
+            segmentFile = null;
+        }
+    }
+
+    /**
+     * Writes all recorded changes to disk.
+     */
+    public synchronized void flush() throws IOException {
+        if(null != segmentOut) {
+            segmentOut.flush();
+            segmentFile.getFD().sync();
+        }
+    }
+
+    /**
+     * Writes all recorded changes to disk and updates the checkpoint time,
+     * indicating that the journal is complete up to this point and can be
+     * used to restore the list.
+     */
+    public synchronized void checkpoint() throws IOException {
+        long checkpointTime = System.currentTimeMillis();
+        flush();
+        writeCheckpoint(checkpointTime);
+    }
+
+    private void writeCheckpoint(long time) throws IOException {
+        File temp = new File(journalDir, CHECKPOINT + TEMP_SUFFIX);
+        Files.write(temp.toPath(),
+                    String.valueOf(time).getBytes(StandardCharsets.UTF_8));
+        Files.move(temp.toPath(),
+                   new File(journalDir, CHECKPOINT).toPath(),
+                   StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Compaction is needed once the records written since the last snapshot
+     * exceed both the compaction threshold and the number of live entries,
+     * so the cost of writing the snapshot is spread over at least as many
+     * changes as it contains.
+     *
+     * @param liveEntries the number of entries currently in the list
+     */
+    public synchronized boolean needsCompaction(long liveEntries) {
+        return !compacting &&
+               tailRecords >= Math.max(compactionThreshold, liveEntries);
+    }
+
+    /**
+     * Replaces the journal with a snapshot holding the given entries. The
+     * caller must ensure the list is not changed while the snapshot is
+     * written.
+     *
+     * @param liveEntries all entries currently in the list
+     */
+    public synchronized void compact(Iterator<ChangedFile> liveEntries)
+        throws IOException {
+        completeCompaction(startCompaction(), liveEntries);
+    }
+
+    /**
+     * Starts a compaction. Changes recorded from this point on are written
+     * to segments which follow the snapshot, so the list may be changed
+     * while the snapshot is written by completeCompaction().
+     *
+     * @return the compaction to complete, with the entries in the list at
+     *         the time of this call
+     */
+    public synchronized Compaction startCompaction() throws IOException {
+        if(compacting) {
+            throw new IllegalStateException("A compaction is in progress");
+        }
+        closeSegment();
+        compacting = true;
+        return new Compaction(nextSequence++, tailRecords);
+    }
+
+    /**
+     * Writes the snapshot for a compaction started by startCompaction() and
+     * removes the segments which it replaces. The snapshot is written
+     * without holding the journal lock, so changes can be recorded in the
+     * meantime.
+     *
+     * @param compaction returned by startCompaction()
+     * @param liveEntries the entries in the list when the compaction was
+     *                    started
+     */
+    public void completeCompaction(Compaction compaction,
+                                   Iterator<ChangedFile> liveEntries)
+        throws IOException {
+        try {
+            File snapshot = getSegmentFile(compaction.sequence,
+                                           SNAPSHOT_SUFFIX);
+            File temp = new File(snapshot.getPath() + TEMP_SUFFIX);
+            long count = 0;
+            try (FileOutputStream fileOut = new FileOutputStream(temp)) {
+                DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(fileOut, BUFFER_SIZE));
+                writeHeader(out, KIND_SNAPSHOT);
+                while(liveEntries.hasNext()) {
+                    ChangedFile entry = liveEntries.next();
+                    writeRecord(out, TYPE_ADD,
+                                entry.getFile().getAbsolutePath(),
+                                entry.getSyncAttempts());
+                    count++;
+                }
+                out.flush();
+                fileOut.getFD().sync();
+            }
+
+            synchronized (this) {
+                Files.move(temp.toPath(), snapshot.toPath(),
+                           StandardCopyOption.ATOMIC_MOVE);
+                for(File segment : listSegments()) {
+                    if(getSequence(segment) < compaction.sequence &&
+                       !segment.delete()) {
+                        log.warn("Unable to delete compacted journal " +
+                                 "segment " + segment.getAbsolutePath());
+                    }
+                }
+                // Records written while the snapshot was written remain
+                tailRecords = Math.max(tailRecords - compaction.records, 0);
+            }
+            log.info("Compacted changed list journal, snapshot holds {} " +
+                     "entries", count);
+        } finally {
+            synchronized (this) {
+                compacting = false;
+            }
+        }
+    }
+
+    /**
+     * Reads the journal, passing each file which remains in the list to the
+     * consumer, in the order in which the files were added.
+     *
+     * @param consumer receives each file in the list
+     * @return the number of files passed to the consumer
+     */
+    public synchronized long replay(Consumer<ChangedFile> consumer)
+        throws IOException {
+        List<File> segments = listSegments();
+        int snapshotIndex = -1;
+        for(int i = segments.size() - 1; i >= 0; i--) {
+            if(segments.get(i).getName().endsWith(SNAPSHOT_SUFFIX)) {
+                snapshotIndex = i;
+                break;
+            }
+        }
+
+        // Collect the latest operation for each file since the snapshot
+        Map<String, Record> tailOps = new LinkedHashMap<>();
+        boolean cleared = false;
+        long records = 0;
+        for(File segment : segments.subList(snapshotIndex + 1,
+                                            segments.size())) {
+            try (SegmentReader reader = new SegmentReader(segment)) {
+                Record record;
+                while(null != (record = reader.next())) {
+                    records++;
+                    if(record.type == TYPE_CLEAR) {
+                        tailOps.clear();
+                        cleared = true;
+                    } else {
+                        tailOps.remove(record.path);
+                        tailOps.put(record.path, record);
+                    }
+                }
+            }
+        }
+        tailRecords = records;
+
+        long count = 0;
+        if(snapshotIndex >= 0 && !cleared) {
+            try (SegmentReader reader =
+                     new SegmentReader(segments.get(snapshotIndex))) {
+                Record record;
+                while(null != (record = reader.next())) {
+                    if(record.type == TYPE_ADD &&
+                       !tailOps.containsKey(record.path)) {
+                        consumer.accept(record.toChangedFile());
+                        count++;
+                    }
+                }
+            }
+        }
+        for(Record record : tailOps.values()) {
+            if(record.type == TYPE_ADD) {
+                consumer.accept(record.toChangedFile());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Removes all journal content, including the checkpoint.
+     */
+    public synchronized void reset() throws IOException {
+        closeSegment();
+        for(File file : journalDir.listFiles()) {
+            if(file.isFile() && (file.getName().startsWith(PREFIX) ||
+                                 file.getName().startsWith(CHECKPOINT))) {
+                file.delete();
+            }
+        }
+        tailRecords = 0;
+    }
+
+    /**
+     * Flushes and closes the current segment. Further changes start a new
+     * segment.
+     */
+    public synchronized void close() throws IOException {
+        closeSegment();
+    }
+
+    private File getSegmentFile(long sequence, String suffix) {
+        return new File(journalDir,
+                        String.format("%s%020d%s", PREFIX, sequence, suffix));
+    }
+
+    private long getSequence(File segment) {
+        String name = segment.getName();
+        return Long.parseLong(name.substring(PREFIX.length(),
+                                             name.lastIndexOf('.')));
+    }
+
+    private List<File> listSegments() {
+        List<File> segments = new ArrayList<>();
+        File[] files = journalDir.listFiles();
+        if(null != files) {
+            for(File file : files) {
+                String name = file.getName();
+                if(name.startsWith(PREFIX) && (name.endsWith(LOG_SUFFIX) ||
+                                               name.endsWith(SNAPSHOT_SUFFIX))) {
+                    segments.add(file);
+                }
+            }
+        }
+        Collections.sort(segments, (a, b) -> Long.compare(getSequence(a),
+                                                           getSequence(b)));
+        return segments;
+    }
+
+    /*
+     * Format helpers, shared with the ChangedList backup file and the
+     * overflow queue, which use the same header and record layout
+     */
+
+    static void writeHeader(DataOutputStream out, byte kind)
+        throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeByte(kind);
+        out.writeLong(System.currentTimeMillis());
+    }
+
+    /**
+     * Reads and validates a header.
+     *
+     * @return the segment kind
+     * @throws IOException if the header is not valid
+     */
+    static byte readHeader(DataInputStream in) throws IOException {
+        if(in.readInt() != MAGIC) {
+            throw new IOException("Not a changed list journal file");
+        }
+        int version = in.readInt();
+        if(version > FORMAT_VERSION) {
+            throw new IOException("Unsupported changed list journal " +
+                                  "version: " + version);
+        }
+        byte kind = in.readByte();
+        in.readLong(); // created
+        return kind;
+    }
+
+    /**
+     * @return true if the stream starts with a journal header; the stream
+     *         must support mark/reset
+     */
+    static boolean isJournalFormat(InputStream in) throws IOException {
+        in.mark(4);
+        try {
+            return new DataInputStream(in).readInt() == MAGIC;
+        } catch(EOFException e) {
+            return false;
+        } finally {
+            in.reset();
+        }
+    }
+
+    /**
+     * @return the number of bytes written
+     */
+    static int writeRecord(DataOutputStream out,
+                           byte type,
+                           String path,
+                           int attempts) throws IOException {
+        ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
+        DataOutputStream body = new DataOutputStream(bodyBytes);
+        body.writeByte(type);
+        if(type != TYPE_CLEAR) {
+            byte[] pathBytes = path.getBytes(StandardCharsets.UTF_8);
+            body.writeInt(pathBytes.length);
+            body.write(pathBytes);
+        }
+        if(type == TYPE_ADD) {
+            body.writeInt(attempts);
+        }
+
+        byte[] bytes = bodyBytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        out.writeInt(bytes.length);
+        out.writeInt((int) crc.getValue());
+        out.write(bytes);
+        return bytes.length + 8;
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return the record, or null at the end of the stream or if the
+     *         remaining data is truncated or corrupt
+     */
+    static Record readRecord(DataInputStream in, String source)
+        throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch(EOFException e) {
+            return null;
+        }
+
+        try {
+            int expectedCrc = in.readInt();
+            if(length <= 0 || length > BUFFER_SIZE) {
+                log.warn("Invalid record length in {}, ignoring remainder",
+                         source);
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+            if((int) crc.getValue() != expectedCrc) {
+                log.warn("Corrupt record in {}, ignoring remainder", source);
+                return null;
+            }
+
+            DataInputStream body =
+                new DataInputStream(new ByteArrayInputStream(bytes));
+            Record record = new Record();
+            record.type = body.readByte();
+            record.size = length + 8;
+            if(record.type != TYPE_CLEAR) {
+                byte[] pathBytes = new byte[body.readInt()];
+                body.readFully(pathBytes);
+                record.path = new String(pathBytes, StandardCharsets.UTF_8);
+            }
+            if(record.type == TYPE_ADD) {
+                record.attempts = body.readInt();
+            }
+            return record;
+        } catch(EOFException e) {
+            log.warn("Truncated record in {}, ignoring remainder", source);
+            return null;
+        }
+    }
+
+    /**
+     * A compaction in progress
+     */
+    public static class Compaction {
+        private final long sequence;
+        private final long records;
+
+        private Compaction(long sequence, long records) {
+            this.sequence = sequence;
+            this.records = records;
+        }
+    }
+
+    static class Record {
+        byte type;
+        String path;
+        int attempts;
+        int size;
+
+        ChangedFile toChangedFile() {
+            return new ChangedFile(new File(path), attempts);
+        }
+    }
+
+    private static class SegmentReader implements AutoCloseable {
+        private final File segment;
+        private final DataInputStream in;
+        private boolean empty = false;
+
+        SegmentReader(File segment) throws IOException {
+            this.segment = segment;
+            this.in = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(segment), BUFFER_SIZE));
+            try {
+                readHeader(in);
+            } catch(EOFException e) {
+                // Segment created just before a crash
+                log.warn("Journal segment {} has no content",
+                         segment.getName());
+                empty = true;
+            } catch(IOException e) {
+                in.close();
+                throw new IOException("Unable to read journal segment " +
+                                      segment.getName() + ": " +
+                                      e.getMessage(), e);
+            }
+        }
+
+        Record next() throws IOException {
+            return empty ? null : readRecord(in, segment.getName());
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+}
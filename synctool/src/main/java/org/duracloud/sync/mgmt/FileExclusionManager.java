@@ -14,9 +14,8 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
-import org.apache.commons.io.IOCase;
-import org.apache.commons.io.filefilter.WildcardFileFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,14 +23,23 @@ import org.slf4j.LoggerFactory;
 /**
 * This class provides a mechanism for clients to determine whether or not
 * a particular file should be ignored.
-* 
+*
+* A file is excluded if its name, or the name of any of its parent
+* directories, matches one of the exclusion rules. The results for parent
+* directories are cached, so checking each file in a directory only
+* requires matching the file's own name.
+*
 * @author Daniel Bernstein
 * @since July 27, 2017
 */
 public class FileExclusionManager {
     private static Logger log = LoggerFactory.getLogger(FileExclusionManager.class);
     
-    private WildcardFileFilter fileFilter;
+    private static final int MAX_CACHED_DIRS = 10000;
+
+    private FileNameMatcher matcher;
+    private final ConcurrentHashMap<String, Boolean> dirCache =
+        new ConcurrentHashMap<>();
 
     public FileExclusionManager(File excludeFile) {
         if (excludeFile == null)
@@ -49,7 +57,7 @@ public class FileExclusionManager {
     }
 
     private void setExcludeList(List<String> excludeList) {
-        fileFilter = new WildcardFileFilter(excludeList, IOCase.INSENSITIVE);
+        matcher = new FileNameMatcher(excludeList);
     }
     
     private List<String> readExcludeFile(File excludeFile) {
@@ -73,16 +81,40 @@ public class FileExclusionManager {
 
 
     public boolean isExcluded(File file) {
-        if(null != fileFilter) {
-            do {
-                if(fileFilter.accept(file)) {
-                    log.info("{} matched one or more exclude rules: excluding...",
-                             file.getAbsolutePath());
-                    return true;
-                }
-                file = file.getParentFile();
-            } while (file != null);
+        if(matcher.isEmpty()) {
+            return false;
+        }
+
+        boolean excluded = matcher.matches(file.getName());
+        if(!excluded) {
+            File parent = file.getParentFile();
+            excluded = null != parent && isDirExcluded(parent);
+        }
+        if(excluded) {
+            log.debug("{} matched one or more exclude rules: excluding...",
+                      file.getAbsolutePath());
+        }
+        return excluded;
+    }
+
+    /*
+     * Determines if a directory or any of its parents match a rule, caching
+     * the result for each directory.
+     */
+    private boolean isDirExcluded(File dir) {
+        String key = dir.getPath();
+        Boolean excluded = dirCache.get(key);
+        if(null == excluded) {
+            excluded = matcher.matches(dir.getName());
+            if(!excluded) {
+                File parent = dir.getParentFile();
+                excluded = null != parent && isDirExcluded(parent);
+            }
+            if(dirCache.size() >= MAX_CACHED_DIRS) {
+                dirCache.clear();
+            }
+            dirCache.put(key, excluded);
         }
-        return false;
+        return excluded;
     }
 }
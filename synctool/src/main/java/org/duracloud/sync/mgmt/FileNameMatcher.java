@@ -0,0 +1,202 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.sync.mgmt;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOCase;
+
+/**
+ * Matches file names against a set of wildcard rules, where '*' matches
+ * any sequence of characters and '?' matches any single character. Matching
+ * is case insensitive, and gives the same result as the WildcardFileFilter
+ * from commons-io with IOCase.INSENSITIVE.
+ *
+ * Rules are compiled by type so that a name is not tested against each rule
+ * in turn: rules without wildcards are held in a hash set, rules of the form
+ * "prefix*" and "*suffix" are held in a trie (the suffix trie holds reversed
+ * characters), and only the remaining rules are matched one at a time, using
+ * the same commons-io wildcard matching as the WildcardFileFilter.
+ */
+class FileNameMatcher {
+
+    private final Set<String> literals = new HashSet<>();
+    private final TrieNode prefixes = new TrieNode();
+    private final TrieNode suffixes = new TrieNode();
+    private final List<Glob> globs = new ArrayList<>();
+    private boolean hasPrefixes = false;
+    private boolean hasSuffixes = false;
+
+    FileNameMatcher(List<String> rules) {
+        for(String rule : rules) {
+            if(null != rule) {
+                addRule(rule);
+            }
+        }
+    }
+
+    private void addRule(String originalRule) {
+        String rule = fold(collapseStars(originalRule));
+        int stars = 0;
+        boolean hasQuestion = false;
+        for(int i = 0; i < rule.length(); i++) {
+            char c = rule.charAt(i);
+            if(c == '*') {
+                stars++;
+            } else if(c == '?') {
+                hasQuestion = true;
+            }
+        }
+
+        int last = rule.length() - 1;
+        if(stars == 0 && !hasQuestion) {
+            literals.add(rule);
+        } else if(stars == 1 && !hasQuestion && rule.charAt(last) == '*') {
+            prefixes.add(rule, 0, last, 1);
+            hasPrefixes = true;
+        } else if(stars == 1 && !hasQuestion && rule.charAt(0) == '*') {
+            suffixes.add(rule, last, 0, -1);
+            hasSuffixes = true;
+        } else {
+            globs.add(new Glob(originalRule, rule));
+        }
+    }
+
+    /**
+     * @return true if the name matches one or more of the rules
+     */
+    boolean matches(String name) {
+        String folded = fold(name);
+        if(literals.contains(folded)) {
+            return true;
+        }
+        if(hasPrefixes && prefixes.matchesAny(folded, 0, folded.length(), 1)) {
+            return true;
+        }
+        if(hasSuffixes &&
+           suffixes.matchesAny(folded, folded.length() - 1, -1, -1)) {
+            return true;
+        }
+        for(Glob glob : globs) {
+            if(folded.startsWith(glob.head) &&
+               FilenameUtils.wildcardMatch(name, glob.rule, IOCase.INSENSITIVE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean isEmpty() {
+        return literals.isEmpty() && !hasPrefixes && !hasSuffixes &&
+               globs.isEmpty();
+    }
+
+    /*
+     * Case folding which considers two characters equal in the same cases
+     * as String.regionMatches(true, ...)
+     */
+    private static String fold(String value) {
+        char[] chars = null;
+        for(int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            char folded = Character.toLowerCase(Character.toUpperCase(c));
+            if(folded != c) {
+                if(null == chars) {
+                    chars = value.toCharArray();
+                }
+                chars[i] = folded;
+            }
+        }
+        return null == chars ? value : new String(chars);
+    }
+
+    private static String collapseStars(String rule) {
+        if(!rule.contains("**")) {
+            return rule;
+        }
+        StringBuilder collapsed = new StringBuilder(rule.length());
+        for(int i = 0; i < rule.length(); i++) {
+            char c = rule.charAt(i);
+            if(c != '*' || i == 0 || rule.charAt(i - 1) != '*') {
+                collapsed.append(c);
+            }
+        }
+        return collapsed.toString();
+    }
+
+    /**
+     * A rule which is matched on its own. Names which do not start with the
+     * characters before its first wildcard are rejected without running the
+     * full match.
+     */
+    private static class Glob {
+        private final String rule;
+        private final String head;
+
+        Glob(String rule, String foldedRule) {
+            this.rule = rule;
+            int wildcard = foldedRule.length();
+            for(int i = 0; i < foldedRule.length(); i++) {
+                char c = foldedRule.charAt(i);
+                if(c == '*' || c == '?') {
+                    wildcard = i;
+                    break;
+                }
+            }
+            this.head = foldedRule.substring(0, wildcard);
+        }
+    }
+
+    /**
+     * Trie of characters, walked either forwards (for prefixes) or backwards
+     * (for suffixes)
+     */
+    private static class TrieNode {
+        private Map<Character, TrieNode> children;
+        private boolean terminal = false;
+
+        void add(String value, int start, int end, int step) {
+            TrieNode node = this;
+            for(int i = start; i != end; i += step) {
+                if(null == node.children) {
+                    node.children = new HashMap<>();
+                }
+                node = node.children.computeIfAbsent(value.charAt(i),
+                                                     c -> new TrieNode());
+            }
+            node.terminal = true;
+        }
+
+        /*
+         * Determines if any value in the trie is a prefix of the characters
+         * of the name, taken in the direction of step
+         */
+        boolean matchesAny(String name, int start, int end, int step) {
+            TrieNode node = this;
+            for(int i = start; ; i += step) {
+                if(node.terminal) {
+                    return true;
+                }
+                if(i == end || null == node.children) {
+                    return false;
+                }
+                node = node.children.get(name.charAt(i));
+                if(null == node) {
+                    return false;
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.sync.mgmt;
+
+import java.io.InterruptedIOException;
+import java.util.function.BooleanSupplier;
+
+import org.duracloud.common.stream.BandwidthLimiter;
+
+/**
+ * Holds the transfers of one sync lane to its share of the overall
+ * bandwidth limit while other lanes are also transferring. A lane which is
+ * transferring on its own may use all of the bandwidth. Every transfer is
+ * also held to the overall limit.
+ */
+public class LaneBandwidthLimiter extends BandwidthLimiter {
+
+    private final BandwidthLimiter overall;
+    private final int sharePercent;
+    private final BooleanSupplier contended;
+
+    /**
+     * @param overall the limit shared by all lanes
+     * @param sharePercent percentage of the overall limit given to the lane
+     * @param contended indicates whether other lanes are transferring
+     */
+    public LaneBandwidthLimiter(BandwidthLimiter overall,
+                                int sharePercent,
+                                BooleanSupplier contended) {
+        this.overall = overall;
+        this.sharePercent = sharePercent;
+        this.contended = contended;
+    }
+
+    @Override
+    public void acquire(int bytes) throws InterruptedIOException {
+        super.acquire(bytes);
+        overall.acquire(bytes);
+    }
+
+    @Override
+    protected long getConfiguredLimit() {
+        long limit = overall.getCurrentLimit();
+        if (limit == UNLIMITED || !contended.getAsBoolean()) {
+            return UNLIMITED;
+        }
+        return Math.max(limit * sharePercent / 100, 1);
+    }
+
+    public int getSharePercent() {
+        return sharePercent;
+    }
+
+}
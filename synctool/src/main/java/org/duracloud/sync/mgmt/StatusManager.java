@@ -7,13 +7,17 @@
  */
 package org.duracloud.sync.mgmt;
 
+import org.apache.commons.io.FileUtils;
+import org.duracloud.common.stream.BandwidthLimiter;
 import org.duracloud.common.util.DateUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Singleton class which tracks the status of the sync queue
@@ -32,6 +36,11 @@ public class StatusManager {
     private ChangedList changedList;
     private String version;
 
+    private LongAdder walkFilesScanned;
+    private volatile long walkStartTime;
+    private volatile long walkEndTime;
+    private volatile List<SyncLane> syncLanes;
+
     private static StatusManager instance;
 
     public static StatusManager getInstance() {
@@ -54,6 +63,10 @@ public class StatusManager {
         startTime = DateUtil.nowLong();
         changedList = ChangedList.getInstance();
         recentlyCompleted = new LinkedList<>();
+        walkFilesScanned = new LongAdder();
+        walkStartTime = 0;
+        walkEndTime = 0;
+        syncLanes = Collections.emptyList();
     }
 
     public int getQueueSize() {
@@ -98,6 +111,63 @@ public class StatusManager {
         return new ArrayList<SyncSummary>(this.recentlyCompleted);
     }
 
+    /**
+     * Indicates that a walk of the content directories has begun
+     */
+    public void startingWalk() {
+        walkFilesScanned.reset();
+        walkEndTime = 0;
+        walkStartTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Indicates that a file has been considered by the directory walk,
+     * whether or not it was added to the changed list
+     */
+    public void walkFileScanned() {
+        walkFilesScanned.increment();
+    }
+
+    /**
+     * Indicates that the walk of the content directories has finished
+     */
+    public void completedWalk() {
+        walkEndTime = System.currentTimeMillis();
+    }
+
+    public long getWalkFilesScanned() {
+        return walkFilesScanned.sum();
+    }
+
+    public boolean isWalkComplete() {
+        return walkEndTime > 0;
+    }
+
+    /**
+     * @return the rate at which the directory walk is considering files,
+     *         up to the time the walk completed; 0 if no walk has started
+     */
+    public long getWalkFilesPerSecond() {
+        if (walkStartTime == 0) {
+            return 0;
+        }
+        long end = isWalkComplete() ? walkEndTime : System.currentTimeMillis();
+        long elapsed = Math.max(end - walkStartTime, 1);
+        return getWalkFilesScanned() * 1000 / elapsed;
+    }
+
+    /**
+     * @param syncLanes the lanes in which files are synced, included in the
+     *                  printable status
+     */
+    public void setSyncLanes(List<SyncLane> syncLanes) {
+        this.syncLanes = syncLanes;
+    }
+
+    public List<SyncLane> getSyncLanes() {
+        return syncLanes;
+    }
+
     public void setVersion(String version) {
         this.version = version;
     }
@@ -113,6 +183,19 @@ public class StatusManager {
         init();
     }
 
+    /**
+     * @return the current rate at which content is being transferred, along
+     *         with the bandwidth limit in effect
+     */
+    public String getPrintableTransferRate() {
+        BandwidthLimiter limiter = BandwidthLimiter.getInstance();
+        long limit = limiter.getCurrentLimit();
+        return FileUtils.byteCountToDisplaySize(limiter.getCurrentRate()) +
+               "/sec (limit: " + (limit > 0 ?
+               FileUtils.byteCountToDisplaySize(limit) + "/sec" :
+               "unlimited") + ")";
+    }
+
     public String getPrintableStatus() {
         StringBuilder status = new StringBuilder();
 
@@ -121,8 +204,18 @@ public class StatusManager {
         status.append("\n-------------------------------------------\n");
         status.append("Start Time: " + startTime + "\n");
         status.append("Current Time: " + DateUtil.nowVerbose() + "\n");
+        if (walkStartTime > 0) {
+            status.append("Directory Walk: " + getWalkFilesScanned() +
+                          " files scanned (" + getWalkFilesPerSecond() +
+                          " files/sec)" +
+                          (isWalkComplete() ? "" : ", in progress") + "\n");
+        }
         status.append("Sync Queue Size: " + getQueueSize() + "\n");
         status.append("Syncs In Process: " + getInWork() + "\n");
+        for (SyncLane lane : syncLanes) {
+            status.append(lane.getPrintableStatus() + "\n");
+        }
+        status.append("Transfer Rate: " + getPrintableTransferRate() + "\n");
         status.append("Successful Syncs: " + getSucceeded() + "\n");
         status.append("Failed Syncs: " + getFailed().size() + "\n");
         for(SyncSummary failedFile : getFailed()) {
@@ -0,0 +1,206 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.sync.mgmt;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.io.FileUtils;
+import org.duracloud.common.stream.BandwidthLimiter;
+
+/**
+ * A set of worker threads dedicated to syncing one class of files, along
+ * with a bounded queue of files waiting for a worker. Files marked as
+ * priority are taken from the queue ahead of all others, otherwise files
+ * are handled in the order they were added. Tracks the number of files and
+ * bytes handled by the lane. Transfers made by the lane are held to its
+ * bandwidth limiter, which is the overall limiter unless another is set.
+ */
+public class SyncLane {
+
+    private final String name;
+    private final int threads;
+    private final ThreadPoolExecutor executor;
+    private final Semaphore slots;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger active = new AtomicInteger();
+    private final LongAdder filesCompleted = new LongAdder();
+    private final LongAdder bytesCompleted = new LongAdder();
+    private final long startTime;
+    private volatile BandwidthLimiter bandwidthLimiter =
+        BandwidthLimiter.getInstance();
+
+    /**
+     * @param name describes the files handled by this lane
+     * @param threads the number of worker threads
+     * @param queueCapacity the number of files which may wait for a worker
+     */
+    public SyncLane(String name, int threads, int queueCapacity) {
+        this.name = name;
+        this.threads = threads;
+        this.executor =
+            new ThreadPoolExecutor(threads,
+                                   threads,
+                                   Long.MAX_VALUE,
+                                   TimeUnit.NANOSECONDS,
+                                   new PriorityBlockingQueue<Runnable>());
+        this.slots = new Semaphore(threads + queueCapacity);
+        this.startTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Waits up to the given time for space in this lane. Each successful
+     * call must be followed by a call to execute().
+     *
+     * @return true if space is available, false if the time elapsed
+     */
+    public boolean reserveSlot(long timeout, TimeUnit unit)
+        throws InterruptedException {
+        return slots.tryAcquire(timeout, unit);
+    }
+
+    /**
+     * Takes space in this lane if it is available, without waiting. Each
+     * successful call must be followed by a call to execute().
+     *
+     * @return true if space is available
+     */
+    public boolean reserveSlot() {
+        return slots.tryAcquire();
+    }
+
+    /**
+     * @return true if there is space in this lane
+     */
+    public boolean hasSpace() {
+        return slots.availablePermits() > 0;
+    }
+
+    /**
+     * Runs a task in this lane, using the slot previously reserved.
+     *
+     * @param task the task to run
+     * @param bytes the number of bytes the task will transfer
+     * @param priority true if the task should run ahead of others waiting
+     * @throws RejectedExecutionException if the lane has been shut down
+     */
+    public void execute(Runnable task, long bytes, boolean priority) {
+        try {
+            executor.execute(new LaneTask(task, bytes, priority,
+                                          sequence.getAndIncrement()));
+        } catch(RejectedExecutionException e) {
+            slots.release();
+            throw e;
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public void shutdownNow() {
+        executor.shutdownNow();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit)
+        throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BandwidthLimiter getBandwidthLimiter() {
+        return bandwidthLimiter;
+    }
+
+    public void setBandwidthLimiter(BandwidthLimiter bandwidthLimiter) {
+        this.bandwidthLimiter = bandwidthLimiter;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    public int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    public long getFilesCompleted() {
+        return filesCompleted.sum();
+    }
+
+    public long getBytesCompleted() {
+        return bytesCompleted.sum();
+    }
+
+    /**
+     * @return the average number of bytes handled per second since the
+     *         lane was created
+     */
+    public long getBytesPerSecond() {
+        long elapsed = Math.max(System.currentTimeMillis() - startTime, 1);
+        return getBytesCompleted() * 1000 / elapsed;
+    }
+
+    public String getPrintableStatus() {
+        return "Sync Lane " + name + ": " + active + " of " + threads +
+               " threads active, " + getQueuedCount() + " queued, " +
+               getFilesCompleted() + " files (" +
+               FileUtils.byteCountToDisplaySize(getBytesCompleted()) +
+               ") completed at " +
+               FileUtils.byteCountToDisplaySize(getBytesPerSecond()) + "/sec";
+    }
+
+    private class LaneTask implements Runnable, Comparable<LaneTask> {
+        private final Runnable task;
+        private final long bytes;
+        private final boolean priority;
+        private final long order;
+
+        LaneTask(Runnable task, long bytes, boolean priority, long order) {
+            this.task = task;
+            this.bytes = bytes;
+            this.priority = priority;
+            this.order = order;
+        }
+
+        @Override
+        public void run() {
+            active.incrementAndGet();
+            try {
+                task.run();
+            } finally {
+                active.decrementAndGet();
+                filesCompleted.increment();
+                bytesCompleted.add(bytes);
+                slots.release();
+            }
+        }
+
+        @Override
+        public int compareTo(LaneTask other) {
+            if(priority != other.priority) {
+                return priority ? -1 : 1;
+            }
+            return Long.compare(order, other.order);
+        }
+    }
+
+}
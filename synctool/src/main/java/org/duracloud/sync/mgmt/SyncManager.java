@@ -14,30 +14,56 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
-import java.util.concurrent.SynchronousQueue;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.commons.io.FileUtils;
+import org.duracloud.common.stream.BandwidthLimiter;
+
 /**
  * The SyncManager is responsible to watch for new entries in the ChangedList
  * and make sure those changes are pushed to the SyncEndpoint.
  *
- * @author: Bill Branan
- * Date: Mar 15, 2010
+ * Files are handed to one of two lanes based on their size, each with its
+ * own worker threads, so that a few very large files cannot occupy every
+ * worker while small files wait. The share of the workers given to the
+ * large file lane is configurable; each lane has at least one worker. While
+ * both lanes are transferring, each is held to the same share of the
+ * bandwidth limit. Files which were modified recently are handed out by
+ * the changed list ahead of the backlog of an initial sync, and within a
+ * lane are synced ahead of older files already waiting there.
+ *
+ * When a lane and its queue are full, a file for that lane is handed back
+ * to the changed list (without being recorded in its journal again) to be
+ * tried again later, as long as the other lane has space and files for it
+ * keep being found. Otherwise the hand-off waits for space in the lane
+ * rather than turning the file away.
  */
 public class SyncManager implements ChangeHandler {
 
     private final Logger logger = LoggerFactory.getLogger(SyncManager.class);
 
+    public static final long DEFAULT_LARGE_FILE_SIZE = 100 * 1024 * 1024;
+    public static final int DEFAULT_LARGE_FILE_SHARE = 25;
+    private static final int QUEUED_FILES_PER_THREAD = 10;
+    private static final long HAND_OFF_WAIT = 1000;
+    private static final int MAX_CONSECUTIVE_DEFERRALS = 100;
+
     private ChangeWatcher changeWatcher;
     private List<File> watchDirs;
     private SyncEndpoint endpoint;
     private ExecutorService watcherPool;
-    private ThreadPoolExecutor workerPool;
+    private SyncLane smallFileLane;
+    private SyncLane largeFileLane;
+    private long largeFileSize;
+    private volatile boolean running = true;
+    // Files handed back since a file was last accepted, only accessed by
+    // the change watcher thread
+    private int deferrals = 0;
     private ArrayList<SyncWorker> workerList;
 
     /**
@@ -52,6 +78,28 @@ public class SyncManager implements ChangeHandler {
                        SyncEndpoint endpoint,
                        int threads,
                        long frequency) {
+        this(watchDirs, endpoint, threads, frequency,
+             DEFAULT_LARGE_FILE_SIZE, DEFAULT_LARGE_FILE_SHARE);
+    }
+
+    /**
+     * Creates a SyncManager which, when started, will watch for updates to
+     * the ChangedList and kick off SyncWorkers to handle any changed files.
+     *
+     * @param endpoint
+     * @param threads
+     * @param frequency
+     * @param largeFileSize files of this size in bytes or larger are
+     *                      handled in the large file lane
+     * @param largeFileShare percentage of the threads, and of the bandwidth
+     *                       limit, given to the large file lane
+     */
+    public SyncManager(List<File> watchDirs,
+                       SyncEndpoint endpoint,
+                       int threads,
+                       long frequency,
+                       long largeFileSize,
+                       int largeFileShare) {
         logger.info("Starting Sync Manager with " + threads + " threads");
         this.watchDirs = watchDirs;
         this.endpoint = endpoint;
@@ -61,14 +109,28 @@ public class SyncManager implements ChangeHandler {
 
         // Create thread pool for changeWatcher
         watcherPool = Executors.newFixedThreadPool(1);
-        // Create thread pool for workers
-        workerPool =
-            new ThreadPoolExecutor(threads,
-                                   threads,
-                                   Long.MAX_VALUE,
-                                   TimeUnit.NANOSECONDS,
-                                   new SynchronousQueue(),
-                                   new ThreadPoolExecutor.AbortPolicy());
+        // Create worker lanes
+        this.largeFileSize = largeFileSize;
+        int largeThreads = Math.max(Math.round(threads * largeFileShare / 100f), 1);
+        int smallThreads = Math.max(threads - largeThreads, 1);
+        String sizeLimit = FileUtils.byteCountToDisplaySize(largeFileSize);
+        smallFileLane =
+            new SyncLane("files under " + sizeLimit, smallThreads,
+                         smallThreads * QUEUED_FILES_PER_THREAD);
+        largeFileLane =
+            new SyncLane("files of " + sizeLimit + " or more", largeThreads,
+                         largeThreads * QUEUED_FILES_PER_THREAD);
+        BandwidthLimiter limiter = BandwidthLimiter.getInstance();
+        smallFileLane.setBandwidthLimiter(
+            new LaneBandwidthLimiter(limiter, 100 - largeFileShare,
+                                     () -> largeFileLane.getActiveCount() > 0));
+        largeFileLane.setBandwidthLimiter(
+            new LaneBandwidthLimiter(limiter, largeFileShare,
+                                     () -> smallFileLane.getActiveCount() > 0));
+        logger.info("Sync Manager using " + smallThreads + " threads for " +
+                    smallFileLane.getName() + " and " + largeThreads +
+                    " threads for " + largeFileLane.getName());
+        StatusManager.getInstance().setSyncLanes(getLanes());
         workerList = new ArrayList<SyncWorker>();
     }
 
@@ -85,38 +147,84 @@ public class SyncManager implements ChangeHandler {
      */
     public void endSync() {
         logger.info("Closing Sync Manager, ending sync");
+        running = false;
         changeWatcher.endWatch();
         watcherPool.shutdown();
-        workerPool.shutdown();
+        smallFileLane.shutdown();
+        largeFileLane.shutdown();
     }
 
     public void terminateSync() {
         logger.info("Closing Sync Manager, terminating sync");
+        running = false;
         changeWatcher.endWatch();
         watcherPool.shutdownNow();
-        workerPool.shutdownNow();
+        smallFileLane.shutdownNow();
+        largeFileLane.shutdownNow();
     }
 
     /**
-     * Notifies the SyncManager that a file has changed
+     * Notifies the SyncManager that a file has changed. When the lane which
+     * handles files of its size is full, the file is turned away so that
+     * files for the other lane are not held up behind it, unless that lane
+     * is also full or no files for it are being found, in which case this
+     * waits until there is space for the file.
      *
      * @param changedFile the changed file
      * @returns true if file accepted for processing, false otherwise
      */
-    public synchronized boolean handleChangedFile(ChangedFile changedFile) {
-        File watchDir = getWatchDir(changedFile.getFile());
-        SyncWorker worker = new SyncWorker(changedFile, watchDir, endpoint);
+    public boolean handleChangedFile(ChangedFile changedFile) {
+        File file = changedFile.getFile();
+        long size = file.length();
+        boolean recent = file.lastModified() > System.currentTimeMillis() -
+                                               ChangedList.RECENT_CHANGE_WINDOW;
+        SyncLane lane = size >= largeFileSize ? largeFileLane : smallFileLane;
+        SyncLane otherLane =
+            lane == largeFileLane ? smallFileLane : largeFileLane;
 
-        try {
+        if(!lane.reserveSlot()) {
+            if(otherLane.hasSpace() &&
+               deferrals < MAX_CONSECUTIVE_DEFERRALS) {
+                deferrals++;
+                return false;
+            }
+            try {
+                while(!lane.reserveSlot(HAND_OFF_WAIT, TimeUnit.MILLISECONDS)) {
+                    if(!running) {
+                        return false;
+                    }
+                }
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        deferrals = 0;
+
+        File watchDir = getWatchDir(file);
+        SyncWorker worker = new SyncWorker(changedFile, watchDir, endpoint,
+                                           lane.getBandwidthLimiter());
+        synchronized (this) {
             addToWorkerList(worker);
-            workerPool.execute(worker);
+        }
+        try {
+            lane.execute(worker, size, recent);
             return true;
         } catch(RejectedExecutionException e) {
-            workerList.remove(worker);
+            synchronized (this) {
+                workerList.remove(worker);
+            }
             return false;
         }
     }
 
+    /**
+     * @return the lanes in which files are synced
+     */
+    public List<SyncLane> getLanes() {
+        return Arrays.asList(smallFileLane, largeFileLane);
+    }
+
     /*
      * Determines which of the watched directories includes the changed file.
      * Returns null if the file is not included in any watch directories.
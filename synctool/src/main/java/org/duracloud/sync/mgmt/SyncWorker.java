@@ -10,6 +10,7 @@ package org.duracloud.sync.mgmt;
 import java.io.File;
 import java.util.Date;
 
+import org.duracloud.common.stream.BandwidthLimiter;
 import org.duracloud.sync.endpoint.SyncResultType;
 import org.duracloud.sync.endpoint.MonitoredFile;
 import org.duracloud.sync.endpoint.SyncEndpoint;
@@ -47,12 +48,33 @@ public class SyncWorker implements Runnable {
      *            the endpoint to which the file should be synced
      */
     public SyncWorker(ChangedFile file, File watchDir, SyncEndpoint endpoint) {
+        this(file, watchDir, endpoint, BandwidthLimiter.getInstance());
+    }
+
+    /**
+     * Creates a SyncWorker to handle syncing a file
+     *
+     * @param file
+     *            the file to sync
+     * @param watchDir
+     *            dir under watch where file exists or null if file does not
+     *            reside in a watched directory
+     * @param endpoint
+     *            the endpoint to which the file should be synced
+     * @param bandwidthLimiter
+     *            the limiter to which reads of the file are held
+     */
+    public SyncWorker(ChangedFile file,
+                      File watchDir,
+                      SyncEndpoint endpoint,
+                      BandwidthLimiter bandwidthLimiter) {
         this.syncFile = file;
         this.watchDir = watchDir;
         this.syncEndpoint = endpoint;
         this.statusManager = StatusManager.getInstance();
         this.complete = false;
-        this.monitoredFile = new MonitoredFile(syncFile.getFile());
+        this.monitoredFile =
+            new MonitoredFile(syncFile.getFile(), bandwidthLimiter);
     }
 
     public void run() {
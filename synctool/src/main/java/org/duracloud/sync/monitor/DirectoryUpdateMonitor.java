@@ -9,7 +9,11 @@ package org.duracloud.sync.monitor;
 
 import java.io.File;
 import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 
 import org.apache.commons.io.monitor.FileAlterationMonitor;
 import org.apache.commons.io.monitor.FileAlterationObserver;
@@ -20,14 +24,31 @@ import org.slf4j.LoggerFactory;
 /**
  * Monitors of local file system directories for changes.
  *
- * @author: Bill Branan
- * Date: Mar 12, 2010
+ * Where the file system supports change notification, directories are
+ * watched using a WatchServiceDirectoryMonitor, so that changes are picked
+ * up as they happen without listing the directory trees. Directories on
+ * file systems without native notification, on network file systems (where
+ * changes made by other hosts are not reported) or which cannot be
+ * registered (for example when the limit on watches has been reached) are
+ * polled for changes.
  */
 public class DirectoryUpdateMonitor {
 
     private final Logger logger = LoggerFactory.getLogger(SyncManager.class);
 
+    /*
+     * Longest time a change is held back while waiting for further changes
+     * to the same file when using change notification.
+     */
+    protected static final long MAX_QUIET_PERIOD = 500;
+
+    private static final List<String> REMOTE_FS_TYPES =
+        Arrays.asList("nfs", "nfs4", "cifs", "smb", "smbfs", "smb2", "afpfs",
+                      "webdav", "davfs", "fuse.sshfs", "9p");
+
     private FileAlterationMonitor monitor;
+    private boolean polling = false;
+    private WatchServiceDirectoryMonitor watchMonitor;
 
     /**
      * Creates a directory update monitor which, when started, will notify
@@ -39,27 +60,42 @@ public class DirectoryUpdateMonitor {
     public DirectoryUpdateMonitor(List<File> directories,
                                   long pollFrequency,
                                   boolean syncDeletes) {
+        this(directories, pollFrequency, syncDeletes, true);
+    }
+
+    /**
+     * Creates a directory update monitor which, when started, will notify
+     * on changes within the given directories.
+     *
+     * @param directories to monitor
+     * @param pollFrequency how often the monitor should look for changes
+     *                      in directories which are polled
+     * @param useWatchService false if all directories should be polled
+     *                        rather than using file system notifications
+     */
+    public DirectoryUpdateMonitor(List<File> directories,
+                                  long pollFrequency,
+                                  boolean syncDeletes,
+                                  boolean useWatchService) {
         monitor = new FileAlterationMonitor(pollFrequency);
+        DirectoryListener listener = new DirectoryListener(syncDeletes);
+
+        if (useWatchService &&
+            WatchServiceDirectoryMonitor.isNativeWatchSupported()) {
+            try {
+                watchMonitor = new WatchServiceDirectoryMonitor(
+                    listener, Math.min(pollFrequency, MAX_QUIET_PERIOD));
+            } catch (IOException e) {
+                logger.warn("Unable to create watch service, directories " +
+                            "will be polled: " + e.getMessage());
+            }
+        }
 
         for (File watchDir : directories) {
             if (watchDir.exists()) {
-                FileAlterationObserver observer; 
-                if(watchDir.isDirectory()){
-                    observer =
-                        new FileAlterationObserver(watchDir);
-                }else {
-                    final File file = watchDir;
-                    observer =
-                        new FileAlterationObserver(watchDir.getParentFile(), new FileFilter(){
-                            @Override
-                            public boolean accept(File pathname) {
-                                return (file.equals(pathname));
-                            }});
+                if (!watch(watchDir)) {
+                    addObserver(watchDir, listener);
                 }
-
-                observer.addListener(new DirectoryListener(syncDeletes));
-                monitor.addObserver(observer);
-
             } else {
                 throw new RuntimeException("Path " +
                     watchDir.getAbsolutePath() +
@@ -68,17 +104,76 @@ public class DirectoryUpdateMonitor {
         }
     }
 
+    /*
+     * Registers the path with the watch service if possible. Returns false
+     * if the path must be polled.
+     */
+    private boolean watch(File watchDir) {
+        if (null == watchMonitor || isRemote(watchDir)) {
+            return false;
+        }
+        try {
+            watchMonitor.watch(watchDir);
+            logger.info("Watching {} for changes", watchDir.getAbsolutePath());
+            return true;
+        } catch (IOException e) {
+            logger.warn("Unable to watch " + watchDir.getAbsolutePath() +
+                        " for changes, it will be polled: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean isRemote(File watchDir) {
+        try {
+            String type = Files.getFileStore(watchDir.toPath()).type();
+            return REMOTE_FS_TYPES.contains(type.toLowerCase(Locale.ENGLISH));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void addObserver(File watchDir, DirectoryListener listener) {
+        FileAlterationObserver observer;
+        if(watchDir.isDirectory()){
+            observer =
+                new FileAlterationObserver(watchDir);
+        }else {
+            final File file = watchDir;
+            observer =
+                new FileAlterationObserver(watchDir.getParentFile(), new FileFilter(){
+                    @Override
+                    public boolean accept(File pathname) {
+                        return (file.equals(pathname));
+                    }});
+        }
+
+        observer.addListener(listener);
+        monitor.addObserver(observer);
+        polling = true;
+        logger.info("Polling {} for changes", watchDir.getAbsolutePath());
+    }
+
     /**
      * Starts the monitor watching for updates.
      */
     public void startMonitor() {
         logger.info("Starting Directory Update Monitor");
-        try {
-            monitor.start();
-        } catch(IllegalStateException e) {
-            logger.info("File alteration monitor is already started: " + e.getMessage());
-        } catch(Exception e) {
-            throw new RuntimeException(e.getMessage(), e);
+        if (null != watchMonitor) {
+            try {
+                watchMonitor.start();
+            } catch(IllegalStateException e) {
+                logger.info("Watch service monitor is already started: " +
+                            e.getMessage());
+            }
+        }
+        if (polling) {
+            try {
+                monitor.start();
+            } catch(IllegalStateException e) {
+                logger.info("File alteration monitor is already started: " + e.getMessage());
+            } catch(Exception e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
         }
     }
 
@@ -87,12 +182,17 @@ public class DirectoryUpdateMonitor {
      */
     public void stopMonitor() {
         logger.info("Stopping Directory Update Monitor");
-        try {
-            monitor.stop();
-        } catch(IllegalStateException e) {
-            logger.info("File alteration monitor is already stopped: " + e.getMessage());
-        } catch(Exception e) {
-            throw new RuntimeException(e.getMessage(), e);
+        if (null != watchMonitor) {
+            watchMonitor.stop();
+        }
+        if (polling) {
+            try {
+                monitor.stop();
+            } catch(IllegalStateException e) {
+                logger.info("File alteration monitor is already stopped: " + e.getMessage());
+            } catch(Exception e) {
+                throw new RuntimeException(e.getMessage(), e);
+            }
         }
     }
 
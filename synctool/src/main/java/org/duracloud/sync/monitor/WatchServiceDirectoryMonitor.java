@@ -0,0 +1,537 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.sync.monitor;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.monitor.FileAlterationListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Monitors local file system directories for changes using the file system
+ * change notifications provided by a WatchService, rather than by polling.
+ *
+ * Watched directories are registered recursively, and directories which are
+ * created while the monitor is running are registered as they appear (the
+ * files they already contain are reported as created). When the event queue
+ * for a directory overflows, the files in that directory alone are rescanned
+ * and reported as changed.
+ *
+ * The files known to be in each watched directory are tracked, so that when
+ * a directory is removed or moved out of the watched tree, each of the files
+ * it held is reported as deleted. A directory which is moved within the
+ * watched tree is reported as the deletion of its files from the old path
+ * and their creation at the new one.
+ *
+ * Events are debounced: a file is only reported once no further events for
+ * it have been seen for the quiet period, so a file which is written in many
+ * small pieces results in a single notification. A file which is modified
+ * continuously is still reported at least once every MAX_DELAY_FACTOR quiet
+ * periods.
+ */
+public class WatchServiceDirectoryMonitor implements Runnable {
+
+    private final Logger logger =
+        LoggerFactory.getLogger(WatchServiceDirectoryMonitor.class);
+
+    private static final int MAX_DELAY_FACTOR = 10;
+    private static final long IDLE_WAIT_MILLIS = 1000;
+
+    private final FileAlterationListener listener;
+    private final long quietPeriod;
+    private final WatchService watchService;
+    private final Map<WatchKey, WatchedDir> watchedDirs =
+        new ConcurrentHashMap<>();
+    private final Set<Path> watchedPaths = ConcurrentHashMap.newKeySet();
+
+    // Only accessed by the monitor thread
+    private final Map<Path, PendingEvent> pending = new LinkedHashMap<>();
+
+    private Thread thread;
+    private volatile boolean running = false;
+    private boolean stopped = false;
+
+    /**
+     * @param listener to be notified of changes
+     * @param quietPeriod time in milliseconds that must pass without further
+     *                    events for a file before the change is reported
+     * @throws IOException if the file system does not provide a WatchService
+     */
+    public WatchServiceDirectoryMonitor(FileAlterationListener listener,
+                                        long quietPeriod) throws IOException {
+        this.listener = listener;
+        this.quietPeriod = quietPeriod;
+        this.watchService = FileSystems.getDefault().newWatchService();
+    }
+
+    /**
+     * Indicates whether the default file system provides native change
+     * notification. Where it does not, the JDK falls back to a WatchService
+     * which polls, which provides no benefit over the polling monitor.
+     */
+    public static boolean isNativeWatchSupported() {
+        try (WatchService service =
+                 FileSystems.getDefault().newWatchService()) {
+            return !service.getClass().getName().contains("Polling");
+        } catch (IOException | UnsupportedOperationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Begins watching the given directory and all of its subdirectories. If
+     * a file is provided rather than a directory, only that file is watched.
+     *
+     * @param watchPath directory or file to watch
+     * @throws IOException if the path could not be registered, in which case
+     *                     no part of it is watched
+     */
+    public void watch(File watchPath) throws IOException {
+        Path path = watchPath.toPath().toAbsolutePath();
+        if (Files.isDirectory(path)) {
+            registerTree(path, false);
+        } else {
+            List<WatchKey> registered = new ArrayList<>();
+            register(path.getParent(), path.getFileName(), registered);
+        }
+    }
+
+    /*
+     * Registers the directory and all subdirectories. If any registration
+     * fails, those already completed are cancelled.
+     */
+    private void registerTree(Path root, final boolean reportFiles)
+        throws IOException {
+        final List<WatchKey> registered = new ArrayList<>();
+        final Map<Path, WatchedDir> dirs = new HashMap<>();
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir,
+                                                         BasicFileAttributes attrs)
+                    throws IOException {
+                    dirs.put(dir, register(dir, null, registered));
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file,
+                                                 BasicFileAttributes attrs) {
+                    if (!attrs.isDirectory()) {
+                        WatchedDir watchedDir = dirs.get(file.getParent());
+                        if (null != watchedDir) {
+                            watchedDir.fileSeen(file.getFileName());
+                        }
+                        if (reportFiles) {
+                            addPending(file, ENTRY_CREATE);
+                        }
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file,
+                                                       IOException e) {
+                    logger.warn("Unable to read {} for monitoring: {}",
+                                file, e.getMessage());
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            for (WatchKey key : registered) {
+                key.cancel();
+                WatchedDir removed = watchedDirs.remove(key);
+                if (null != removed) {
+                    watchedPaths.remove(removed.getDir());
+                }
+            }
+            throw e;
+        }
+    }
+
+    private WatchedDir register(Path dir,
+                                Path fileName,
+                                List<WatchKey> registered) throws IOException {
+        WatchKey key =
+            dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+        registered.add(key);
+        // A directory registered more than once shares a single key, which
+        // stays with the directory if it is moved
+        WatchedDir watchedDir = watchedDirs.get(key);
+        if (null == watchedDir) {
+            watchedDir = new WatchedDir(dir, fileName);
+            watchedDirs.put(key, watchedDir);
+        } else {
+            Path oldDir = watchedDir.getDir();
+            if (!oldDir.equals(dir)) {
+                logger.info("Watched directory {} has moved to {}",
+                            oldDir, dir);
+                watchedPaths.remove(oldDir);
+                watchedDir.moveTo(dir);
+            }
+            watchedDir.include(fileName);
+        }
+        if (watchedDir.isWholeDir()) {
+            watchedPaths.add(dir);
+        }
+        return watchedDir;
+    }
+
+    /**
+     * Starts the thread which processes change events.
+     */
+    public synchronized void start() {
+        if (running) {
+            throw new IllegalStateException("Monitor is already running");
+        }
+        if (stopped) {
+            throw new IllegalStateException("Monitor has been stopped");
+        }
+        running = true;
+        thread = new Thread(this, "watch-service-directory-monitor");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the monitor, no further updates will be reported. Changes which
+     * are waiting for their quiet period to pass are reported before the
+     * monitor thread exits. The watch service and the directories registered
+     * with it are released, whether or not the monitor was started. A
+     * stopped monitor cannot be restarted.
+     */
+    public synchronized void stop() {
+        if (stopped) {
+            return;
+        }
+        stopped = true;
+        running = false;
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            logger.warn("Error closing watch service: " + e.getMessage());
+        }
+        if (null != thread) {
+            thread.interrupt();
+            try {
+                thread.join(IDLE_WAIT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        watchedDirs.clear();
+        watchedPaths.clear();
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                WatchKey key =
+                    watchService.poll(getWaitTime(), TimeUnit.MILLISECONDS);
+                while (null != key) {
+                    processEvents(key);
+                    key = watchService.poll();
+                }
+                reportPending(false);
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                break;
+            } catch (Exception e) {
+                logger.error("Error processing file system events: " +
+                             e.getMessage(), e);
+            }
+        }
+        reportPending(true);
+    }
+
+    private long getWaitTime() {
+        long now = System.currentTimeMillis();
+        long wait = IDLE_WAIT_MILLIS;
+        for (PendingEvent event : pending.values()) {
+            wait = Math.min(wait, event.getDueTime() - now);
+        }
+        return Math.max(wait, 1);
+    }
+
+    private void processEvents(WatchKey key) {
+        WatchedDir watchedDir = watchedDirs.get(key);
+        if (null == watchedDir) {
+            key.cancel();
+            return;
+        }
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+            WatchEvent.Kind<?> kind = event.kind();
+            if (kind == OVERFLOW) {
+                logger.info("Change events lost for directory {}, rescanning",
+                            watchedDir.getDir());
+                rescan(watchedDir);
+                continue;
+            }
+
+            Path name = (Path) event.context();
+            if (!watchedDir.accepts(name)) {
+                continue;
+            }
+            Path child = watchedDir.getDir().resolve(name);
+
+            if (kind == ENTRY_CREATE && watchedDir.isWholeDir() &&
+                Files.isDirectory(child)) {
+                try {
+                    registerTree(child, true);
+                } catch (IOException e) {
+                    logger.warn("Unable to watch new directory {}: {}",
+                                child, e.getMessage());
+                }
+            } else if (kind == ENTRY_DELETE && watchedPaths.contains(child)) {
+                // A watched directory was removed or moved away
+                removeTree(child);
+            } else if (!Files.isDirectory(child)) {
+                if (kind == ENTRY_DELETE) {
+                    watchedDir.fileGone(name);
+                } else {
+                    watchedDir.fileSeen(name);
+                }
+                addPending(child, kind);
+            }
+        }
+
+        if (!key.reset() && watchedDirs.containsKey(key)) {
+            // The directory is no longer accessible (likely deleted)
+            removeTree(watchedDir.getDir());
+        }
+    }
+
+    /*
+     * Stops watching the directory and all watched directories below it,
+     * reporting each of the files they were known to hold as deleted. The
+     * directory may have been moved rather than deleted; if so it is
+     * registered again at its new path, with its files reported as created.
+     */
+    private void removeTree(Path root) {
+        Iterator<Map.Entry<WatchKey, WatchedDir>> entries =
+            watchedDirs.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<WatchKey, WatchedDir> entry = entries.next();
+            WatchedDir watchedDir = entry.getValue();
+            Path dir = watchedDir.getDir();
+            if (dir.startsWith(root)) {
+                for (Path fileName : watchedDir.getKnownFiles()) {
+                    addPending(dir.resolve(fileName), ENTRY_DELETE);
+                }
+                entry.getKey().cancel();
+                entries.remove();
+                watchedPaths.remove(dir);
+            }
+        }
+    }
+
+    /*
+     * Reports all files in the watched directory as changed and registers
+     * any subdirectories which are not already watched. Used when events
+     * for the directory have been lost.
+     */
+    private void rescan(WatchedDir watchedDir) {
+        Path dir = watchedDir.getDir();
+        if (!watchedDir.isWholeDir()) {
+            for (Path fileName : watchedDir.getFileNames()) {
+                Path file = dir.resolve(fileName);
+                addPending(file,
+                           Files.exists(file) ? ENTRY_MODIFY : ENTRY_DELETE);
+            }
+            return;
+        }
+
+        Set<Path> missing = new HashSet<>(watchedDir.getKnownFiles());
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path child : stream) {
+                if (!Files.isDirectory(child)) {
+                    missing.remove(child.getFileName());
+                    watchedDir.fileSeen(child.getFileName());
+                    addPending(child, ENTRY_MODIFY);
+                } else if (!watchedPaths.contains(child)) {
+                    try {
+                        registerTree(child, true);
+                    } catch (IOException e) {
+                        logger.warn("Unable to watch directory {}: {}",
+                                    child, e.getMessage());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Unable to rescan directory {}: {}",
+                        dir, e.getMessage());
+            return;
+        }
+
+        for (Path fileName : missing) {
+            watchedDir.fileGone(fileName);
+            addPending(dir.resolve(fileName), ENTRY_DELETE);
+        }
+    }
+
+    private void addPending(Path file, WatchEvent.Kind<?> kind) {
+        long now = System.currentTimeMillis();
+        PendingEvent event = pending.get(file);
+        if (null == event) {
+            pending.put(file, new PendingEvent(kind, now));
+        } else {
+            event.update(kind, now);
+        }
+    }
+
+    /*
+     * Notifies the listener of each pending change which is due, or of all
+     * pending changes if flush is true.
+     */
+    private void reportPending(boolean flush) {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<Path, PendingEvent>> entries =
+            pending.entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<Path, PendingEvent> entry = entries.next();
+            PendingEvent event = entry.getValue();
+            if (flush || event.getDueTime() <= now) {
+                entries.remove();
+                notifyListener(entry.getKey().toFile(), event.kind);
+            }
+        }
+    }
+
+    private void notifyListener(File file, WatchEvent.Kind<?> kind) {
+        try {
+            if (kind == ENTRY_DELETE) {
+                listener.onFileDelete(file);
+            } else if (kind == ENTRY_CREATE) {
+                listener.onFileCreate(file);
+            } else {
+                listener.onFileChange(file);
+            }
+        } catch (Exception e) {
+            logger.error("Error handling change to file " +
+                         file.getAbsolutePath() + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return the number of directories currently registered for events
+     */
+    public int getWatchedDirCount() {
+        return watchedDirs.size();
+    }
+
+    private static class WatchedDir {
+        private volatile Path dir;
+        // Set when only specific files in the directory are being watched
+        private Set<Path> fileNames;
+        // Files known to be in the directory
+        private final Set<Path> knownFiles = ConcurrentHashMap.newKeySet();
+
+        WatchedDir(Path dir, Path fileName) {
+            this.dir = dir;
+            if (null != fileName) {
+                this.fileNames = ConcurrentHashMap.newKeySet();
+                this.fileNames.add(fileName);
+            }
+        }
+
+        Path getDir() {
+            return dir;
+        }
+
+        void moveTo(Path dir) {
+            this.dir = dir;
+        }
+
+        void fileSeen(Path fileName) {
+            knownFiles.add(fileName);
+        }
+
+        void fileGone(Path fileName) {
+            knownFiles.remove(fileName);
+        }
+
+        Set<Path> getKnownFiles() {
+            return knownFiles;
+        }
+
+        synchronized void include(Path fileName) {
+            if (null == fileName) {
+                fileNames = null;
+            } else if (null != fileNames) {
+                fileNames.add(fileName);
+            }
+        }
+
+        synchronized boolean isWholeDir() {
+            return null == fileNames;
+        }
+
+        synchronized Set<Path> getFileNames() {
+            return fileNames;
+        }
+
+        synchronized boolean accepts(Path name) {
+            return null == fileNames || fileNames.contains(name);
+        }
+    }
+
+    private class PendingEvent {
+        private WatchEvent.Kind<?> kind;
+        private final long firstSeen;
+        private long lastSeen;
+
+        PendingEvent(WatchEvent.Kind<?> kind, long time) {
+            this.kind = kind;
+            this.firstSeen = time;
+            this.lastSeen = time;
+        }
+
+        void update(WatchEvent.Kind<?> newKind, long time) {
+            // A file created and then modified is still a new file
+            if (!(kind == ENTRY_CREATE && newKind == ENTRY_MODIFY)) {
+                kind = newKind;
+            }
+            lastSeen = time;
+        }
+
+        long getDueTime() {
+            return Math.min(lastSeen + quietPeriod,
+                            firstSeen + (quietPeriod * MAX_DELAY_FACTOR));
+        }
+    }
+
+}
@@ -9,31 +9,75 @@ package org.duracloud.sync.walker;
 
 import org.duracloud.common.retry.Retriable;
 import org.duracloud.common.retry.Retrier;
+import org.duracloud.common.util.ExternalSorter;
 import org.duracloud.sync.endpoint.SyncEndpoint;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * @author: Bill Branan
- * Date: Mar 29, 2010
+ * Removes content from the endpoint for which there is no longer a matching
+ * local file.
+ *
+ * Rather than checking the local file system once for each item in the
+ * endpoint, the relative paths of all local files and the IDs of all items
+ * in the endpoint are each sorted (spilling to disk when there are too
+ * many to hold in memory) and then compared in a single pass. Deletes are
+ * performed by a bounded pool of threads, optionally limited to a maximum
+ * number per second. In dry run mode no content is deleted, the IDs of the
+ * items which would have been deleted are written to a report file instead.
+ *
+ * The local paths are listed before the content items, and files may be
+ * added while the listing is under way (or a directory may not be listable,
+ * for lack of permission or because a link loops back to a parent
+ * directory). So before an item is considered to have no local file, the
+ * local file system is checked directly for a matching file.
  */
 public class DeleteChecker implements Runnable {
 
     private final Logger logger =
         LoggerFactory.getLogger(DeleteChecker.class);
 
+    public static final int DEFAULT_DELETE_THREADS = 4;
+    public static final String DRY_RUN_REPORT_NAME = "delete-check-report.txt";
+
     private SyncEndpoint syncEndpoint;
     private String spaceId;
     private Iterator<String> filesList;
     private List<File> syncDirs;
-    private boolean complete = false;
-    private boolean stopped = false;
+    private volatile boolean complete = false;
+    private volatile boolean stopped = false;
     private String prefix;
-    
+
+    private int deleteThreads = DEFAULT_DELETE_THREADS;
+    private int deletesPerSecond = 0;
+    private int maxInMemory = ExternalSorter.DEFAULT_MAX_IN_MEMORY;
+    private File workDir;
+    private boolean dryRun = false;
+
+    private long nextDeleteTime = 0;
+    private final AtomicLong deleted = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private long orphaned = 0;
+
     /**
      * Creates a delete checker
      *
@@ -67,35 +111,203 @@ public class DeleteChecker implements Runnable {
     public void run() {
         logger.info("Running Delete Checker");
 
-        while (filesList.hasNext() && !stopped) {
-            String contentId = filesList.next();
-            if(null != prefix) { // A prefix is being used
-                if(contentId.startsWith(prefix)) {
-                    if(!exists(contentId.substring(prefix.length()))) {
-                        deleteContent(contentId);
+        ExecutorService deleteExecutor =
+            Executors.newFixedThreadPool(deleteThreads);
+        // Bounds the number of deletes waiting on the pool
+        Semaphore deleteSlots = new Semaphore(deleteThreads * 2);
+        PrintWriter report = null;
+        try (ExternalSorter localPaths = new ExternalSorter(workDir, maxInMemory);
+             ExternalSorter contentIds = new ExternalSorter(workDir, maxInMemory)) {
+            for(File syncDir : syncDirs) {
+                listLocalPaths(syncDir, localPaths);
+            }
+            while (filesList.hasNext() && !stopped) {
+                contentIds.add(filesList.next());
+            }
+            logger.info("Delete Checker comparing " + contentIds.size() +
+                        " content items against " + localPaths.size() +
+                        " local paths");
+
+            if(dryRun) {
+                File reportFile = getDryRunReport();
+                report = new PrintWriter(new FileWriter(reportFile));
+                logger.info("Delete Checker dry run, content items which " +
+                            "would be deleted are listed in: " +
+                            reportFile.getAbsolutePath());
+            }
+
+            Iterator<String> localIt = localPaths.sortedIterator();
+            Iterator<String> contentIt = contentIds.sortedIterator();
+            String localPath = localIt.hasNext() ? localIt.next() : null;
+            while (contentIt.hasNext() && !stopped) {
+                String contentId = contentIt.next();
+                String path = contentId;
+                if(null != prefix) { // A prefix is being used
+                    if(!contentId.startsWith(prefix)) {
+                        // Content Id does not start with prefix
+                        handleOrphan(contentId, report, deleteExecutor,
+                                     deleteSlots);
+                        continue;
                     }
-                } else { // Content Id does not start with prefix
-                    deleteContent(contentId);
+                    // Removing a shared prefix does not change the ordering
+                    path = contentId.substring(prefix.length());
                 }
-            } else { // A prefix is not being used
-                if(!exists(contentId)) {
-                    deleteContent(contentId);
+
+                while(null != localPath && localPath.compareTo(path) < 0) {
+                    localPath = localIt.hasNext() ? localIt.next() : null;
                 }
+                boolean exists = path.equals(localPath) || existsLocally(path);
+                logger.debug("Delete check on file: " + path +
+                             ". File exists: " + exists);
+                if(!exists) {
+                    handleOrphan(contentId, report, deleteExecutor,
+                                 deleteSlots);
+                }
+            }
+        } catch(IOException | InterruptedException e) {
+            logger.error("Delete Checker failed due to: " + e.getMessage(), e);
+        } finally {
+            if(null != report) {
+                report.close();
+            }
+            deleteExecutor.shutdown();
+            try {
+                deleteExecutor.awaitTermination(Long.MAX_VALUE,
+                                                TimeUnit.MILLISECONDS);
+            } catch(InterruptedException e) {
+                deleteExecutor.shutdownNow();
             }
         }
+
+        logger.info("Delete Checker complete. Content items not found " +
+                    "locally: " + orphaned + ", deleted: " + deleted +
+                    ", failed to delete: " + failed);
         complete = true;
     }
 
-    private boolean exists(String fileToCheck) {
-        boolean exists = false;
-        for (File syncDir : syncDirs) {
-            if (new File(syncDir, fileToCheck).exists()) {
-                exists = true;
+    /*
+     * Adds the path of each file and directory in the sync dir, relative to
+     * the sync dir and using '/' as the separator (as in a content ID)
+     */
+    private void listLocalPaths(File syncDir, final ExternalSorter localPaths)
+        throws IOException {
+        if(!syncDir.isDirectory()) {
+            return;
+        }
+
+        final Path root = syncDir.toPath();
+        Files.walkFileTree(root, EnumSet.of(FileVisitOption.FOLLOW_LINKS),
+                           Integer.MAX_VALUE, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir,
+                                                     BasicFileAttributes attrs)
+                throws IOException {
+                if(stopped) {
+                    return FileVisitResult.TERMINATE;
+                }
+                if(!dir.equals(root)) {
+                    localPaths.add(toRelativePath(root, dir));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file,
+                                             BasicFileAttributes attrs)
+                throws IOException {
+                localPaths.add(toRelativePath(root, file));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e)
+                throws IOException {
+                // Includes links which loop back to a parent directory
+                logger.warn("Delete Checker unable to read " + file + ": " +
+                            e.getMessage());
+                localPaths.add(toRelativePath(root, file));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e)
+                throws IOException {
+                if(null != e) {
+                    // The listing of the directory failed part way through
+                    logger.warn("Delete Checker unable to list " + dir +
+                                ": " + e.getMessage());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /*
+     * Determines if a matching local file exists in any of the sync dirs.
+     * Catches files which were added after the local paths were listed or
+     * which are under a directory that could not be listed.
+     */
+    private boolean existsLocally(String path) {
+        for(File syncDir : syncDirs) {
+            if(new File(syncDir, path).exists()) {
+                return true;
             }
         }
-        logger.debug("Delete check on file: " + fileToCheck +
-                     ". File exists: " + exists);
-        return exists;
+        return false;
+    }
+
+    private String toRelativePath(Path root, Path path) {
+        String relativePath = root.relativize(path).toString();
+        if(File.separatorChar != '/') {
+            relativePath = relativePath.replace(File.separatorChar, '/');
+        }
+        return relativePath;
+    }
+
+    private void handleOrphan(final String contentId,
+                              PrintWriter report,
+                              ExecutorService deleteExecutor,
+                              final Semaphore deleteSlots)
+        throws InterruptedException {
+        orphaned++;
+        if(null != report) {
+            report.println(contentId);
+            return;
+        }
+
+        deleteSlots.acquire();
+        deleteExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    waitForDeleteRate();
+                    deleteContent(contentId);
+                } catch(InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    deleteSlots.release();
+                }
+            }
+        });
+    }
+
+    /*
+     * Waits until the next delete is permitted under the deletes per second
+     * limit, if there is one
+     */
+    private void waitForDeleteRate() throws InterruptedException {
+        if(deletesPerSecond <= 0) {
+            return;
+        }
+
+        long interval = TimeUnit.SECONDS.toNanos(1) / deletesPerSecond;
+        long now = System.nanoTime();
+        long deleteTime;
+        synchronized (this) {
+            deleteTime = Math.max(now, nextDeleteTime);
+            nextDeleteTime = deleteTime + interval;
+        }
+        TimeUnit.NANOSECONDS.sleep(deleteTime - now);
     }
 
     private void deleteContent(final String contentId) {
@@ -108,17 +320,67 @@ public class DeleteChecker implements Runnable {
                     return "success";
                 }
             });
+            deleted.incrementAndGet();
         } catch(Exception e) {
+            failed.incrementAndGet();
             logger.error("Failed to delete content item: " + contentId +
                          " from space: " + spaceId + " due to: " +
                          e.getMessage());
         }
     }
 
+    /**
+     * @param deleteThreads the number of threads used to perform deletes
+     */
+    public void setDeleteThreads(int deleteThreads) {
+        this.deleteThreads = Math.max(deleteThreads, 1);
+    }
+
+    /**
+     * @param deletesPerSecond the maximum number of deletes to perform each
+     *                         second, zero or less for no limit
+     */
+    public void setDeletesPerSecond(int deletesPerSecond) {
+        this.deletesPerSecond = deletesPerSecond;
+    }
+
+    /**
+     * @param maxInMemory the number of paths to hold in memory while sorting
+     *                    before spilling to disk
+     */
+    protected void setMaxInMemory(int maxInMemory) {
+        this.maxInMemory = maxInMemory;
+    }
+
+    /**
+     * @param workDir directory used for sort files and the dry run report,
+     *                the system temp directory is used if null
+     */
+    public void setWorkDir(File workDir) {
+        this.workDir = workDir;
+    }
+
+    /**
+     * @param dryRun if true, no content is deleted, the items which would
+     *               be deleted are written to the dry run report
+     */
+    public void setDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    public File getDryRunReport() {
+        File reportDir = workDir;
+        if(null == reportDir) {
+            reportDir = new File(System.getProperty("java.io.tmpdir"));
+        }
+        reportDir.mkdirs();
+        return new File(reportDir, DRY_RUN_REPORT_NAME);
+    }
+
     public boolean checkComplete() {
         return complete;
     }
-    
+
     public void stop() {
         this.stopped = true;
     }
@@ -132,4 +394,22 @@ public class DeleteChecker implements Runnable {
         (new Thread(deleteChecker)).start();
         return deleteChecker;
     }
+
+    public static DeleteChecker start(SyncEndpoint syncEndpoint,
+                                      String spaceId,
+                                      List<File> syncDirs,
+                                      String prefix,
+                                      int deleteThreads,
+                                      int deletesPerSecond,
+                                      File workDir,
+                                      boolean dryRun) {
+        DeleteChecker deleteChecker =
+            new DeleteChecker(syncEndpoint, spaceId, syncDirs, prefix);
+        deleteChecker.setDeleteThreads(deleteThreads);
+        deleteChecker.setDeletesPerSecond(deletesPerSecond);
+        deleteChecker.setWorkDir(workDir);
+        deleteChecker.setDryRun(dryRun);
+        (new Thread(deleteChecker)).start();
+        return deleteChecker;
+    }
 }
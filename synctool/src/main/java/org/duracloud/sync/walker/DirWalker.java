@@ -9,13 +9,20 @@ package org.duracloud.sync.walker;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 
-import org.apache.commons.io.DirectoryWalker;
 import org.duracloud.sync.mgmt.ChangedList;
 import org.duracloud.sync.mgmt.FileExclusionManager;
+import org.duracloud.sync.mgmt.StatusManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,31 +32,45 @@ import org.slf4j.LoggerFactory;
  * directories will also be added to the changed file list. This is the
  * starting point for synchronization.
  *
- * @author: Bill Branan
- * Date: Mar 17, 2010
+ * Directories are listed in parallel by a fork/join pool, so idle threads
+ * take on subdirectories queued by busy ones. This keeps many directory
+ * listings in flight, which matters most on file systems where each
+ * operation has high latency. Symbolic links to directories are followed,
+ * except where the link points back to one of its own parent directories.
  */
-public class DirWalker extends DirectoryWalker implements Runnable {
+public class DirWalker implements Runnable {
 
     private final Logger logger = LoggerFactory.getLogger(DirWalker.class);
 
+    public static final int DEFAULT_WALK_THREADS = 4;
+    private static final int PROGRESS_LOG_INTERVAL = 100000;
+
     private static DirWalker dirWalker;
-    private boolean continueWalk;
+    private volatile boolean continueWalk = true;
 
     private List<File> filesAndDirs;
- 
+
     protected final ChangedList changedList;
-    private int files = 0;
-    private boolean complete = false;
+    protected final int walkThreads;
+    private final AtomicInteger files = new AtomicInteger();
+    private volatile boolean complete = false;
     protected FileExclusionManager fileExclusionManager;
-    
+    private final StatusManager statusManager;
+
     protected DirWalker(List<File> filesAndDirs, FileExclusionManager fileExclusionManager) {
-        super();
+        this(filesAndDirs, fileExclusionManager, DEFAULT_WALK_THREADS);
+    }
+
+    protected DirWalker(List<File> filesAndDirs,
+                        FileExclusionManager fileExclusionManager,
+                        int walkThreads) {
         this.filesAndDirs = filesAndDirs;
         this.changedList = ChangedList.getInstance();
         this.fileExclusionManager = fileExclusionManager;
+        this.walkThreads = Math.max(walkThreads, 1);
+        this.statusManager = StatusManager.getInstance();
     }
 
-
     public void run() {
         walkDirs();
     }
@@ -59,77 +80,198 @@ public class DirWalker extends DirectoryWalker implements Runnable {
     }
 
     protected void walkDirs() {
+        continueWalk = true;
+        statusManager.startingWalk();
         try{
-            continueWalk = true;
-            for(File item : filesAndDirs) {
-                if (null != item && item.exists() && continueWalk) {
+            walk(filesAndDirs);
+            logger.info("Found " + files +
+                " files to sync in initial directory walk (" +
+                statusManager.getWalkFilesPerSecond() + " files/sec)");
+        }catch(Exception e){
+            logger.error("dir walker failed: " + e.getMessage(), e);
+        }
+
+        statusManager.completedWalk();
+        complete = true;
+    }
 
+    /**
+     * Walks each of the given files and directories, returning when all
+     * directory trees have been completely walked.
+     *
+     * @param items files and directories to walk
+     */
+    protected void walk(List<File> items) {
+        ForkJoinPool pool = new ForkJoinPool(walkThreads);
+        try {
+            List<ForkJoinTask<?>> tasks = new ArrayList<>();
+            for(File item : items) {
+                if (null != item && item.exists() && continueWalk) {
                     if(item.isDirectory()) { // Directory
-                        try {
-                            List results = new ArrayList();
-                            walk(item, results);
-                        } catch(IOException e) {
-                            throw new RuntimeException("Error walking directory " +
-                                item.getAbsolutePath() + ":" + e.getMessage(), e);
+                        if(handleDirectory(item, 0)) {
+                            tasks.add(pool.submit(new WalkTask(item, 0)));
                         }
                     } else { // File
-                        handleFile(item, 0, null);
+                        handleFile(item, item.lastModified(), 0);
                     }
                 } else {
                     String filename = "null";
                     if(item !=null){
                         filename = item.getAbsolutePath();
                     }
-                    
+
                     if(!continueWalk){
                         logger.info("Walk discontinued. Exiting walkDirs routine...");
                         break;
                     }
-                    
+
                     logger.warn("Skipping " + filename +
                                 ", as it does not exist");
                 }
             }
-            logger.info("Found " + files +
-                " files to sync in initial directory walk");
-        
-        }catch(Exception e){
-            logger.error("dir walker failed: " + e.getMessage(), e);
-        }
 
-        complete = true;
+            for(ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
     }
 
-    @Override
-    protected boolean handleDirectory(File directory,
-                                      int depth,
-                                      Collection results)
-        throws IOException {
-        return !this.fileExclusionManager.isExcluded(directory);
+    /**
+     * Determines whether a directory should be walked.
+     *
+     * @param directory the directory found
+     * @param depth of the directory relative to the starting directory
+     * @return true if the contents of the directory should be walked
+     */
+    protected boolean handleDirectory(File directory, int depth) {
+        if(this.fileExclusionManager.isExcluded(directory)) {
+            logger.info("{} matched one or more exclude rules: excluding " +
+                        "directory...", directory.getAbsolutePath());
+            return false;
+        }
+        return true;
     }
-    
-    
-    @Override
-    protected void handleFile(File file, int depth, Collection results) {
+
+    /**
+     * Handles a file found in the walk. May be called concurrently from
+     * multiple walk threads.
+     *
+     * @param file the file found
+     * @param lastModified modified time of the file, as read by the walk
+     * @param depth of the file relative to the starting directory
+     */
+    protected void handleFile(File file, long lastModified, int depth) {
         if( null == file){
             logger.warn("The file parameter is unexpectedly null. Ignoring...");
-        } else if(!this.fileExclusionManager.isExcluded(file)) {
-            if(changedList.addChangedFile(file)){
-                ++files;
-            }
-        } 
+            return;
+        }
+
+        statusManager.walkFileScanned();
+        // Excluded directories are not walked, the changed list checks
+        // the file itself
+        if(changedList.addChangedFile(file, lastModified)){
+            files.incrementAndGet();
+        }
+
+        long scanned = statusManager.getWalkFilesScanned();
+        if(scanned % PROGRESS_LOG_INTERVAL == 0) {
+            logger.info("Directory walk has scanned " + scanned + " files (" +
+                        statusManager.getWalkFilesPerSecond() + " files/sec)");
+        }
     }
 
+    /*
+     * Reads the attributes of a path, following links. Returns null if they
+     * cannot be read, such as for a broken link.
+     */
+    private BasicFileAttributes readAttributes(Path path) {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch(IOException e) {
+            return null;
+        }
+    }
+
+    /*
+     * Determines if a symbolic link points to a directory which contains
+     * the link, which would cause the walk to loop.
+     */
+    private boolean isLinkCycle(Path dir, Path link) {
+        try {
+            return dir.toRealPath().startsWith(link.toRealPath());
+        } catch(IOException e) {
+            logger.warn("Unable to resolve link " + link + ": " +
+                        e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * Lists a single directory, handling the files it contains and forking
+     * a new task for each subdirectory.
+     */
+    private class WalkTask extends RecursiveAction {
+        private final File dir;
+        private final int depth;
+
+        WalkTask(File dir, int depth) {
+            this.dir = dir;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if(!continueWalk) {
+                return;
+            }
 
-    @Override
-    protected boolean handleIsCancelled(File file,
-                                        int depth,
-                                        Collection results) throws IOException {
-        return !continueWalk;
+            Path dirPath = dir.toPath();
+            List<WalkTask> subTasks = new ArrayList<>();
+            int childDepth = depth + 1;
+            try (DirectoryStream<Path> stream =
+                     Files.newDirectoryStream(dirPath)) {
+                for(Path child : stream) {
+                    if(!continueWalk) {
+                        break;
+                    }
+
+                    File childFile = child.toFile();
+                    // A single stat of each entry gives both its type and
+                    // the modified time needed by the changed list
+                    BasicFileAttributes attrs = readAttributes(child);
+                    if(null != attrs && attrs.isDirectory()) {
+                        if(Files.isSymbolicLink(child) &&
+                           isLinkCycle(dirPath, child)) {
+                            logger.warn("Skipping " + child + ", as it links " +
+                                        "to a parent directory");
+                        } else if(handleDirectory(childFile, childDepth)) {
+                            subTasks.add(new WalkTask(childFile, childDepth));
+                        }
+                    } else {
+                        long lastModified = null == attrs ? 0 :
+                            attrs.lastModifiedTime().toMillis();
+                        handleFile(childFile, lastModified, childDepth);
+                    }
+                }
+            } catch(IOException e) {
+                logger.warn("Unable to list directory " +
+                            dir.getAbsolutePath() + ": " + e.getMessage());
+            }
+
+            invokeAll(subTasks);
+        }
     }
 
     public static DirWalker start(List<File> topDirs, FileExclusionManager fileExclusionManager) {
-        dirWalker = new DirWalker(topDirs, fileExclusionManager);
+        return start(topDirs, fileExclusionManager, DEFAULT_WALK_THREADS);
+    }
+
+    public static DirWalker start(List<File> topDirs,
+                                  FileExclusionManager fileExclusionManager,
+                                  int walkThreads) {
+        dirWalker = new DirWalker(topDirs, fileExclusionManager, walkThreads);
         (new Thread(dirWalker)).start();
         return dirWalker;
     }
@@ -139,7 +281,7 @@ public class DirWalker extends DirectoryWalker implements Runnable {
     }
 
     public int getFilesCount() {
-        return files;
+        return files.get();
     }
 
 }
@@ -9,7 +9,7 @@ package org.duracloud.sync.walker;
 
 import java.io.File;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import org.duracloud.sync.mgmt.FileExclusionManager;
@@ -36,33 +36,43 @@ public class RestartDirWalker extends DirWalker {
     protected RestartDirWalker(List<File> topDirs,
                                long lastBackup,
                                FileExclusionManager fileExclusionManager) {
-        super(topDirs, fileExclusionManager);
+        this(topDirs, lastBackup, fileExclusionManager, DEFAULT_WALK_THREADS);
+    }
+
+    protected RestartDirWalker(List<File> topDirs,
+                               long lastBackup,
+                               FileExclusionManager fileExclusionManager,
+                               int walkThreads) {
+        super(topDirs, fileExclusionManager, walkThreads);
         this.lastBackup = lastBackup;
-        changedDirs = new ArrayList<File>();
+        changedDirs = Collections.synchronizedList(new ArrayList<File>());
     }
 
     @Override
-    protected void walkDirs() {
-        super.walkDirs();
+    protected void walk(List<File> items) {
+        super.walk(items);
 
         // Walk and add all files in directories which have changed
         if(changedDirs.size() > 0) {
-            DirWalker dirWalker = new DirWalker(changedDirs, fileExclusionManager);
-            dirWalker.walkDirs();
+            List<File> dirs = new ArrayList<>(changedDirs);
+            DirWalker dirWalker =
+                new DirWalker(dirs, fileExclusionManager, walkThreads);
+            dirWalker.walk(dirs);
         }
     }
 
     @Override
-    protected void handleFile(File file, int depth, Collection results) {
-        if(file.lastModified() > lastBackup) {
-            super.handleFile(file, depth, results);
+    protected void handleFile(File file, long lastModified, int depth) {
+        if(lastModified > lastBackup) {
+            super.handleFile(file, lastModified, depth);
         }
     }
 
     @Override
-    protected boolean handleDirectory(File directory,
-                                      int depth,
-                                      Collection results) {
+    protected boolean handleDirectory(File directory, int depth) {
+        if(!super.handleDirectory(directory, depth)) {
+            return false;
+        }
         if(directory.lastModified() > lastBackup) {
             changedDirs.add(directory);
         }
@@ -72,8 +82,17 @@ public class RestartDirWalker extends DirWalker {
     public static DirWalker start(List<File> topDirs,
                                   long lastBackup, 
                                   FileExclusionManager fileExclusionManager) {
+        return start(topDirs, lastBackup, fileExclusionManager,
+                     DEFAULT_WALK_THREADS);
+    }
+
+    public static DirWalker start(List<File> topDirs,
+                                  long lastBackup,
+                                  FileExclusionManager fileExclusionManager,
+                                  int walkThreads) {
         RestartDirWalker dirWalker =
-            new RestartDirWalker(topDirs, lastBackup, fileExclusionManager);
+            new RestartDirWalker(topDirs, lastBackup, fileExclusionManager,
+                                 walkThreads);
         (new Thread(dirWalker)).start();
         return dirWalker;
     }
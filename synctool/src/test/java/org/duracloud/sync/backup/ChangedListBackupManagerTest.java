@@ -67,4 +67,31 @@ public class ChangedListBackupManagerTest  extends SyncTestBase {
         assertEquals(testFileName, changedFile.getFile().getName());
         assertNull(changedList.reserve());        
     }
+
+    @Test
+    public void testLoadLegacyBackup() throws Exception {
+        ChangedListBackupManager bkMan =
+            new ChangedListBackupManager(changedList, tempDir, 100,
+                                         new LinkedList<File>());
+        assertFalse(bkMan.hasBackups());
+
+        // A backup as written by earlier versions, with other entries
+        // alongside it in the backup directory
+        File backupDir =
+            new File(tempDir, ChangedListBackupManager.BACKUP_DIR);
+        new File(backupDir, "not-a-backup").mkdir();
+        String testFileName = "testfile" + System.currentTimeMillis();
+        changedList.addChangedFile(new File(tempDir, testFileName));
+        long backupTime = System.currentTimeMillis();
+        changedList.persist(new File(backupDir, String.valueOf(backupTime)));
+        changedList.clear();
+        assertTrue(bkMan.hasBackups());
+
+        assertEquals(backupTime, bkMan.loadBackup());
+        ChangedFile changedFile = changedList.reserve();
+        assertNotNull(changedFile);
+        assertEquals(testFileName, changedFile.getFile().getName());
+        assertNull(changedList.reserve());
+        bkMan.endBackup();
+    }
 }
@@ -86,6 +86,14 @@ public class SyncToolConfigParserTest {
         argsMap.remove("-r");
         argsMap.remove("-i");
         argsMap.remove("-t");
+        argsMap.remove("-k");
+        argsMap.remove("--delete-threads");
+        argsMap.remove("--delete-rate");
+        argsMap.remove("--delete-dry-run");
+        argsMap.remove("--large-file-size");
+        argsMap.remove("--large-file-share");
+        argsMap.remove("--bandwidth-limit");
+        argsMap.remove("--bandwidth-schedule");
         argsMap.remove("-m");
         argsMap.remove("-d");
         argsMap.remove("-l");
@@ -106,6 +114,19 @@ public class SyncToolConfigParserTest {
         assertNull(syncConfig.getStoreId());
         assertEquals(SyncToolConfigParser.DEFAULT_NUM_THREADS,
                      syncConfig.getNumThreads());
+        assertEquals(SyncToolConfigParser.DEFAULT_WALK_THREADS,
+                     syncConfig.getWalkThreads());
+        assertEquals(SyncToolConfigParser.DEFAULT_DELETE_THREADS,
+                     syncConfig.getDeleteThreads());
+        assertEquals(0, syncConfig.getDeleteRate());
+        assertFalse(syncConfig.isDeleteDryRun());
+        assertEquals(SyncToolConfigParser.DEFAULT_LARGE_FILE_SIZE *
+                     SyncToolConfigParser.MEGABYTE,
+                     syncConfig.getLargeFileSize());
+        assertEquals(SyncToolConfigParser.DEFAULT_LARGE_FILE_SHARE,
+                     syncConfig.getLargeFileShare());
+        assertEquals(0, syncConfig.getBandwidthLimit());
+        assertNull(syncConfig.getBandwidthSchedule());
         assertEquals(SyncToolConfigParser.DEFAULT_MAX_FILE_SIZE *
                      SyncToolConfigParser.GIGABYTE,
                      syncConfig.getMaxFileSize());
@@ -134,6 +155,28 @@ public class SyncToolConfigParserTest {
         addArgFailTest(argsMap, "-r", "nonNum", failMsg);
         failMsg = "Threads arg should require a numerical value";
         addArgFailTest(argsMap, "-t", "nonNum", failMsg);
+        failMsg = "Walk threads arg should require a positive number";
+        addArgFailTest(argsMap, "-k", "nonNum", failMsg);
+        addArgFailTest(argsMap, "-k", "0", failMsg);
+        failMsg = "Delete threads arg should require a positive number";
+        addArgFailTest(argsMap, "--delete-threads", "nonNum", failMsg);
+        addArgFailTest(argsMap, "--delete-threads", "0", failMsg);
+        failMsg = "Delete rate arg should require a positive number";
+        addArgFailTest(argsMap, "--delete-rate", "nonNum", failMsg);
+        addArgFailTest(argsMap, "--delete-rate", "0", failMsg);
+        failMsg = "Large file size arg should require a positive number";
+        addArgFailTest(argsMap, "--large-file-size", "nonNum", failMsg);
+        addArgFailTest(argsMap, "--large-file-size", "0", failMsg);
+        failMsg = "Large file share arg should be between 1 and 99";
+        addArgFailTest(argsMap, "--large-file-share", "nonNum", failMsg);
+        addArgFailTest(argsMap, "--large-file-share", "0", failMsg);
+        addArgFailTest(argsMap, "--large-file-share", "100", failMsg);
+        failMsg = "Bandwidth limit arg should require a rate";
+        addArgFailTest(argsMap, "--bandwidth-limit", "fast", failMsg);
+        addArgFailTest(argsMap, "--bandwidth-limit", "-1", failMsg);
+        failMsg = "Bandwidth schedule arg should require a valid schedule";
+        addArgFailTest(argsMap, "--bandwidth-schedule", "08:00=1M", failMsg);
+        addArgFailTest(argsMap, "--bandwidth-schedule", "8-18=1M", failMsg);
         failMsg = "Max file size arg should require a numerical value";
         addArgFailTest(argsMap, "-m", "nonNum", failMsg);
         failMsg = "Max file size arg should be between 1 and 5";
@@ -150,6 +193,14 @@ public class SyncToolConfigParserTest {
         argsMap.put("-i", "0");
         argsMap.put("-c", tempDir.getAbsolutePath());
         argsMap.put("-t", "5");
+        argsMap.put("-k", "8");
+        argsMap.put("--delete-threads", "6");
+        argsMap.put("--delete-rate", "100");
+        argsMap.put("--delete-dry-run", "");
+        argsMap.put("--large-file-size", "500");
+        argsMap.put("--large-file-share", "40");
+        argsMap.put("--bandwidth-limit", "2M");
+        argsMap.put("--bandwidth-schedule", "08:00-18:00=512K");
         argsMap.put("-u", "user");
         argsMap.put("-s", "mySpace");
         argsMap.put("-m", "2");
@@ -175,6 +226,22 @@ public class SyncToolConfigParserTest {
                      syncConfig.getContentDirs().get(0).getAbsolutePath());
         assertEquals(argsMap.get("-t"),
                      String.valueOf(syncConfig.getNumThreads()));
+        assertEquals(argsMap.get("-k"),
+                     String.valueOf(syncConfig.getWalkThreads()));
+        assertEquals(argsMap.get("--delete-threads"),
+                     String.valueOf(syncConfig.getDeleteThreads()));
+        assertEquals(argsMap.get("--delete-rate"),
+                     String.valueOf(syncConfig.getDeleteRate()));
+        assertTrue(syncConfig.isDeleteDryRun());
+        assertEquals(argsMap.get("--large-file-size"),
+                     String.valueOf(syncConfig.getLargeFileSize() /
+                                    SyncToolConfigParser.MEGABYTE));
+        assertEquals(argsMap.get("--large-file-share"),
+                     String.valueOf(syncConfig.getLargeFileShare()));
+        assertEquals(2 * SyncToolConfigParser.MEGABYTE,
+                     syncConfig.getBandwidthLimit());
+        assertEquals(argsMap.get("--bandwidth-schedule"),
+                     syncConfig.getBandwidthSchedule());
         assertEquals(argsMap.get("-u"), syncConfig.getUsername());
         assertEquals(argsMap.get("-s"), syncConfig.getSpaceId());
         assertEquals(argsMap.get("-m"),
@@ -0,0 +1,265 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.sync.mgmt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.duracloud.sync.SyncTestBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ChangedListJournalTest extends SyncTestBase {
+
+    private File journalDir;
+
+    @Before
+    public void setUp() throws Exception {
+        super.setUp();
+        journalDir = createTempDir("journal-dir");
+        FileUtils.cleanDirectory(journalDir);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        changedList.detachJournal();
+        super.tearDown();
+        FileUtils.deleteDirectory(journalDir);
+    }
+
+    private ChangedFile changedFile(String name) {
+        return new ChangedFile(new File("/content", name));
+    }
+
+    private List<String> replay(ChangedListJournal journal) throws IOException {
+        final List<String> names = new ArrayList<>();
+        journal.replay(file -> names.add(file.getFile().getName()));
+        return names;
+    }
+
+    @Test
+    public void testReplay() throws Exception {
+        ChangedListJournal journal = new ChangedListJournal(journalDir);
+        assertFalse(journal.hasCheckpoint());
+
+        journal.add(changedFile("a"));
+        journal.add(changedFile("b"));
+        journal.add(changedFile("c"));
+        journal.remove(changedFile("b").getFile().getAbsolutePath());
+        journal.add(changedFile("a"));
+        journal.checkpoint();
+        assertTrue(journal.hasCheckpoint());
+        journal.close();
+
+        List<String> names = replay(new ChangedListJournal(journalDir));
+        assertEquals(2, names.size());
+        assertEquals("c", names.get(0));
+        assertEquals("a", names.get(1));
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        ChangedListJournal journal = new ChangedListJournal(journalDir);
+        journal.add(changedFile("a"));
+        journal.clear();
+        journal.add(changedFile("b"));
+        journal.close();
+
+        List<String> names = replay(journal);
+        assertEquals(1, names.size());
+        assertEquals("b", names.get(0));
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        ChangedListJournal journal = new ChangedListJournal(journalDir, 100, 5);
+        for(int i = 0; i < 10; i++) {
+            journal.add(changedFile("file-" + i));
+        }
+        assertFalse(journal.needsCompaction(20));
+        assertTrue(journal.needsCompaction(3));
+
+        List<ChangedFile> live = new ArrayList<>();
+        live.add(changedFile("file-8"));
+        live.add(changedFile("file-9"));
+        journal.compact(live.iterator());
+        assertFalse(journal.needsCompaction(0));
+
+        journal.remove(changedFile("file-8").getFile().getAbsolutePath());
+        journal.add(changedFile("file-10"));
+        journal.close();
+
+        List<String> names = replay(journal);
+        assertEquals(2, names.size());
+        assertEquals("file-9", names.get(0));
+        assertEquals("file-10", names.get(1));
+
+        // Only the snapshot and the log segment which follows remain
+        assertEquals(2, journalDir.list((dir, name) ->
+            name.startsWith("changes-")).length);
+    }
+
+    @Test
+    public void testChangesDuringCompaction() throws Exception {
+        ChangedListJournal journal = new ChangedListJournal(journalDir, 100, 5);
+        for(int i = 0; i < 10; i++) {
+            journal.add(changedFile("file-" + i));
+        }
+
+        List<ChangedFile> live = new ArrayList<>();
+        live.add(changedFile("file-8"));
+        live.add(changedFile("file-9"));
+        ChangedListJournal.Compaction compaction = journal.startCompaction();
+        assertFalse(journal.needsCompaction(0));
+
+        // Changes made before the snapshot is written follow it
+        journal.remove(changedFile("file-8").getFile().getAbsolutePath());
+        journal.add(changedFile("file-10"));
+        journal.completeCompaction(compaction, live.iterator());
+        journal.close();
+
+        List<String> names = replay(journal);
+        assertEquals(2, names.size());
+        assertEquals("file-9", names.get(0));
+        assertEquals("file-10", names.get(1));
+    }
+
+    @Test
+    public void testTruncatedRecord() throws Exception {
+        ChangedListJournal journal = new ChangedListJournal(journalDir);
+        journal.add(changedFile("a"));
+        journal.add(changedFile("b"));
+        journal.close();
+
+        File segment = journalDir.listFiles((dir, name) ->
+            name.endsWith(".log"))[0];
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        List<String> names = replay(journal);
+        assertEquals(1, names.size());
+        assertEquals("a", names.get(0));
+    }
+
+    @Test
+    public void testUnsupportedVersion() throws Exception {
+        File segment = new File(journalDir, "changes-00000000000000000001.log");
+        try (DataOutputStream out =
+                 new DataOutputStream(new FileOutputStream(segment))) {
+            out.writeInt(ChangedListJournal.MAGIC);
+            out.writeInt(ChangedListJournal.FORMAT_VERSION + 1);
+            out.writeByte('L');
+            out.writeLong(System.currentTimeMillis());
+        }
+
+        try {
+            replay(new ChangedListJournal(journalDir));
+            fail("Exception expected");
+        } catch(IOException e) {
+            assertTrue(e.getMessage().contains("version"));
+        }
+    }
+
+    @Test
+    public void testChangedListWithJournal() throws Exception {
+        ChangedListJournal journal = new ChangedListJournal(journalDir);
+        changedList.setJournal(journal, 2);
+
+        for(int i = 0; i < 5; i++) {
+            changedList.addChangedFile(new File("/content/file-" + i));
+        }
+        // Only two files are held in memory, the rest are on disk
+        assertEquals(5, changedList.getListSize());
+        assertEquals(2, changedList.peek(10).size());
+
+        ChangedFile reserved = changedList.reserve();
+        assertEquals("file-0", reserved.getFile().getName());
+        reserved.remove();
+        changedList.checkpointJournal();
+        changedList.detachJournal();
+        assertEquals(4, changedList.getListSize());
+
+        // Restore from the journal
+        changedList.clear();
+        journal = new ChangedListJournal(journalDir);
+        changedList.setJournal(journal, 2);
+        assertEquals(4, changedList.restoreJournal(journal, null));
+        assertEquals(4, changedList.getListSize());
+
+        for(int i = 1; i < 5; i++) {
+            ChangedFile changedFile = changedList.reserve();
+            assertEquals("file-" + i, changedFile.getFile().getName());
+            changedFile.remove();
+        }
+        assertNull(changedList.reserve());
+        assertEquals(0, changedList.getListSizeIncludingReservedFiles());
+    }
+
+    @Test
+    public void testRemoveWhileCopyInOverflow() throws Exception {
+        ChangedListJournal journal = new ChangedListJournal(journalDir);
+        changedList.setJournal(journal, 1);
+
+        File file = new File("/content/file");
+        changedList.addChangedFile(new File("/content/other"));
+        changedList.addChangedFile(file);
+        changedList.addChangedFile(file);
+        // Both copies of the file are waiting in the overflow queue
+        assertEquals(3, changedList.getListSize());
+
+        changedList.reserve().remove();
+        ChangedFile reserved = changedList.reserve();
+        assertEquals("file", reserved.getFile().getName());
+        reserved.remove();
+        changedList.checkpointJournal();
+
+        // The second copy is still pending, so must still be in the journal
+        List<String> names = replay(new ChangedListJournal(journalDir));
+        assertEquals(1, names.size());
+        assertEquals("file", names.get(0));
+
+        reserved = changedList.reserve();
+        assertEquals("file", reserved.getFile().getName());
+        reserved.remove();
+        changedList.detachJournal();
+
+        assertEquals(0, replay(journal).size());
+    }
+
+    @Test
+    public void testReaddWhileReserved() throws Exception {
+        ChangedListJournal journal = new ChangedListJournal(journalDir);
+        changedList.setJournal(journal, 10);
+
+        File file = new File("/content/file");
+        changedList.addChangedFile(file);
+        ChangedFile reserved = changedList.reserve();
+        changedList.addChangedFile(file);
+        reserved.remove();
+        changedList.detachJournal();
+
+        // The file is still pending, so must still be in the journal
+        List<String> names = replay(journal);
+        assertEquals(1, names.size());
+    }
+
+}
@@ -113,6 +113,35 @@ public class ChangedListTest extends SyncTestBase {
         assertEquals(1, changedList.getListSize());
     }
 
+    @Test
+    public void testRecentFilesReservedFirst() throws Exception {
+        File oldFile = File.createTempFile("old", "file");
+        try {
+            long old = System.currentTimeMillis() -
+                       ChangedList.RECENT_CHANGE_WINDOW * 2;
+            assertTrue(oldFile.setLastModified(old));
+            changedList.addChangedFile(oldFile);
+            changedList.addChangedFile(changedFile);
+            assertEquals(2, changedList.getListSize());
+
+            ChangedFile reserved = changedList.reserve();
+            assertEquals(changedFile.getAbsolutePath(),
+                         reserved.getFile().getAbsolutePath());
+
+            // A recent file handed back is still reserved first
+            long version = changedList.getVersion();
+            reserved.unreserve();
+            assertEquals(version + 1, changedList.getVersion());
+            assertEquals(2, changedList.getListSize());
+            assertEquals(changedFile.getAbsolutePath(),
+                         changedList.reserve().getFile().getAbsolutePath());
+            assertEquals(oldFile.getAbsolutePath(),
+                         changedList.reserve().getFile().getAbsolutePath());
+        } finally {
+            oldFile.delete();
+        }
+    }
+
     @Test
     public void testDuplicateFilesReplacedOnAdd() throws Exception {
         changedList.addChangedFile(changedFile);
@@ -13,8 +13,11 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOCase;
+import org.apache.commons.io.filefilter.WildcardFileFilter;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -117,6 +120,58 @@ public class FileExclusionManagerTest  {
         assertFalse(testExcluded(testPath, fileWildStar));
     }
 
+    /*
+     * Verifies that the compiled rules give the same result as matching
+     * each ancestor against a WildcardFileFilter
+     */
+    @Test
+    public void testMatchesWildcardFileFilter() {
+        Random random = new Random(17);
+        String ruleChars = "abA.\u00e9\u00c9**??";
+        String nameChars = "abAB.\u00e9\u00c9";
+
+        for(int i = 0; i < 200; i++) {
+            List<String> rules = new ArrayList<>();
+            int ruleCount = random.nextInt(6);
+            for(int r = 0; r < ruleCount; r++) {
+                rules.add(randomString(random, ruleChars, 5));
+            }
+            FileExclusionManager fem = new FileExclusionManager(rules);
+            WildcardFileFilter filter =
+                new WildcardFileFilter(rules, IOCase.INSENSITIVE);
+
+            for(int f = 0; f < 50; f++) {
+                File file = new File(randomString(random, nameChars, 4));
+                int depth = random.nextInt(4);
+                for(int d = 0; d < depth; d++) {
+                    file = new File(file, randomString(random, nameChars, 4));
+                }
+                assertEquals("Rules " + rules + " on " + file,
+                             isExcludedByFilter(filter, file),
+                             fem.isExcluded(file));
+            }
+        }
+    }
+
+    private String randomString(Random random, String chars, int maxLength) {
+        StringBuilder value = new StringBuilder();
+        int length = random.nextInt(maxLength + 1);
+        for(int i = 0; i < length; i++) {
+            value.append(chars.charAt(random.nextInt(chars.length())));
+        }
+        return value.toString();
+    }
+
+    private boolean isExcludedByFilter(WildcardFileFilter filter, File file) {
+        do {
+            if(filter.accept(file)) {
+                return true;
+            }
+            file = file.getParentFile();
+        } while (file != null);
+        return false;
+    }
+
     private boolean testExcluded(String test,
                                  String... rules) {
         
@@ -0,0 +1,55 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.sync.mgmt;
+
+import static junit.framework.Assert.assertEquals;
+
+import org.duracloud.common.stream.BandwidthLimiter;
+import org.junit.Test;
+
+public class LaneBandwidthLimiterTest {
+
+    @Test
+    public void testShareWhenContended() {
+        BandwidthLimiter overall = new BandwidthLimiter();
+        overall.setBytesPerSecond(1000);
+
+        LaneBandwidthLimiter lane =
+            new LaneBandwidthLimiter(overall, 25, () -> true);
+        assertEquals(250, lane.getCurrentLimit());
+        assertEquals(25, lane.getSharePercent());
+    }
+
+    @Test
+    public void testFullLimitWhenAlone() {
+        BandwidthLimiter overall = new BandwidthLimiter();
+        overall.setBytesPerSecond(1000);
+
+        LaneBandwidthLimiter lane =
+            new LaneBandwidthLimiter(overall, 25, () -> false);
+        assertEquals(BandwidthLimiter.UNLIMITED, lane.getCurrentLimit());
+    }
+
+    @Test
+    public void testUnlimited() {
+        LaneBandwidthLimiter lane =
+            new LaneBandwidthLimiter(new BandwidthLimiter(), 25, () -> true);
+        assertEquals(BandwidthLimiter.UNLIMITED, lane.getCurrentLimit());
+    }
+
+    @Test
+    public void testOverallLimitApplies() throws Exception {
+        BandwidthLimiter overall = new BandwidthLimiter();
+        LaneBandwidthLimiter lane =
+            new LaneBandwidthLimiter(overall, 25, () -> false);
+        lane.acquire(100);
+        assertEquals(100, lane.getTotalBytes());
+        assertEquals(100, overall.getTotalBytes());
+    }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.sync.mgmt;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class SyncLaneTest {
+
+    /*
+     * Verifies that priority tasks run ahead of other waiting tasks, and
+     * that other tasks run in the order they were added
+     */
+    @Test
+    public void testPriority() throws Exception {
+        SyncLane lane = new SyncLane("test", 1, 10);
+        final CountDownLatch blocker = new CountDownLatch(1);
+        final List<String> completed =
+            Collections.synchronizedList(new ArrayList<String>());
+
+        assertTrue(lane.reserveSlot(1, TimeUnit.SECONDS));
+        lane.execute(new Runnable() {
+            public void run() {
+                try {
+                    blocker.await();
+                } catch(InterruptedException e) {
+                    // Finish
+                }
+            }
+        }, 0, false);
+
+        for(String name : Arrays.asList("old-1", "recent-1", "old-2",
+                                        "recent-2")) {
+            assertTrue(lane.reserveSlot(1, TimeUnit.SECONDS));
+            lane.execute(new RecordingTask(name, completed), 10,
+                         name.startsWith("recent"));
+        }
+        assertEquals(4, lane.getQueuedCount());
+
+        blocker.countDown();
+        lane.shutdown();
+        assertTrue(lane.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("recent-1", "recent-2", "old-1", "old-2"),
+                     completed);
+        assertEquals(5, lane.getFilesCompleted());
+        assertEquals(40, lane.getBytesCompleted());
+    }
+
+    /*
+     * Verifies that no more tasks are accepted than there are threads and
+     * queue space, until a task completes
+     */
+    @Test
+    public void testBoundedHandOff() throws Exception {
+        SyncLane lane = new SyncLane("test", 1, 1);
+        final CountDownLatch blocker = new CountDownLatch(1);
+        Runnable blockingTask = new Runnable() {
+            public void run() {
+                try {
+                    blocker.await();
+                } catch(InterruptedException e) {
+                    // Finish
+                }
+            }
+        };
+
+        for(int i = 0; i < 2; i++) {
+            assertTrue(lane.reserveSlot(1, TimeUnit.SECONDS));
+            lane.execute(blockingTask, 0, false);
+        }
+        assertFalse(lane.reserveSlot(100, TimeUnit.MILLISECONDS));
+
+        blocker.countDown();
+        assertTrue(lane.reserveSlot(1, TimeUnit.SECONDS));
+        lane.shutdownNow();
+    }
+
+    private static class RecordingTask implements Runnable {
+        private final String name;
+        private final List<String> completed;
+
+        RecordingTask(String name, List<String> completed) {
+            this.name = name;
+            this.completed = completed;
+        }
+
+        public void run() {
+            completed.add(name);
+        }
+    }
+
+}
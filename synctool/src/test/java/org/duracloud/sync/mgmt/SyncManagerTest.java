@@ -7,6 +7,7 @@
  */
 package org.duracloud.sync.mgmt;
 
+import org.apache.commons.io.FileUtils;
 import org.duracloud.error.ContentStoreException;
 import org.duracloud.sync.SyncTestBase;
 import org.duracloud.sync.endpoint.EndPointListener;
@@ -20,9 +21,12 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
 
 /**
  * @author: Bill Branan
@@ -58,6 +62,94 @@ public class SyncManagerTest extends SyncTestBase {
         syncManager.endSync();
     }
 
+    @Test
+    public void testSyncManagerLanes() throws Exception {
+        File tempDir = createTempDir("sync-lanes");
+        List<File> watchDirs = new ArrayList<File>();
+        watchDirs.add(tempDir);
+
+        SyncManager syncManager =
+            new SyncManager(watchDirs, new TestEndpoint(), 4, 100, 10, 50);
+        List<SyncLane> lanes = syncManager.getLanes();
+        assertEquals(2, lanes.size());
+        assertEquals(2, lanes.get(0).getThreads());
+        assertEquals(2, lanes.get(1).getThreads());
+        syncManager.beginSync();
+
+        for(int i=0; i < 3; i++) {
+            File smallFile = new File(tempDir, "small-file-" + i);
+            FileUtils.writeStringToFile(smallFile, "small");
+            changedList.addChangedFile(smallFile);
+        }
+        File largeFile = new File(tempDir, "large-file");
+        FileUtils.writeStringToFile(largeFile, "large file content");
+        changedList.addChangedFile(largeFile);
+
+        Thread.sleep(2000);
+        assertEquals(3, lanes.get(0).getFilesCompleted());
+        assertEquals(15, lanes.get(0).getBytesCompleted());
+        assertEquals(1, lanes.get(1).getFilesCompleted());
+        assertEquals(largeFile.length(), lanes.get(1).getBytesCompleted());
+
+        syncManager.endSync();
+        FileUtils.deleteDirectory(tempDir);
+    }
+
+    /*
+     * Verifies that when the large file lane is full, large files are handed
+     * back rather than holding up the small files behind them
+     */
+    @Test(timeout = 20000)
+    public void testFullLaneDoesNotBlock() throws Exception {
+        File tempDir = createTempDir("sync-full-lane");
+        List<File> watchDirs = new ArrayList<File>();
+        watchDirs.add(tempDir);
+
+        CountDownLatch blocker = new CountDownLatch(1);
+        SyncManager syncManager =
+            new SyncManager(watchDirs, new BlockingEndpoint(blocker),
+                            2, 100, 10, 50);
+        SyncLane largeLane = syncManager.getLanes().get(1);
+
+        File largeFile = new File(tempDir, "large-file");
+        FileUtils.writeStringToFile(largeFile, "large file content");
+        File smallFile = new File(tempDir, "small-file");
+        FileUtils.writeStringToFile(smallFile, "small");
+
+        int accepted = 0;
+        while(syncManager.handleChangedFile(new ChangedFile(largeFile))) {
+            accepted++;
+        }
+        assertFalse(largeLane.hasSpace());
+        assertEquals(11, accepted);
+        assertTrue(syncManager.handleChangedFile(new ChangedFile(smallFile)));
+
+        blocker.countDown();
+        syncManager.endSync();
+        FileUtils.deleteDirectory(tempDir);
+    }
+
+    private class BlockingEndpoint extends TestEndpoint {
+        private CountDownLatch blocker;
+
+        public BlockingEndpoint(CountDownLatch blocker) {
+            this.blocker = blocker;
+        }
+
+        @Override
+        public SyncResultType
+            syncFileAndReturnDetailedResult(MonitoredFile monitoredFile,
+                                            File watchDir) {
+            try {
+                blocker.await();
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.syncFileAndReturnDetailedResult(monitoredFile,
+                                                         watchDir);
+        }
+    }
+
     private class TestEndpoint implements SyncEndpoint {
         public boolean syncFile(MonitoredFile file, File watchDir) {
             handledFiles++;
@@ -0,0 +1,243 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.sync.monitor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.monitor.FileAlterationListenerAdaptor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class WatchServiceDirectoryMonitorTest {
+
+    private File tempDir;
+    private RecordingListener listener;
+    private WatchServiceDirectoryMonitor monitor;
+
+    @Before
+    public void setUp() throws Exception {
+        assumeTrue(WatchServiceDirectoryMonitor.isNativeWatchSupported());
+        tempDir = new File("target", "watch-monitor-dir");
+        FileUtils.deleteDirectory(tempDir);
+        tempDir.mkdirs();
+        listener = new RecordingListener();
+        monitor = new WatchServiceDirectoryMonitor(listener, 200);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (null != tempDir) {
+            FileUtils.deleteDirectory(tempDir);
+        }
+    }
+
+    @Test
+    public void testStopWithoutStart() throws Exception {
+        File subDir = new File(tempDir, "sub");
+        subDir.mkdir();
+        monitor.watch(tempDir);
+        assertEquals(2, monitor.getWatchedDirCount());
+
+        // Stopping a monitor which was never started releases its watches
+        monitor.stop();
+        assertEquals(0, monitor.getWatchedDirCount());
+        monitor.stop();
+
+        try {
+            monitor.start();
+            fail("A stopped monitor should not start");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testNewSubdirectory() throws Exception {
+        monitor.watch(tempDir);
+        monitor.start();
+        assertEquals(1, monitor.getWatchedDirCount());
+
+        File subDir = new File(tempDir, "sub");
+        subDir.mkdir();
+        Thread.sleep(500);
+        assertEquals(2, monitor.getWatchedDirCount());
+        assertTrue(listener.getChanges().isEmpty());
+
+        // Files added to the new directory are reported
+        File file = new File(subDir, "file.txt");
+        write(file, "test");
+        Thread.sleep(1000);
+        assertEquals(Collections.singletonList("create:" + file.getName()),
+                     listener.getChanges());
+
+        monitor.stop();
+    }
+
+    @Test
+    public void testDebounce() throws Exception {
+        File file = new File(tempDir, "file.txt");
+        write(file, "start");
+
+        monitor.watch(tempDir);
+        monitor.start();
+
+        // Writes within the quiet period are reported once
+        for (int i = 0; i < 5; i++) {
+            write(file, "update " + i);
+            Thread.sleep(50);
+        }
+        Thread.sleep(1000);
+        assertEquals(Collections.singletonList("change:" + file.getName()),
+                     listener.getChanges());
+
+        // A file created and deleted is reported as deleted
+        listener.clear();
+        File tempFile = new File(tempDir, "temp.txt");
+        write(tempFile, "temp");
+        tempFile.delete();
+        Thread.sleep(1000);
+        assertEquals(Collections.singletonList("delete:" + tempFile.getName()),
+                     listener.getChanges());
+
+        monitor.stop();
+    }
+
+    @Test
+    public void testSingleFile() throws Exception {
+        File file = new File(tempDir, "file.txt");
+        File other = new File(tempDir, "other.txt");
+        write(file, "start");
+
+        monitor.watch(file);
+        monitor.start();
+
+        write(other, "other");
+        write(file, "update");
+        Thread.sleep(1000);
+        assertEquals(Collections.singletonList("change:" + file.getName()),
+                     listener.getChanges());
+
+        monitor.stop();
+    }
+
+    @Test
+    public void testDirectoryMovedAway() throws Exception {
+        File subDir = new File(tempDir, "sub");
+        File nestedDir = new File(subDir, "nested");
+        nestedDir.mkdirs();
+        write(new File(subDir, "a.txt"), "a");
+        write(new File(nestedDir, "b.txt"), "b");
+
+        monitor.watch(tempDir);
+        monitor.start();
+        assertEquals(3, monitor.getWatchedDirCount());
+
+        // Only the parent directory sees the move, its files are deleted
+        // as far as the watched tree is concerned
+        File movedDir = new File(tempDir.getParentFile(), "watch-monitor-moved");
+        FileUtils.deleteDirectory(movedDir);
+        try {
+            assertTrue(subDir.renameTo(movedDir));
+            Thread.sleep(1000);
+            assertEquals(Arrays.asList("delete:a.txt", "delete:b.txt"),
+                         sorted(listener.getChanges()));
+            assertEquals(1, monitor.getWatchedDirCount());
+        } finally {
+            FileUtils.deleteDirectory(movedDir);
+        }
+
+        monitor.stop();
+    }
+
+    @Test
+    public void testDirectoryRenamed() throws Exception {
+        File subDir = new File(tempDir, "sub");
+        subDir.mkdir();
+        write(new File(subDir, "a.txt"), "a");
+
+        monitor.watch(tempDir);
+        monitor.start();
+
+        File renamedDir = new File(tempDir, "renamed");
+        assertTrue(subDir.renameTo(renamedDir));
+        Thread.sleep(1000);
+        assertEquals(Arrays.asList("create:a.txt", "delete:a.txt"),
+                     sorted(listener.getChanges()));
+        assertEquals(2, monitor.getWatchedDirCount());
+
+        // Changes in the renamed directory are reported at its new path
+        listener.clear();
+        File file = new File(renamedDir, "c.txt");
+        write(file, "c");
+        Thread.sleep(1000);
+        assertEquals(Collections.singletonList(file.getAbsoluteFile()),
+                     listener.getFiles());
+
+        monitor.stop();
+    }
+
+    private List<String> sorted(List<String> changes) {
+        Collections.sort(changes);
+        return changes;
+    }
+
+    private void write(File file, String value) throws Exception {
+        FileWriter writer = new FileWriter(file);
+        writer.write(value);
+        writer.close();
+    }
+
+    private class RecordingListener extends FileAlterationListenerAdaptor {
+        private final List<String> changes = new ArrayList<>();
+        private final List<File> files = new ArrayList<>();
+
+        @Override
+        public synchronized void onFileCreate(File file) {
+            changes.add("create:" + file.getName());
+            files.add(file);
+        }
+
+        @Override
+        public synchronized void onFileChange(File file) {
+            changes.add("change:" + file.getName());
+            files.add(file);
+        }
+
+        @Override
+        public synchronized void onFileDelete(File file) {
+            changes.add("delete:" + file.getName());
+            files.add(file);
+        }
+
+        public synchronized List<String> getChanges() {
+            return new ArrayList<>(changes);
+        }
+
+        public synchronized List<File> getFiles() {
+            return new ArrayList<>(files);
+        }
+
+        public synchronized void clear() {
+            changes.clear();
+            files.clear();
+        }
+    }
+
+}
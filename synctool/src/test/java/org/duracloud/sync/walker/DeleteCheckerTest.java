@@ -17,12 +17,16 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertNotNull;
 import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
 
 /**
  * @author: Bill Branan
@@ -143,4 +147,172 @@ public class DeleteCheckerTest extends SyncTestBase {
         deleteChecker.run();
     }
 
+    /*
+     * Verifies that:
+     * 1. Files in nested directories and across multiple content dirs are
+     *    matched when the sorted paths are spilled to disk
+     * 2. Each content item without a local file is deleted
+     */
+    @Test
+    public void testDeleteCheckerSpilled() throws Exception {
+        File dir1 = new File(tempDir, "dir1");
+        File dir2 = new File(tempDir, "dir2");
+        File subDir = new File(dir1, "sub");
+        subDir.mkdirs();
+        dir2.mkdirs();
+        FileUtils.writeStringToFile(new File(subDir, "file1"), "1");
+        FileUtils.writeStringToFile(new File(dir1, "file2"), "2");
+        FileUtils.writeStringToFile(new File(dir2, "file3"), "3");
+
+        List<String> filesList = new ArrayList<>();
+        filesList.add("sub/file1");
+        filesList.add("file3");
+        filesList.add("sub/deleted1");
+        filesList.add("file2");
+        filesList.add("a-deleted2");
+        filesList.add("z-deleted3");
+        Collections.shuffle(filesList);
+
+        List<File> syncDirs = new ArrayList<>();
+        syncDirs.add(dir1);
+        syncDirs.add(dir2);
+
+        EasyMock.expect(syncEndpoint.getFilesList())
+                .andReturn(filesList.iterator());
+        syncEndpoint.deleteContent(spaceId, "sub/deleted1");
+        EasyMock.expectLastCall().once();
+        syncEndpoint.deleteContent(spaceId, "a-deleted2");
+        EasyMock.expectLastCall().once();
+        syncEndpoint.deleteContent(spaceId, "z-deleted3");
+        EasyMock.expectLastCall().once();
+
+        replayMocks();
+
+        DeleteChecker deleteChecker =
+            new DeleteChecker(syncEndpoint, spaceId, syncDirs, null);
+        deleteChecker.setMaxInMemory(2);
+        deleteChecker.setDeleteThreads(2);
+        deleteChecker.setDeletesPerSecond(100);
+        deleteChecker.setWorkDir(new File(tempDir, "work"));
+        deleteChecker.run();
+        assertTrue(deleteChecker.checkComplete());
+    }
+
+    /*
+     * Verifies that content under a directory which cannot be listed is
+     * only deleted if there is no matching local file
+     */
+    @Test
+    public void testDeleteCheckerUnreadableDir() throws Exception {
+        File lockedDir = new File(tempDir, "locked");
+        lockedDir.mkdirs();
+        FileUtils.writeStringToFile(new File(lockedDir, "file1"), "1");
+
+        List<String> filesList = new ArrayList<>();
+        filesList.add("locked/file1");
+        filesList.add("locked/deleted1");
+
+        List<File> syncDirs = new ArrayList<>();
+        syncDirs.add(tempDir);
+
+        EasyMock.expect(syncEndpoint.getFilesList())
+                .andReturn(filesList.iterator());
+        syncEndpoint.deleteContent(spaceId, "locked/deleted1");
+        EasyMock.expectLastCall().once();
+
+        replayMocks();
+
+        // The directory can still be traversed, but not listed
+        lockedDir.setReadable(false, false);
+        try {
+            DeleteChecker deleteChecker =
+                new DeleteChecker(syncEndpoint, spaceId, syncDirs, null);
+            deleteChecker.setWorkDir(new File(tempDir, "work"));
+            deleteChecker.run();
+            assertTrue(deleteChecker.checkComplete());
+        } finally {
+            lockedDir.setReadable(true, false);
+        }
+    }
+
+    /*
+     * Verifies that content for a file which was added after the local files
+     * were listed is not deleted
+     */
+    @Test
+    public void testDeleteCheckerFileAddedDuringCheck() throws Exception {
+        final File addedFile = new File(tempDir, "added");
+        final List<String> filesList = new ArrayList<>();
+        filesList.add(addedFile.getName());
+        filesList.add("deleted1");
+
+        List<File> syncDirs = new ArrayList<>();
+        syncDirs.add(tempDir);
+
+        // The file is created as the endpoint listing is read, which is
+        // after the local files have been listed
+        Iterator<String> contentIds = new Iterator<String>() {
+            private final Iterator<String> it = filesList.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public String next() {
+                try {
+                    FileUtils.writeStringToFile(addedFile, "added");
+                } catch(IOException e) {
+                    throw new RuntimeException(e);
+                }
+                return it.next();
+            }
+        };
+
+        EasyMock.expect(syncEndpoint.getFilesList()).andReturn(contentIds);
+        syncEndpoint.deleteContent(spaceId, "deleted1");
+        EasyMock.expectLastCall().once();
+
+        replayMocks();
+
+        DeleteChecker deleteChecker =
+            new DeleteChecker(syncEndpoint, spaceId, syncDirs, null);
+        deleteChecker.setWorkDir(new File(tempDir, "work"));
+        deleteChecker.run();
+        assertTrue(deleteChecker.checkComplete());
+    }
+
+    /*
+     * Verifies that in dry run mode content is not deleted, but is listed in
+     * the report
+     */
+    @Test
+    public void testDeleteCheckerDryRun() throws Exception {
+        File tempFile = File.createTempFile("temp", "file", tempDir);
+        String delFile = "deletedFile";
+
+        List<String> filesList = new ArrayList<>();
+        filesList.add(tempFile.getName());
+        filesList.add(delFile);
+
+        List<File> syncDirs = new ArrayList<>();
+        syncDirs.add(tempDir);
+
+        EasyMock.expect(syncEndpoint.getFilesList())
+                .andReturn(filesList.iterator());
+
+        replayMocks();
+
+        DeleteChecker deleteChecker =
+            new DeleteChecker(syncEndpoint, spaceId, syncDirs, null);
+        deleteChecker.setWorkDir(new File(tempDir, "work"));
+        deleteChecker.setDryRun(true);
+        deleteChecker.run();
+
+        List<String> report =
+            FileUtils.readLines(deleteChecker.getDryRunReport());
+        assertEquals(Collections.singletonList(delFile), report);
+    }
+
 }
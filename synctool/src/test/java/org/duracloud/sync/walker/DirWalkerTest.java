@@ -10,6 +10,7 @@ package org.duracloud.sync.walker;
 import static junit.framework.Assert.*;
 import static org.easymock.EasyMock.*;
 import java.io.File;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -17,8 +18,10 @@ import java.util.List;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.TrueFileFilter;
 import org.duracloud.sync.SyncTestBase;
+import org.duracloud.sync.mgmt.ChangedFile;
 import org.duracloud.sync.mgmt.ChangedList;
 import org.duracloud.sync.mgmt.FileExclusionManager;
+import org.duracloud.sync.mgmt.StatusManager;
 import org.easymock.Mock;
 import org.junit.Test;
 
@@ -73,6 +76,52 @@ public class DirWalkerTest extends SyncTestBase {
         assertEquals(0, dirWalker.getFilesCount());
     }
     
+    @Test
+    public void testDirWalkerSymbolicLinks() throws Exception {
+        File tempDir = createTempDir("walker-links");
+        File outsideDir = createTempDir("walker-links-target");
+        try {
+            File subDir = new File(tempDir, "sub");
+            subDir.mkdir();
+            File file = new File(subDir, "file");
+            FileUtils.touch(file);
+            File outsideFile = new File(outsideDir, "outside-file");
+            FileUtils.touch(outsideFile);
+
+            // A link to a parent directory is skipped, others are followed
+            Files.createSymbolicLink(new File(subDir, "loop").toPath(),
+                                     tempDir.getAbsoluteFile().toPath());
+            Files.createSymbolicLink(new File(tempDir, "outside").toPath(),
+                                     outsideDir.getAbsoluteFile().toPath());
+
+            List<File> dirs = new ArrayList<File>();
+            dirs.add(tempDir);
+            replayAll();
+            DirWalker dirWalker =
+                new DirWalker(dirs, new FileExclusionManager(), 2);
+            dirWalker.walkDirs();
+            assertTrue(dirWalker.walkComplete());
+            assertEquals(2, dirWalker.getFilesCount());
+
+            List<String> found = new ArrayList<String>();
+            ChangedFile changedFile = changedList.reserve();
+            while(changedFile != null) {
+                found.add(changedFile.getFile().getName());
+                changedFile = changedList.reserve();
+            }
+            assertEquals(2, found.size());
+            assertTrue(found.contains("file"));
+            assertTrue(found.contains("outside-file"));
+
+            StatusManager statusManager = StatusManager.getInstance();
+            assertTrue(statusManager.isWalkComplete());
+            assertEquals(2, statusManager.getWalkFilesScanned());
+        } finally {
+            FileUtils.deleteDirectory(tempDir);
+            FileUtils.deleteDirectory(outsideDir);
+        }
+    }
+
     protected DirWalker createDirWalker(List<File> dirs) {
         DirWalker dirWalker = new DirWalker(dirs, fileExclusionManager);
         assertFalse(dirWalker.walkComplete());
@@ -9,7 +9,10 @@ package org.duracloud.syncui.controller;
 
 import javax.validation.Valid;
 
+import org.apache.commons.lang.StringUtils;
+import org.duracloud.common.stream.BandwidthSchedule;
 import org.duracloud.syncui.domain.AdvancedForm;
+import org.duracloud.syncui.domain.BandwidthForm;
 import org.duracloud.syncui.domain.DirectoryConfig;
 import org.duracloud.syncui.domain.DirectoryConfigForm;
 import org.duracloud.syncui.domain.DirectoryConfigs;
@@ -183,6 +186,15 @@ public class ConfigurationController {
         return f;
     }
     
+    @ModelAttribute("bandwidthForm")
+    public BandwidthForm bandwidthForm(){
+        BandwidthForm f = new BandwidthForm();
+        long limit = this.syncConfigurationManager.getBandwidthLimit();
+        f.setBandwidthLimit(limit > 0 ? String.valueOf(limit) : "");
+        f.setBandwidthSchedule(this.syncConfigurationManager.getBandwidthSchedule());
+        return f;
+    }
+
     @ModelAttribute("syncOptimizeManager")
     public SyncOptimizeManager syncOptimizeManager(){
         return this.syncOptimizeManager;
@@ -203,6 +215,30 @@ public class ConfigurationController {
     }
 
 
+    @RequestMapping(value = { "/bandwidth" }, method = RequestMethod.POST)
+    public View updateBandwidth(
+                                BandwidthForm form,
+                                RedirectAttributes redirectAttributes) {
+
+        String limit = form.getBandwidthLimit();
+        String schedule = form.getBandwidthSchedule();
+        log.debug("updating bandwidth limit to : {}, schedule to : {}",
+                  limit, schedule);
+        try {
+            long bytesPerSecond = StringUtils.isBlank(limit)
+                ? 0 : BandwidthSchedule.parseRate(limit);
+            if(StringUtils.isNotBlank(schedule)){
+                BandwidthSchedule.parse(schedule);
+            }
+            this.syncConfigurationManager.setBandwidthLimit(bytesPerSecond);
+            this.syncConfigurationManager.setBandwidthSchedule(schedule);
+        } catch (IllegalArgumentException ex) {
+            log.warn("invalid bandwidth settings: {}", ex.getMessage());
+            return createRedirect(redirectAttributes, "bandwidthInvalid");
+        }
+        return createRedirect(redirectAttributes, "bandwidthUpdated");
+    }
+
     @ModelAttribute("directoryConfigForm")
     public DirectoryConfigForm directoryConfigForm() {
         return new DirectoryConfigForm();
@@ -0,0 +1,29 @@
+/*
+ * The contents of this file are subject to the license and copyright
+ * detailed in the LICENSE and NOTICE files at the root of the source
+ * tree and available online at
+ *
+ *     http://duracloud.org/license/
+ */
+package org.duracloud.syncui.domain;
+
+public class BandwidthForm {
+    private String bandwidthLimit;
+    private String bandwidthSchedule;
+
+    public String getBandwidthLimit() {
+        return bandwidthLimit;
+    }
+
+    public void setBandwidthLimit(String bandwidthLimit) {
+        this.bandwidthLimit = bandwidthLimit;
+    }
+
+    public String getBandwidthSchedule() {
+        return bandwidthSchedule;
+    }
+
+    public void setBandwidthSchedule(String bandwidthSchedule) {
+        this.bandwidthSchedule = bandwidthSchedule;
+    }
+}
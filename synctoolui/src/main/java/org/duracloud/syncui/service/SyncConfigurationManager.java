@@ -99,5 +99,30 @@ public interface SyncConfigurationManager {
     public long getMaxFileSizeInBytes();
     
     public void setMaxFileSizeInBytes(long maxFileSize);
+
+    /**
+     * @return the maximum transfer rate in bytes per second, 0 for no limit
+     */
+    public long getBandwidthLimit();
+
+    /**
+     * Sets the maximum transfer rate, which takes effect immediately.
+     *
+     * @param bytesPerSecond the limit, 0 for no limit
+     */
+    public void setBandwidthLimit(long bytesPerSecond);
+
+    /**
+     * @return the time-of-day transfer limits, or null if there are none
+     */
+    public String getBandwidthSchedule();
+
+    /**
+     * Sets the time-of-day transfer limits, which take effect immediately.
+     *
+     * @param schedule limits in the form HH:mm-HH:mm=RATE[,...], or null
+     * @throws IllegalArgumentException if the schedule is not valid
+     */
+    public void setBandwidthSchedule(String schedule);
     
 }
@@ -15,6 +15,8 @@ import java.util.List;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang.StringUtils;
+import org.duracloud.common.stream.BandwidthLimiter;
+import org.duracloud.common.stream.BandwidthSchedule;
 import org.duracloud.sync.config.SyncToolConfig;
 import org.duracloud.syncui.config.SyncUIConfig;
 import org.duracloud.syncui.domain.DirectoryConfig;
@@ -62,7 +64,20 @@ public class SyncConfigurationManagerImpl implements SyncConfigurationManager {
             this.syncToolConfig = new SyncToolConfig();
             initializeDefaultValues();
         }
+        applyBandwidthLimit();
+    }
 
+    private void applyBandwidthLimit() {
+        BandwidthLimiter limiter = BandwidthLimiter.getInstance();
+        limiter.setBytesPerSecond(this.syncToolConfig.getBandwidthLimit());
+        String schedule = this.syncToolConfig.getBandwidthSchedule();
+        try {
+            limiter.setSchedule(null == schedule ? null :
+                                BandwidthSchedule.parse(schedule));
+        } catch (IllegalArgumentException ex) {
+            log.warn("ignoring invalid bandwidth schedule: " + ex.getMessage());
+            limiter.setSchedule(null);
+        }
     }
 
     private void initializeDefaultValues() {
@@ -296,4 +311,36 @@ public class SyncConfigurationManagerImpl implements SyncConfigurationManager {
     public long getMaxFileSizeInBytes() {
          return this.syncToolConfig.getMaxFileSize();
     }
+
+    @Override
+    public long getBandwidthLimit() {
+        return this.syncToolConfig.getBandwidthLimit();
+    }
+
+    @Override
+    public void setBandwidthLimit(long bytesPerSecond) {
+        if(bytesPerSecond < 0){
+            throw new IllegalArgumentException("Bandwidth limit must not be negative");
+        }
+        this.syncToolConfig.setBandwidthLimit(bytesPerSecond);
+        persistSyncToolConfig();
+        applyBandwidthLimit();
+    }
+
+    @Override
+    public String getBandwidthSchedule() {
+        return this.syncToolConfig.getBandwidthSchedule();
+    }
+
+    @Override
+    public void setBandwidthSchedule(String schedule) {
+        if(StringUtils.isBlank(schedule)){
+            schedule = null;
+        } else {
+            schedule = BandwidthSchedule.parse(schedule).toString();
+        }
+        this.syncToolConfig.setBandwidthSchedule(schedule);
+        persistSyncToolConfig();
+        applyBandwidthLimit();
+    }
 }
@@ -21,6 +21,7 @@ import org.apache.commons.lang3.event.EventListenerSupport;
 import org.duracloud.client.ContentStore;
 import org.duracloud.client.ContentStoreManager;
 import org.duracloud.common.model.Credential;
+import org.duracloud.common.stream.BandwidthLimiter;
 import org.duracloud.error.ContentStoreException;
 import org.duracloud.sync.backup.SyncBackupManager;
 import org.duracloud.sync.endpoint.DuraStoreChunkSyncEndpoint;
@@ -433,10 +434,11 @@ public class SyncProcessManagerImpl implements SyncProcessManager {
     private SyncProcessStats getProcessStatsImpl() {
         int queueSize = ChangedList.getInstance().getListSize();
         int errorSize = StatusManager.getInstance().getFailed().size();
+        BandwidthLimiter limiter = BandwidthLimiter.getInstance();
         return new SyncProcessStats(this.syncStartedDate,
                                     null,
                                     errorSize,
-                                    0,
+                                    limiter.getCurrentRate(),
                                     0,
                                     queueSize);
     }
@@ -178,6 +178,30 @@
                 </form:form>
               </fieldset>
 
+              <fieldset>
+                <legend>Bandwidth Limit</legend>
+                <form:form
+                  method="post"
+                  modelAttribute="bandwidthForm"
+                  action="${pageContext.request.contextPath}/configuration/bandwidth">
+
+                    <label >Optionally limit the rate at which content is
+                                transferred, in bytes per second followed by
+                                K, M or G (for example 512K). Leave empty for
+                                no limit. A schedule may set other limits for
+                                certain times of day, for example
+                                '08:00-18:00=512K,18:00-08:00=0'. Changes take
+                                effect immediately.</label>
+                    <label for="bandwidthLimit">Limit
+                    <form:input size="10" placeholder="unlimited" path="bandwidthLimit"/>
+                    </label>
+                    <label for="bandwidthSchedule">Schedule
+                    <form:input size="50%" placeholder="HH:mm-HH:mm=RATE" path="bandwidthSchedule"/>
+                    </label>
+                    <button type="submit">Save</button>
+                </form:form>
+              </fieldset>
+
               <fieldset>
                 <legend>Transfer Rate (Thread count)</legend>
               
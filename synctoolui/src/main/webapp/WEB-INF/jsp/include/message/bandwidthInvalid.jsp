@@ -0,0 +1,8 @@
+<%-- Copyright (c) 2009-2013 DuraSpace. All rights reserved.--%>
+<%@include file="../libraries.jsp"%>
+
+<p>The bandwidth settings were not updated. The limit must be a number of
+  bytes per second, optionally followed by K, M or G (for example 512K), and
+  the schedule must be a comma separated list of entries in the form
+  HH:mm-HH:mm=RATE (for example 08:00-18:00=512K).</p>
+
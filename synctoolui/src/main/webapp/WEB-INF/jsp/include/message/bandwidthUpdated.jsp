@@ -0,0 +1,5 @@
+<%-- Copyright (c) 2009-2013 DuraSpace. All rights reserved.--%>
+<%@include file="../libraries.jsp"%>
+
+<p>The bandwidth settings were successfully updated and are now in effect.</p>
+
@@ -170,6 +170,13 @@
                     <td>${queueSizeFormatted}</td>
                   </tr>
 
+                  <tr>
+                    <td><spring:message code="currentUploadSpeed" /></td>
+                    <td>
+                      <fmt:formatNumber value="${syncProcessStats.currentUpBytesPerSecond/(1000*1000)}" maxFractionDigits="2"/> MBs/sec
+                    </td>
+                  </tr>
+
                   <tr>
                     <td><spring:message code="errorCount" /></td>
                     <td>${syncProcessStats.errorCount}</td>
@@ -10,6 +10,7 @@ package org.duracloud.syncui.controller;
 import org.duracloud.syncui.AbstractTest;
 import org.duracloud.syncui.controller.ConfigurationController.UpdatePolicy;
 import org.duracloud.syncui.domain.AdvancedForm;
+import org.duracloud.syncui.domain.BandwidthForm;
 import org.duracloud.syncui.domain.DirectoryConfig;
 import org.duracloud.syncui.domain.DirectoryConfigForm;
 import org.duracloud.syncui.domain.DirectoryConfigs;
@@ -107,4 +108,37 @@ public class ConfigurationControllerTest extends AbstractTest {
         configurationController.updateOptions(f, new RedirectAttributesModelMap());
     }
 
+    @Test
+    public void testUpdateBandwidth() {
+        BandwidthForm f = new BandwidthForm();
+        f.setBandwidthLimit("2M");
+        f.setBandwidthSchedule("08:00-18:00=512K");
+        syncConfigurationManager.setBandwidthLimit(2 * 1024 * 1024);
+        EasyMock.expectLastCall().once();
+        syncConfigurationManager.setBandwidthSchedule("08:00-18:00=512K");
+        EasyMock.expectLastCall().once();
+
+        replay();
+        RedirectAttributesModelMap redirectAttributes =
+            new RedirectAttributesModelMap();
+        configurationController.updateBandwidth(f, redirectAttributes);
+        Assert.assertEquals("bandwidthUpdated",
+                            redirectAttributes.getFlashAttributes()
+                                              .get("messageInclude"));
+    }
+
+    @Test
+    public void testUpdateBandwidthInvalid() {
+        BandwidthForm f = new BandwidthForm();
+        f.setBandwidthLimit("fast");
+
+        replay();
+        RedirectAttributesModelMap redirectAttributes =
+            new RedirectAttributesModelMap();
+        configurationController.updateBandwidth(f, redirectAttributes);
+        Assert.assertEquals("bandwidthInvalid",
+                            redirectAttributes.getFlashAttributes()
+                                              .get("messageInclude"));
+    }
+
 }
@@ -11,6 +11,7 @@ import static org.junit.Assert.*;
 
 import java.io.File;
 
+import org.duracloud.common.stream.BandwidthLimiter;
 import org.duracloud.syncui.AbstractTest;
 import org.duracloud.syncui.domain.DirectoryConfigs;
 import org.duracloud.syncui.domain.DuracloudConfiguration;
@@ -101,6 +102,36 @@ public class SyncConfigurationManagerImplTest extends AbstractTest {
         assertEquals(mfs2,this.syncConfigurationManager.getMaxFileSizeInBytes());
     }
 
+    @Test
+    public void testGetSetBandwidth() {
+        BandwidthLimiter limiter = BandwidthLimiter.getInstance();
+
+        this.syncConfigurationManager.setBandwidthLimit(5000);
+        this.syncConfigurationManager.setBandwidthSchedule(null);
+        assertEquals(5000, limiter.getCurrentLimit());
+        setupConfigurationManager();
+        assertEquals(5000, this.syncConfigurationManager.getBandwidthLimit());
+        assertNull(this.syncConfigurationManager.getBandwidthSchedule());
+
+        this.syncConfigurationManager.setBandwidthSchedule("00:00-00:00=2K");
+        assertEquals(2048, limiter.getCurrentLimit());
+        setupConfigurationManager();
+        assertEquals("00:00-00:00=2K",
+                     this.syncConfigurationManager.getBandwidthSchedule());
+
+        try {
+            this.syncConfigurationManager.setBandwidthSchedule("invalid");
+            fail("Exception expected for invalid schedule");
+        } catch (IllegalArgumentException e) {
+            assertEquals("00:00-00:00=2K",
+                         this.syncConfigurationManager.getBandwidthSchedule());
+        }
+
+        this.syncConfigurationManager.setBandwidthLimit(0);
+        this.syncConfigurationManager.setBandwidthSchedule("");
+        assertEquals(0, limiter.getCurrentLimit());
+    }
+
     @Test
     public void testPurgeWorkDirectory() {
         File workDir = this.syncConfigurationManager.getWorkDirectory();